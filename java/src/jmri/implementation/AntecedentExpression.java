@@ -0,0 +1,244 @@
+package jmri.implementation;
+
+import java.util.List;
+import jmri.ConditionalVariable;
+import jmri.JmriException;
+
+/**
+ * Compiled form of the antecedent of a {@link DefaultConditional} with mixed
+ * logic, such as "R1 and (R2 or not R3)".
+ * <P>
+ * The expression is parsed once into a tree of operators and variable
+ * references, following exactly the rules of
+ * {@link DefaultConditional#parseCalculate}: operators of the same level are
+ * applied from left to right with no precedence between "and" and "or", and
+ * every referenced variable is evaluated, left to right, each time the
+ * expression is evaluated. Evaluation walks the tree without creating any
+ * objects.
+ * <P>
+ * Variables are referenced by their position in the state variable list, and
+ * are looked up in the list passed to {@link #evaluate(List)}, so the same
+ * compiled expression stays valid when the variables themselves are edited.
+ */
+final class AntecedentExpression {
+
+    private final Node root;
+
+    private AntecedentExpression(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile an antecedent.
+     *
+     * @param antecedent the expression as entered by the user; spaces are
+     *                   ignored and brackets or braces are treated as
+     *                   parentheses
+     * @return the compiled expression
+     * @throws JmriException             if the expression is not well formed
+     * @throws NumberFormatException     if a variable reference is not a number
+     * @throws IndexOutOfBoundsException if the expression ends too early
+     */
+    static AntecedentExpression compile(String antecedent) throws JmriException {
+        char[] ch = antecedent.toCharArray();
+        int n = 0;
+        for (int j = 0; j < ch.length; j++) {
+            if (ch[j] != ' ') {
+                if (ch[j] == '{' || ch[j] == '[') {
+                    ch[j] = '(';
+                } else if (ch[j] == '}' || ch[j] == ']') {
+                    ch[j] = ')';
+                }
+                ch[n++] = ch[j];
+            }
+        }
+        Parser parser = new Parser(new String(ch, 0, n).toUpperCase());
+        return new AntecedentExpression(parser.parseLevel());
+    }
+
+    /**
+     * Evaluate the expression.
+     *
+     * @param variableList the state variables, R1 being the first
+     * @return the value of the expression
+     * @throws IndexOutOfBoundsException if the expression refers to a variable
+     *                                   that is not in the list
+     */
+    boolean evaluate(List<ConditionalVariable> variableList) {
+        return root.evaluate(variableList);
+    }
+
+    private abstract static class Node {
+
+        abstract boolean evaluate(List<ConditionalVariable> variableList);
+    }
+
+    private static final class Variable extends Node {
+
+        private final int index;
+
+        Variable(int index) {
+            this.index = index;
+        }
+
+        @Override
+        boolean evaluate(List<ConditionalVariable> variableList) {
+            ConditionalVariable variable = variableList.get(index);
+            // the expression supplies its own NOTs, so undo the variable's
+            return variable.evaluate() != variable.isNegated();
+        }
+    }
+
+    private static final class Not extends Node {
+
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean evaluate(List<ConditionalVariable> variableList) {
+            return !operand.evaluate(variableList);
+        }
+    }
+
+    private static final class And extends Node {
+
+        private final Node left;
+        private final Node right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean evaluate(List<ConditionalVariable> variableList) {
+            // both sides are always evaluated, as the variables record their
+            // state when evaluated
+            boolean l = left.evaluate(variableList);
+            boolean r = right.evaluate(variableList);
+            return l && r;
+        }
+    }
+
+    private static final class Or extends Node {
+
+        private final Node left;
+        private final Node right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean evaluate(List<ConditionalVariable> variableList) {
+            boolean l = left.evaluate(variableList);
+            boolean r = right.evaluate(variableList);
+            return l || r;
+        }
+    }
+
+    /**
+     * Recursive descent parser accepting the same input as
+     * {@link DefaultConditional#parseCalculate}.
+     */
+    private static final class Parser {
+
+        private final String s;
+        private final String logicNot = Bundle.getMessage("LogicNOT");  // NOI18N
+        private final String logicAnd = Bundle.getMessage("LogicAND");  // NOI18N
+        private final String logicOr = Bundle.getMessage("LogicOR");  // NOI18N
+        private int i = 0;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        /**
+         * Parse from the current position up to and including the closing
+         * parenthesis of this level, or to the end of the expression.
+         */
+        Node parseLevel() throws JmriException {
+            Node left;
+            if (s.charAt(i) == '(') {
+                i++;
+                left = parseLevel();
+            } else if (s.charAt(i) == 'R') { //NOI18N
+                left = parseVariable();
+            } else if (logicNot.equals(s.substring(i, i + logicNot.length()))) {
+                i += logicNot.length();
+                if (s.charAt(i) == '(') {
+                    i++;
+                    left = new Not(parseLevel());
+                } else if (s.charAt(i) == 'R') { //NOI18N
+                    left = new Not(parseVariable());
+                } else {
+                    throw new JmriException(java.text.MessageFormat.format(
+                            DefaultConditional.rbx.getString("ParseError1"), new Object[]{s.substring(i)}));  // NOI18N
+                }
+            } else {
+                throw new JmriException(java.text.MessageFormat.format(
+                        DefaultConditional.rbx.getString("ParseError9"), new Object[]{s.substring(i)}));  // NOI18N
+            }
+            // crank away to the right until a matching parent is reached
+            while (i < s.length()) {
+                if (s.charAt(i) == ')') {
+                    i++;
+                    break;
+                }
+                boolean and;
+                if (logicAnd.equals(s.substring(i, i + logicAnd.length()))) {
+                    i += logicAnd.length();
+                    and = true;
+                } else if (logicOr.equals(s.substring(i, i + logicOr.length()))) {
+                    i += logicOr.length();
+                    and = false;
+                } else {
+                    throw new JmriException(java.text.MessageFormat.format(
+                            DefaultConditional.rbx.getString("ParseError2"), new Object[]{s.substring(i)}));  // NOI18N
+                }
+                Node right;
+                if (s.charAt(i) == '(') {
+                    i++;
+                    right = parseLevel();
+                } else if (s.charAt(i) == 'R') { //NOI18N
+                    right = parseVariable();
+                } else if ((i + 3) < s.length() && logicNot.equals(s.substring(i, i + logicNot.length()))) {
+                    i += logicNot.length();
+                    if (s.charAt(i) == '(') {
+                        i++;
+                        right = new Not(parseLevel());
+                    } else if (s.charAt(i) == 'R') { //NOI18N
+                        right = new Not(parseVariable());
+                    } else {
+                        throw new JmriException(java.text.MessageFormat.format(
+                                DefaultConditional.rbx.getString("ParseError3"), new Object[]{s.substring(i)}));  // NOI18N
+                    }
+                } else {
+                    throw new JmriException(java.text.MessageFormat.format(
+                            DefaultConditional.rbx.getString("ParseError9"), new Object[]{s.substring(i)}));  // NOI18N
+                }
+                left = and ? new And(left, right) : new Or(left, right);
+            }
+            return left;
+        }
+
+        /**
+         * Parse "Rn" or "Rnn" at the current position.
+         */
+        Node parseVariable() {
+            int k;
+            try {
+                k = Integer.parseInt(s.substring(i + 1, i + 3));
+                i += 2;
+            } catch (NumberFormatException | IndexOutOfBoundsException nfe) {
+                k = Integer.parseInt(String.valueOf(s.charAt(++i)));
+            }
+            i++;
+            return new Variable(k - 1);
+        }
+    }
+}
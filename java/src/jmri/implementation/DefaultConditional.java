@@ -85,6 +85,8 @@ public class DefaultConditional extends AbstractNamedBean
     // boolean expression of state variables
     private String _antecedent = "";
     private int _logicType = Conditional.ALL_AND;
+    // _antecedent compiled on first use; null until then
+    private AntecedentExpression _compiledAntecedent = null;
     // variables (antecedent) parameters
     private ArrayList<ConditionalVariable> _variableList = new ArrayList<>();
     // actions (consequent) parameters
@@ -127,6 +129,7 @@ public class DefaultConditional extends AbstractNamedBean
     public void setLogicType(int type, String antecedent) {
         _logicType = type;
         _antecedent = antecedent;
+        _compiledAntecedent = null;
         setState(NamedBean.UNKNOWN);
     }
 
@@ -256,21 +259,12 @@ public class DefaultConditional extends AbstractNamedBean
                 }
                 break;
             case Conditional.MIXED:
-                char[] ch = _antecedent.toCharArray();
-                int n = 0;
-                for (int j = 0; j < ch.length; j++) {
-                    if (ch[j] != ' ') {
-                        if (ch[j] == '{' || ch[j] == '[') {
-                            ch[j] = '(';
-                        } else if (ch[j] == '}' || ch[j] == ']') {
-                            ch[j] = ')';
-                        }
-                        ch[n++] = ch[j];
-                    }
-                }
                 try {
-                    DataPair dp = parseCalculate(new String(ch, 0, n), _variableList);
-                    result = dp.result;
+                    // parse the antecedent once, rather than on every calculation
+                    if (_compiledAntecedent == null) {
+                        _compiledAntecedent = AntecedentExpression.compile(_antecedent);
+                    }
+                    result = _compiledAntecedent.evaluate(_variableList);
                 } catch (NumberFormatException nfe) {
                     result = false;
                     log.error(getDisplayName() + " parseCalculation error antecedent= " + _antecedent + ", ex= " + nfe);  // NOI18N
@@ -239,7 +239,7 @@ public class DefaultLogix extends AbstractNamedBean
                 log.error("Invalid conditional system name when calculating Logix - " + cName);  // NOI18N
             } else {
                 // calculate without taking any action unless Logix is enabled
-                c.calculate(mEnabled, null);
+                InstanceManager.getDefault(LogixEngine.class).calculate(c, mEnabled, null);
             }
         }
     }
@@ -779,7 +779,7 @@ public class DefaultLogix extends AbstractNamedBean
                     break;
                 }
                 nb = namedBeanHandle.getBean();
-                nb.addPropertyChangeListener(listener, namedBeanHandle.getName(),
+                listener._engine.addListener(nb, namedBeanHandle.getName(), listener,
                         "Logix " + getDisplayName());  // NOI18N
                 return;
         }
@@ -807,7 +807,7 @@ public class DefaultLogix extends AbstractNamedBean
                         msg = "entryexit";  // NOI18N
                         break;
                     }
-                    ex.removePropertyChangeListener(listener);
+                    listener._engine.removeListener(ex, listener);
                     return;
                 default:
                     namedBeanHandle = listener.getNamedBean();
@@ -849,7 +849,7 @@ public class DefaultLogix extends AbstractNamedBean
                         break;
                     }
                     nb = namedBeanHandle.getBean();
-                    nb.removePropertyChangeListener(listener);
+                    listener._engine.removeListener(nb, listener);
                     return;
             }
         } catch (Exception ex) {
@@ -4,6 +4,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import jmri.Conditional;
+import jmri.InstanceManager;
 import jmri.NamedBean;
 import jmri.NamedBeanHandle;
 
@@ -33,6 +34,7 @@ public class JmriSimplePropertyListener implements PropertyChangeListener {
     ArrayList<Conditional> _clients;
     boolean _enabled;
     NamedBeanHandle<?> _namedBean;
+    LogixEngine _engine = InstanceManager.getDefault(LogixEngine.class);
 
     JmriSimplePropertyListener(String propName, int type, String varName, int varType, Conditional client) {
         _propertyName = propName;
@@ -93,10 +95,13 @@ public class JmriSimplePropertyListener implements PropertyChangeListener {
     }
 
     public void calculateClient(int idx, PropertyChangeEvent evt) {
-        _clients.get(idx).calculate(_enabled, evt);
+        _engine.requestCalculation(_clients.get(idx), _enabled, evt);
     }
 
     /**
+     * The {@link LogixEngine} passes the changes of the bean to this listener,
+     * and calculates each Conditional at most once per change.
+     * <P>
      * When _enabled is false, Conditional.calculate will compute the state of
      * the conditional, but will not trigger its actions. When _enabled is true,
      * Conditional.calculates its state and trigger its actions if its state has
@@ -112,7 +117,7 @@ public class JmriSimplePropertyListener implements PropertyChangeListener {
             return;
         }
         for (int i = 0; i < _clients.size(); i++) {
-            _clients.get(i).calculate(_enabled, evt);
+            _engine.requestCalculation(_clients.get(i), _enabled, evt);
         }
     }
 }
@@ -0,0 +1,473 @@
+package jmri.implementation;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import jmri.Conditional;
+import jmri.InstanceManager;
+import jmri.InstanceManagerAutoDefault;
+import jmri.NamedBean;
+import jmri.UserPreferencesManager;
+import jmri.util.ThreadingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the calculation of Conditionals when the beans referenced by their
+ * state variables change.
+ * <P>
+ * Each active {@link DefaultLogix} registers its property listeners here
+ * instead of on the beans. A single listener is added to a bean for each
+ * property that Logixs listen to, and passes a change of that property only to
+ * the Logix listeners registered for it, which ask here for their
+ * Conditionals to be calculated. A Conditional that depends on a bean through
+ * several state variables, or through several listeners, is then calculated
+ * once per change instead of once per listener.
+ * <P>
+ * When batching is on, calculations are not run immediately but are collected
+ * and run together on the layout thread; a Conditional asked for several times
+ * before then, for instance while a burst of sensor reports is delivered, is
+ * calculated once. Batching is off by default, so Conditionals are calculated
+ * before the bean change returns, as they always have been. It is set from
+ * the Options menu of the Logix table, and kept as a user preference.
+ * <P>
+ * The number of calculations of each Conditional and the time they took are
+ * recorded, to help find the expensive entries in large Logix tables.
+ */
+public class LogixEngine implements InstanceManagerAutoDefault {
+
+    /**
+     * Name of the user preference that turns batching on.
+     */
+    public static final String BATCHING_PREFERENCE = LogixEngine.class.getName() + ".batching"; // NOI18N
+
+    // bean, name and property (null for any) -> the listener on the bean
+    private final HashMap<Key, Dispatcher> dispatchers = new HashMap<>();
+    private final HashMap<NamedBean, ArrayList<Dispatcher>> beanDispatchers = new HashMap<>();
+    private final IdentityHashMap<JmriSimplePropertyListener, Dispatcher> listenerDispatchers = new IdentityHashMap<>();
+    // waiting calculations when batching, in order of first request
+    private final LinkedHashMap<Conditional, Request> pending = new LinkedHashMap<>();
+    private final Map<Conditional, Statistics> statistics = Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile boolean batching = false;
+
+    public LogixEngine() {
+        InstanceManager.getOptionalDefault(UserPreferencesManager.class).ifPresent((prefMgr) -> {
+            batching = prefMgr.getSimplePreferenceState(BATCHING_PREFERENCE);
+        });
+    }
+
+    /**
+     * Pass the changes of a bean to a Logix listener. The first Logix listener
+     * for a property of a bean adds one listener to the bean, which later
+     * Logix listeners for the same property share.
+     *
+     * @param bean        the bean referenced by a state variable
+     * @param beanRef     the name the bean is referenced by
+     * @param listener    the Logix listener
+     * @param listenerRef the reference to show as using the bean
+     */
+    public synchronized void addListener(NamedBean bean, String beanRef, JmriSimplePropertyListener listener, String listenerRef) {
+        if (listenerDispatchers.containsKey(listener)) {
+            return;
+        }
+        Key key = new Key(bean, beanRef, listener.getPropertyName());
+        Dispatcher d = dispatchers.get(key);
+        if (d == null) {
+            d = new Dispatcher(key);
+            d.add(listener, listenerRef);
+            dispatchers.put(key, d);
+            beanDispatchers.computeIfAbsent(bean, (b) -> new ArrayList<>()).add(d);
+            bean.addPropertyChangeListener(d, beanRef, d.getRef());
+        } else {
+            d.add(listener, listenerRef);
+            bean.updateListenerRef(d, d.getRef());
+        }
+        listenerDispatchers.put(listener, d);
+    }
+
+    /**
+     * Stop passing the changes of a bean to a Logix listener added by
+     * {@link #addListener(NamedBean, String, JmriSimplePropertyListener, String)}.
+     *
+     * @param bean     the bean the listener's changes come from
+     * @param listener the Logix listener
+     */
+    public synchronized void removeListener(NamedBean bean, JmriSimplePropertyListener listener) {
+        Dispatcher d = listenerDispatchers.remove(listener);
+        if (d == null) {
+            return;
+        }
+        d.remove(listener);
+        if (!d.isEmpty()) {
+            bean.updateListenerRef(d, d.getRef());
+            return;
+        }
+        dispatchers.remove(d.key);
+        ArrayList<Dispatcher> list = beanDispatchers.get(d.key.bean);
+        if (list != null) {
+            list.remove(d);
+            if (list.isEmpty()) {
+                beanDispatchers.remove(d.key.bean);
+            }
+        }
+        bean.removePropertyChangeListener(d);
+    }
+
+    /**
+     * Get the Conditionals that are calculated when a property of a bean
+     * changes.
+     *
+     * @param bean     the bean
+     * @param property the property name
+     * @return the dependent Conditionals, possibly empty
+     */
+    public List<Conditional> getDependents(NamedBean bean, String property) {
+        ArrayList<Conditional> result = new ArrayList<>();
+        for (JmriSimplePropertyListener listener : getListeners(bean, property)) {
+            for (Conditional c : listener._clients) {
+                if (!result.contains(c)) {
+                    result.add(c);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the Logix listeners that are passed a change to a property of a
+     * bean.
+     *
+     * @param bean     the bean
+     * @param property the property name
+     * @return the listeners, possibly empty
+     */
+    synchronized List<JmriSimplePropertyListener> getListeners(NamedBean bean, String property) {
+        ArrayList<JmriSimplePropertyListener> result = new ArrayList<>();
+        ArrayList<Dispatcher> list = beanDispatchers.get(bean);
+        if (list != null) {
+            for (Dispatcher d : list) {
+                if (d.key.property == null || d.key.property.equals(property)) {
+                    result.addAll(d.listeners);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return number of listeners added to beans
+     */
+    public synchronized int getBeanListenerCount() {
+        return dispatchers.size();
+    }
+
+    /**
+     * Ask for a Conditional to be calculated because of a change in one of the
+     * beans it refers to.
+     * <P>
+     * Without batching, the Conditional is calculated now, unless it has
+     * already been calculated for this same event. With batching, the request
+     * is merged with any other waiting request for the same Conditional and
+     * run later on the layout thread.
+     *
+     * @param conditional the Conditional to calculate
+     * @param enabled     true if actions may be taken
+     * @param evt         the change that caused the request
+     */
+    public void requestCalculation(Conditional conditional, boolean enabled, PropertyChangeEvent evt) {
+        if (!batching) {
+            Statistics s = getStatistics(conditional);
+            synchronized (s) {
+                if (evt != null && s.lastEvent == evt) {
+                    // already calculated through another listener
+                    s.skipped++;
+                    return;
+                }
+                s.lastEvent = evt;
+            }
+            calculate(conditional, enabled, evt);
+            return;
+        }
+        boolean schedule;
+        synchronized (this) {
+            schedule = pending.isEmpty();
+            Request r = pending.get(conditional);
+            if (r == null) {
+                pending.put(conditional, new Request(enabled, evt));
+            } else {
+                r.merge(conditional, enabled, evt);
+                getStatistics(conditional).incrementSkipped();
+            }
+        }
+        if (schedule) {
+            ThreadingUtil.runOnLayoutEventually(this::runPending);
+        }
+    }
+
+    /**
+     * Calculate a Conditional now, recording the time taken.
+     *
+     * @param conditional the Conditional to calculate
+     * @param enabled     true if actions may be taken
+     * @param evt         the change that caused the calculation, or null
+     */
+    public void calculate(Conditional conditional, boolean enabled, PropertyChangeEvent evt) {
+        long start = System.nanoTime();
+        try {
+            conditional.calculate(enabled, evt);
+        } finally {
+            getStatistics(conditional).record(System.nanoTime() - start);
+        }
+    }
+
+    private void runPending() {
+        ArrayList<Map.Entry<Conditional, Request>> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(pending.entrySet());
+            pending.clear();
+        }
+        log.trace("calculating {} conditionals", batch.size());
+        for (Map.Entry<Conditional, Request> e : batch) {
+            try {
+                calculate(e.getKey(), e.getValue().enabled, e.getValue().evt);
+            } catch (RuntimeException ex) {
+                log.error("Exception calculating {}", e.getKey().getSystemName(), ex);
+            }
+        }
+    }
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * Set whether calculations are batched, until the program is next run.
+     *
+     * @param batching true to collect calculations and run them together on
+     *                 the layout thread; false to calculate immediately
+     * @see #BATCHING_PREFERENCE
+     */
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+    }
+
+    /**
+     * @return number of Conditionals waiting to be calculated
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @param conditional the Conditional
+     * @return number of times it has been calculated
+     */
+    public long getCalculationCount(Conditional conditional) {
+        Statistics s = statistics.get(conditional);
+        return s == null ? 0 : s.getCount();
+    }
+
+    /**
+     * @param conditional the Conditional
+     * @return number of requests that were satisfied by another calculation
+     *         for the same change
+     */
+    public long getSkippedCount(Conditional conditional) {
+        Statistics s = statistics.get(conditional);
+        return s == null ? 0 : s.getSkipped();
+    }
+
+    /**
+     * @param conditional the Conditional
+     * @return total time in milliseconds spent calculating it, including any
+     *         actions it took
+     */
+    public double getTotalCalculationTime(Conditional conditional) {
+        Statistics s = statistics.get(conditional);
+        return s == null ? 0.0 : s.getTotalTime() / 1000000.0;
+    }
+
+    /**
+     * @param conditional the Conditional
+     * @return longest time in milliseconds spent on one calculation
+     */
+    public double getMaxCalculationTime(Conditional conditional) {
+        Statistics s = statistics.get(conditional);
+        return s == null ? 0.0 : s.getMaxTime() / 1000000.0;
+    }
+
+    /**
+     * Clear the calculation counts and times of every Conditional.
+     */
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    private Statistics getStatistics(Conditional conditional) {
+        synchronized (statistics) {
+            return statistics.computeIfAbsent(conditional, (c) -> new Statistics());
+        }
+    }
+
+    private static class Statistics {
+
+        private long count = 0;
+        private long skipped = 0;
+        private long totalTime = 0;
+        private long maxTime = 0;
+        private PropertyChangeEvent lastEvent = null;
+
+        synchronized void record(long time) {
+            count++;
+            totalTime += time;
+            maxTime = Math.max(maxTime, time);
+        }
+
+        synchronized void incrementSkipped() {
+            skipped++;
+        }
+
+        synchronized long getCount() {
+            return count;
+        }
+
+        synchronized long getSkipped() {
+            return skipped;
+        }
+
+        synchronized long getTotalTime() {
+            return totalTime;
+        }
+
+        synchronized long getMaxTime() {
+            return maxTime;
+        }
+    }
+
+    /**
+     * A bean, the name it is referenced by, and a property of it.
+     */
+    private static class Key {
+
+        private final NamedBean bean;
+        private final String beanRef;
+        private final String property;
+
+        Key(NamedBean bean, String beanRef, String property) {
+            this.bean = bean;
+            this.beanRef = beanRef;
+            this.property = property;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return (bean == other.bean) && Objects.equals(beanRef, other.beanRef)
+                    && Objects.equals(property, other.property);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(bean), beanRef, property);
+        }
+    }
+
+    /**
+     * The listener on a bean for one property, passing its changes to the
+     * Logix listeners for that property.
+     */
+    private class Dispatcher implements PropertyChangeListener {
+
+        private final Key key;
+        private final ArrayList<JmriSimplePropertyListener> listeners = new ArrayList<>();
+        private final ArrayList<String> refs = new ArrayList<>();
+
+        Dispatcher(Key key) {
+            this.key = key;
+        }
+
+        void add(JmriSimplePropertyListener listener, String ref) {
+            listeners.add(listener);
+            refs.add(ref);
+        }
+
+        void remove(JmriSimplePropertyListener listener) {
+            int i = listeners.indexOf(listener);
+            if (i >= 0) {
+                listeners.remove(i);
+                refs.remove(i);
+            }
+        }
+
+        boolean isEmpty() {
+            return listeners.isEmpty();
+        }
+
+        /**
+         * @return the references of the Logix listeners, without repeats
+         */
+        String getRef() {
+            ArrayList<String> distinct = new ArrayList<>();
+            for (String ref : refs) {
+                if (ref != null && !distinct.contains(ref)) {
+                    distinct.add(ref);
+                }
+            }
+            return String.join(", ", distinct);
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            if (key.property != null && !key.property.equals(evt.getPropertyName())) {
+                return;
+            }
+            JmriSimplePropertyListener[] targets;
+            synchronized (LogixEngine.this) {
+                targets = listeners.toArray(new JmriSimplePropertyListener[listeners.size()]);
+            }
+            for (JmriSimplePropertyListener listener : targets) {
+                listener.propertyChange(evt);
+            }
+        }
+    }
+
+    private static class Request {
+
+        boolean enabled;
+        PropertyChangeEvent evt;
+
+        Request(boolean enabled, PropertyChangeEvent evt) {
+            this.enabled = enabled;
+            this.evt = evt;
+        }
+
+        /**
+         * Combine with a later request for the same Conditional. Actions are
+         * allowed if either request allowed them, and an event whose state
+         * variable triggers actions is kept in preference to one that doesn't.
+         */
+        void merge(Conditional conditional, boolean enabled, PropertyChangeEvent evt) {
+            this.enabled = this.enabled || enabled;
+            if (evt == null) {
+                return;
+            }
+            if (this.evt == null || !(conditional instanceof DefaultConditional)
+                    || !((DefaultConditional) conditional).wantsToTrigger(this.evt)) {
+                this.evt = evt;
+            }
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(LogixEngine.class);
+}
@@ -2,7 +2,12 @@ package jmri.jmris;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.WebSocketException;
 import org.slf4j.Logger;
@@ -13,14 +18,41 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Used so that that server objects need only to use a single object/method to
  * send data to any supported object type.
+ * <p>
+ * Messages are queued and written to the client on another thread, so a slow
+ * client doesn't block the thread sending the message, which is often the
+ * thread changing the state of the layout. A message sent with a key replaces
+ * any message with the same key still waiting to be written, so a client that
+ * can't keep up gets the latest state of an object instead of every state it
+ * went through. If the queue is full, messages are dropped.
  *
  * @author rhwood Randall Wood Copyright (C) 2012, 2014
  */
 public class JmriConnection {
 
+    /**
+     * The most messages waiting to be written before messages are dropped.
+     */
+    public static final int MAX_BACKLOG = 1000;
+    // time to wait for queued messages to be written before closing
+    private static final long FLUSH_TIMEOUT = 1000;
+
+    // one thread per connection writing at any time, idle threads are reused
+    private static final ExecutorService writers = Executors.newCachedThreadPool((r) -> {
+        Thread t = new Thread(r, "JMRI Connection Writer"); // NOI18N
+        t.setDaemon(true);
+        return t;
+    });
+
     private final Session session;
     private final DataOutputStream dataOutputStream;
     private Locale locale = Locale.getDefault();
+    // messages waiting to be written by key, messages without a key have a unique key
+    private final LinkedHashMap<Object, String> queue = new LinkedHashMap<>();
+    private boolean writing = false;
+    private IOException failure = null;
+    private long coalesced = 0;
+    private long dropped = 0;
     private final static Logger log = LoggerFactory.getLogger(JmriConnection.class);
 
     /**
@@ -76,6 +108,88 @@ public class JmriConnection {
      * @throws IOException if problem sending message
      */
     public void sendMessage(String message) throws IOException {
+        this.sendMessage(message, null);
+    }
+
+    /**
+     * Send a String to the instantiated connection, replacing any message with
+     * the same key that hasn't been written yet.
+     * <p>
+     * This method throws an IOException so the server or servlet holding the
+     * connection open can respond to the exception if there is an immediate
+     * failure, or if an earlier message could not be written.
+     *
+     * @param message message to send
+     * @param key     the object the message is the state of, or null if the
+     *                message must not be replaced
+     * @throws IOException if problem sending message
+     */
+    public void sendMessage(String message, Object key) throws IOException {
+        if (this.session != null && !this.session.isOpen()) {
+            // immediately thrown an IOException to trigger closing
+            // actions up the call chain
+            throw new IOException("Will not send message on non-open session");
+        }
+        synchronized (this.queue) {
+            if (this.failure != null) {
+                throw new IOException("Exception sending message", this.failure);
+            }
+            if (key != null && this.queue.containsKey(key)) {
+                this.queue.put(key, message); // keeps its place in the queue
+                this.coalesced++;
+                return;
+            }
+            if (this.queue.size() >= MAX_BACKLOG) {
+                if (this.dropped++ == 0) {
+                    log.warn("Client is not keeping up, dropping messages");
+                }
+                return;
+            }
+            this.queue.put((key != null) ? key : new Object(), message);
+            if (!this.writing) {
+                this.writing = true;
+                writers.execute(this::writeQueue);
+            }
+        }
+    }
+
+    /**
+     * Write the queued messages until the queue is empty.
+     */
+    private void writeQueue() {
+        while (true) {
+            String message;
+            synchronized (this.queue) {
+                Iterator<Map.Entry<Object, String>> iterator = this.queue.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    this.writing = false;
+                    this.queue.notifyAll();
+                    return;
+                }
+                message = iterator.next().getValue();
+                iterator.remove();
+            }
+            try {
+                this.write(message);
+            } catch (IOException ex) {
+                log.debug("Closing connection after exception sending message", ex);
+                synchronized (this.queue) {
+                    this.failure = ex;
+                    this.queue.clear();
+                    this.writing = false;
+                    this.queue.notifyAll();
+                }
+                try {
+                    this.closeConnection();
+                } catch (IOException ex1) {
+                    log.debug("Exception closing connection", ex1);
+                }
+                return;
+            }
+        }
+    }
+
+    private void write(String message) throws IOException {
         if (this.dataOutputStream != null) {
             this.dataOutputStream.writeBytes(message);
         } else if (this.session != null) {
@@ -83,7 +197,6 @@ public class JmriConnection {
                 try {
                     this.session.getRemote().sendString(message);
                 } catch (WebSocketException ex) {
-                    log.debug("Exception sending message", ex);
                     // A WebSocketException is most likely a broken socket,
                     // so rethrow it as an IOException
                     if (ex.getMessage() == null) {
@@ -99,13 +212,57 @@ public class JmriConnection {
                     throw ex; // rethrow if complete
                 }
             } else {
-                // immediately thrown an IOException to trigger closing
-                // actions up the call chain
                 throw new IOException("Will not send message on non-open session");
             }
         }
     }
 
+    /**
+     * Wait for the queued messages to be written, for up to a second.
+     */
+    public void flush() {
+        long end = System.currentTimeMillis() + FLUSH_TIMEOUT;
+        synchronized (this.queue) {
+            long wait;
+            while (this.writing && (wait = end - System.currentTimeMillis()) > 0) {
+                try {
+                    this.queue.wait(wait);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of messages waiting to be written
+     */
+    public int getBacklog() {
+        synchronized (this.queue) {
+            return this.queue.size();
+        }
+    }
+
+    /**
+     * @return the number of messages replaced by a later message before they
+     *         were written
+     */
+    public long getCoalesced() {
+        synchronized (this.queue) {
+            return this.coalesced;
+        }
+    }
+
+    /**
+     * @return the number of messages dropped because the queue was full
+     */
+    public long getDropped() {
+        synchronized (this.queue) {
+            return this.dropped;
+        }
+    }
+
     /**
      * Close the connection.
      * <p>
@@ -117,6 +274,11 @@ public class JmriConnection {
      * @throws IOException if problem closing connection
      */
     public void close() throws IOException {
+        this.flush();
+        this.closeConnection();
+    }
+
+    private void closeConnection() throws IOException {
         if (this.dataOutputStream != null) {
             this.dataOutputStream.close();
         } else if (this.session != null) {
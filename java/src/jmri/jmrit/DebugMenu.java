@@ -23,6 +23,7 @@ public class DebugMenu extends JMenu {
         setText(Bundle.getMessage("MenuDebug"));
 
         add(new jmri.jmrit.MemoryFrameAction(Bundle.getMessage("MenuItemMemoryUsageMonitor")));
+        add(new jmri.jmrit.catalog.NamedIconCacheAction(Bundle.getMessage("MenuItemIconCacheMonitor")));
         add(new JSeparator());
         add(new jmri.jmrit.decoderdefn.InstallDecoderFileAction(Bundle.getMessage("MenuItemImportDecoderFile"), panel));
         add(new jmri.jmrit.decoderdefn.InstallDecoderURLAction(Bundle.getMessage("MenuItemImportDecoderURL"), panel));
@@ -25,6 +25,7 @@ import javax.swing.ButtonGroup;
 import javax.swing.DefaultCellEditor;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
@@ -50,6 +51,7 @@ import jmri.LogixManager;
 import jmri.Manager;
 import jmri.NamedBean;
 import jmri.UserPreferencesManager;
+import jmri.implementation.LogixEngine;
 import jmri.jmrit.conditional.ConditionalEditBase;
 import jmri.jmrit.conditional.ConditionalListEdit;
 import jmri.jmrit.conditional.ConditionalTreeEdit;
@@ -434,6 +436,22 @@ public class LogixTableAction extends AbstractTableAction<Logix> {
         menu.add(r);
         r.setSelected(_editMode == EditMode.TREEEDIT);
 
+        menu.addSeparator();
+
+        JCheckBoxMenuItem batchItem = new JCheckBoxMenuItem(rbx.getString("BatchCalculations"));  // NOI18N
+        batchItem.setToolTipText(rbx.getString("BatchCalculationsHint"));  // NOI18N
+        batchItem.setSelected(InstanceManager.getDefault(LogixEngine.class).isBatching());
+        batchItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                InstanceManager.getDefault(LogixEngine.class).setBatching(batchItem.isSelected());
+                InstanceManager.getOptionalDefault(UserPreferencesManager.class).ifPresent((prefMgr) -> {
+                    prefMgr.setSimplePreferenceState(LogixEngine.BATCHING_PREFERENCE, batchItem.isSelected());
+                });
+            }
+        });
+        menu.add(batchItem);
+
         menuBar.add(menu, pos + offset);
 
         menu = new JMenu(Bundle.getMessage("MenuTools"));  // NOI18N
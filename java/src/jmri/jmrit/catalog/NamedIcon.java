@@ -80,6 +80,9 @@ public class NamedIcon extends ImageIcon {
         mName = pName;
         mURL = FileUtil.getPortableFilename(pUrl);
         mRotation = 0;
+        if ((u != null) && (mDefaultImage != null)) {
+            mCacheURL = mURL;
+        }
     }
 
     /**
@@ -197,6 +200,13 @@ public class NamedIcon extends ImageIcon {
     private String mName = null;
     private String mURL = null;
     private Image mDefaultImage;
+    // the file the default image was loaded from, to find transformed images
+    // in the NamedIconCache, or null if the image is not from a file
+    private String mCacheURL = null;
+    // true if the image is the default image transformed by _scale, _degrees
+    // and _flip, so it can be shared through the NamedIconCache
+    private boolean _cached = false;
+    private int _flip = NOFLIP;
     /*
      public Image getOriginalImage() {
      return mDefaultImage;
@@ -340,6 +350,18 @@ public class NamedIcon extends ImageIcon {
         g2d.dispose();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The image is no longer known to be a transformation of the default
+     * image, so it is not shared through the {@link NamedIconCache}.
+     */
+    @Override
+    public void setImage(Image image) {
+        super.setImage(image);
+        _cached = false;
+    }
+
     /*
      void debugDraw(String op, Component c) {
      jmri.jmrit.display.Positionable pos = (jmri.jmrit.display.Positionable)c;
@@ -370,11 +392,35 @@ public class NamedIcon extends ImageIcon {
 
     /**
      * Rotate from anchor point (upper left corner) and shift into place.
+     * <p>
+     * Icons of the same file with the same scale and rotation share the
+     * rotated image, see {@link NamedIconCache}.
      *
      * @param degree the distance to rotate
      * @param comp   containing component
      */
     public void rotate(int degree, Component comp) {
+        int degrees = MathUtil.wrap(degree, 0, 360);
+        boolean cacheable = (mCacheURL != null) && ((degrees != 0) || (Math.abs(_scale - 1.0) > .00001));
+        Image image = cacheable ? NamedIconCache.instance().get(mCacheURL, _scale, degrees, NOFLIP) : null;
+        if (image != null) {
+            setImage(image);
+            mRotation = 0;
+            _degrees = degrees;
+            if ((_degrees != 0) && (comp instanceof PositionableLabel)) {
+                ((PositionableLabel) comp).setDegrees(_degrees);
+            }
+        } else {
+            rotateImage(degree, comp);
+            if (cacheable && (getImage() != mDefaultImage)) {
+                NamedIconCache.instance().put(mCacheURL, _scale, _degrees, NOFLIP, getImage());
+            }
+        }
+        _flip = NOFLIP;
+        _cached = cacheable && (getImage() != mDefaultImage);
+    }
+
+    private void rotateImage(int degree, Component comp) {
         setImage(mDefaultImage);
         if (Math.abs(_scale - 1.0) > .00001) {
             int w = (int) Math.ceil(_scale * getIconWidth());
@@ -454,7 +500,38 @@ public class NamedIcon extends ImageIcon {
     public final static int HORIZONTALFLIP = 0X01;
     public final static int VERTICALFLIP = 0X02;
 
+    /**
+     * Flip the image.
+     * <p>
+     * Icons of the same file with the same scale, rotation and flip share the
+     * flipped image, see {@link NamedIconCache}.
+     *
+     * @param flip {@link #NOFLIP}, {@link #HORIZONTALFLIP} or
+     *             {@link #VERTICALFLIP}
+     * @param comp containing component
+     */
     public void flip(int flip, Component comp) {
+        if ((flip != NOFLIP) && _cached && (_flip == NOFLIP)) {
+            // the image is a known transformation, so the flipped image can be shared
+            Image image = NamedIconCache.instance().get(mCacheURL, _scale, _degrees, flip);
+            if (image == null) {
+                Image unflipped = getImage();
+                flipImage(flip, comp);
+                image = getImage();
+                if (image == unflipped) {
+                    return; // not flipped
+                }
+                NamedIconCache.instance().put(mCacheURL, _scale, _degrees, flip, image);
+            }
+            setImage(image);
+            _flip = flip;
+            _cached = true;
+            return;
+        }
+        flipImage(flip, comp);
+    }
+
+    private void flipImage(int flip, Component comp) {
         if (flip == NOFLIP) {
             setImage(mDefaultImage);
             _transformF = new AffineTransform();
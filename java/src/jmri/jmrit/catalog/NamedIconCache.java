@@ -0,0 +1,186 @@
+package jmri.jmrit.catalog;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jmri.InstanceManager;
+import jmri.InstanceManagerAutoDefault;
+
+/**
+ * Keeps the images of {@link NamedIcon}s that have been scaled, rotated or
+ * flipped, so icons of the same file with the same transformation share one
+ * image instead of each making and holding its own.
+ * <p>
+ * The images are kept up to a total size in bytes; when that is reached, the
+ * least recently used images are dropped from the cache. Icons already using
+ * a dropped image keep it.
+ *
+ * @see NamedIconCacheAction
+ */
+public class NamedIconCache implements InstanceManagerAutoDefault {
+
+    /**
+     * The default most bytes of images kept.
+     */
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    private final LinkedHashMap<Key, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long bytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public static NamedIconCache instance() {
+        return InstanceManager.getDefault(NamedIconCache.class);
+    }
+
+    /**
+     * Get the image of a file with a transformation.
+     *
+     * @param url     the portable name of the image file
+     * @param scale   the scale of the image
+     * @param degrees the rotation of the image, in degrees
+     * @param flip    {@link NamedIcon#NOFLIP},
+     *                {@link NamedIcon#HORIZONTALFLIP} or
+     *                {@link NamedIcon#VERTICALFLIP}
+     * @return the image, or null if it is not in the cache
+     */
+    @CheckForNull
+    public synchronized Image get(@Nonnull String url, double scale, int degrees, int flip) {
+        Image image = images.get(new Key(url, scale, degrees, flip));
+        if (image != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return image;
+    }
+
+    /**
+     * Keep the image of a file with a transformation.
+     *
+     * @param url     the portable name of the image file
+     * @param scale   the scale of the image
+     * @param degrees the rotation of the image, in degrees
+     * @param flip    {@link NamedIcon#NOFLIP},
+     *                {@link NamedIcon#HORIZONTALFLIP} or
+     *                {@link NamedIcon#VERTICALFLIP}
+     * @param image   the transformed image, which must not be changed after
+     */
+    public synchronized void put(@Nonnull String url, double scale, int degrees, int flip, @Nonnull Image image) {
+        long size = getBytes(image);
+        if (size > maxBytes) {
+            return;
+        }
+        Image old = images.put(new Key(url, scale, degrees, flip), image);
+        if (old != null) {
+            bytes -= getBytes(old);
+        }
+        bytes += size;
+        trim();
+    }
+
+    /**
+     * Drop all of the images.
+     */
+    public synchronized void clear() {
+        images.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @param maxBytes the most bytes of images to keep
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the bytes of the images kept, counting each image once however
+     *         many icons share it
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getSize() {
+        return images.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of images dropped to keep within the most bytes
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Key, Image>> iterator = images.entrySet().iterator();
+        while ((bytes > maxBytes) && iterator.hasNext()) {
+            bytes -= getBytes(iterator.next().getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static long getBytes(Image image) {
+        if (image instanceof BufferedImage) {
+            BufferedImage bi = (BufferedImage) image;
+            return (long) bi.getWidth() * bi.getHeight() * ((bi.getColorModel().getPixelSize() + 7) / 8);
+        }
+        // assume four bytes a pixel, as the image will be drawn into one
+        return Math.max(0L, (long) image.getWidth(null) * image.getHeight(null) * 4L);
+    }
+
+    /**
+     * A file and a transformation of it.
+     */
+    private static class Key {
+
+        private final String url;
+        private final double scale;
+        private final int degrees;
+        private final int flip;
+
+        Key(String url, double scale, int degrees, int flip) {
+            this.url = url;
+            this.scale = scale;
+            this.degrees = degrees;
+            this.flip = flip;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return url.equals(other.url) && (Double.compare(scale, other.scale) == 0)
+                    && (degrees == other.degrees) && (flip == other.flip);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, scale, degrees, flip);
+        }
+    }
+}
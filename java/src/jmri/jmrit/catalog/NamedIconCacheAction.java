@@ -0,0 +1,86 @@
+package jmri.jmrit.catalog;
+
+import java.awt.Container;
+import java.awt.GridLayout;
+import java.awt.event.ActionEvent;
+import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+import jmri.util.JmriJFrame;
+
+/**
+ * Display the images kept by the {@link NamedIconCache} and the memory they
+ * use.
+ */
+public class NamedIconCacheAction extends AbstractAction {
+
+    public NamedIconCacheAction(String s) {
+        super(s);
+    }
+
+    public NamedIconCacheAction() {
+        this(Bundle.getMessage("IconCacheTitle"));
+    }
+
+    JTextField images = new JTextField(15);
+    JTextField used = new JTextField(15);
+    JTextField max = new JTextField(15);
+    JTextField hits = new JTextField(15);
+    JTextField misses = new JTextField(15);
+    JTextField evictions = new JTextField(15);
+
+    java.text.NumberFormat nf;
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+
+        nf = java.text.NumberFormat.getInstance();
+        nf.setMinimumFractionDigits(3);
+        nf.setMaximumFractionDigits(3);
+        nf.setGroupingUsed(false);
+
+        JmriJFrame f = new JmriJFrame(Bundle.getMessage("IconCacheTitle"));
+
+        Container p = f.getContentPane();
+        p.setLayout(new GridLayout(7, 2));
+
+        p.add(new JLabel(Bundle.getMessage("IconCacheImages")));
+        p.add(images);
+        p.add(new JLabel(Bundle.getMessage("IconCacheUsed")));
+        p.add(used);
+        p.add(new JLabel(Bundle.getMessage("IconCacheMax")));
+        p.add(max);
+        p.add(new JLabel(Bundle.getMessage("IconCacheHits")));
+        p.add(hits);
+        p.add(new JLabel(Bundle.getMessage("IconCacheMisses")));
+        p.add(misses);
+        p.add(new JLabel(Bundle.getMessage("IconCacheEvictions")));
+        p.add(evictions);
+
+        JButton updateButton = new JButton(Bundle.getMessage("ButtonUpdate"));
+        updateButton.addActionListener((ActionEvent event) -> updateDisplay());
+        p.add(updateButton);
+        JButton clearButton = new JButton(Bundle.getMessage("ButtonClear"));
+        clearButton.addActionListener((ActionEvent event) -> {
+            NamedIconCache.instance().clear();
+            updateDisplay();
+        });
+        p.add(clearButton);
+
+        updateDisplay();
+        f.pack();
+        f.setVisible(true);
+    }
+
+    void updateDisplay() {
+        NamedIconCache cache = NamedIconCache.instance();
+        images.setText(Integer.toString(cache.getSize()));
+        used.setText(nf.format(cache.getBytes() / (1024. * 1024.)));
+        max.setText(nf.format(cache.getMaxBytes() / (1024. * 1024.)));
+        hits.setText(Long.toString(cache.getHits()));
+        misses.setText(Long.toString(cache.getMisses()));
+        evictions.setText(Long.toString(cache.getEvictions()));
+    }
+
+}
@@ -0,0 +1,300 @@
+package jmri.jmrit.decoderdefn;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import jmri.InstanceManagerAutoDefault;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.filter.Filters;
+import org.jdom2.input.StAXStreamBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the family element of decoder definition files for the decoder
+ * index, remembering the family of each file so that a file is only read
+ * again when it has changed.
+ * <p>
+ * A file is checked first by its modification time and length; if those have
+ * changed, it is read and checked by its checksum. Only the start of a file,
+ * up to the end of its family element, is parsed, unless the file has to be
+ * transformed when it is read.
+ * <p>
+ * The family elements of several files can be read at the same time.
+ * <p>
+ * So that files are not read again after JMRI restarts, the modification time,
+ * length and checksum of each file are written with its family element in the
+ * decoder index, and the families in an index can be remembered from it.
+ *
+ * @see DecoderIndexFile#writeFile
+ */
+public class DecoderFamilyCache implements InstanceManagerAutoDefault {
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int filesRead = 0;
+    private int familiesParsed = 0;
+
+    /**
+     * Get the family element of a decoder definition file.
+     *
+     * @param file the decoder definition file
+     * @return a copy of the family element, which the caller may change
+     * @throws JDOMException if the file can't be parsed or has no family
+     * @throws IOException   if the file can't be read
+     */
+    @Nonnull
+    public Element getFamily(@Nonnull File file) throws JDOMException, IOException {
+        String key = file.getAbsolutePath();
+        long modified = file.lastModified();
+        long length = file.length();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if ((entry != null) && (entry.modified == modified) && (entry.length == length)) {
+            return entry.family.clone();
+        }
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        long checksum = crc.getValue();
+        Element family;
+        if ((entry != null) && (entry.checksum == checksum) && (entry.length == bytes.length)) {
+            // only the time changed
+            family = entry.family;
+        } else {
+            family = parseFamily(bytes);
+            if (family == null) {
+                // read it as a decoder definition is normally read, and
+                // don't keep it, as it may depend on other files
+                Element root = new DecoderFile().rootFromInputStream(new ByteArrayInputStream(bytes));
+                synchronized (this) {
+                    filesRead++;
+                    entries.remove(key);
+                }
+                return familyOf(root, file.getName()).clone();
+            }
+        }
+        synchronized (this) {
+            filesRead++;
+            entries.put(key, new Entry(modified, bytes.length, checksum, family));
+        }
+        return family.clone();
+    }
+
+    /**
+     * Remember the family of a file as it was written in a decoder index, if
+     * the modification time, length and checksum of the file were written
+     * with it. The file is then only read again if it has changed since.
+     * Nothing is done if the file is already known.
+     *
+     * @param file   the decoder definition file
+     * @param family the family element from the decoder index
+     */
+    public void remember(@Nonnull File file, @Nonnull Element family) {
+        String key = file.getAbsolutePath();
+        long modified;
+        long length;
+        long checksum;
+        try {
+            modified = Long.parseLong(family.getAttributeValue(MODIFIED, ""));
+            length = Long.parseLong(family.getAttributeValue(LENGTH, ""));
+            checksum = Long.parseLong(family.getAttributeValue(CHECKSUM, ""));
+        } catch (NumberFormatException ex) {
+            return; // written without them, or by hand
+        }
+        Element copy = family.clone();
+        for (String name : new String[]{"file", MODIFIED, LENGTH, CHECKSUM}) {
+            copy.removeAttribute(name);
+        }
+        // drop any defaults added from the schema when the index was read
+        removeDefaults(copy);
+        for (Element element : copy.getDescendants(Filters.element())) {
+            removeDefaults(element);
+        }
+        synchronized (this) {
+            entries.putIfAbsent(key, new Entry(modified, length, checksum, copy));
+        }
+    }
+
+    /**
+     * Add the modification time, length and checksum of a file that has been
+     * read to its family element, so that they can be written in a decoder
+     * index and remembered from it.
+     *
+     * @param file   the decoder definition file
+     * @param family the family element to add them to
+     */
+    public synchronized void addFileAttributes(@Nonnull File file, @Nonnull Element family) {
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (entry != null) {
+            family.setAttribute(MODIFIED, Long.toString(entry.modified));
+            family.setAttribute(LENGTH, Long.toString(entry.length));
+            family.setAttribute(CHECKSUM, Long.toString(entry.checksum));
+        }
+    }
+
+    private static void removeDefaults(Element element) {
+        element.getAttributes().removeIf((attribute) -> !attribute.isSpecified());
+    }
+
+    /**
+     * Forget all of the files.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of files read, as opposed to found unchanged
+     */
+    synchronized int getFilesRead() {
+        return filesRead;
+    }
+
+    /**
+     * @return the number of family elements parsed from the start of a file
+     */
+    synchronized int getFamiliesParsed() {
+        return familiesParsed;
+    }
+
+    /**
+     * Parse the family element from the start of a decoder definition file,
+     * stopping at its end.
+     *
+     * @param bytes the contents of the file
+     * @return the family element, or null if the file must be read in full
+     */
+    @CheckForNull
+    private Element parseFamily(byte[] bytes) {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.get().createXMLStreamReader(new ByteArrayInputStream(bytes));
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                    if ("transform-xslt".equals(reader.getPITarget())) {
+                        return null;
+                    }
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ((depth == 2) && isPlain(reader, "family")) {
+                        Element family = (Element) new StAXStreamBuilder().fragment(reader);
+                        for (Element element : family.getDescendants(Filters.element())) {
+                            if (XINCLUDE.equals(element.getNamespaceURI())) {
+                                return null; // includes are only done when read in full
+                            }
+                        }
+                        synchronized (this) {
+                            familiesParsed++;
+                        }
+                        return family;
+                    }
+                    if ((depth == 1) && !isPlain(reader, "decoder")) {
+                        // skip to the end of the element
+                        int inside = 1;
+                        while (inside > 0) {
+                            event = reader.next();
+                            if (event == XMLStreamConstants.START_ELEMENT) {
+                                inside++;
+                            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                                inside--;
+                            }
+                        }
+                    } else {
+                        depth++;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    if (depth == 1) {
+                        // the end of the decoder element, with no family
+                        return null;
+                    }
+                }
+            }
+        } catch (XMLStreamException | JDOMException ex) {
+            log.debug("could not parse family, will read in full: {}", ex.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ex) {
+                    log.debug("could not close reader: {}", ex.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    // the attributes of a family element in a decoder index
+    static final String MODIFIED = "fileModified";
+    static final String LENGTH = "fileLength";
+    static final String CHECKSUM = "fileChecksum";
+
+    private static final String XINCLUDE = "http://www.w3.org/2001/XInclude";
+
+    private static boolean isPlain(XMLStreamReader reader, String name) {
+        String namespace = reader.getNamespaceURI();
+        return name.equals(reader.getLocalName()) && ((namespace == null) || namespace.isEmpty());
+    }
+
+    /**
+     * Get the family element from the root of a decoder definition.
+     *
+     * @param root the root element
+     * @param name the name of the file, for messages
+     * @return the family element
+     * @throws JDOMException if there is no family element
+     */
+    static Element familyOf(Element root, String name) throws JDOMException {
+        Element decoder = root.getChild("decoder");
+        Element family = (decoder != null) ? decoder.getChild("family") : null;
+        if (family == null) {
+            throw new JDOMException("no decoder family in " + name);
+        }
+        return family;
+    }
+
+    // a factory isn't known to be safe to use from several threads at once
+    private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // decoder definitions don't use entities, and none are read from elsewhere
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    });
+
+    /**
+     * What is remembered about a file.
+     */
+    private static class Entry {
+
+        private final long modified;
+        private final long length;
+        private final long checksum;
+        private final Element family;
+
+        Entry(long modified, long length, long checksum, Element family) {
+            this.modified = modified;
+            this.length = length;
+            this.checksum = checksum;
+            this.family = family;
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(DecoderFamilyCache.class);
+}
@@ -9,6 +9,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.IntStream;
 import javax.annotation.Nonnull;
 import javax.swing.JComboBox;
 import jmri.InstanceInitializer;
@@ -57,6 +58,9 @@ public class DecoderIndexFile extends XmlFile {
 
     protected ArrayList<String> mMfgNameList = new ArrayList<>();
 
+    // family elements as read, by the name of the file they came from
+    private final HashMap<String, Element> familyElements = new HashMap<>();
+
     public List<String> getMfgNameList() {
         return mMfgNameList;
     }
@@ -104,14 +108,100 @@ public class DecoderIndexFile extends XmlFile {
             String decoderMfgID, String decoderVersionID,
             String decoderProductID, String model, String developerID) {
         List<DecoderFile> l = new ArrayList<>();
-        for (int i = 0; i < numDecoders(); i++) {
-            if (checkEntry(i, mfg, family, decoderMfgID, decoderVersionID, decoderProductID, model, developerID)) {
-                l.add(decoderList.get(i));
+        // only check the entries with the rarest of the indexed values asked for
+        List<Integer> candidates = null;
+        synchronized (this) {
+            updateIndexes();
+            candidates = narrower(candidates, _mfgIndex, mfg);
+            candidates = narrower(candidates, _familyIndex, family);
+            candidates = narrower(candidates, _mfgIdIndex, decoderMfgID);
+            candidates = narrower(candidates, _modelIndex, model);
+            if (decoderProductID != null && !decoderProductID.contains(",")) {
+                candidates = narrower(candidates, _productIdIndex, decoderProductID);
+            }
+        }
+        if (candidates == null) {
+            for (int i = 0; i < numDecoders(); i++) {
+                if (checkEntry(i, mfg, family, decoderMfgID, decoderVersionID, decoderProductID, model, developerID)) {
+                    l.add(decoderList.get(i));
+                }
+            }
+        } else {
+            for (int i : candidates) {
+                if (checkEntry(i, mfg, family, decoderMfgID, decoderVersionID, decoderProductID, model, developerID)) {
+                    l.add(decoderList.get(i));
+                }
             }
         }
         return l;
     }
 
+    // the positions in decoderList of the entries with each value, in order
+    private final HashMap<String, List<Integer>> _mfgIndex = new HashMap<>();
+    private final HashMap<String, List<Integer>> _familyIndex = new HashMap<>();
+    private final HashMap<String, List<Integer>> _mfgIdIndex = new HashMap<>();
+    private final HashMap<String, List<Integer>> _modelIndex = new HashMap<>();
+    private final HashMap<String, List<Integer>> _productIdIndex = new HashMap<>();
+    private List<DecoderFile> _indexedList = null;
+    private int _indexedSize = 0;
+
+    /**
+     * Index the entries of decoderList added since last indexed.
+     */
+    private void updateIndexes() {
+        if (_indexedList != decoderList || _indexedSize > decoderList.size()) {
+            _mfgIndex.clear();
+            _familyIndex.clear();
+            _mfgIdIndex.clear();
+            _modelIndex.clear();
+            _productIdIndex.clear();
+            _indexedList = decoderList;
+            _indexedSize = 0;
+        }
+        for (int i = _indexedSize; i < decoderList.size(); i++) {
+            DecoderFile r = decoderList.get(i);
+            addToIndex(_mfgIndex, r.getMfg(), i);
+            addToIndex(_familyIndex, r.getFamily(), i);
+            addToIndex(_mfgIdIndex, r.getMfgID(), i);
+            addToIndex(_modelIndex, r.getModel(), i);
+            // checkEntry matches any one of a comma separated list; this is
+            // read from the element, as getProductID() changes the entry
+            if (r.getModelElement() != null) {
+                String productIDs = String.valueOf(r.getModelElement().getAttributeValue("productID"));
+                for (String productID : productIDs.split(",", -1)) {
+                    addToIndex(_productIdIndex, productID, i);
+                }
+            }
+        }
+        _indexedSize = decoderList.size();
+    }
+
+    private static void addToIndex(HashMap<String, List<Integer>> index, String value, int i) {
+        if (value != null) {
+            List<Integer> entries = index.computeIfAbsent(value, (k) -> new ArrayList<>());
+            if (entries.isEmpty() || entries.get(entries.size() - 1) != i) {
+                entries.add(i);
+            }
+        }
+    }
+
+    /**
+     * Get the shorter of a list of candidate entries and the entries with a
+     * value.
+     *
+     * @param candidates the candidate entries, or null if all are candidates
+     * @param index      the index of the value
+     * @param value      the value, or null to match any
+     * @return the shorter list, or null if all are still candidates
+     */
+    private static List<Integer> narrower(List<Integer> candidates, HashMap<String, List<Integer>> index, String value) {
+        if (value == null) {
+            return candidates;
+        }
+        List<Integer> entries = index.getOrDefault(value, Collections.emptyList());
+        return (candidates == null || entries.size() < candidates.size()) ? entries : candidates;
+    }
+
     /**
      * Get a JComboBox representing the choices that match some information.
      *
@@ -320,6 +410,8 @@ public class DecoderIndexFile extends XmlFile {
         // to keep from propagating wrong, old stuff
         File oldfile = new File(FileUtil.getUserFilesPath() + "decoderIndex.xml");
         if (oldfile.exists()) {
+            // but remember the files it indexed, so those unchanged aren't read again
+            rememberFamilies(oldfile, InstanceManager.getDefault(DecoderFamilyCache.class));
             log.debug("remove existing user decoderIndex.xml file");
             if (!oldfile.delete()) // delete file, check for success
             {
@@ -378,6 +470,42 @@ public class DecoderIndexFile extends XmlFile {
         }
     }
 
+    /**
+     * Remember the families written in a decoder index file, before it is
+     * replaced.
+     *
+     * @param indexFile the decoder index file
+     * @param cache     the cache to remember them in
+     */
+    private static void rememberFamilies(File indexFile, DecoderFamilyCache cache) {
+        DecoderIndexFile previous = new DecoderIndexFile();
+        try {
+            Element root = previous.rootFromFile(indexFile);
+            if (root.getChild("decoderIndex") != null) {
+                previous.readFamilySection(root.getChild("decoderIndex"));
+                previous.rememberFamilies(cache);
+            }
+        } catch (IOException | JDOMException e) {
+            log.warn("could not read old decoder index, so will read all decoder files: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remember the families read into this object, so that the files they
+     * were read from are only read again if they have changed since this index
+     * was written.
+     *
+     * @param cache the cache to remember them in
+     */
+    void rememberFamilies(DecoderFamilyCache cache) {
+        familyElements.forEach((fileName, family) -> {
+            File fp = findFile(DecoderFile.fileLocation + fileName);
+            if (fp != null) {
+                cache.remember(fp, family);
+            }
+        });
+    }
+
     /**
      * Read the contents of a decoderIndex XML file into this object. Note that
      * this does not clear any existing entries; reset the instance to do that.
@@ -470,6 +598,7 @@ public class DecoderIndexFile extends XmlFile {
     void readFamily(Element family) {
         Attribute attr;
         String filename = family.getAttribute("file").getValue();
+        familyElements.put(filename, family);
         String parentLowVersID = ((attr = family.getAttribute("lowVersionID")) != null ? attr.getValue() : null);
         String parentHighVersID = ((attr = family.getAttribute("highVersionID")) != null ? attr.getValue() : null);
         String ParentReplacementFamilyName = ((attr = family.getAttribute("replacementFamily")) != null ? attr.getValue() : null);
@@ -596,21 +725,19 @@ public class DecoderIndexFile extends XmlFile {
             }
         }
 
-        // add family list by scanning files
+        // add family list by scanning files, several at a time, only reading
+        // those that have changed since last scanned
+        DecoderFamilyCache cache = InstanceManager.getDefault(DecoderFamilyCache.class);
+        oldIndex.rememberFamilies(cache);
+        Element[] families = new Element[files.length];
+        IntStream.range(0, files.length).parallel().forEach((i) -> {
+            families[i] = readFamily(cache, files[i]);
+        });
         Element familyList = new Element("familyList");
-        for (String fileName : files) {
-            DecoderFile d = new DecoderFile();
-            try {
-                Element droot = d.rootFromName(DecoderFile.fileLocation + fileName);
-                Element family = droot.getChild("decoder").getChild("family").clone();
-                family.setAttribute("file", fileName);
-                familyList.addContent(family);
-            } catch (org.jdom2.JDOMException exj) {
-                log.error("could not parse {}: {}", fileName, exj.getMessage());
-            } catch (java.io.FileNotFoundException exj) {
-                log.error("could not read {}: {}", fileName, exj.getMessage());
-            } catch (IOException exj) {
-                log.error("other exception while dealing with {}: {}", fileName, exj.getMessage());
+        for (int i = 0; i < files.length; i++) {
+            if (families[i] != null) {
+                families[i].setAttribute("file", files[i]);
+                familyList.addContent(families[i]);
             }
         }
 
@@ -623,6 +750,34 @@ public class DecoderIndexFile extends XmlFile {
         resetInstance();
     }
 
+    /**
+     * Read the family element of a decoder definition file.
+     *
+     * @param cache    the families of files already read
+     * @param fileName the name of the file in the decoders directory
+     * @return a copy of the family element, or null if it can't be read
+     */
+    private Element readFamily(DecoderFamilyCache cache, String fileName) {
+        try {
+            File fp = findFile(DecoderFile.fileLocation + fileName);
+            if (fp != null && fp.exists() && fp.canRead()) {
+                Element family = cache.getFamily(fp);
+                cache.addFileAttributes(fp, family);
+                return family;
+            }
+            // not a file, so read it wherever it is
+            Element droot = new DecoderFile().rootFromName(DecoderFile.fileLocation + fileName);
+            return DecoderFamilyCache.familyOf(droot, fileName).clone();
+        } catch (org.jdom2.JDOMException exj) {
+            log.error("could not parse {}: {}", fileName, exj.getMessage());
+        } catch (java.io.FileNotFoundException exj) {
+            log.error("could not read {}: {}", fileName, exj.getMessage());
+        } catch (IOException exj) {
+            log.error("other exception while dealing with {}: {}", fileName, exj.getMessage());
+        }
+        return null;
+    }
+
     String nmraListDate = null;
     String updated = null;
     String lastAdd = null;
@@ -36,6 +36,7 @@ import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
@@ -166,6 +167,7 @@ abstract public class Editor extends JmriJFrame implements MouseListener, MouseM
     boolean showCloseInfoMessage = true; //display info message when closing panel
 
     protected ArrayList<Positionable> _contents = new ArrayList<>();
+    private final AtomicLong _contentsVersion = new AtomicLong();
     protected JLayeredPane _targetPanel;
     private JFrame _targetFrame;
     private JScrollPane _panelScrollPane;
@@ -371,6 +373,24 @@ abstract public class Editor extends JmriJFrame implements MouseListener, MouseM
         return _contents;
     }
 
+    /**
+     * Get the version of the panel contents, which changes when items are
+     * added, removed or moved. Used to tell when a copy of the panel made
+     * earlier, such as one served to a web browser, is out of date.
+     *
+     * @return the version of the contents
+     */
+    public long getContentsVersion() {
+        return _contentsVersion.get();
+    }
+
+    /**
+     * Note that items have been added, removed, moved or changed.
+     */
+    protected void contentsChanged() {
+        _contentsVersion.incrementAndGet();
+    }
+
     public void setDefaultToolTip(ToolTip dtt) {
         _defaultToolTip = dtt;
     }
@@ -1692,6 +1712,7 @@ abstract public class Editor extends JmriJFrame implements MouseListener, MouseM
         if (!_contents.add(l)) {
             log.error("Unable to add {} to _contents", l.getNameString());
         }
+        contentsChanged();
         if (log.isDebugEnabled()) {
             log.debug("putItem {} to _contents. level= {}", l.getNameString(), l.getDisplayLevel());
         }
@@ -2609,6 +2630,7 @@ abstract public class Editor extends JmriJFrame implements MouseListener, MouseM
         //todo check that parent == _targetPanel
         //Container parent = this.getParent();
         // force redisplay
+        contentsChanged();
         return _contents.remove(l);
     }
 
@@ -2655,6 +2677,7 @@ abstract public class Editor extends JmriJFrame implements MouseListener, MouseM
         setVisible(false);
         if (clear) {
             _contents.clear();
+            contentsChanged();
         }
         removeAll();
         this.dispose();
@@ -2793,6 +2816,7 @@ abstract public class Editor extends JmriJFrame implements MouseListener, MouseM
                 yObj = 0;
             }
             p.setLocation(xObj, yObj);
+            contentsChanged();
             // and show!
             p.repaint();
         }
@@ -307,11 +307,11 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
     }
 
     /**
-     * Redraws panels using this layout block
+     * Redraws the tracks of this layout block on the panels using it
      */
     public void redrawLayoutBlockPanels() {
         panels.stream().forEach((le) -> {
-            le.redrawPanel();
+            le.redrawLayoutBlock(this);
         });
         firePropertyChange("redraw", null, null);
     }
@@ -3915,6 +3915,16 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
         return decodePacketFlow(neighbours.get(i).getPacketFlow());
     }
 
+    /**
+     * Get the flow of traffic to and from neighbouring block at index i.
+     * @param i index in neighbors
+     * @return RXTX, RXONLY or TXONLY
+     * @see #getNeighbourPacketFlowAsString(int)
+     */
+    int getNeighbourPacketFlow(int i) {
+        return neighbours.get(i).getPacketFlow();
+    }
+
     /**
      * Is our neighbouring block at index i a mutual neighbour, ie both blocks
      * have each other registered as neighbours and are exchaning information.
@@ -262,8 +262,15 @@ public class LayoutBlockConnectivityTools {
 
             }
         }
+        LinkStateRoutingEngine engine = lbm.getLinkStateRoutingEngine();
         if ((destBlock != null) && (currentBlock != null) && (nextBlock != null)) {
-            if (!currentBlock.isRouteToDestValid(nextBlock.getBlock(), destBlock.getBlock())) {
+            boolean valid;
+            if (engine != null) {
+                valid = engine.isRouteToDestValid(currentBlock.getBlock(), nextBlock.getBlock(), destBlock.getBlock());
+            } else {
+                valid = currentBlock.isRouteToDestValid(nextBlock.getBlock(), destBlock.getBlock());
+            }
+            if (!valid) {
                 log.debug("Route to dest not valid");
                 return false;
             }
@@ -280,8 +287,13 @@ public class LayoutBlockConnectivityTools {
             int proCount = 0;
             int desCount = 0;
             if (!destBlockn1.isEmpty()) {
-                desCount = currentBlock.getBlockHopCount(destBlock.getBlock(), nextBlock.getBlock());
-                proCount = currentBlock.getBlockHopCount(destBlockn1.get(0).getBlock(), nextBlock.getBlock());
+                if (engine != null) {
+                    desCount = engine.getBlockHopCount(currentBlock.getBlock(), destBlock.getBlock(), nextBlock.getBlock());
+                    proCount = engine.getBlockHopCount(currentBlock.getBlock(), destBlockn1.get(0).getBlock(), nextBlock.getBlock());
+                } else {
+                    desCount = currentBlock.getBlockHopCount(destBlock.getBlock(), nextBlock.getBlock());
+                    proCount = currentBlock.getBlockHopCount(destBlockn1.get(0).getBlock(), nextBlock.getBlock());
+                }
                 if (log.isDebugEnabled()) {
                     log.debug("dest {} protecting {}", desCount, proCount);
                 }
@@ -436,6 +448,13 @@ public class LayoutBlockConnectivityTools {
             }
             return returnBlocks;
         }
+        //With no route at all there is no need to search the routing tables block by block.
+        LinkStateRoutingEngine engine = lbm.getLinkStateRoutingEngine();
+        if ((engine != null) && !engine.isRouteToDestValid(currentBlock, nextBlock, destBlock)) {
+            lastErrorMessage = "No route from " + sourceLayoutBlock.getDisplayName() + " to " + destinationLayoutBlock.getDisplayName();
+            log.debug(lastErrorMessage);
+            throw new jmri.JmriException(lastErrorMessage);
+        }
 
         BlocksTested bt = blocksInRoute.get(blocksInRoute.size() - 1);
 
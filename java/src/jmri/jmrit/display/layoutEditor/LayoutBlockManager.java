@@ -2,6 +2,7 @@ package jmri.jmrit.display.layoutEditor;
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -2532,13 +2533,86 @@ public class LayoutBlockManager extends AbstractManager<LayoutBlock> implements
         firstRoutingChange = System.nanoTime();
 
         //cycle through all LayoutBlocks, completing initialization of the layout block routing
-        java.util.Enumeration<LayoutBlock> en = _tsys.elements();
-
-        while (en.hasMoreElements()) {
-            en.nextElement().initializeLayoutBlockRouting();
+        for (LayoutBlock lb : _tsys.values()) {
+            lb.initializeLayoutBlockRouting();
         }
+        initializeLinkStateRouting();
     }	//initializeLayoutBlockRouting
 
+    private boolean enableLinkStateRouting = false;
+    private final LinkStateRoutingEngine linkStateEngine = new LinkStateRoutingEngine();
+    private boolean linkStateBlocksChanged = false;
+
+    /**
+     * Returns true if route queries made through the
+     * {@link LayoutBlockConnectivityTools} are answered by the
+     * {@link LinkStateRoutingEngine} rather than from the routing tables built
+     * up by each layout block.
+     */
+    public boolean isLinkStateRoutingEnabled() {
+        return enableLinkStateRouting;
+    }
+
+    /**
+     * Use the link-state routing engine to answer route queries.
+     * <p>
+     * This only has an effect while advanced routing is enabled. The engine
+     * answers whether a destination can be reached, and rejects a search for
+     * the blocks between two signal masts when there is no route at all. The
+     * layout blocks still run the routing protocol, as the step by step
+     * search itself relies on their tables.
+     * <p>
+     * The setting is stored with the layout blocks.
+     *
+     * @param boo true to use the link-state engine
+     */
+    public void setLinkStateRoutingEnabled(boolean boo) {
+        if (boo == enableLinkStateRouting) {
+            return;
+        }
+        enableLinkStateRouting = boo;
+        if (boo) {
+            initializeLinkStateRouting();
+        } else {
+            linkStateEngine.dispose();
+        }
+        firePropertyChange("linkStateRoutingEnabled", !boo, boo);
+    }
+
+    /**
+     * Returns the link-state routing engine, or null if it is not in use.
+     */
+    @CheckForNull
+    public LinkStateRoutingEngine getLinkStateRoutingEngine() {
+        if (enableAdvancedRouting && enableLinkStateRouting && initialized) {
+            if (linkStateBlocksChanged) {
+                linkStateBlocksChanged = false;
+                linkStateEngine.setLayoutBlocks(_tsys.values());
+            }
+            return linkStateEngine;
+        }
+        return null;
+    }
+
+    private void initializeLinkStateRouting() {
+        if (!enableAdvancedRouting || !enableLinkStateRouting || !initialized) {
+            return;
+        }
+        long start = System.nanoTime();
+        linkStateBlocksChanged = false;
+        linkStateEngine.setLayoutBlocks(_tsys.values());
+        linkStateEngine.computeAll();
+        log.debug("link-state routing initialized in {} ms", (System.nanoTime() - start) / 1000000);
+    }
+
+    @Override
+    protected void namesChanged() {
+        super.namesChanged();
+        // picked up when the engine is next used, so loading many blocks
+        // doesn't rebuild the graph for each one
+        linkStateBlocksChanged = true;
+    }
+
     @Nonnull
     public LayoutBlockConnectivityTools getLayoutBlockConnectivityTools() {
         return lbct;
@@ -47,6 +47,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.concurrent.ConcurrentHashMap;
@@ -463,6 +464,8 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
     public transient List<SignalHeadIcon> signalHeadImage = new ArrayList<>();       //signal head images
 
     private transient List<LayoutTrack> layoutTrackList = new ArrayList<>();         // LayoutTrack list
+    private transient final LayoutTrackLayer trackLayer = new LayoutTrackLayer(this); // LayoutTrack images
+    private transient final LayoutTrackIndex trackIndex = new LayoutTrackIndex(this); // LayoutTracks by location
 
     // PositionableLabel's
     public transient List<BlockContentsIcon> blockContentsLabelList = new ArrayList<>(); //BlockContentsIcon Label List
@@ -2765,6 +2768,31 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
         });
         hideTrackSegmentConstructionLinesCheckBoxMenuItem.setSelected(autoAssignBlocks);
 
+        //add use link-state routing menu item
+        JCheckBoxMenuItem linkStateRoutingCheckBoxMenuItem = new JCheckBoxMenuItem(Bundle.getMessage("UseLinkStateRouting"));
+        trackMenu.add(linkStateRoutingCheckBoxMenuItem);
+        linkStateRoutingCheckBoxMenuItem.addActionListener((ActionEvent event) -> {
+            InstanceManager.getDefault(LayoutBlockManager.class).setLinkStateRoutingEnabled(
+                    linkStateRoutingCheckBoxMenuItem.isSelected());
+            setDirty();
+        });
+        trackMenu.addMenuListener(new MenuListener() {
+            @Override
+            public void menuSelected(MenuEvent event) {
+                LayoutBlockManager lbm = InstanceManager.getDefault(LayoutBlockManager.class);
+                linkStateRoutingCheckBoxMenuItem.setEnabled(lbm.isAdvancedRoutingEnabled());
+                linkStateRoutingCheckBoxMenuItem.setSelected(lbm.isLinkStateRoutingEnabled());
+            }
+
+            @Override
+            public void menuDeselected(MenuEvent event) {
+            }
+
+            @Override
+            public void menuCanceled(MenuEvent event) {
+            }
+        });
+
         //
         //add turnout options submenu
         //
@@ -4705,7 +4733,7 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
             }
 
             Point2D delta = new Point2D.Double(xTranslation, yTranslation);
-            for (LayoutTrack lt : layoutTrackList) {
+            for (LayoutTrack lt : trackIndex.getTracksIn(selectionRect)) {
                 Point2D center = lt.getCoordsCenter();
                 if (selectionRect.contains(center)) {
                     lt.setCoordsCenter(MathUtil.add(center, delta));
@@ -4750,7 +4778,7 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
             }
 
             Point2D delta = new Point2D.Double(undoDeltaX, undoDeltaY);
-            for (LayoutTrack lt : layoutTrackList) {
+            for (LayoutTrack lt : trackIndex.getTracksIn(undoRect)) {
                 Point2D center = lt.getCoordsCenter();
                 if (undoRect.contains(center)) {
                     lt.setCoordsCenter(MathUtil.add(center, delta));
@@ -4906,9 +4934,43 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
      * Allow external trigger of re-drawHidden
      */
     public void redrawPanel() {
+        trackIndex.invalidate();
+        trackLayer.invalidate();
+        repaint();
+    }
+
+    /**
+     * Redraw the panel after tracks have been moved or reshaped, but none
+     * added or removed, filing only those tracks again in the index of track
+     * locations.
+     *
+     * @param movedTracks the tracks that have moved
+     */
+    private void redrawMovedTracks(@Nonnull List<LayoutTrack> movedTracks) {
+        trackIndex.update(movedTracks);
+        trackLayer.invalidate();
         repaint();
     }
 
+    /**
+     * Redraw the tracks of a layout block, repainting only the part of the
+     * panel with those tracks when the tracks are drawn from images.
+     *
+     * @param layoutBlock the layout block that changed
+     */
+    public void redrawLayoutBlock(@Nonnull LayoutBlock layoutBlock) {
+        Rectangle2D dirty = trackLayer.invalidate(layoutBlock);
+        if (dirty == null) {
+            redrawPanel();
+        } else if (!dirty.isEmpty()) {
+            double zoom = getZoom();
+            // getBounds() rounds outwards, so the edges are repainted too
+            getTargetPanel().repaint(new Rectangle2D.Double(
+                    dirty.getX() * zoom, dirty.getY() * zoom,
+                    dirty.getWidth() * zoom, dirty.getHeight() * zoom).getBounds());
+        }
+    }
+
     /**
      * Allow external set/reset of awaitingIconChange
      */
@@ -4939,6 +5001,10 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
      */
     public void setDirty(boolean val) {
         panelChanged = val;
+        if (val) {
+            trackIndex.invalidate();
+            contentsChanged();
+        }
     }
 
     public void setDirty() {
@@ -5191,7 +5257,7 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
     }
 
     private boolean checkControls(boolean useRectangles) {
-        Optional<LayoutTrack> opt = layoutTrackList.stream().filter(o -> {
+        Optional<LayoutTrack> opt = trackIndex.getTracksAt(dLoc).stream().filter(o -> {
             LayoutTrack layoutTrack = o;
             selectedPointType = layoutTrack.findHitPointType(dLoc, useRectangles);
             if (!LayoutTrack.isControlHitType(selectedPointType)) {
@@ -5244,7 +5310,7 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
 
         foundObject = null;
         foundPointType = LayoutTrack.NONE;
-        Optional<LayoutTrack> opt = layoutTrackList.stream().filter(o -> {
+        Optional<LayoutTrack> opt = trackIndex.getTracksAt(loc).stream().filter(o -> {
             LayoutTrack layoutTrack = o;
             if ((layoutTrack != avoid) && (layoutTrack != selectedObject)) {
                 foundPointType = layoutTrack.findHitPointType(loc, false, requireUnconnected);
@@ -5276,9 +5342,9 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
         Rectangle2D r = trackControlCircleRectAt(loc);
 
         //check Track Segments, if any
-        for (TrackSegment ts : getTrackSegments()) {
-            if (r.contains(ts.getCentreSeg())) {
-                result = ts;
+        for (LayoutTrack lt : trackIndex.getTracksAt(loc)) {
+            if ((lt instanceof TrackSegment) && r.contains(((TrackSegment) lt).getCentreSeg())) {
+                result = (TrackSegment) lt;
                 break;
             }
         }
@@ -6339,7 +6405,7 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
             }
         }
 
-        for (LayoutTrack lt : layoutTrackList) {
+        for (LayoutTrack lt : trackIndex.getTracksIn(selectionRect)) {
             Point2D center = lt.getCoordsCenter();
             if (selectionRect.contains(center)) {
                 if (!_layoutTrackSelection.contains(lt)) {
@@ -6658,11 +6724,14 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
             PositionableLabel pl = (PositionableLabel) selectedObject;
             pl.setLocation((int) currentPoint.getX(), (int) currentPoint.getY());
             isDragging = true;
-            redrawPanel();
+            redrawMovedTracks(Collections.emptyList());
             return;
         }
 
         if (isEditable()) {
+            // the tracks that are moved or reshaped
+            List<LayoutTrack> movedTracks = new ArrayList<>();
+
             if ((selectedObject != null) && isMetaDown(event) && allPositionable()) {
                 if (snapToGridOnMove != snapToGridInvert) {
                     // this snaps currentPoint to the grid
@@ -6698,6 +6767,7 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
                         //don't allow negative placement, objects could become unreachable
                         newPoint = MathUtil.max(newPoint, MathUtil.zeroPoint2D);
                         lt.setCoordsCenter(newPoint);
+                        movedTracks.add(lt);
                     }
 
                     _lastX = xLoc;
@@ -6839,6 +6909,10 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
                             break;
                         }
                     } //switch (selectedPointType)
+
+                    if (selectedObject instanceof LayoutTrack) {
+                        movedTracks.add((LayoutTrack) selectedObject);
+                    }
                 } // if moving selection else
             } else if ((beginObject != null)
                     && event.isShiftDown()
@@ -6857,7 +6931,7 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
                 selectionWidth = xLoc - selectionX;
                 selectionHeight = yLoc - selectionY;
             }
-            redrawPanel();
+            redrawMovedTracks(movedTracks);
         } else {
             Rectangle r = new Rectangle(event.getX(), event.getY(), 1, 1);
             ((JComponent) event.getSource()).scrollRectToVisible(r);
@@ -9537,17 +9611,15 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
             if (getDrawGrid()) {
                 drawPanelGrid(g2);
             }
-            drawHiddenLayoutTracks(g2);
+            // tracks can be moved in edit mode, so draw them directly
+            trackLayer.invalidate();
+            List<LayoutTrack> tracks = getTracksToDraw(g2);
+            drawHiddenLayoutTracks(g2, tracks);
+            drawTrackLayer(g2, tracks);
+        } else if (!trackLayer.paint(g2)) {
+            drawTrackLayer(g2, getTracksToDraw(g2));
         }
 
-        List<TrackSegment> trackSegments = getTrackSegments();
-        drawTrackSegments(g2, trackSegments, true, false);     //dashed, non-mainline
-        drawTrackSegments(g2, trackSegments, true, true);      //dashed, mainline
-        drawTrackSegments(g2, trackSegments, false, false);    //non-dashed, non-mainline
-        drawTrackSegments(g2, trackSegments, false, true);     //non-dashed, mainline
-
-        drawLayoutTracks(g2);
-
         // things that only get drawn in edit mode
         if (isEditable()) {
             drawLayoutTrackEditControls(g2);
@@ -9569,6 +9641,56 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
         }
     }   // draw
 
+    /**
+     * Draw tracks, track segments first.
+     *
+     * @param g2     the graphics port to draw to
+     * @param tracks the tracks to draw
+     */
+    void drawTrackLayer(Graphics2D g2, List<LayoutTrack> tracks) {
+        //Optional antialising, to eliminate (reduce) staircase on diagonal lines
+        if (antialiasingOn) {
+            g2.setRenderingHints(antialiasing);
+        }
+        // start with the side track stroke, whatever the graphics port has
+        main = false;
+        trackWidth = sideTrackWidth;
+        g2.setStroke(new BasicStroke(trackWidth, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND));
+
+        List<TrackSegment> trackSegments = tracks.stream()
+                .filter(TrackSegment.class::isInstance)
+                .map(TrackSegment.class::cast)
+                .collect(Collectors.toList());
+        drawTrackSegments(g2, trackSegments, true, false);     //dashed, non-mainline
+        drawTrackSegments(g2, trackSegments, true, true);      //dashed, mainline
+        drawTrackSegments(g2, trackSegments, false, false);    //non-dashed, non-mainline
+        drawTrackSegments(g2, trackSegments, false, true);     //non-dashed, mainline
+
+        drawLayoutTracks(g2, tracks);
+    }
+
+    LayoutTrackLayer getTrackLayer() {
+        return trackLayer;
+    }
+
+    LayoutTrackIndex getTrackIndex() {
+        return trackIndex;
+    }
+
+    /**
+     * Get a value that changes whenever a setting that changes how the tracks
+     * are drawn changes, so images of the tracks can be drawn again.
+     *
+     * @return the value
+     */
+    int getTrackLayerStyle() {
+        return Objects.hash(layoutTrackList.size(), antialiasingOn,
+                mainlineTrackWidth, sideTrackWidth,
+                defaultTrackColor, defaultOccupiedTrackColor, defaultAlternativeTrackColor,
+                turnoutDrawUnselectedLeg, turnoutBX, turnoutCX, turnoutWid,
+                xOverLong, xOverHWid, xOverShort);
+    }
+
     private boolean main = true;
     private float trackWidth = sideTrackWidth;
 
@@ -9590,10 +9712,16 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
         return trackWidth;
     }
 
-    private void drawHiddenLayoutTracks(Graphics2D g2) {
+    // only the tracks in the area being painted
+    private List<LayoutTrack> getTracksToDraw(Graphics2D g2) {
+        Rectangle clip = g2.getClipBounds();
+        return (clip != null) ? trackIndex.getTracksIn(clip) : layoutTrackList;
+    }
+
+    private void drawHiddenLayoutTracks(Graphics2D g2, List<LayoutTrack> tracks) {
         g2.setColor(defaultTrackColor);
         setTrackStrokeWidth(g2, false);
-        for (LayoutTrack tr : layoutTrackList) {
+        for (LayoutTrack tr : tracks) {
             // TrackSegments drawn seperately
             if (!(tr instanceof TrackSegment)) {
                 if (tr.isHidden()) {
@@ -9603,8 +9731,8 @@ public class LayoutEditor extends PanelEditor implements VetoableChangeListener,
         }
     } //drawHiddenLayoutTracks
 
-    private void drawLayoutTracks(Graphics2D g2) {
-        for (LayoutTrack tr : layoutTrackList) {
+    private void drawLayoutTracks(Graphics2D g2, List<LayoutTrack> tracks) {
+        for (LayoutTrack tr : tracks) {
             // TrackSegments drawn seperately
             if (!(tr instanceof TrackSegment)) {
                 if (!tr.isHidden()) {
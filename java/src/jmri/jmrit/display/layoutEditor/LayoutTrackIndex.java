@@ -0,0 +1,307 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Finds the tracks of a {@link LayoutEditor} panel at a point or in an area,
+ * without looking at every track.
+ * <p>
+ * The panel is divided into square cells, and each track is listed in every
+ * cell its bounds cover. The bounds of a track include all of the track as it
+ * is drawn, its center, and all of the points that can be clicked on, with
+ * room for the size of the hit areas around them. The tracks found may not
+ * actually be at the point or in the area, but any track that is will be
+ * found, so a caller still tests each track found, but only those.
+ * <p>
+ * The index is made again the next time it is used after the panel has
+ * changed, see {@link #invalidate()}. When tracks are only moved, as when
+ * they are dragged, just those tracks are filed again, see
+ * {@link #update(Collection)}.
+ */
+class LayoutTrackIndex {
+
+    // the width and height of a cell, in panel coordinates
+    static final double CELL_SIZE = 128.0;
+
+    private final LayoutEditor layoutEditor;
+    private final Map<LayoutTrack, Entry> entries = new IdentityHashMap<>();
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private boolean valid = false;
+    private int style = 0;
+    private int size = 0;
+
+    /**
+     * @param layoutEditor the panel
+     */
+    LayoutTrackIndex(@Nonnull LayoutEditor layoutEditor) {
+        this.layoutEditor = layoutEditor;
+    }
+
+    /**
+     * Note that tracks have been added, moved or removed, so the index is
+     * made again before it is next used.
+     */
+    synchronized void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Note that tracks have been moved, or reshaped, and file them again, along
+     * with the track segments joined to them. Tracks that have been added or
+     * removed, or a change in the style of the panel, need
+     * {@link #invalidate()} instead.
+     *
+     * @param moved the tracks that have moved
+     */
+    synchronized void update(@Nonnull Collection<LayoutTrack> moved) {
+        if (!isCurrent()) {
+            return; // it will be made again anyway
+        }
+        Map<LayoutTrack, LayoutTrack> tracks = new IdentityHashMap<>();
+        for (LayoutTrack track : moved) {
+            Entry entry = entries.get(track);
+            if (entry == null) {
+                valid = false; // not in the index, so it must be made again
+                return;
+            }
+            tracks.put(track, track);
+            if (!(track instanceof TrackSegment)) {
+                // a track segment joined to the track ends at one of its
+                // points, so is in a cell the track was in
+                for (Long key : getKeys(entry.bounds)) {
+                    for (Entry other : cells.getOrDefault(key, Collections.emptyList())) {
+                        if (other.track instanceof TrackSegment) {
+                            TrackSegment ts = (TrackSegment) other.track;
+                            if ((ts.getConnect1() == track) || (ts.getConnect2() == track)) {
+                                tracks.put(ts, ts);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (LayoutTrack track : tracks.keySet()) {
+            Entry old = entries.get(track);
+            for (Long key : getKeys(old.bounds)) {
+                List<Entry> cell = cells.get(key);
+                cell.remove(old);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+            add(new Entry(track, old.order, getBounds(track, layoutEditor)));
+        }
+    }
+
+    /**
+     * Get the tracks that may be at a point.
+     *
+     * @param point the point, in panel coordinates
+     * @return the tracks, in the order of the panel's track list
+     */
+    @Nonnull
+    synchronized List<LayoutTrack> getTracksAt(@Nonnull Point2D point) {
+        validate();
+        List<Entry> cell = cells.get(key(column(point.getX()), row(point.getY())));
+        if (cell == null) {
+            return Collections.emptyList();
+        }
+        List<Entry> found = new ArrayList<>();
+        for (Entry entry : cell) {
+            if (entry.bounds.contains(point)) {
+                found.add(entry);
+            }
+        }
+        return toTracks(found);
+    }
+
+    /**
+     * Get the tracks that may be in an area.
+     *
+     * @param area the area, in panel coordinates
+     * @return the tracks, in the order of the panel's track list
+     */
+    @Nonnull
+    synchronized List<LayoutTrack> getTracksIn(@Nonnull Rectangle2D area) {
+        validate();
+        int firstColumn = column(area.getMinX());
+        int lastColumn = column(area.getMaxX());
+        int firstRow = row(area.getMinY());
+        int lastRow = row(area.getMaxY());
+        List<Entry> found = new ArrayList<>();
+        if ((long) (lastColumn - firstColumn + 1) * (lastRow - firstRow + 1) > cells.size()) {
+            // it's quicker to look at every track than at every cell
+            for (Entry entry : entries.values()) {
+                if (entry.bounds.intersects(area)) {
+                    found.add(entry);
+                }
+            }
+        } else {
+            // a track in more than one cell is only found once
+            Map<Entry, Entry> seen = new IdentityHashMap<>();
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    List<Entry> cell = cells.get(key(column, row));
+                    if (cell != null) {
+                        for (Entry entry : cell) {
+                            if ((seen.put(entry, entry) == null) && entry.bounds.intersects(area)) {
+                                found.add(entry);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return toTracks(found);
+    }
+
+    /**
+     * Get the bounds of a track, as used by the index.
+     *
+     * @param track the track
+     * @return the bounds, in panel coordinates, or null if the track isn't on
+     *         the panel
+     */
+    @CheckForNull
+    synchronized Rectangle2D getBounds(@Nonnull LayoutTrack track) {
+        validate();
+        Entry entry = entries.get(track);
+        return (entry != null) ? (Rectangle2D) entry.bounds.clone() : null;
+    }
+
+    private boolean isCurrent() {
+        return valid && (style == getStyle()) && (size == layoutEditor.getLayoutTracks().size());
+    }
+
+    private int getStyle() {
+        return Objects.hash(layoutEditor.getTrackLayerStyle(), layoutEditor.getTurnoutCircleSize());
+    }
+
+    private void validate() {
+        if (isCurrent()) {
+            return;
+        }
+        List<LayoutTrack> tracks = layoutEditor.getLayoutTracks();
+        entries.clear();
+        cells.clear();
+        for (int i = 0; i < tracks.size(); i++) {
+            LayoutTrack track = tracks.get(i);
+            add(new Entry(track, i, getBounds(track, layoutEditor)));
+        }
+        style = getStyle();
+        size = tracks.size();
+        valid = true;
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.track, entry);
+        for (Long key : getKeys(entry.bounds)) {
+            cells.computeIfAbsent(key, (k) -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private static List<Long> getKeys(Rectangle2D bounds) {
+        List<Long> keys = new ArrayList<>();
+        for (int row = row(bounds.getMinY()); row <= row(bounds.getMaxY()); row++) {
+            for (int column = column(bounds.getMinX()); column <= column(bounds.getMaxX()); column++) {
+                keys.add(key(column, row));
+            }
+        }
+        return keys;
+    }
+
+    private static List<LayoutTrack> toTracks(List<Entry> found) {
+        // a cell lists its tracks in the order they were added, but the
+        // tracks of several cells must be put back in order
+        found.sort((e1, e2) -> Integer.compare(e1.order, e2.order));
+        List<LayoutTrack> result = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            result.add(entry.track);
+        }
+        return result;
+    }
+
+    private static int column(double x) {
+        return (int) Math.floor(x / CELL_SIZE);
+    }
+
+    private static int row(double y) {
+        return (int) Math.floor(y / CELL_SIZE);
+    }
+
+    private static long key(int column, int row) {
+        return (((long) column) << 32) | (row & 0xffffffffL);
+    }
+
+    /**
+     * Get the area a track covers, as it is drawn and as it is clicked on.
+     *
+     * @param track        the track
+     * @param layoutEditor the panel of the track
+     * @return the area, in panel coordinates
+     */
+    static Rectangle2D getBounds(@Nonnull LayoutTrack track, @Nonnull LayoutEditor layoutEditor) {
+        Rectangle2D result = track.getBounds();
+        if (track instanceof TrackSegment) {
+            TrackSegment ts = (TrackSegment) track;
+            if ((ts.getConnect1() != null) && (ts.getConnect2() != null)) {
+                if (ts.isArc()) {
+                    // the arc is within its ellipse
+                    ts.calculateTrackSegmentAngle();
+                    result.add(new Rectangle2D.Double(ts.getCX(), ts.getCY(), ts.getCW(), ts.getCH()));
+                }
+                result.add(ts.getCentreSeg());
+            }
+            if (ts.isCircle()) {
+                result.add(ts.getCoordsCenterCircle());
+            }
+            if (ts.isBezier()) {
+                // the curve is within its control points
+                for (int i = 0; i < ts.getNumberOfBezierControlPoints(); i++) {
+                    result.add(ts.getBezierControlPoint(i));
+                }
+            }
+        } else if (track instanceof LayoutTurntable) {
+            LayoutTurntable lt = (LayoutTurntable) track;
+            double r = lt.getRadius();
+            result.add(new Ellipse2D.Double(lt.getCoordsCenter().getX() - r, lt.getCoordsCenter().getY() - r,
+                    r + r, r + r).getBounds2D());
+        }
+        // after getCentreSeg(), which can move the center of a track segment
+        result.add(track.getCoordsCenter());
+        // half of the widest track, with room for its ends and joins, or the
+        // hit area around a point, whichever is bigger
+        double margin = Math.max(Math.max(layoutEditor.getMainlineTrackWidth(), layoutEditor.getSideTrackWidth()) + 4.0,
+                LayoutEditor.SIZE * Math.max(1, layoutEditor.getTurnoutCircleSize()) + 1.0);
+        return new Rectangle2D.Double(result.getX() - margin, result.getY() - margin,
+                result.getWidth() + (2.0 * margin), result.getHeight() + (2.0 * margin));
+    }
+
+    /**
+     * A track, its place in the panel's track list, and its bounds.
+     */
+    private static class Entry {
+
+        private final LayoutTrack track;
+        private final int order;
+        private final Rectangle2D bounds;
+
+        Entry(LayoutTrack track, int order, Rectangle2D bounds) {
+            this.track = track;
+            this.order = order;
+            this.bounds = bounds;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.print.PrinterGraphics;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Keeps images of the tracks of a {@link LayoutEditor} panel, so the tracks
+ * aren't drawn again every time the panel is painted.
+ * <p>
+ * The tracks are drawn into square tiles at the scale of the screen, as they
+ * are needed. A tile is only drawn again when something drawn on it changes:
+ * when a block changes, only the tiles with the tracks of that block are
+ * dropped, and only that part of the panel is repainted. Any other change to
+ * the panel drops all of the tiles.
+ * <p>
+ * The tiles are only used in run mode, in edit mode the tracks are drawn
+ * directly so they can be moved.
+ *
+ * @see LayoutEditor#redrawLayoutBlock(LayoutBlock)
+ */
+class LayoutTrackLayer {
+
+    // the width and height of a tile, in pixels
+    static final int TILE_SIZE = 256;
+    // the most tiles kept, the least recently painted are dropped first
+    static final int MAX_TILES = 128;
+
+    private final LayoutEditor layoutEditor;
+    // the tiles in the order they were painted, a tile with no tracks is null
+    private final LinkedHashMap<Tile, BufferedImage> tiles = new LinkedHashMap<Tile, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Tile, BufferedImage> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+    private boolean enabled = true;
+    private boolean valid = false;
+    private int style = 0;
+    private int tilesDrawn = 0;
+
+    /**
+     * @param layoutEditor the panel
+     */
+    LayoutTrackLayer(@Nonnull LayoutEditor layoutEditor) {
+        this.layoutEditor = layoutEditor;
+    }
+
+    /**
+     * Paint the tracks from the tiles, drawing any tiles that are missing.
+     *
+     * @param g2 the graphics port to paint to
+     * @return false if the tracks can't be painted from tiles, and must be
+     *         drawn directly
+     */
+    synchronized boolean paint(@Nonnull Graphics2D g2) {
+        if (!enabled || (g2 instanceof PrinterGraphics)) {
+            return false;
+        }
+        // the tiles can only be used if the panel is drawn unrotated and
+        // lined up with the pixels
+        AffineTransform transform = g2.getTransform();
+        if ((transform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) != 0
+                || transform.getScaleX() <= 0.0 || transform.getScaleY() <= 0.0
+                || transform.getTranslateX() != Math.rint(transform.getTranslateX())
+                || transform.getTranslateY() != Math.rint(transform.getTranslateY())) {
+            return false;
+        }
+        double scaleX = transform.getScaleX();
+        double scaleY = transform.getScaleY();
+
+        int newStyle = layoutEditor.getTrackLayerStyle();
+        if (!valid || style != newStyle) {
+            tiles.clear();
+            style = newStyle;
+            valid = true;
+        }
+
+        Rectangle clip = g2.getClipBounds();
+        Rectangle2D area = (clip != null) ? clip : getTracksBounds();
+        if ((area == null) || area.isEmpty()) {
+            return true;
+        }
+        int firstColumn = (int) Math.floor(area.getMinX() * scaleX / TILE_SIZE);
+        int lastColumn = (int) Math.floor(area.getMaxX() * scaleX / TILE_SIZE);
+        int firstRow = (int) Math.floor(area.getMinY() * scaleY / TILE_SIZE);
+        int lastRow = (int) Math.floor(area.getMaxY() * scaleY / TILE_SIZE);
+        if ((long) (lastColumn - firstColumn + 1) * (lastRow - firstRow + 1) > MAX_TILES) {
+            // too big to keep, the tiles would be dropped before they're used again
+            return false;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Tile tile = new Tile(scaleX, scaleY, column, row);
+                BufferedImage image;
+                if (tiles.containsKey(tile)) {
+                    image = tiles.get(tile);
+                } else {
+                    image = drawTile(tile);
+                    tiles.put(tile, image);
+                }
+                if (image != null) {
+                    // undo the scale, so the tile is copied pixel for pixel
+                    g2.drawImage(image, new AffineTransform(1.0 / scaleX, 0.0, 0.0, 1.0 / scaleY,
+                            column * TILE_SIZE / scaleX, row * TILE_SIZE / scaleY), null);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop all of the tiles; the tracks will be drawn again when next painted.
+     */
+    synchronized void invalidate() {
+        valid = false;
+        tiles.clear();
+    }
+
+    /**
+     * Drop the tiles with the tracks of a block.
+     *
+     * @param block the block that changed
+     * @return the area of the panel to repaint, or null if the whole panel
+     *         must be repainted
+     */
+    @CheckForNull
+    synchronized Rectangle2D invalidate(@Nonnull LayoutBlock block) {
+        if (!valid) {
+            return null;
+        }
+        Rectangle2D dirty = null;
+        LayoutTrackIndex index = layoutEditor.getTrackIndex();
+        for (LayoutTrack track : layoutEditor.getLayoutTracks()) {
+            Rectangle2D bounds;
+            if (isInBlock(track, block) && ((bounds = index.getBounds(track)) != null)) {
+                if (dirty == null) {
+                    dirty = (Rectangle2D) bounds.clone();
+                } else {
+                    dirty.add(bounds);
+                }
+                Iterator<Tile> iterator = tiles.keySet().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().intersects(bounds)) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        return (dirty != null) ? dirty : new Rectangle2D.Double();
+    }
+
+    /**
+     * Set if the tiles are used, so the tracks can be drawn directly to
+     * compare.
+     *
+     * @param enabled true to paint the tracks from the tiles
+     */
+    synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        invalidate();
+    }
+
+    /**
+     * @return the number of tiles drawn since the layer was made, to see how
+     *         well the tiles are reused
+     */
+    synchronized int getTilesDrawn() {
+        return tilesDrawn;
+    }
+
+    private BufferedImage drawTile(Tile tile) {
+        // the tracks on the tile, in the order they are drawn
+        List<LayoutTrack> tracks = layoutEditor.getTrackIndex().getTracksIn(tile.getArea());
+        if (tracks.isEmpty()) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.translate(-tile.column * TILE_SIZE, -tile.row * TILE_SIZE);
+            g2.scale(tile.scaleX, tile.scaleY);
+            layoutEditor.drawTrackLayer(g2, tracks);
+        } finally {
+            g2.dispose();
+        }
+        tilesDrawn++;
+        return image;
+    }
+
+    private Rectangle2D getTracksBounds() {
+        Rectangle2D result = null;
+        LayoutTrackIndex index = layoutEditor.getTrackIndex();
+        for (LayoutTrack track : layoutEditor.getLayoutTracks()) {
+            Rectangle2D bounds = index.getBounds(track);
+            if (bounds == null) {
+                continue;
+            }
+            if (result == null) {
+                result = bounds;
+            } else {
+                result.add(bounds);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check if a track is drawn in the colors of a block.
+     *
+     * @param track the track
+     * @param block the block
+     * @return true if the track is drawn in the colors of the block
+     */
+    static boolean isInBlock(@Nonnull LayoutTrack track, @Nonnull LayoutBlock block) {
+        if (track instanceof TrackSegment) {
+            return ((TrackSegment) track).getLayoutBlock() == block;
+        } else if (track instanceof LayoutTurnout) { // includes LayoutSlips
+            LayoutTurnout lt = (LayoutTurnout) track;
+            return (lt.getLayoutBlock() == block) || (lt.getLayoutBlockB() == block)
+                    || (lt.getLayoutBlockC() == block) || (lt.getLayoutBlockD() == block);
+        } else if (track instanceof LevelXing) {
+            LevelXing lx = (LevelXing) track;
+            return (lx.getLayoutBlockAC() == block) || (lx.getLayoutBlockBD() == block);
+        } else if (track instanceof LayoutTurntable) {
+            // the rays are drawn in the colors of their track segments
+            LayoutTurntable lt = (LayoutTurntable) track;
+            for (int i = 0; i < lt.getNumberRays(); i++) {
+                TrackSegment ts = lt.getRayConnectOrdered(i);
+                if ((ts != null) && (ts.getLayoutBlock() == block)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The position of a tile, in pixels of the panel at a scale.
+     */
+    private static class Tile {
+
+        private final double scaleX;
+        private final double scaleY;
+        private final int column;
+        private final int row;
+
+        Tile(double scaleX, double scaleY, int column, int row) {
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.column = column;
+            this.row = row;
+        }
+
+        /**
+         * @return the area of the panel on the tile, with a pixel of room on
+         *         each side for antialiasing
+         */
+        Rectangle2D getArea() {
+            double pixelX = 1.0 / scaleX;
+            double pixelY = 1.0 / scaleY;
+            return new Rectangle2D.Double((column * TILE_SIZE - 1) * pixelX, (row * TILE_SIZE - 1) * pixelY,
+                    (TILE_SIZE + 2) * pixelX, (TILE_SIZE + 2) * pixelY);
+        }
+
+        boolean intersects(Rectangle2D bounds) {
+            return getArea().intersects(bounds);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Tile)) {
+                return false;
+            }
+            Tile other = (Tile) obj;
+            return (scaleX == other.scaleX) && (scaleY == other.scaleY)
+                    && (column == other.column) && (row == other.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((Double.hashCode(scaleX) * 31 + Double.hashCode(scaleY)) * 31 + column) * 31 + row;
+        }
+    }
+}
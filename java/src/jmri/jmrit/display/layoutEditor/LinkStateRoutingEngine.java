@@ -0,0 +1,520 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+import jmri.Block;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Link-state alternative to the distance-vector routing protocol run between
+ * {@link LayoutBlock}s.
+ * <p>
+ * Instead of each block learning its routes from the routes its neighbours
+ * advertise, this builds a single graph of the layout from every block's
+ * neighbours and through paths, and computes each block's routing table
+ * directly with Dijkstra's algorithm. A route may only enter a neighbour where
+ * the packet flow and block deny lists allow traffic in that direction, as for
+ * the distance-vector protocol, and may only pass through a block along one of
+ * that block's through paths, so the search runs over
+ * (previous block, block) pairs. The cost of a route is the sum of the
+ * metrics of the blocks entered along it.
+ * <p>
+ * Routing tables are computed for all blocks at once, in parallel, by
+ * {@link #computeAll()}, or for a single block when it is first queried. A
+ * change in a block's metric only discards the computed tables, which are
+ * then recomputed as needed; the graph itself is rebuilt only when a block's
+ * neighbours or through paths change, and then not until it is next queried,
+ * so that the many changes made while the blocks connect up cost a single
+ * rebuild. Block occupancy does not affect the routes, so needs no
+ * recomputation.
+ * <p>
+ * Queries mirror the routing queries of {@link LayoutBlock}, with the source
+ * block given explicitly.
+ *
+ * @see LayoutBlockManager#setLinkStateRoutingEnabled(boolean)
+ */
+public class LinkStateRoutingEngine {
+
+    private volatile Graph graph = new Graph(new ArrayList<>());
+    private volatile AtomicReferenceArray<RoutingTable> tables = new AtomicReferenceArray<>(0);
+    private volatile boolean dirty = false;
+    private final List<LayoutBlock> layoutBlocks = new ArrayList<>();
+    private final PropertyChangeListener blockListener = this::blockChanged;
+
+    /**
+     * Build the graph from a set of layout blocks, and follow changes to their
+     * metrics and connections.
+     *
+     * @param blocks the layout blocks
+     */
+    public synchronized void setLayoutBlocks(Collection<LayoutBlock> blocks) {
+        for (LayoutBlock lb : layoutBlocks) {
+            lb.removePropertyChangeListener(blockListener);
+        }
+        layoutBlocks.clear();
+        layoutBlocks.addAll(blocks);
+        for (LayoutBlock lb : layoutBlocks) {
+            lb.addPropertyChangeListener(blockListener);
+        }
+        rebuild();
+    }
+
+    /**
+     * Stop following the layout blocks and discard the graph.
+     */
+    public synchronized void dispose() {
+        setLayoutBlocks(new ArrayList<>());
+    }
+
+    /**
+     * Take a new snapshot of the neighbours, through paths and metrics of the
+     * layout blocks, discarding all computed routing tables.
+     */
+    public synchronized void rebuild() {
+        List<Node> nodes = new ArrayList<>(layoutBlocks.size());
+        for (LayoutBlock lb : layoutBlocks) {
+            if (lb.getBlock() == null) {
+                continue;
+            }
+            nodes.add(Node.of(lb));
+        }
+        dirty = false;
+        setGraph(new Graph(nodes));
+    }
+
+    /**
+     * Get the graph, first rebuilding it if the connections of a block have
+     * changed since it was built.
+     */
+    private Graph currentGraph() {
+        if (dirty) {
+            synchronized (this) {
+                if (dirty) {
+                    rebuild();
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Replace the graph. Used directly by tests to route over a layout
+     * described without a panel.
+     *
+     * @param graph the graph to route over
+     */
+    void setGraph(Graph graph) {
+        this.graph = graph;
+        this.tables = new AtomicReferenceArray<>(graph.size);
+        log.debug("routing graph built with {} blocks and {} links", graph.size, graph.linkCount);
+    }
+
+    /**
+     * Compute the routing tables of every block, in parallel.
+     */
+    public void computeAll() {
+        Graph g = currentGraph();
+        AtomicReferenceArray<RoutingTable> t = tables;
+        long start = System.nanoTime();
+        IntStream.range(0, g.size).parallel().forEach((source) -> {
+            if (t.get(source) == null) {
+                t.set(source, g.computeTable(source));
+            }
+        });
+        log.debug("computed routing tables for {} blocks in {} ms", g.size, (System.nanoTime() - start) / 1000000);
+    }
+
+    private void blockChanged(PropertyChangeEvent e) {
+        if (!(e.getSource() instanceof LayoutBlock)) {
+            return;
+        }
+        if (dirty) {
+            return; // the whole graph will be read again anyway
+        }
+        LayoutBlock lb = (LayoutBlock) e.getSource();
+        Graph g = graph;
+        Integer index = g.index.get(lb.getBlock());
+        if (index == null) {
+            return;
+        }
+        Node node = g.nodes.get(index);
+        if (!node.hasConnectionsOf(lb)) {
+            log.debug("connections of {} changed, routing graph will be rebuilt", lb.getDisplayName());
+            dirty = true;
+        } else if (g.metric[index] != lb.getBlockMetric()) {
+            log.debug("metric of {} changed to {}", lb.getDisplayName(), lb.getBlockMetric());
+            setGraph(g.withMetric(index, lb.getBlockMetric()));
+        }
+    }
+
+    private RoutingTable getTable(Block source) {
+        Graph g = currentGraph();
+        AtomicReferenceArray<RoutingTable> t = tables;
+        Integer index = g.index.get(source);
+        if (index == null) {
+            return null;
+        }
+        RoutingTable table = t.get(index);
+        if (table == null) {
+            table = g.computeTable(index);
+            t.set(index, table);
+        }
+        return table;
+    }
+
+    /**
+     * Is there a route from the source block to the destination that enters
+     * the given neighbour first?
+     *
+     * @param source      the block the route starts in
+     * @param next        neighbour of the source
+     * @param destination the block the route ends in
+     * @return true if such a route exists
+     * @see LayoutBlock#isRouteToDestValid(Block, Block)
+     */
+    public boolean isRouteToDestValid(Block source, Block next, Block destination) {
+        return getBlockHopCount(source, destination, next) != -1;
+    }
+
+    /**
+     * Number of blocks entered on the best route from the source block to the
+     * destination through the given neighbour.
+     *
+     * @param source      the block the route starts in
+     * @param destination the block the route ends in
+     * @param next        neighbour of the source
+     * @return the hop count, 1 if the destination is the neighbour, or -1 if
+     *         there is no such route
+     * @see LayoutBlock#getBlockHopCount(Block, Block)
+     */
+    public int getBlockHopCount(Block source, Block destination, Block next) {
+        RoutingTable table = getTable(source);
+        if (table == null) {
+            return -1;
+        }
+        return table.lookup(graph, next, destination, true);
+    }
+
+    /**
+     * Cost of the best route from the source block to the destination through
+     * the given neighbour.
+     *
+     * @param source      the block the route starts in
+     * @param destination the block the route ends in
+     * @param next        neighbour of the source
+     * @return the sum of the metrics of the blocks entered, 1 if the
+     *         destination is the neighbour, or -1 if there is no such route
+     * @see LayoutBlock#getBlockMetric(Block, Block)
+     */
+    public int getBlockMetric(Block source, Block destination, Block next) {
+        if (destination == next) {
+            return getBlockHopCount(source, destination, next) == -1 ? -1 : 1;
+        }
+        RoutingTable table = getTable(source);
+        if (table == null) {
+            return -1;
+        }
+        return table.lookup(graph, next, destination, false);
+    }
+
+    /**
+     * Find the neighbour of the source block through which the destination is
+     * reached at least cost.
+     *
+     * @param source      the block the route starts in
+     * @param destination the block the route ends in
+     * @return the neighbour, or null if the destination can't be reached
+     */
+    public Block getNextBlock(Block source, Block destination) {
+        RoutingTable table = getTable(source);
+        Graph g = graph;
+        Integer dest = g.index.get(destination);
+        if (table == null || dest == null) {
+            return null;
+        }
+        int best = -1;
+        int bestMetric = Integer.MAX_VALUE;
+        for (int k = 0; k < table.firstHops.length; k++) {
+            int m = table.metric[k][dest];
+            if (m >= 0 && m < bestMetric) {
+                bestMetric = m;
+                best = k;
+            }
+        }
+        return best < 0 ? null : g.blocks[table.firstHops[best]];
+    }
+
+    /**
+     * A block and its connections, as used to build the graph.
+     */
+    static class Node {
+
+        final Block block;
+        final int metric;
+        // the neighbours a route may enter from this block
+        final List<Block> neighbours = new ArrayList<>();
+        // pairs of {source, destination} blocks
+        final List<Block[]> throughPaths = new ArrayList<>();
+
+        Node(Block block, int metric) {
+            this.block = block;
+            this.metric = metric;
+        }
+
+        /**
+         * Take a snapshot of the connections of a layout block.
+         *
+         * @param lb the layout block
+         * @return the node
+         */
+        static Node of(LayoutBlock lb) {
+            Node node = new Node(lb.getBlock(), lb.getBlockMetric());
+            node.neighbours.addAll(getEnterable(lb));
+            for (int i = 0; i < lb.getNumberOfThroughPaths(); i++) {
+                node.throughPaths.add(new Block[]{lb.getThroughPathSource(i), lb.getThroughPathDestination(i)});
+            }
+            return node;
+        }
+
+        /**
+         * Get the neighbours of a layout block that traffic may enter from
+         * it: those it doesn't only receive traffic from, and whose blocks
+         * don't deny traffic from it.
+         */
+        private static List<Block> getEnterable(LayoutBlock lb) {
+            List<Block> enterable = new ArrayList<>();
+            for (int i = 0; i < lb.getNumberOfNeighbours(); i++) {
+                Block neighbour = lb.getNeighbourAtIndex(i);
+                if (lb.getNeighbourPacketFlow(i) != LayoutBlock.TXONLY
+                        && (neighbour == null || !neighbour.isBlockDenied(lb.getBlock()))) {
+                    enterable.add(neighbour);
+                }
+            }
+            return enterable;
+        }
+
+        /**
+         * Does the layout block still have the neighbours and through paths
+         * this node was built with?
+         */
+        boolean hasConnectionsOf(LayoutBlock lb) {
+            if (throughPaths.size() != lb.getNumberOfThroughPaths()) {
+                return false;
+            }
+            List<Block> current = getEnterable(lb);
+            if (current.size() != neighbours.size() || !new HashSet<>(current).equals(new HashSet<>(neighbours))) {
+                return false;
+            }
+            HashSet<List<Block>> currentPaths = new HashSet<>();
+            for (int i = 0; i < lb.getNumberOfThroughPaths(); i++) {
+                currentPaths.add(Arrays.asList(lb.getThroughPathSource(i), lb.getThroughPathDestination(i)));
+            }
+            HashSet<List<Block>> paths = new HashSet<>();
+            for (Block[] tp : throughPaths) {
+                paths.add(Arrays.asList(tp));
+            }
+            return currentPaths.equals(paths);
+        }
+    }
+
+    /**
+     * Immutable routing graph. Each directed link between neighbouring blocks
+     * is a vertex of the search, numbered so the links leaving block b are
+     * linkStart[b] to linkStart[b + 1] - 1.
+     */
+    static class Graph {
+
+        final List<Node> nodes;
+        final int size;
+        final Block[] blocks;
+        final HashMap<Block, Integer> index = new HashMap<>();
+        final int[] metric;
+        final int[] linkStart;
+        final int[] linkTarget;
+        // for each link into a block, the links leaving it that a through
+        // path allows
+        final int[][] linkNext;
+        final int linkCount;
+
+        Graph(List<Node> nodes) {
+            this.nodes = nodes;
+            size = nodes.size();
+            blocks = new Block[size];
+            metric = new int[size];
+            for (int i = 0; i < size; i++) {
+                blocks[i] = nodes.get(i).block;
+                metric[i] = nodes.get(i).metric;
+                index.put(blocks[i], i);
+            }
+            linkStart = new int[size + 1];
+            ArrayList<Integer> targets = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                linkStart[i] = targets.size();
+                for (Block b : nodes.get(i).neighbours) {
+                    Integer t = index.get(b);
+                    if (t != null) {
+                        targets.add(t);
+                    }
+                }
+            }
+            linkStart[size] = targets.size();
+            linkCount = targets.size();
+            linkTarget = new int[linkCount];
+            for (int l = 0; l < linkCount; l++) {
+                linkTarget[l] = targets.get(l);
+            }
+            linkNext = new int[linkCount][];
+            for (int l = 0; l < linkCount; l++) {
+                linkNext[l] = allowedNext(linkSource(l), linkTarget[l]);
+            }
+        }
+
+        private Graph(Graph g, int[] metric) {
+            nodes = g.nodes;
+            size = g.size;
+            blocks = g.blocks;
+            index.putAll(g.index);
+            this.metric = metric;
+            linkStart = g.linkStart;
+            linkTarget = g.linkTarget;
+            linkNext = g.linkNext;
+            linkCount = g.linkCount;
+        }
+
+        Graph withMetric(int block, int m) {
+            int[] copy = Arrays.copyOf(metric, size);
+            copy[block] = m;
+            return new Graph(this, copy);
+        }
+
+        private int linkSource(int link) {
+            int b = Arrays.binarySearch(linkStart, link);
+            if (b < 0) {
+                return -b - 2;
+            }
+            // skip blocks with no links
+            while (linkStart[b + 1] == link) {
+                b++;
+            }
+            return b;
+        }
+
+        /**
+         * Links leaving block "at" that continue a route arriving from block
+         * "from".
+         */
+        private int[] allowedNext(int from, int at) {
+            ArrayList<Integer> allowed = new ArrayList<>();
+            for (Block[] tp : nodes.get(at).throughPaths) {
+                if (tp[0] != blocks[from]) {
+                    continue;
+                }
+                Integer to = index.get(tp[1]);
+                if (to == null) {
+                    continue;
+                }
+                for (int l = linkStart[at]; l < linkStart[at + 1]; l++) {
+                    if (linkTarget[l] == to && !allowed.contains(l)) {
+                        allowed.add(l);
+                    }
+                }
+            }
+            int[] result = new int[allowed.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = allowed.get(i);
+            }
+            return result;
+        }
+
+        /**
+         * Compute the routing table of one block: for each neighbour, the
+         * least cost and its hop count to every reachable block.
+         */
+        RoutingTable computeTable(int source) {
+            int first = linkStart[source];
+            int count = linkStart[source + 1] - first;
+            RoutingTable table = new RoutingTable(count, size);
+            int[] dist = new int[linkCount];
+            int[] hops = new int[linkCount];
+            for (int k = 0; k < count; k++) {
+                int startLink = first + k;
+                table.firstHops[k] = linkTarget[startLink];
+                Arrays.fill(dist, Integer.MAX_VALUE);
+                int[] bestMetric = table.metric[k];
+                int[] bestHops = table.hops[k];
+                PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+                dist[startLink] = metric[linkTarget[startLink]];
+                hops[startLink] = 1;
+                queue.add(new long[]{dist[startLink], startLink});
+                while (!queue.isEmpty()) {
+                    long[] e = queue.poll();
+                    int link = (int) e[1];
+                    if (e[0] > dist[link]) {
+                        continue;
+                    }
+                    int at = linkTarget[link];
+                    if (at != source && (bestMetric[at] < 0 || dist[link] < bestMetric[at])) {
+                        bestMetric[at] = dist[link];
+                        bestHops[at] = hops[link];
+                    }
+                    for (int next : linkNext[link]) {
+                        int d = dist[link] + metric[linkTarget[next]];
+                        if (d < dist[next]) {
+                            dist[next] = d;
+                            hops[next] = hops[link] + 1;
+                            queue.add(new long[]{d, next});
+                        }
+                    }
+                }
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Routes from one block: metric[k][d] and hops[k][d] are the cost and hop
+     * count to block d through the k'th neighbour, or -1 if unreachable.
+     */
+    static class RoutingTable {
+
+        final int[] firstHops;
+        final int[][] metric;
+        final int[][] hops;
+
+        RoutingTable(int neighbours, int blocks) {
+            firstHops = new int[neighbours];
+            metric = new int[neighbours][blocks];
+            hops = new int[neighbours][blocks];
+            for (int k = 0; k < neighbours; k++) {
+                Arrays.fill(metric[k], -1);
+                Arrays.fill(hops[k], -1);
+            }
+        }
+
+        int lookup(Graph g, Block next, Block destination, boolean hopCount) {
+            Integer n = g.index.get(next);
+            Integer d = g.index.get(destination);
+            if (n == null || d == null) {
+                return -1;
+            }
+            for (int k = 0; k < firstHops.length; k++) {
+                if (firstHops[k] == n) {
+                    return hopCount ? hops[k][d] : metric[k][d];
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(LinkStateRoutingEngine.class);
+}
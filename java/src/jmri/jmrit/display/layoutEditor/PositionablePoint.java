@@ -218,12 +218,12 @@ public class PositionablePoint extends LayoutTrack {
                 TrackSegment ts = oldLinkedPoint.getConnect1();
                 oldLinkedPoint.getLayoutEditor().getLEAuxTools().setBlockConnectivityChanged();
                 ts.updateBlockInfo();
-                oldLinkedPoint.getLayoutEditor().repaint();
+                oldLinkedPoint.getLayoutEditor().redrawPanel();
             }
             if (getConnect1() != null) {
                 layoutEditor.getLEAuxTools().setBlockConnectivityChanged();
                 getConnect1().updateBlockInfo();
-                layoutEditor.repaint();
+                layoutEditor.redrawPanel();
             }
         }
         linkedPoint = p;
@@ -232,7 +232,7 @@ public class PositionablePoint extends LayoutTrack {
             if (getConnect1() != null) {
                 layoutEditor.getLEAuxTools().setBlockConnectivityChanged();
                 getConnect1().updateBlockInfo();
-                layoutEditor.repaint();
+                layoutEditor.redrawPanel();
             }
         }
     }
@@ -1001,7 +1001,7 @@ public class PositionablePoint extends LayoutTrack {
             public void actionPerformed(ActionEvent e) {
                 ident = layoutEditor.getFinder().uniqueName("A", 1);
                 type = ANCHOR;
-                layoutEditor.repaint();
+                layoutEditor.redrawPanel();
             }
         }));
 
@@ -1018,7 +1018,7 @@ public class PositionablePoint extends LayoutTrack {
             public void actionPerformed(ActionEvent e) {
                 ident = layoutEditor.getFinder().uniqueName("EB", 1);
                 type = END_BUMPER;
-                layoutEditor.repaint();
+                layoutEditor.redrawPanel();
             }
         }));
 
@@ -1029,7 +1029,7 @@ public class PositionablePoint extends LayoutTrack {
             public void actionPerformed(ActionEvent e) {
                 ident = layoutEditor.getFinder().uniqueName("EC", 1);
                 type = EDGE_CONNECTOR;
-                layoutEditor.repaint();
+                layoutEditor.redrawPanel();
             }
         }));
 
@@ -1129,7 +1129,7 @@ public class PositionablePoint extends LayoutTrack {
                 LayoutEditor oldLinkedEditor = getLinkedEditor();
                 TrackSegment ts = getConnect2();
                 getLinkedPoint().setLinkedPoint(null);
-                oldLinkedEditor.repaint();
+                oldLinkedEditor.redrawPanel();
                 oldLinkedEditor.getLEAuxTools().setBlockConnectivityChanged();
                 ts.updateBlockInfo();
             }
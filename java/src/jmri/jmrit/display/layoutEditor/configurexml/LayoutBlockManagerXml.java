@@ -38,6 +38,9 @@ public class LayoutBlockManagerXml extends jmri.managers.configurexml.AbstractNa
         if (tm.isAdvancedRoutingEnabled()) {
             layoutblocks.setAttribute("blockrouting", "yes");
         }
+        if (tm.isLinkStateRoutingEnabled()) {
+            layoutblocks.setAttribute("linkstaterouting", "yes");
+        }
         if (tm.getNamedStabilisedSensor() != null) {
             layoutblocks.setAttribute("routingStablisedSensor", tm.getNamedStabilisedSensor().getName());
         }
@@ -121,6 +124,12 @@ public class LayoutBlockManagerXml extends jmri.managers.configurexml.AbstractNa
             log.warn("unable to convert layout block manager blockrouting attribute");
         } catch (NullPointerException e) {  // considered normal if the attribute is not present
         }
+        try {
+            tm.setLinkStateRoutingEnabled(layoutblocks.getAttribute("linkstaterouting").getBooleanValue());
+        } catch (DataConversionException e1) {
+            log.warn("unable to convert layout block manager linkstaterouting attribute");
+        } catch (NullPointerException e) {  // considered normal if the attribute is not present
+        }
         if (layoutblocks.getAttribute("routingStablisedSensor") != null) {
             try {
                 tm.setStabilisedSensor(layoutblocks.getAttribute("routingStablisedSensor").getValue());
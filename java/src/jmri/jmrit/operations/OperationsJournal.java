@@ -0,0 +1,352 @@
+package jmri.jmrit.operations;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves the changes to an operations file by adding the changed records to a
+ * journal, and writes the journal into the file on a background thread.
+ * <p>
+ * Each line of the journal is one record. A record is either an element as
+ * stored in the file, which replaces the element with the same id, a deleted
+ * element with the id of an element to remove, or an attributes element whose
+ * children replace the children of the same name in the file. When the file
+ * is loaded, any records left in the journal are loaded after it, so changes
+ * aren't lost if the program stops before the file is written.
+ *
+ * @see jmri.jmrit.operations.setup.Setup#isWriteBehindEnabled()
+ */
+public class OperationsJournal {
+
+    public static final String EXTENSION = ".journal"; // NOI18N
+    public static final String ATTRIBUTES = "attributes"; // NOI18N
+    public static final String DELETED = "deleted"; // NOI18N
+    public static final String ID = "id"; // NOI18N
+
+    // one thread writes all of the operations files in the background
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor((r) -> {
+        Thread t = new Thread(r, "Operations Write Behind"); // NOI18N
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final OperationsXml xml;
+    private final String recordsName;
+    private final ReentrantLock fileLock = new ReentrantLock(); // held while the operations file is written
+    private final Object journalLock = new Object(); // held while the journal is read or written
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private Document document = null; // the file as last written by the journal
+    private HashMap<String, Element> records = null; // the records in the document by id
+
+    /**
+     * @param xml         the operations file
+     * @param recordsName the name of the element in the file holding the
+     *                    records
+     */
+    public OperationsJournal(OperationsXml xml, String recordsName) {
+        this.xml = xml;
+        this.recordsName = recordsName;
+    }
+
+    /**
+     * @return the journal for the operations file
+     */
+    public File getFile() {
+        return new File(getJournalName(xml.getDefaultOperationsFilename()));
+    }
+
+    /**
+     * @param fileName an operations file name
+     * @return the name of the journal for the file
+     */
+    public static String getJournalName(String fileName) {
+        if (fileName.toLowerCase().endsWith(".xml")) { // NOI18N
+            fileName = fileName.substring(0, fileName.length() - 4);
+        }
+        return fileName + EXTENSION;
+    }
+
+    /**
+     * Create a record of an element that has been removed.
+     *
+     * @param id the id of the element
+     * @return the record
+     */
+    public static Element getDeletedRecord(String id) {
+        return new Element(DELETED).setAttribute(ID, id);
+    }
+
+    /**
+     * Add the changes to the journal, and write the file in the background. If
+     * the file doesn't exist yet, or the journal can't be written, the file is
+     * written now.
+     */
+    void write() {
+        if (!new File(xml.getDefaultOperationsFilename()).exists()) {
+            xml.writeOperationsFile();
+            return;
+        }
+        // take the changes and add them while holding the file, so the records
+        // can't be added after a full write of the file newer than they are,
+        // or after records taken later by another thread
+        fileLock.lock();
+        try {
+            xml.setDirty(false);
+            append(xml.getChangedRecords());
+        } catch (IOException e) {
+            log.error("Exception while writing journal {}: {}", getFile(), e.getMessage());
+            xml.writeOperationsFile();
+            return;
+        } finally {
+            fileLock.unlock();
+        }
+        if (!queued.getAndSet(true)) {
+            writer.execute(() -> {
+                queued.set(false);
+                compact();
+            });
+        }
+    }
+
+    /**
+     * Write the changes in the journal to the file now, waiting for any write
+     * in the background to finish.
+     */
+    public void flush() {
+        compact();
+    }
+
+    /**
+     * Load the changes left in the journal the last time the program ran.
+     *
+     * @return true if there were changes to load
+     */
+    public boolean load() {
+        long[] length = new long[1];
+        List<Element> changes = read(length);
+        if (length[0] < getFile().length()) {
+            // the program stopped while adding to the journal
+            log.warn("Journal {} has an incomplete record, removing it", getFile());
+            synchronized (journalLock) {
+                try (RandomAccessFile file = new RandomAccessFile(getFile(), "rw")) { // NOI18N
+                    file.setLength(length[0]);
+                } catch (IOException e) {
+                    log.error("Exception while repairing journal {}: {}", getFile(), e.getMessage());
+                }
+            }
+        }
+        if (changes.isEmpty()) {
+            return false;
+        }
+        log.info("Loading {} changes from journal {}", changes.size(), getFile());
+        xml.loadRecords(changes);
+        return true;
+    }
+
+    /**
+     * Wait for any write in the background to finish, so the file can be
+     * written in full.
+     */
+    void lock() {
+        fileLock.lock();
+    }
+
+    /**
+     * The file has been written in full.
+     *
+     * @param length the length of the journal before the file was written, the
+     *               changes in it are now in the file
+     */
+    void unlock(long length) {
+        try {
+            document = null;
+            records = null;
+            remove(length);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * @return the length of the journal
+     */
+    long length() {
+        synchronized (journalLock) {
+            return getFile().length();
+        }
+    }
+
+    private void append(List<Element> changes) throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        XMLOutputter fmt = new XMLOutputter(Format.getRawFormat());
+        StringBuilder sb = new StringBuilder();
+        for (Element change : changes) {
+            // one record per line
+            sb.append(fmt.outputString(change).replace("\r", "&#xD;").replace("\n", "&#xA;")).append('\n'); // NOI18N
+        }
+        synchronized (journalLock) {
+            try (OutputStream out = new FileOutputStream(getFile(), true)) {
+                out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Read the complete records in the journal.
+     *
+     * @param length returns the length of the journal read
+     * @return the records
+     */
+    private List<Element> read(long[] length) {
+        List<Element> changes = new ArrayList<>();
+        byte[] bytes;
+        synchronized (journalLock) {
+            File file = getFile();
+            if (!file.exists()) {
+                return changes;
+            }
+            try {
+                bytes = Files.readAllBytes(file.toPath());
+            } catch (IOException e) {
+                log.error("Exception while reading journal {}: {}", file, e.getMessage());
+                return changes;
+            }
+        }
+        SAXBuilder builder = new SAXBuilder();
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            try {
+                changes.add(builder.build(new ByteArrayInputStream(bytes, start, i - start)).detachRootElement());
+            } catch (JDOMException | IOException e) {
+                break;
+            }
+            start = i + 1;
+        }
+        length[0] = start;
+        return changes;
+    }
+
+    /**
+     * Remove the start of the journal.
+     *
+     * @param length the length to remove
+     */
+    private void remove(long length) {
+        synchronized (journalLock) {
+            File file = getFile();
+            try {
+                if (file.length() <= length) {
+                    Files.deleteIfExists(file.toPath());
+                } else if (length > 0) {
+                    byte[] bytes = Files.readAllBytes(file.toPath());
+                    File temp = new File(file.getPath() + ".tmp"); // NOI18N
+                    Files.write(temp.toPath(), Arrays.copyOfRange(bytes, (int) length, bytes.length));
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                log.error("Exception while updating journal {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void compact() {
+        fileLock.lock();
+        try {
+            long[] length = new long[1];
+            List<Element> changes = read(length);
+            if (changes.isEmpty()) {
+                return;
+            }
+            String name = xml.getDefaultOperationsFilename();
+            if (document == null) {
+                document = xml.rootFromFile(new File(name)).getDocument();
+                records = null;
+            }
+            for (Element change : changes) {
+                apply(change);
+            }
+            File file = xml.createFile(name, true); // make backup
+            xml.writeXML(file, document);
+            remove(length[0]);
+            log.debug("Wrote {} changes from journal to {}", changes.size(), name);
+        } catch (IOException | JDOMException | RuntimeException e) {
+            log.error("Exception while writing journal to operations file, the journal has the changes: {}",
+                    e.getMessage());
+            document = null;
+            records = null;
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private void apply(Element change) {
+        Element root = document.getRootElement();
+        if (change.getName().equals(ATTRIBUTES)) {
+            for (Element section : new ArrayList<>(change.getChildren())) {
+                Element old = root.getChild(section.getName());
+                if (old != null) {
+                    root.setContent(root.indexOf(old), section.clone());
+                } else {
+                    root.addContent(section.clone());
+                }
+            }
+            return;
+        }
+        Element parent = root.getChild(recordsName);
+        if (parent == null) {
+            root.addContent(parent = new Element(recordsName));
+            records = null;
+        }
+        if (records == null) {
+            records = new HashMap<>();
+            for (Element record : parent.getChildren()) {
+                records.put(record.getAttributeValue(ID), record);
+            }
+        }
+        String id = change.getAttributeValue(ID);
+        Element old = records.remove(id);
+        if (change.getName().equals(DELETED)) {
+            if (old != null) {
+                parent.removeContent(old);
+            }
+            return;
+        }
+        Element record = change.clone();
+        if (old != null) {
+            parent.setContent(parent.indexOf(old), record);
+        } else {
+            parent.addContent(record);
+        }
+        records.put(id, record);
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(OperationsJournal.class);
+}
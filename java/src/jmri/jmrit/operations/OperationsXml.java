@@ -3,6 +3,8 @@ package jmri.jmrit.operations;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import jmri.InstanceManager;
 import jmri.jmrit.XmlFile;
 import jmri.jmrit.operations.locations.LocationManagerXml;
@@ -10,8 +12,10 @@ import jmri.jmrit.operations.rollingstock.cars.CarManagerXml;
 import jmri.jmrit.operations.rollingstock.engines.EngineManagerXml;
 import jmri.jmrit.operations.routes.RouteManagerXml;
 import jmri.jmrit.operations.setup.OperationsSetupXml;
+import jmri.jmrit.operations.setup.Setup;
 import jmri.jmrit.operations.trains.TrainManagerXml;
 import jmri.util.FileUtil;
+import org.jdom2.Element;
 import org.jdom2.JDOMException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,11 +32,24 @@ public abstract class OperationsXml extends XmlFile {
      * including making a backup if needed
      */
     public void writeOperationsFile() {
-        createFile(getDefaultOperationsFilename(), true); // make backup
+        OperationsJournal journal = getJournal();
+        long length = 0;
+        if (journal != null) {
+            journal.lock(); // wait for any write in the background
+            length = journal.length();
+        }
         try {
-            writeFile(getDefaultOperationsFilename());
-        } catch (IOException e) {
-            log.error("Exception while writing operation file, may not be complete: {}", e.getMessage());
+            createFile(getDefaultOperationsFilename(), true); // make backup
+            try {
+                writeFile(getDefaultOperationsFilename());
+            } catch (IOException e) {
+                log.error("Exception while writing operation file, may not be complete: {}", e.getMessage());
+                length = 0; // keep the journal
+            }
+        } finally {
+            if (journal != null) {
+                journal.unlock(length);
+            }
         }
     }
 
@@ -95,10 +112,44 @@ public abstract class OperationsXml extends XmlFile {
 
     public void writeFileIfDirty() {
         if (isDirty()) {
-            writeOperationsFile();
+            if (Setup.isWriteBehindEnabled() && getJournal() != null) {
+                getJournal().write();
+            } else {
+                writeOperationsFile();
+            }
         }
     }
 
+    /**
+     * Get the journal used to save changes to this file when write behind is
+     * enabled.
+     *
+     * @return the journal, or null if this file is always written in full
+     * @see Setup#isWriteBehindEnabled()
+     */
+    public OperationsJournal getJournal() {
+        return null;
+    }
+
+    /**
+     * Get the records changed since the last time this was called. Only used
+     * by files that have a journal.
+     *
+     * @return the changed records, as stored in the file
+     */
+    protected List<Element> getChangedRecords() {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Load records from the journal that were saved after the file was
+     * written. Only used by files that have a journal.
+     *
+     * @param records the records, as stored in the file
+     */
+    protected void loadRecords(List<Element> records) {
+    }
+
     public String getDefaultOperationsFilename() {
         return getFileLocation() + getOperationsDirectoryName() + File.separator + getOperationsFileName();
     }
@@ -219,6 +270,17 @@ public abstract class OperationsXml extends XmlFile {
         InstanceManager.getDefault(TrainManagerXml.class).writeFileIfDirty(); // save train changes
     }
 
+    /**
+     * Writes the changes saved in journals to the operation files, waiting for
+     * any writes in the background to finish.
+     */
+    public static void flush() {
+        OperationsJournal journal = InstanceManager.getDefault(CarManagerXml.class).getJournal();
+        if (journal != null) {
+            journal.flush();
+        }
+    }
+
     /**
      * Checks to see if any operations files are dirty
      *
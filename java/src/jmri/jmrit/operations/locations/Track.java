@@ -1337,15 +1337,16 @@ public class Track {
     }
 
     /**
-     * Used to determine if track can service the rolling stock.
+     * Used to determine if track can service the rolling stock, ignoring the
+     * space available on the track. The result only depends on the rolling
+     * stock's type, road, length, final destination and load.
      *
      * @param rs the car or loco to be tested
      * @return Error string starting with TYPE, ROAD, LENGTH, DESTINATION, or
      *         LOAD if there's an issue. OKAY if track can service Rolling
      *         Stock.
      */
-    public String accepts(RollingStock rs) {
-        // first determine if rolling stock can be move to the new location
+    public String acceptsAttributes(RollingStock rs) {
         // note that there's code that checks for certain issues by checking the first word of the status string returned
         if (!acceptsTypeName(rs.getTypeName())) {
             log.debug("Rolling stock ({}) type ({}) not accepted at location ({}, {}) wrong type", rs.toString(), rs
@@ -1357,11 +1358,10 @@ public class Track {
                     .getRoadName(), getLocation().getName(), getName()); // NOI18N
             return ROAD + " (" + rs.getRoadName() + ")";
         }
-        // now determine if there's enough space for the rolling stock
-        int length = rs.getTotalLength();
         try {
             Integer.parseInt(rs.getLength());
         } catch (Exception e) {
+            rs.getLengthInteger(); // reports the invalid length
             return LENGTH + " (" + rs.getLength() + ")";
         }
 
@@ -1382,6 +1382,32 @@ public class Track {
                     car.getFinalDestination() == null) {
                 return NO_FINAL_DESTINATION;
             }
+            if (!acceptsLoad(car.getLoadName(), car.getTypeName())) {
+                log.debug("Car ({}) load ({}) not accepted at location ({}, {})", rs.toString(), car.getLoadName(),
+                        getLocation(), getName()); // NOI18N
+                return LOAD + " (" + car.getLoadName() + ")";
+            }
+        }
+        return OKAY;
+    }
+
+    /**
+     * Used to determine if track can service the rolling stock.
+     *
+     * @param rs the car or loco to be tested
+     * @return Error string starting with TYPE, ROAD, LENGTH, DESTINATION, or
+     *         LOAD if there's an issue. OKAY if track can service Rolling
+     *         Stock.
+     */
+    public String accepts(RollingStock rs) {
+        String status = acceptsAttributes(rs);
+        if (!status.equals(OKAY)) {
+            return status;
+        }
+        // now determine if there's enough space for the rolling stock
+        int length = rs.getTotalLength();
+        if (Car.class.isInstance(rs)) {
+            Car car = (Car) rs;
             // check for car in kernel
             if (car.getKernel() != null && car.getKernel().isLead(car)) {
                 length = 0;
@@ -1394,11 +1420,6 @@ public class Track {
                     length += c.getTotalLength();
                 }
             }
-            if (!acceptsLoad(car.getLoadName(), car.getTypeName())) {
-                log.debug("Car ({}) load ({}) not accepted at location ({}, {})", rs.toString(), car.getLoadName(),
-                        getLocation(), getName()); // NOI18N
-                return LOAD + " (" + car.getLoadName() + ")";
-            }
         }
         // check for loco in consist
         if (Engine.class.isInstance(rs)) {
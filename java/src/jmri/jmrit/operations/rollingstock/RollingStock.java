@@ -1432,7 +1432,8 @@ public class RollingStock implements java.beans.PropertyChangeListener {
         // log.debug("Property change for rolling stock: " + toString()+ " property name: "
         // +e.getPropertyName()+ " old: "+e.getOldValue()+ " new: "+e.getNewValue());
         // notify if track or location name changes
-        if (e.getPropertyName().equals(Location.NAME_CHANGED_PROPERTY)) {
+        if (e.getPropertyName().equals(Location.NAME_CHANGED_PROPERTY)
+                || e.getPropertyName().equals(Track.NAME_CHANGED_PROPERTY)) {
             log.debug("Property change for rolling stock: ({}) property name: ({}) old: ({}) new: ({})", this, e.getPropertyName(), e.getOldValue(), e.getNewValue());
             setDirtyAndFirePropertyChange(e.getPropertyName(), e.getOldValue(), e.getNewValue());
         }
@@ -1,9 +1,20 @@
 package jmri.jmrit.operations.rollingstock;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 import jmri.jmrit.operations.locations.Location;
 import jmri.jmrit.operations.locations.Track;
 import jmri.jmrit.operations.trains.Train;
@@ -12,6 +23,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Base class for rolling stock managers car and engine.
+ * <p>
+ * The manager listens to the rolling stock it holds, and keeps indexes by
+ * type, road, location, track, train and destination up to date as they
+ * change, so the rolling stock at a location or in a train can be found
+ * without searching the whole roster. The sorted lists are also kept once
+ * built, and are only sorted again when rolling stock is added or removed, or
+ * one of the attributes they are sorted by changes.
  *
  * @author Daniel Boudreau Copyright (C) 2010, 2011
  * @param <T> the type of RollingStock managed by this manager
@@ -25,6 +43,37 @@ public class RollingStockManager<T extends RollingStock> {
 
     public static final String LISTLENGTH_CHANGED_PROPERTY = "RollingStockListLength"; // NOI18N
 
+    // names of the indexes kept
+    protected static final String INDEX_TYPE = "type"; // NOI18N
+    protected static final String INDEX_ROAD = "road"; // NOI18N
+    protected static final String INDEX_LOCATION = "location"; // NOI18N
+    protected static final String INDEX_TRACK = "track"; // NOI18N
+    protected static final String INDEX_TRAIN = "train"; // NOI18N
+    protected static final String INDEX_DESTINATION = "destination"; // NOI18N
+    private static final String[] INDEXES = {INDEX_TYPE, INDEX_ROAD, INDEX_LOCATION, INDEX_TRACK, INDEX_TRAIN,
+        INDEX_DESTINATION};
+
+    // index name -> key -> rolling stock with that key
+    private final HashMap<String, HashMap<Object, Set<T>>> _indexes = new HashMap<>();
+    // the keys each rolling stock is filed under, in the order of INDEXES
+    private final HashMap<T, Object[]> _indexKeys = new HashMap<>();
+    // position of each rolling stock in the roster, null until needed after the roster changes
+    private IdentityHashMap<T, Integer> _rosterOrder = null;
+    // sorted lists, by name
+    private final HashMap<String, SortedList<T>> _sortedLists = new HashMap<>();
+    private int _sortedListsVersion = 0;
+    private final PropertyChangeListener _rsListener = this::rollingStockChanged;
+
+    // properties of rolling stock that the sorted lists depend on
+    protected static final String[] ROAD_PROPERTIES = {"rolling stock road"}; // NOI18N
+    protected static final String[] NUMBER_PROPERTIES = {"rolling stock road", "rolling stock number"}; // NOI18N
+    protected static final String[] TYPE_PROPERTIES = {RollingStock.TYPE_CHANGED_PROPERTY};
+    protected static final String[] LOCATION_PROPERTIES = {RollingStock.TRACK_CHANGED_PROPERTY,
+        Location.NAME_CHANGED_PROPERTY, Track.NAME_CHANGED_PROPERTY, "car location known", "car out of service"}; // NOI18N
+    protected static final String[] DESTINATION_PROPERTIES = {RollingStock.DESTINATION_CHANGED_PROPERTY,
+        RollingStock.DESTINATION_TRACK_CHANGED_PROPERTY, Location.NAME_CHANGED_PROPERTY, Track.NAME_CHANGED_PROPERTY};
+    protected static final String[] TRAIN_PROPERTIES = {RollingStock.TRAIN_CHANGED_PROPERTY, Train.NAME_CHANGED_PROPERTY};
+
     public RollingStockManager() {
     }
 
@@ -73,9 +122,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return the first RollingStock found with the specified type and road.
      */
     public T getByTypeAndRoad(String type, String road) {
-        Enumeration<String> en = _hashTable.keys();
-        while (en.hasMoreElements()) {
-            T rs = getById(en.nextElement());
+        List<T> byType = getIndexed(INDEX_TYPE, type);
+        List<T> byRoad = getIndexed(INDEX_ROAD, road);
+        for (T rs : byType.size() < byRoad.size() ? byType : byRoad) {
             if (rs.getTypeName().equals(type) && rs.getRoadName().equals(road)) {
                 return rs;
             }
@@ -107,7 +156,11 @@ public class RollingStockManager<T extends RollingStock> {
      */
     public void register(T rs) {
         int oldSize = _hashTable.size();
-        _hashTable.put(rs.getId(), rs);
+        T old = _hashTable.put(rs.getId(), rs);
+        if (old != null && old != rs) {
+            removeFromIndexes(old);
+        }
+        addToIndexes(rs);
         firePropertyChange(LISTLENGTH_CHANGED_PROPERTY, oldSize, _hashTable.size());
     }
 
@@ -120,6 +173,7 @@ public class RollingStockManager<T extends RollingStock> {
         rs.dispose();
         int oldSize = _hashTable.size();
         _hashTable.remove(rs.getId());
+        removeFromIndexes(rs);
         firePropertyChange(LISTLENGTH_CHANGED_PROPERTY, oldSize, _hashTable.size());
     }
 
@@ -139,6 +193,7 @@ public class RollingStockManager<T extends RollingStock> {
             T rs = getById(en.nextElement());
             rs.dispose();
             _hashTable.remove(rs.getId());
+            removeFromIndexes(rs);
         }
         firePropertyChange(LISTLENGTH_CHANGED_PROPERTY, oldSize, _hashTable.size());
     }
@@ -166,6 +221,12 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by id
      */
     public List<T> getByIdList() {
+        return getSortedList("id", () -> {
+            return sortById();
+        });
+    }
+
+    private List<T> sortById() {
         Enumeration<String> en = _hashTable.keys();
         String[] arr = new String[_hashTable.size()];
         List<T> out = new ArrayList<>();
@@ -187,7 +248,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by road name
      */
     public List<T> getByRoadNameList() {
-        return getByList(getByIdList(), BY_ROAD);
+        return getSortedList("road", () -> {
+            return getByList(getByIdList(), BY_ROAD);
+        }, ROAD_PROPERTIES);
     }
 
     private static final int PAGE_SIZE = 64;
@@ -201,6 +264,12 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by number
      */
     public List<T> getByNumberList() {
+        return getSortedList("number", () -> {
+            return sortByNumber();
+        }, NUMBER_PROPERTIES);
+    }
+
+    private List<T> sortByNumber() {
         // first get by road list
         List<T> sortIn = getByRoadNameList();
         // now re-sort
@@ -296,7 +365,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by RollingStock type
      */
     public List<T> getByTypeList() {
-        return getByList(getByRoadNameList(), BY_TYPE);
+        return getSortedList("type", () -> {
+            return getByList(getByRoadNameList(), BY_TYPE);
+        }, ROAD_PROPERTIES, TYPE_PROPERTIES);
     }
 
     /**
@@ -322,7 +393,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by RollingStock color
      */
     public List<T> getByColorList() {
-        return getByList(getByTypeList(), BY_COLOR);
+        return getSortedList("color", () -> {
+            return getByList(getByTypeList(), BY_COLOR);
+        }, ROAD_PROPERTIES, TYPE_PROPERTIES, new String[]{"rolling stock color"}); // NOI18N
     }
 
     /**
@@ -331,7 +404,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by RollingStock location
      */
     public List<T> getByLocationList() {
-        return getByList(getList(), BY_LOCATION);
+        return getSortedList("location", () -> {
+            return getByList(getList(), BY_LOCATION);
+        }, LOCATION_PROPERTIES);
     }
 
     /**
@@ -349,9 +424,11 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by trains
      */
     public List<T> getByTrainList() {
-        List<T> byDest = getByList(getByIdList(), BY_DESTINATION);
-        List<T> byLoc = getByList(byDest, BY_LOCATION);
-        return getByList(byLoc, BY_TRAIN);
+        return getSortedList("train", () -> {
+            List<T> byDest = getByList(getByIdList(), BY_DESTINATION);
+            List<T> byLoc = getByList(byDest, BY_LOCATION);
+            return getByList(byLoc, BY_TRAIN);
+        }, DESTINATION_PROPERTIES, LOCATION_PROPERTIES, TRAIN_PROPERTIES);
     }
 
     /**
@@ -360,7 +437,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by RollingStock moves
      */
     public List<T> getByMovesList() {
-        return getByList(getList(), BY_MOVES);
+        return getSortedList("moves", () -> {
+            return getByList(getList(), BY_MOVES);
+        }, new String[]{"rolling stock moves"}); // NOI18N
     }
 
     /**
@@ -369,7 +448,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by RollingStock built date
      */
     public List<T> getByBuiltList() {
-        return getByList(getByIdList(), BY_BUILT);
+        return getSortedList("built", () -> {
+            return getByList(getByIdList(), BY_BUILT);
+        }, new String[]{"rolling stock built"}); // NOI18N
     }
 
     /**
@@ -378,7 +459,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by RollingStock owner
      */
     public List<T> getByOwnerList() {
-        return getByList(getByIdList(), BY_OWNER);
+        return getSortedList("owner", () -> {
+            return getByList(getByIdList(), BY_OWNER);
+        }, new String[]{"rolling stock owner"}); // NOI18N
     }
 
     /**
@@ -387,7 +470,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by value
      */
     public List<T> getByValueList() {
-        return getByList(getByIdList(), BY_VALUE);
+        return getSortedList("value", () -> {
+            return getByList(getByIdList(), BY_VALUE);
+        }, new String[]{"rolling stock value"}); // NOI18N
     }
 
     /**
@@ -396,7 +481,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by RFIDs
      */
     public List<T> getByRfidList() {
-        return getByList(getByIdList(), BY_RFID);
+        return getSortedList("rfid", () -> {
+            return getByList(getByIdList(), BY_RFID);
+        }, new String[]{"rolling stock rfid"}); // NOI18N
     }
 
     /**
@@ -405,7 +492,9 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock ordered by last date
      */
     public List<T> getByLastDateList() {
-        return getByList(getByIdList(), BY_LAST);
+        return getSortedList("lastdate", () -> {
+            return getByList(getByIdList(), BY_LAST);
+        }, new String[]{"rolling stock date"}); // NOI18N
     }
 
     /**
@@ -539,13 +628,7 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock
      */
     public List<T> getList(Train train) {
-        List<T> out = new ArrayList<>();
-        _hashTable.values().stream().filter((rs) -> {
-            return rs.getTrain() == train;
-        }).forEachOrdered((rs) -> {
-            out.add(rs);
-        });
-        return out;
+        return getIndexed(INDEX_TRAIN, train);
     }
 
     /**
@@ -555,13 +638,7 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock
      */
     public List<T> getList(Location location) {
-        List<T> out = new ArrayList<>();
-        _hashTable.values().stream().filter((rs) -> {
-            return rs.getLocation() == location;
-        }).forEachOrdered((rs) -> {
-            out.add(rs);
-        });
-        return out;
+        return getIndexed(INDEX_LOCATION, location);
     }
 
     /**
@@ -571,15 +648,184 @@ public class RollingStockManager<T extends RollingStock> {
      * @return list of RollingStock
      */
     public List<T> getList(Track track) {
-        List<T> out = new ArrayList<>();
-        _hashTable.values().stream().filter((rs) -> {
-            return rs.getTrack() == track;
-        }).forEachOrdered((rs) -> {
-            out.add(rs);
-        });
+        return getIndexed(INDEX_TRACK, track);
+    }
+
+    /**
+     * Returns a list (no order) of RollingStock with a destination.
+     *
+     * @param destination destination to search for.
+     * @return list of RollingStock
+     */
+    public List<T> getDestinationList(Location destination) {
+        return getIndexed(INDEX_DESTINATION, destination);
+    }
+
+    /**
+     * Get the key rolling stock is filed under in an index.
+     *
+     * @param rs    the rolling stock
+     * @param index one of the INDEX_ names
+     * @return the key, may be null
+     */
+    protected Object getIndexKey(T rs, String index) {
+        switch (index) {
+            case INDEX_TYPE:
+                return rs.getTypeName();
+            case INDEX_ROAD:
+                return rs.getRoadName();
+            case INDEX_LOCATION:
+                return rs.getLocation();
+            case INDEX_TRACK:
+                return rs.getTrack();
+            case INDEX_TRAIN:
+                return rs.getTrain();
+            case INDEX_DESTINATION:
+                return rs.getDestination();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the rolling stock filed under a key in an index.
+     *
+     * @param index one of the INDEX_ names
+     * @param key   the key
+     * @return list (no order) of RollingStock
+     */
+    protected synchronized List<T> getIndexed(String index, Object key) {
+        HashMap<Object, Set<T>> map = _indexes.get(index);
+        if (map == null || !map.containsKey(key)) {
+            return new ArrayList<>();
+        }
+        List<T> out = new ArrayList<>(map.get(key));
+        if (out.size() > 1) {
+            // same order as a search of the roster, builds depend on it
+            if (_rosterOrder == null) {
+                _rosterOrder = new IdentityHashMap<>();
+                for (T rs : _hashTable.values()) {
+                    _rosterOrder.put(rs, _rosterOrder.size());
+                }
+            }
+            IdentityHashMap<T, Integer> order = _rosterOrder;
+            out.sort(Comparator.comparingInt(order::get));
+        }
         return out;
     }
 
+    private synchronized void addToIndexes(T rs) {
+        removeFromIndexes(rs);
+        Object[] keys = new Object[INDEXES.length];
+        for (int i = 0; i < INDEXES.length; i++) {
+            keys[i] = getIndexKey(rs, INDEXES[i]);
+            _indexes.computeIfAbsent(INDEXES[i], (k) -> new HashMap<>())
+                    .computeIfAbsent(keys[i], (k) -> new LinkedHashSet<>()).add(rs);
+        }
+        _indexKeys.put(rs, keys);
+        _rosterOrder = null;
+        rs.addPropertyChangeListener(_rsListener);
+        clearSortedLists();
+    }
+
+    private synchronized void removeFromIndexes(T rs) {
+        Object[] keys = _indexKeys.remove(rs);
+        if (keys == null) {
+            return;
+        }
+        _rosterOrder = null;
+        rs.removePropertyChangeListener(_rsListener);
+        for (int i = 0; i < INDEXES.length; i++) {
+            removeIndexEntry(INDEXES[i], keys[i], rs);
+        }
+        clearSortedLists();
+    }
+
+    private void removeIndexEntry(String index, Object key, T rs) {
+        HashMap<Object, Set<T>> map = _indexes.get(index);
+        Set<T> set = map.get(key);
+        if (set != null) {
+            set.remove(rs);
+            if (set.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    private synchronized void rollingStockChanged(PropertyChangeEvent e) {
+        @SuppressWarnings("unchecked")
+        T rs = (T) e.getSource();
+        Object[] keys = _indexKeys.get(rs);
+        if (keys == null) {
+            return;
+        }
+        for (int i = 0; i < INDEXES.length; i++) {
+            Object key = getIndexKey(rs, INDEXES[i]);
+            if (key != keys[i] && (key == null || !key.equals(keys[i]))) {
+                removeIndexEntry(INDEXES[i], keys[i], rs);
+                _indexes.get(INDEXES[i]).computeIfAbsent(key, (k) -> new LinkedHashSet<>()).add(rs);
+                keys[i] = key;
+            }
+        }
+        _sortedListsVersion++;
+        _sortedLists.values().removeIf((list) -> {
+            return list.properties.contains(e.getPropertyName());
+        });
+    }
+
+    /**
+     * Discard all sorted lists. Subclasses call this when something other
+     * than a property change of the rolling stock alters a sort order.
+     */
+    protected synchronized void clearSortedLists() {
+        _sortedListsVersion++;
+        _sortedLists.clear();
+    }
+
+    /**
+     * Get a sorted list, sorting only if the list has not been sorted since
+     * rolling stock was added or removed or one of the given properties
+     * changed.
+     *
+     * @param name       name of the list
+     * @param sorter     sorts the rolling stock
+     * @param properties names of the properties the order depends on
+     * @return a copy of the sorted list, that the caller may change
+     */
+    protected List<T> getSortedList(String name, Supplier<List<T>> sorter, String[]... properties) {
+        SortedList<T> list;
+        int version;
+        synchronized (this) {
+            list = _sortedLists.get(name);
+            version = _sortedListsVersion;
+        }
+        if (list == null) {
+            HashSet<String> names = new HashSet<>();
+            for (String[] p : properties) {
+                names.addAll(Arrays.asList(p));
+            }
+            list = new SortedList<>(Collections.unmodifiableList(sorter.get()), names);
+            synchronized (this) {
+                // don't keep a list that changed while being sorted
+                if (version == _sortedListsVersion) {
+                    _sortedLists.put(name, list);
+                }
+            }
+        }
+        return new ArrayList<>(list.list);
+    }
+
+    private static class SortedList<T> {
+
+        final List<T> list;
+        final Set<String> properties;
+
+        SortedList(List<T> list, Set<String> properties) {
+            this.list = list;
+            this.properties = properties;
+        }
+    }
+
     java.beans.PropertyChangeSupport pcs = new java.beans.PropertyChangeSupport(this);
 
     public synchronized void addPropertyChangeListener(java.beans.PropertyChangeListener l) {
@@ -965,7 +965,7 @@ public class Car extends RollingStock {
     @Override
     protected void setDirtyAndFirePropertyChange(String p, Object old, Object n) {
         // Set dirty
-        InstanceManager.getDefault(CarManagerXml.class).setDirty(true);
+        InstanceManager.getDefault(CarManagerXml.class).setDirty(this);
         super.setDirtyAndFirePropertyChange(p, old, n);
     }
 
@@ -63,6 +63,18 @@ public class CarManager extends RollingStockManager<Car> implements InstanceMana
         return car;
     }
 
+    @Override
+    public void register(Car car) {
+        super.register(car);
+        InstanceManager.getDefault(CarManagerXml.class).setDirty(car);
+    }
+
+    @Override
+    public void deregister(Car car) {
+        super.deregister(car);
+        InstanceManager.getDefault(CarManagerXml.class).setDirty(car);
+    }
+
     /**
      * @return requested Car object or null if none exists
      */
@@ -222,7 +234,9 @@ public class CarManager extends RollingStockManager<Car> implements InstanceMana
      */
     @Override
     public List<Car> getByLocationList() {
-        return getByList(getByKernelList(), BY_LOCATION);
+        return getSortedList("location", () -> {
+            return getByList(getByKernelList(), BY_LOCATION);
+        }, KERNEL_PROPERTIES, LOCATION_PROPERTIES);
     }
 
     /**
@@ -231,9 +245,14 @@ public class CarManager extends RollingStockManager<Car> implements InstanceMana
      * @return list of cars ordered by car kernel
      */
     public List<Car> getByKernelList() {
-        return getByList(getByList(getByNumberList(), BY_BLOCKING), BY_KERNEL);
+        return getSortedList("kernel", () -> {
+            return getByList(getByList(getByNumberList(), BY_BLOCKING), BY_KERNEL);
+        }, KERNEL_PROPERTIES);
     }
 
+    private static final String[] KERNEL_PROPERTIES = {"rolling stock road", "rolling stock number", // NOI18N
+        "rolling stock blocking changed", Car.KERNEL_NAME_CHANGED_PROPERTY}; // NOI18N
+
     /**
      * Sort by car loads
      *
@@ -609,6 +628,23 @@ public class CarManager extends RollingStockManager<Car> implements InstanceMana
         root.addContent(new Element(Xml.OPTIONS)); // nothing to save under
         // options
 
+        storeKernels(root);
+        Element values;
+        root.addContent(values = new Element(Xml.CARS));
+        // add entries
+        List<Car> carList = getByIdList();
+        for (Car rs : carList) {
+            Car car = rs;
+            values.addContent(car.store());
+        }
+    }
+
+    /**
+     * Store the kernel names.
+     *
+     * @param root The common Element for operations-cars.dtd.
+     */
+    public void storeKernels(Element root) {
         Element values;
         List<String> names = getKernelNameList();
         if (Control.backwardCompatible) {
@@ -626,13 +662,6 @@ public class CarManager extends RollingStockManager<Car> implements InstanceMana
             kernels.addContent(kernel);
         }
         root.addContent(kernels);
-        root.addContent(values = new Element(Xml.CARS));
-        // add entries
-        List<Car> carList = getByIdList();
-        for (Car rs : carList) {
-            Car car = rs;
-            values.addContent(car.store());
-        }
     }
 
     protected void setDirtyAndFirePropertyChange(String p, Object old, Object n) {
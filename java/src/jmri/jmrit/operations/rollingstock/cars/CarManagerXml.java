@@ -1,9 +1,14 @@
 package jmri.jmrit.operations.rollingstock.cars;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import jmri.InstanceManager;
 import jmri.InstanceManagerAutoDefault;
 import jmri.InstanceManagerAutoInitialize;
+import jmri.jmrit.operations.OperationsJournal;
 import jmri.jmrit.operations.OperationsXml;
 import jmri.jmrit.operations.locations.LocationManagerXml;
 import jmri.jmrit.operations.rollingstock.RollingStockLogger;
@@ -26,6 +31,10 @@ public class CarManagerXml extends OperationsXml implements InstanceManagerAutoD
     public CarManagerXml() {
     }
 
+    private final OperationsJournal journal = new OperationsJournal(this, Xml.CARS);
+    private final ConcurrentHashMap<Car, String> changedCars = new ConcurrentHashMap<>(); // changed cars and their ids
+    private final AtomicBoolean attributesChanged = new AtomicBoolean();
+
     /**
      * Get the default instance of this class.
      *
@@ -41,6 +50,9 @@ public class CarManagerXml extends OperationsXml implements InstanceManagerAutoD
     @Override
     public void writeFile(String name) throws java.io.FileNotFoundException, java.io.IOException {
         log.debug("writeFile {}", name);
+        // the file will have every change made before now
+        changedCars.clear();
+        attributesChanged.set(false);
         // This is taken in large part from "Java and XML" page 368
         File file = findFile(name);
         if (file == null) {
@@ -102,8 +114,96 @@ public class CarManagerXml extends OperationsXml implements InstanceManagerAutoD
         InstanceManager.getDefault(RollingStockLogger.class).enableCarLogging(Setup.isCarLoggerEnabled());
         // clear dirty bit
         setDirty(false);
+        changedCars.clear();
+        attributesChanged.set(false);
         // clear location dirty flag, locations get modified during the loading of cars and locos
         InstanceManager.getDefault(LocationManagerXml.class).setDirty(false);
+        // load any changes made after the file was last written
+        if (name.equals(getDefaultOperationsFilename()) && journal.load()) {
+            setDirty(true);
+        }
+    }
+
+    @Override
+    public void setDirty(boolean b) {
+        if (b) {
+            attributesChanged.set(true);
+        }
+        super.setDirty(b);
+    }
+
+    /**
+     * Mark the file as needing to be saved because a car was added, changed or
+     * deleted.
+     *
+     * @param car the car
+     */
+    public void setDirty(Car car) {
+        Car registered = InstanceManager.getDefault(CarManager.class).getById(car.getId());
+        // ignore copies of cars, the router uses them to test routes
+        if (registered == car || registered == null) {
+            changedCars.putIfAbsent(car, car.getId());
+        }
+        super.setDirty(true);
+    }
+
+    @Override
+    public OperationsJournal getJournal() {
+        return journal;
+    }
+
+    @Override
+    protected List<Element> getChangedRecords() {
+        List<Element> records = new ArrayList<>();
+        if (attributesChanged.getAndSet(false)) {
+            Element attributes = new Element(OperationsJournal.ATTRIBUTES);
+            InstanceManager.getDefault(CarRoads.class).store(attributes);
+            InstanceManager.getDefault(CarTypes.class).store(attributes);
+            InstanceManager.getDefault(CarColors.class).store(attributes);
+            InstanceManager.getDefault(CarLengths.class).store(attributes);
+            InstanceManager.getDefault(CarOwners.class).store(attributes);
+            InstanceManager.getDefault(CarLoads.class).store(attributes);
+            InstanceManager.getDefault(CarManager.class).storeKernels(attributes);
+            records.add(attributes);
+        }
+        CarManager manager = InstanceManager.getDefault(CarManager.class);
+        for (Car car : new ArrayList<>(changedCars.keySet())) {
+            String id = changedCars.remove(car);
+            if (id == null) {
+                continue;
+            }
+            if (manager.getById(id) == null) {
+                records.add(OperationsJournal.getDeletedRecord(id)); // deleted or renamed
+            }
+            if (manager.getById(car.getId()) == car) {
+                records.add(car.store());
+            }
+        }
+        return records;
+    }
+
+    @Override
+    protected void loadRecords(List<Element> records) {
+        CarManager manager = InstanceManager.getDefault(CarManager.class);
+        for (Element record : records) {
+            if (record.getName().equals(OperationsJournal.ATTRIBUTES)) {
+                InstanceManager.getDefault(CarRoads.class).load(record);
+                InstanceManager.getDefault(CarTypes.class).load(record);
+                InstanceManager.getDefault(CarColors.class).load(record);
+                InstanceManager.getDefault(CarLengths.class).load(record);
+                InstanceManager.getDefault(CarOwners.class).load(record);
+                InstanceManager.getDefault(CarLoads.class).load(record);
+                manager.load(record); // kernels
+                continue;
+            }
+            Car car = manager.getById(record.getAttributeValue(OperationsJournal.ID));
+            if (car != null) {
+                manager.deregister(car);
+            }
+            if (record.getName().equals(Xml.CAR)) {
+                manager.register(new Car(record));
+            }
+        }
     }
 
     @Override
@@ -3,6 +3,7 @@ package jmri.jmrit.operations.router;
 import java.io.PrintWriter;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import jmri.InstanceManager;
 import jmri.InstanceManagerAutoDefault;
@@ -685,7 +686,7 @@ public class Router extends TrainCommon implements InstanceManagerAutoDefault {
             for (Track llt : _lastLocationTracks) {
                 testCar.setDestinationTrack(llt); // set car to this destination and track
                 // does a train service these two locations?
-                Train middleTrain = InstanceManager.getDefault(TrainManager.class).getTrainForCar(testCar, null); // don't add to report
+                Train middleTrain = InstanceManager.getDefault(RoutingGraph.class).getTrainForCar(testCar); // don't add to report
                 if (middleTrain != null) {
                     log.debug("Found 3 train route, setting car destination ({}, {})", testCar.getLocationName(),
                             testCar.getTrackName());
@@ -720,56 +721,54 @@ public class Router extends TrainCommon implements InstanceManagerAutoDefault {
         log.debug("Using 3 trains to route car to ({}) was unsuccessful", car.getFinalDestinationName());
         addLine(_buildReport, SEVEN, MessageFormat.format(Bundle.getMessage("RouterFourTrains"), new Object[]{car
                 .getFinalDestinationName()}));
+        // the first last location track each other location track connects to
+        HashMap<Track, Track> reaches = new HashMap<>();
         for (Track nlt : _nextLocationTracks) {
             otherloop: for (Track mlt : _otherLocationTracks) {
                 testCar.setTrack(nlt); // set car to this location and track
                 testCar.setDestinationTrack(mlt); // set car to this destination and track
                 // does a train service these two locations?
-                Train middleTrain2 = InstanceManager.getDefault(TrainManager.class).getTrainForCar(testCar, null); // don't add to report
+                Train middleTrain2 = InstanceManager.getDefault(RoutingGraph.class).getTrainForCar(testCar); // don't add to report
                 if (middleTrain2 != null) {
                     if (debugFlag) {
                         log.debug("Train 2 ({}) services car from ({}) to ({}, {})", middleTrain2.getName(), testCar
                                 .getLocationName(), testCar.getDestinationName(), testCar.getDestinationTrackName());
                     }
-                    for (Track llt : _lastLocationTracks) {
-                        testCar.setTrack(mlt); // set car to this location and track
-                        testCar.setDestinationTrack(llt); // set car to this destination and track
-                        Train middleTrain3 = InstanceManager.getDefault(TrainManager.class).getTrainForCar(testCar, null); // don't add to
-                        // report
-                        if (middleTrain3 != null) {
-                            log.debug("Found 4 train route, setting car destination ({}, {})", nlt.getLocation()
-                                    .getName(), nlt.getName());
-                            foundRoute = true;
-                            // show the route
-                            if (_addtoReport) {
-                                addLine(_buildReport, SEVEN,
-                                        MessageFormat.format(Bundle.getMessage("RouterRoute4TrainsForCar"),
-                                                new Object[]{car.toString(), car.getLocationName(), car.getTrackName(),
-                                                        _nextLocationTrains.get(_nextLocationTracks.indexOf(nlt))
-                                                                .getName(),
-                                                        nlt.getLocation(), nlt.getName(),
-                                                        middleTrain2.getName(),
-                                                        mlt.getLocation().getName(), mlt.getName(),
-                                                        middleTrain3.getName(),
-                                                        llt.getLocation().getName(), llt.getName(),
-                                                        _lastLocationTrains.get(_lastLocationTracks.indexOf(llt))
-                                                                .getName(),
-                                                        car.getFinalDestinationName(),
-                                                        car.getFinalDestinationTrackName()}));
-                            } else {
-                                addLine(_buildReport, SEVEN,
-                                        MessageFormat.format(Bundle.getMessage("RouterRoute4ForCar"),
-                                                new Object[]{car.toString(), car.getLocationName(), car.getTrackName(),
-                                                        nlt.getLocation(), nlt.getName(), mlt.getLocation().getName(),
-                                                        mlt.getName(), llt.getLocation().getName(), llt.getName(),
-                                                        car.getFinalDestinationName(),
-                                                        car.getFinalDestinationTrackName()}));
-                            }
-                            if (finshSettingRouteFor(car, nlt)) {
-                                return true; // done 4 train routing
-                            }
-                            break otherloop; // there was an issue with the first stop in the route
+                    Track llt = getLastLocationTrack(testCar, mlt, reaches);
+                    Train middleTrain3 = llt != null ? getTrainForCar(testCar, mlt, llt) : null;
+                    if (middleTrain3 != null) {
+                        log.debug("Found 4 train route, setting car destination ({}, {})", nlt.getLocation()
+                                .getName(), nlt.getName());
+                        foundRoute = true;
+                        // show the route
+                        if (_addtoReport) {
+                            addLine(_buildReport, SEVEN,
+                                    MessageFormat.format(Bundle.getMessage("RouterRoute4TrainsForCar"),
+                                            new Object[]{car.toString(), car.getLocationName(), car.getTrackName(),
+                                                    _nextLocationTrains.get(_nextLocationTracks.indexOf(nlt))
+                                                            .getName(),
+                                                    nlt.getLocation(), nlt.getName(),
+                                                    middleTrain2.getName(),
+                                                    mlt.getLocation().getName(), mlt.getName(),
+                                                    middleTrain3.getName(),
+                                                    llt.getLocation().getName(), llt.getName(),
+                                                    _lastLocationTrains.get(_lastLocationTracks.indexOf(llt))
+                                                            .getName(),
+                                                    car.getFinalDestinationName(),
+                                                    car.getFinalDestinationTrackName()}));
+                        } else {
+                            addLine(_buildReport, SEVEN,
+                                    MessageFormat.format(Bundle.getMessage("RouterRoute4ForCar"),
+                                            new Object[]{car.toString(), car.getLocationName(), car.getTrackName(),
+                                                    nlt.getLocation(), nlt.getName(), mlt.getLocation().getName(),
+                                                    mlt.getName(), llt.getLocation().getName(), llt.getName(),
+                                                    car.getFinalDestinationName(),
+                                                    car.getFinalDestinationTrackName()}));
                         }
+                        if (finshSettingRouteFor(car, nlt)) {
+                            return true; // done 4 train routing
+                        }
+                        break otherloop; // there was an issue with the first stop in the route
                     }
                 }
             }
@@ -785,7 +784,7 @@ public class Router extends TrainCommon implements InstanceManagerAutoDefault {
                 testCar.setTrack(nlt); // set car to this location and track
                 testCar.setDestinationTrack(mlt1); // set car to this destination and track
                 // does a train service these two locations?
-                Train middleTrain2 = InstanceManager.getDefault(TrainManager.class).getTrainForCar(testCar, null); // don't add to report
+                Train middleTrain2 = InstanceManager.getDefault(RoutingGraph.class).getTrainForCar(testCar); // don't add to report
                 if (middleTrain2 != null) {
                     if (debugFlag) {
                         log.debug("Train 2 ({}) services car from ({}) to ({}, {})", middleTrain2.getName(), testCar
@@ -798,63 +797,57 @@ public class Router extends TrainCommon implements InstanceManagerAutoDefault {
                         testCar.setTrack(mlt1); // set car to this location and track
                         testCar.setDestinationTrack(mlt2); // set car to this destination and track
                         // does a train service these two locations?
-                        Train middleTrain3 = InstanceManager.getDefault(TrainManager.class).getTrainForCar(testCar, null); // don't add to
-                        // report
+                        Train middleTrain3 = InstanceManager.getDefault(RoutingGraph.class).getTrainForCar(testCar); // don't add to report
                         if (middleTrain3 != null) {
                             if (debugFlag) {
                                 log.debug("Train 3 ({}) services car from ({}) to ({}, {})", middleTrain3.getName(),
                                         testCar.getLocationName(), testCar.getDestinationName(), testCar
                                                 .getDestinationTrackName());
                             }
-                            for (Track llt : _lastLocationTracks) {
-                                testCar.setTrack(mlt2); // set car to this location and track
-                                testCar.setDestinationTrack(llt); // set car to this destination and track
-                                // does a train service these two locations?
-                                Train middleTrain4 = InstanceManager.getDefault(TrainManager.class).getTrainForCar(testCar, null); // don't add
-                                // to report
-                                if (middleTrain4 != null) {
-                                    log.debug("Found 5 train route, setting car destination ({}, {})", nlt
-                                            .getLocation().getName(), nlt.getName());
-                                    foundRoute = true;
-                                    // show the car's route
-                                    if (_addtoReport) {
-                                        addLine(_buildReport, SEVEN,
-                                                MessageFormat.format(Bundle.getMessage("RouterRoute5TrainsForCar"),
-                                                        new Object[]{car.toString(), car.getLocationName(),
-                                                                car.getTrackName(),
-                                                                _nextLocationTrains
-                                                                        .get(_nextLocationTracks.indexOf(nlt))
-                                                                        .getName(),
-                                                                nlt.getLocation().getName(), nlt.getName(),
-                                                                middleTrain2.getName(),
-                                                                mlt1.getLocation().getName(), mlt1.getName(),
-                                                                middleTrain3.getName(),
-                                                                mlt2.getLocation().getName(), mlt2.getName(),
-                                                                middleTrain4.getName(),
-                                                                llt.getLocation().getName(), llt.getName(),
-                                                                _lastLocationTrains
-                                                                        .get(_lastLocationTracks.indexOf(llt))
-                                                                        .getName(),
-                                                                car.getFinalDestinationName(),
-                                                                car.getFinalDestinationTrackName()}));
-                                    } else {
-                                        addLine(_buildReport, SEVEN,
-                                                MessageFormat.format(Bundle.getMessage("RouterRoute5ForCar"),
-                                                        new Object[]{car.toString(), car.getLocationName(),
-                                                                car.getTrackName(), nlt.getLocation().getName(),
-                                                                nlt.getName(), mlt1.getLocation().getName(),
-                                                                mlt1.getName(),
-                                                                mlt2.getLocation().getName(), mlt2.getName(),
-                                                                llt.getLocation().getName(),
-                                                                llt.getName(), car.getFinalDestinationName(),
-                                                                car.getFinalDestinationTrackName()}));
-                                    }
-                                    // only set car's destination if specific train can service car
-                                    if (finshSettingRouteFor(car, nlt)) {
-                                        return true; // done 5 train routing
-                                    }
-                                    break otherloop; // there was an issue with the first stop in the route
+                            Track llt = getLastLocationTrack(testCar, mlt2, reaches);
+                            Train middleTrain4 = llt != null ? getTrainForCar(testCar, mlt2, llt) : null;
+                            if (middleTrain4 != null) {
+                                log.debug("Found 5 train route, setting car destination ({}, {})", nlt
+                                        .getLocation().getName(), nlt.getName());
+                                foundRoute = true;
+                                // show the car's route
+                                if (_addtoReport) {
+                                    addLine(_buildReport, SEVEN,
+                                            MessageFormat.format(Bundle.getMessage("RouterRoute5TrainsForCar"),
+                                                    new Object[]{car.toString(), car.getLocationName(),
+                                                            car.getTrackName(),
+                                                            _nextLocationTrains
+                                                                    .get(_nextLocationTracks.indexOf(nlt))
+                                                                    .getName(),
+                                                            nlt.getLocation().getName(), nlt.getName(),
+                                                            middleTrain2.getName(),
+                                                            mlt1.getLocation().getName(), mlt1.getName(),
+                                                            middleTrain3.getName(),
+                                                            mlt2.getLocation().getName(), mlt2.getName(),
+                                                            middleTrain4.getName(),
+                                                            llt.getLocation().getName(), llt.getName(),
+                                                            _lastLocationTrains
+                                                                    .get(_lastLocationTracks.indexOf(llt))
+                                                                    .getName(),
+                                                            car.getFinalDestinationName(),
+                                                            car.getFinalDestinationTrackName()}));
+                                } else {
+                                    addLine(_buildReport, SEVEN,
+                                            MessageFormat.format(Bundle.getMessage("RouterRoute5ForCar"),
+                                                    new Object[]{car.toString(), car.getLocationName(),
+                                                            car.getTrackName(), nlt.getLocation().getName(),
+                                                            nlt.getName(), mlt1.getLocation().getName(),
+                                                            mlt1.getName(),
+                                                            mlt2.getLocation().getName(), mlt2.getName(),
+                                                            llt.getLocation().getName(),
+                                                            llt.getName(), car.getFinalDestinationName(),
+                                                            car.getFinalDestinationTrackName()}));
+                                }
+                                // only set car's destination if specific train can service car
+                                if (finshSettingRouteFor(car, nlt)) {
+                                    return true; // done 5 train routing
                                 }
+                                break otherloop; // there was an issue with the first stop in the route
                             }
                         }
                     }
@@ -865,6 +858,33 @@ public class Router extends TrainCommon implements InstanceManagerAutoDefault {
         return foundRoute;
     }
 
+    private Train getTrainForCar(Car testCar, Track track, Track destinationTrack) {
+        testCar.setTrack(track); // set car to this location and track
+        testCar.setDestinationTrack(destinationTrack); // set car to this destination and track
+        return InstanceManager.getDefault(RoutingGraph.class).getTrainForCar(testCar); // don't add to report
+    }
+
+    /**
+     * Finds the first of the last location tracks that a train can carry the
+     * car to from a track. The answer doesn't depend on how the car got to the
+     * track, so is saved for the rest of the search.
+     *
+     * @return the last location track, or null if there isn't one
+     */
+    private Track getLastLocationTrack(Car testCar, Track track, HashMap<Track, Track> reaches) {
+        if (!reaches.containsKey(track)) {
+            Track found = null;
+            for (Track llt : _lastLocationTracks) {
+                if (getTrainForCar(testCar, track, llt) != null) {
+                    found = llt;
+                    break;
+                }
+            }
+            reaches.put(track, found);
+        }
+        return reaches.get(track);
+    }
+
     private boolean finshSettingRouteFor(Car car, Track track) {
         // only set car's destination if specific train can service car
         Car ts2 = clone(car);
@@ -939,7 +959,7 @@ public class Router extends TrainCommon implements InstanceManagerAutoDefault {
             if (specific.equals(YES) || specific.equals(NOT_NOW)) {
                 train = _train;
             } else {
-                train = InstanceManager.getDefault(TrainManager.class).getTrainForCar(testCar, null); // don't add to report
+                train = InstanceManager.getDefault(RoutingGraph.class).getTrainForCar(testCar); // don't add to report
             }
             // Can specific train carry this car out of staging?
             if (car.getTrack().getTrackType().equals(Track.STAGING) && !specific.equals(YES)) {
@@ -0,0 +1,248 @@
+package jmri.jmrit.operations.router;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import jmri.InstanceManager;
+import jmri.InstanceManagerAutoDefault;
+import jmri.jmrit.operations.locations.Location;
+import jmri.jmrit.operations.locations.LocationManager;
+import jmri.jmrit.operations.locations.Track;
+import jmri.jmrit.operations.rollingstock.cars.Car;
+import jmri.jmrit.operations.routes.Route;
+import jmri.jmrit.operations.routes.RouteLocation;
+import jmri.jmrit.operations.routes.RouteManager;
+import jmri.jmrit.operations.setup.Setup;
+import jmri.jmrit.operations.trains.Train;
+import jmri.jmrit.operations.trains.TrainManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The trains that can carry a car between two tracks, used by the router to
+ * find routes that need three or more trains.
+ * <p>
+ * The tracks are the nodes of the graph, and the first train (by id) that can
+ * carry a class of car from one track to the other is the edge between them. A
+ * class of car is the car's type, road, load, length, built date, owner and
+ * final destination, which are the only things a train or track checks when
+ * routing. Edges are found when first needed and remembered until a train,
+ * route, location or track is edited.
+ * <p>
+ * A train that is being built is checked every time, since the moves and
+ * length available change as cars are added to the train.
+ *
+ * @see Router
+ */
+public class RoutingGraph implements InstanceManagerAutoDefault, PropertyChangeListener {
+
+    // changes to these track properties can change the trains able to carry a car
+    private static final Set<String> TRACK_PROPERTIES = new HashSet<>(Arrays.asList(
+            Track.TYPES_CHANGED_PROPERTY, Track.ROADS_CHANGED_PROPERTY, Track.LENGTH_CHANGED_PROPERTY,
+            Track.TRAINDIRECTION_CHANGED_PROPERTY, Track.DROP_CHANGED_PROPERTY, Track.PICKUP_CHANGED_PROPERTY,
+            Track.TRACK_TYPE_CHANGED_PROPERTY, Track.LOADS_CHANGED_PROPERTY, Track.LOAD_OPTIONS_CHANGED_PROPERTY,
+            Track.DESTINATIONS_CHANGED_PROPERTY, Track.DESTINATION_OPTIONS_CHANGED_PROPERTY,
+            Track.DISPOSE_CHANGED_PROPERTY, "onlyCarsWithFinalDestinations")); // NOI18N
+    private static final Set<String> LOCATION_PROPERTIES = new HashSet<>(Arrays.asList(
+            Location.TRACK_LISTLENGTH_CHANGED_PROPERTY, Location.TYPES_CHANGED_PROPERTY,
+            Location.TRAINDIRECTION_CHANGED_PROPERTY, Location.NAME_CHANGED_PROPERTY,
+            Location.DISPOSE_CHANGED_PROPERTY));
+    private static final Set<String> ROUTE_PROPERTIES = new HashSet<>(Arrays.asList(
+            Route.LISTCHANGE_CHANGED_PROPERTY, RouteLocation.DROP_CHANGED_PROPERTY,
+            RouteLocation.PICKUP_CHANGED_PROPERTY, RouteLocation.MAX_MOVES_CHANGED_PROPERTY,
+            RouteLocation.TRAIN_DIRECTION_CHANGED_PROPERTY, RouteLocation.DISPOSE));
+    private static final Set<String> MANAGER_PROPERTIES = new HashSet<>(Arrays.asList(
+            TrainManager.LISTLENGTH_CHANGED_PROPERTY, LocationManager.LISTLENGTH_CHANGED_PROPERTY,
+            RouteManager.LISTLENGTH_CHANGED_PROPERTY));
+    // changes to these train properties don't change the cars a train can carry
+    private static final Set<String> TRAIN_IGNORED_PROPERTIES = new HashSet<>(Arrays.asList(
+            Train.TRAIN_LOCATION_CHANGED_PROPERTY, Train.TRAIN_MOVE_COMPLETE_CHANGED_PROPERTY,
+            Train.TRAIN_ROW_COLOR_CHANGED_PROPERTY, Train.TRAIN_ROW_COLOR_RESET_CHANGED_PROPERTY,
+            Train.DESCRIPTION_CHANGED_PROPERTY, Train.DEPARTURETIME_CHANGED_PROPERTY,
+            Train.TRAIN_MODIFIED_CHANGED_PROPERTY));
+
+    // index of the first train that can carry the car, -1 if none
+    private final ConcurrentHashMap<String, Integer> _edges = new ConcurrentHashMap<>();
+    private volatile List<Train> _trains = null; // trains by id, null until loaded
+    private final AtomicBoolean _loading = new AtomicBoolean();
+    private final AtomicInteger _generation = new AtomicInteger(); // bumped every time the graph is cleared
+    private final Set<Object> _listeningTo = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger _searches = new AtomicInteger();
+    private final AtomicInteger _searchesCached = new AtomicInteger();
+
+    /**
+     * Find a train that can carry a car from its track to its destination
+     * track. Gives the same result as
+     * {@link TrainManager#getTrainForCar(Car, java.io.PrintWriter)} without a
+     * build report.
+     *
+     * @param car the car, with a track and destination track
+     * @return the train, or null if there isn't one
+     */
+    public Train getTrainForCar(Car car) {
+        List<Train> trains = _trains;
+        if (trains == null || car.getTrack() == null || car.getDestinationTrack() == null) {
+            load();
+            return InstanceManager.getDefault(TrainManager.class).getTrainForCar(car, null);
+        }
+        _searches.incrementAndGet();
+        String key = getKey(car);
+        Integer index = _edges.get(key);
+        if (index == null) {
+            int generation = _generation.get();
+            index = -1;
+            for (int i = 0; i < trains.size(); i++) {
+                Train train = trains.get(i);
+                if (isActive(train) && train.getStatusCode() != Train.CODE_BUILDING && train.services(car)) {
+                    index = i;
+                    break;
+                }
+            }
+            // don't remember the edge if the graph was cleared while looking for it
+            if (generation == _generation.get() && trains == _trains) {
+                _edges.put(key, index);
+            }
+        } else {
+            _searchesCached.incrementAndGet();
+        }
+        // trains being built before the one found have to be checked every time
+        int end = index < 0 ? trains.size() : index;
+        for (int i = 0; i < end; i++) {
+            Train train = trains.get(i);
+            if (isActive(train) && train.getStatusCode() == Train.CODE_BUILDING && train.services(car)) {
+                return train;
+            }
+        }
+        return index < 0 ? null : trains.get(index);
+    }
+
+    /**
+     * @return the number of train searches made using the graph
+     */
+    public int getSearches() {
+        return _searches.get();
+    }
+
+    /**
+     * @return the number of train searches answered from the graph
+     */
+    public int getSearchesCached() {
+        return _searchesCached.get();
+    }
+
+    private boolean isActive(Train train) {
+        return !Setup.isOnlyActiveTrainsEnabled() || train.isBuildEnabled();
+    }
+
+    private String getKey(Car car) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(car.getTrack().getId()).append('\t');
+        sb.append(car.getDestinationTrack().getId()).append('\t');
+        sb.append(car.getTypeName()).append('\t');
+        sb.append(car.getRoadName()).append('\t');
+        sb.append(car.getLoadName()).append('\t');
+        sb.append(car.getKernel() != null ? car.getKernel().getTotalLength() : car.getLength()).append('\t');
+        sb.append(car.getBuilt()).append('\t');
+        sb.append(car.getOwner()).append('\t');
+        sb.append(car.getFinalDestination() != null ? car.getFinalDestination().getId() : "").append('\t');
+        sb.append(car.isCaboose()).append(car.hasFred()).append(car.isPassenger());
+        sb.append(Setup.isOnlyActiveTrainsEnabled()).append(Setup.isCheckCarDestinationEnabled());
+        return sb.toString();
+    }
+
+    /**
+     * Load the trains and listen for edits to the trains, routes, locations
+     * and tracks. Listening to a train waits for the train to finish building,
+     * so the graph should be loaded before trains are built at the same time.
+     * Searches made by other threads while the graph is loading don't use the
+     * graph.
+     */
+    public void load() {
+        if (_trains != null || !_loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            listen();
+        } finally {
+            _loading.set(false);
+        }
+    }
+
+    private void listen() {
+        TrainManager trainManager = InstanceManager.getDefault(TrainManager.class);
+        LocationManager locationManager = InstanceManager.getDefault(LocationManager.class);
+        RouteManager routeManager = InstanceManager.getDefault(RouteManager.class);
+        List<Train> trains = trainManager.getTrainsByIdList();
+        if (_listeningTo.add(trainManager)) {
+            trainManager.addPropertyChangeListener(this);
+        }
+        if (_listeningTo.add(locationManager)) {
+            locationManager.addPropertyChangeListener(this);
+        }
+        if (_listeningTo.add(routeManager)) {
+            routeManager.addPropertyChangeListener(this);
+        }
+        for (Train train : trains) {
+            if (_listeningTo.add(train)) {
+                train.addPropertyChangeListener(this);
+            }
+        }
+        for (Location location : locationManager.getLocationsByIdList()) {
+            if (_listeningTo.add(location)) {
+                location.addPropertyChangeListener(this);
+            }
+            for (Track track : location.getTrackList()) {
+                if (_listeningTo.add(track)) {
+                    track.addPropertyChangeListener(this);
+                }
+            }
+        }
+        for (Route route : routeManager.getRoutesByIdList()) {
+            if (_listeningTo.add(route)) {
+                route.addPropertyChangeListener(this);
+            }
+            for (RouteLocation rl : route.getLocationsBySequenceList()) {
+                if (_listeningTo.add(rl)) {
+                    rl.addPropertyChangeListener(this);
+                }
+            }
+        }
+        _trains = new ArrayList<>(trains);
+        log.debug("Routing graph loaded {} trains", trains.size());
+    }
+
+    /**
+     * Forget all of the edges, they are found again when next needed.
+     */
+    public void clear() {
+        _generation.incrementAndGet();
+        _edges.clear();
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent e) {
+        Object source = e.getSource();
+        String name = e.getPropertyName();
+        if (MANAGER_PROPERTIES.contains(name) || TRACK_PROPERTIES.contains(name) && source instanceof Track ||
+                LOCATION_PROPERTIES.contains(name) && source instanceof Location ||
+                ROUTE_PROPERTIES.contains(name) && (source instanceof Route || source instanceof RouteLocation)) {
+            log.debug("Routing graph cleared by ({}) change", name);
+            if (MANAGER_PROPERTIES.contains(name) || name.equals(Location.TRACK_LISTLENGTH_CHANGED_PROPERTY) ||
+                    name.equals(Route.LISTCHANGE_CHANGED_PROPERTY)) {
+                _trains = null; // load again to listen to the new trains, tracks and route locations
+            }
+            clear();
+        } else if (source instanceof Train && !TRAIN_IGNORED_PROPERTIES.contains(name)) {
+            clear();
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(RoutingGraph.class);
+}
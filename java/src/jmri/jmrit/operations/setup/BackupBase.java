@@ -11,6 +11,7 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import jmri.jmrit.XmlFile;
+import jmri.jmrit.operations.OperationsJournal;
 import jmri.jmrit.operations.OperationsXml;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -259,6 +260,10 @@ public abstract class BackupBase {
             }
         }
 
+        if (sourceDir.equals(getOperationsRoot())) {
+            OperationsXml.flush(); // write the journals to the files
+        }
+
         // Just copy the specific Operations files, now that we know they are
         // all there.
         for (String name : _backupSetFileNames) {
@@ -274,6 +279,14 @@ public abstract class BackupBase {
                 log.debug("Source file: {} does not exist, and is not copied.", src.getAbsolutePath());
             }
 
+            // the journal has changes not yet written to the file
+            File srcJournal = new File(sourceDir, OperationsJournal.getJournalName(name));
+            File dstJournal = new File(destDir, OperationsJournal.getJournalName(name));
+            if (srcJournal.exists()) {
+                FileHelper.copy(srcJournal.getAbsolutePath(), dstJournal.getAbsolutePath(), true);
+            } else if (dstJournal.exists() && !dstJournal.delete()) {
+                log.error("Could not delete journal: {}", dstJournal.getAbsolutePath());
+            }
         }
 
         // Throw a test exception, if we have one.
@@ -391,7 +404,7 @@ public abstract class BackupBase {
         String[] operationFileNames = files.list();
         for (String fileName : operationFileNames) {
             // skip non-xml files
-            if (!fileName.toUpperCase().endsWith(".XML")) // NOI18N
+            if (!fileName.toUpperCase().endsWith(".XML") && !fileName.endsWith(OperationsJournal.EXTENSION)) // NOI18N
             {
                 continue;
             }
@@ -82,6 +82,7 @@ public class OperationsSetupPanel extends OperationsPreferencesPanel implements
     private final JCheckBox closeOnSaveCheckBox = new JCheckBox(Bundle.getMessage("CloseOnSave"));
     private final JCheckBox autoSaveCheckBox = new JCheckBox(Bundle.getMessage("AutoSave"));
     private final JCheckBox autoBackupCheckBox = new JCheckBox(Bundle.getMessage("AutoBackup"));
+    private final JCheckBox writeBehindCheckBox = new JCheckBox(Bundle.getMessage("WriteBehind"));
     private final JCheckBox iconCheckBox = new JCheckBox(Bundle.getMessage("trainIcon"));
     private final JCheckBox appendCheckBox = new JCheckBox(Bundle.getMessage("trainIconAppend"));
 
@@ -129,6 +130,7 @@ public class OperationsSetupPanel extends OperationsPreferencesPanel implements
         closeOnSaveCheckBox.setSelected(Setup.isCloseWindowOnSaveEnabled());
         autoSaveCheckBox.setSelected(Setup.isAutoSaveEnabled());
         autoBackupCheckBox.setSelected(Setup.isAutoBackupEnabled());
+        writeBehindCheckBox.setSelected(Setup.isWriteBehindEnabled());
         iconCheckBox.setSelected(Setup.isTrainIconCordEnabled());
         appendCheckBox.setSelected(Setup.isTrainIconAppendEnabled());
 
@@ -140,6 +142,7 @@ public class OperationsSetupPanel extends OperationsPreferencesPanel implements
         yearTextField.setToolTipText(Bundle.getMessage("EnterYearModeled"));
         autoSaveCheckBox.setToolTipText(Bundle.getMessage("AutoSaveTip"));
         autoBackupCheckBox.setToolTipText(Bundle.getMessage("AutoBackUpTip"));
+        writeBehindCheckBox.setToolTipText(Bundle.getMessage("WriteBehindTip"));
         maxLengthTextField.setToolTipText(Bundle.getMessage("MaxLengthTip"));
         maxEngineSizeTextField.setToolTipText(Bundle.getMessage("MaxEngineTip"));
         hptTextField.setToolTipText(Bundle.getMessage("HPperTonTip"));
@@ -277,6 +280,7 @@ public class OperationsSetupPanel extends OperationsPreferencesPanel implements
         addItem(options, closeOnSaveCheckBox, 1, 0);
         addItem(options, autoSaveCheckBox, 2, 0);
         addItem(options, autoBackupCheckBox, 3, 0);
+        addItem(options, writeBehindCheckBox, 4, 0);
 
         // p9.add(options);
         // 1st scroll panel
@@ -498,6 +502,7 @@ public class OperationsSetupPanel extends OperationsPreferencesPanel implements
         Setup.setCloseWindowOnSaveEnabled(closeOnSaveCheckBox.isSelected());
         Setup.setAutoSaveEnabled(autoSaveCheckBox.isSelected());
         Setup.setAutoBackupEnabled(autoBackupCheckBox.isSelected());
+        Setup.setWriteBehindEnabled(writeBehindCheckBox.isSelected());
 
         // add panel name to setup
         Setup.setPanelName(panelTextField.getText());
@@ -777,6 +782,7 @@ public class OperationsSetupPanel extends OperationsPreferencesPanel implements
                 || Setup.isCloseWindowOnSaveEnabled() != closeOnSaveCheckBox.isSelected()
                 || Setup.isAutoSaveEnabled() != autoSaveCheckBox.isSelected()
                 || Setup.isAutoBackupEnabled() != autoBackupCheckBox.isSelected()
+                || Setup.isWriteBehindEnabled() != writeBehindCheckBox.isSelected()
                 // add panel name to setup
                 || !Setup.getPanelName().equals(panelTextField.getText())
                 // train Icon X&Y
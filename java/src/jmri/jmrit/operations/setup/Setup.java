@@ -271,6 +271,7 @@ public class Setup implements InstanceManagerAutoDefault, Disposable {
     private boolean closeWindowOnSave = false; // when true, close window when save button is activated
     private boolean autoSave = true; // when true, automatically save files if modified
     private boolean autoBackup = true; // when true, automatically backup files
+    private boolean writeBehind = false; // when true, save changes to a journal and write files in the background
     private boolean enableValue = false; // when true show value fields for rolling stock
     private String labelValue = Bundle.getMessage("Value");
     private boolean enableRfid = false; // when true show RFID fields for rolling stock
@@ -372,6 +373,20 @@ public class Setup implements InstanceManagerAutoDefault, Disposable {
         getDefault().autoBackup = enabled;
     }
 
+    /**
+     * When enabled, changes to the car roster are saved to a journal and the
+     * roster file is written in the background.
+     *
+     * @return true if write behind is enabled
+     */
+    public static boolean isWriteBehindEnabled() {
+        return getDefault().writeBehind;
+    }
+
+    public static void setWriteBehindEnabled(boolean enabled) {
+        getDefault().writeBehind = enabled;
+    }
+
     public static boolean isValueEnabled() {
         return getDefault().enableValue;
     }
@@ -1787,6 +1802,7 @@ public class Setup implements InstanceManagerAutoDefault, Disposable {
         values.setAttribute(Xml.CLOSE_ON_SAVE, isCloseWindowOnSaveEnabled() ? Xml.TRUE : Xml.FALSE);
         values.setAttribute(Xml.AUTO_SAVE, isAutoSaveEnabled() ? Xml.TRUE : Xml.FALSE);
         values.setAttribute(Xml.AUTO_BACKUP, isAutoBackupEnabled() ? Xml.TRUE : Xml.FALSE);
+        values.setAttribute(Xml.WRITE_BEHIND, isWriteBehindEnabled() ? Xml.TRUE : Xml.FALSE);
         values.setAttribute(Xml.TRAIN_DIRECTION, Integer.toString(getTrainDirection()));
         values.setAttribute(Xml.TRAIN_LENGTH, Integer.toString(getMaxTrainLength()));
         values.setAttribute(Xml.MAX_ENGINES, Integer.toString(getMaxNumberEngines()));
@@ -2793,6 +2809,11 @@ public class Setup implements InstanceManagerAutoDefault, Disposable {
                 log.debug("autoBackup: {}", enabled);
                 setAutoBackupEnabled(enabled.equals(Xml.TRUE));
             }
+            if ((a = operations.getChild(Xml.SETTINGS).getAttribute(Xml.WRITE_BEHIND)) != null) {
+                String enabled = a.getValue();
+                log.debug("writeBehind: {}", enabled);
+                setWriteBehindEnabled(enabled.equals(Xml.TRUE));
+            }
         }
 
         if (operations.getChild(Xml.LOGGER) != null) {
@@ -51,6 +51,7 @@ public class Xml {
     static final String CLOSE_ON_SAVE = "closeOnSave"; // NOI18N 
     static final String AUTO_SAVE = "autoSave"; // NOI18N
     static final String AUTO_BACKUP = "autoBackup"; // NOI18N
+    static final String WRITE_BEHIND = "writeBehind"; // NOI18N
     static final String TRAIN_DIRECTION = "trainDirection"; // NOI18N
     static final String TRAIN_LENGTH = "trainLength"; // NOI18N
     static final String MAX_ENGINES = "maxEngines"; // NOI18N
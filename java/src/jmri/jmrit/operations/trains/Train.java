@@ -2885,8 +2885,19 @@ public class Train implements java.beans.PropertyChangeListener {
      * @return True only if train is successfully built.
      */
     public boolean buildIfSelected() {
+        return buildIfSelected(true);
+    }
+
+    /**
+     * Build this train if the build control flag is true.
+     *
+     * @param waitForOtherTrains false when the caller has made sure no train
+     *                           built at the same time can affect this one
+     * @return True only if train is successfully built.
+     */
+    boolean buildIfSelected(boolean waitForOtherTrains) {
         if (isBuildEnabled() && !isBuilt()) {
-            return build();
+            return build(waitForOtherTrains);
         }
         log.debug("Train (" + getName() + ") not selected or already built, skipping build");
         return false;
@@ -2898,9 +2909,13 @@ public class Train implements java.beans.PropertyChangeListener {
      * @return True if build successful.
      */
     public synchronized boolean build() {
+        return build(true);
+    }
+
+    private synchronized boolean build(boolean waitForOtherTrains) {
         reset();
         // check to see if any other trains are building
-        while (InstanceManager.getDefault(TrainManager.class).isAnyTrainBuilding()) {
+        while (waitForOtherTrains && InstanceManager.getDefault(TrainManager.class).isAnyTrainBuilding()) {
             try {
                 wait(100); // 100 msec
             } catch (InterruptedException e) {
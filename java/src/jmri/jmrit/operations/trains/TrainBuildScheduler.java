@@ -0,0 +1,276 @@
+package jmri.jmrit.operations.trains;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import jmri.InstanceManager;
+import jmri.jmrit.operations.locations.Location;
+import jmri.jmrit.operations.locations.Track;
+import jmri.jmrit.operations.rollingstock.cars.Car;
+import jmri.jmrit.operations.rollingstock.cars.CarLoads;
+import jmri.jmrit.operations.rollingstock.cars.CarManager;
+import jmri.jmrit.operations.router.RoutingGraph;
+import jmri.jmrit.operations.routes.RouteLocation;
+import jmri.jmrit.operations.setup.Setup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds a list of trains on a pool of worker threads, with the same result as
+ * building them one after the other in list order.
+ * <p>
+ * Two trains conflict if building one can change the cars, engines or tracks
+ * available to the other. A train is only started once every train before it
+ * in the list that it conflicts with has been built, so trains that conflict
+ * are built in list order and trains that don't are built at the same time.
+ * <p>
+ * A train only picks up and sets out at the locations in its route, so trains
+ * conflict when their routes share a location. When car routing is enabled the
+ * router may plan a car's move using any train whose route connects with the
+ * train being built, so trains then conflict when their routes are joined
+ * through the routes of any trains. A train with build scripts, departing
+ * staging that generates custom loads, or with a car carrying a custom load
+ * and no destination at any location in its route, may change any location
+ * and conflicts with every other train: the builder searches the spurs with
+ * schedules and the staging tracks of the whole railroad for such cars, and
+ * moves the schedules of the spurs it chooses.
+ *
+ * @see TrainManager#setParallelBuildEnabled(boolean)
+ */
+class TrainBuildScheduler {
+
+    private final List<Train> trains;
+    private long elapsedTime = 0; // nanoseconds
+    private final AtomicLong buildTime = new AtomicLong(); // nanoseconds
+
+    TrainBuildScheduler(List<Train> trains) {
+        this.trains = new ArrayList<>(trains);
+    }
+
+    /**
+     * Work out which trains each train has to wait for.
+     *
+     * @return for each train, the positions of the earlier trains it conflicts
+     *         with
+     */
+    List<List<Integer>> getDependencies() {
+        HashMap<Location, Location> zones = Setup.isCarRoutingEnabled() ? getConnectedLocations() : null;
+        Set<Location> customLoads = getCustomLoadLocations();
+        List<Set<Location>> footprints = new ArrayList<>();
+        for (Train train : trains) {
+            footprints.add(getFootprint(train, zones, customLoads));
+        }
+        List<List<Integer>> dependencies = new ArrayList<>();
+        for (int i = 0; i < trains.size(); i++) {
+            List<Integer> list = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (conflict(footprints.get(i), footprints.get(j))) {
+                    list.add(j);
+                }
+            }
+            dependencies.add(list);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Build the trains.
+     *
+     * @param threads the number of trains to build at the same time
+     */
+    void build(int threads) {
+        long start = System.nanoTime();
+        List<List<Integer>> dependencies = getDependencies();
+        if (Setup.isCarRoutingEnabled()) {
+            // load before building, loading has to wait for trains being built
+            InstanceManager.getDefault(RoutingGraph.class).load();
+        }
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, (r) -> {
+            Thread t = new Thread(r, "Build Trains " + count.incrementAndGet()); // NOI18N
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<CompletableFuture<Void>> builds = new ArrayList<>();
+            for (int i = 0; i < trains.size(); i++) {
+                Train train = trains.get(i);
+                CompletableFuture<?>[] before = new CompletableFuture<?>[dependencies.get(i).size()];
+                for (int k = 0; k < before.length; k++) {
+                    before[k] = builds.get(dependencies.get(i).get(k));
+                }
+                builds.add(CompletableFuture.allOf(before).thenRunAsync(() -> {
+                    build(train);
+                }, pool));
+            }
+            CompletableFuture.allOf(builds.toArray(new CompletableFuture<?>[builds.size()])).join();
+        } finally {
+            pool.shutdown();
+        }
+        elapsedTime = System.nanoTime() - start;
+        log.info("Built {} trains in {} ms, {} ms if built one after the other, speedup {}", trains.size(),
+                elapsedTime / 1000000, buildTime.get() / 1000000, String.format("%.2f", getSpeedup())); // NOI18N
+    }
+
+    private void build(Train train) {
+        long start = System.nanoTime();
+        try {
+            train.buildIfSelected(false);
+        } catch (RuntimeException e) {
+            log.error("Exception building train ({})", train.getName(), e);
+        } finally {
+            buildTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return the time taken by the last build, in milliseconds
+     */
+    long getElapsedTime() {
+        return elapsedTime / 1000000;
+    }
+
+    /**
+     * @return the total time spent building each train, in milliseconds
+     */
+    long getBuildTime() {
+        return buildTime.get() / 1000000;
+    }
+
+    /**
+     * @return how many times faster the trains were built than one after the
+     *         other
+     */
+    double getSpeedup() {
+        return elapsedTime > 0 ? (double) buildTime.get() / elapsedTime : 1.0;
+    }
+
+    /**
+     * Get the locations a train may change when built.
+     *
+     * @param train the train
+     * @param zones       when routing, each location mapped to a
+     *                    representative of the locations connected to it by
+     *                    train routes
+     * @param customLoads the locations with cars that have a custom load and
+     *                    no destination
+     * @return the locations, or null if the train may change any location
+     */
+    private Set<Location> getFootprint(Train train, HashMap<Location, Location> zones, Set<Location> customLoads) {
+        Set<Location> footprint = new HashSet<>();
+        if (!train.isBuildEnabled() || train.isBuilt()) {
+            return footprint; // won't be built
+        }
+        if (!train.getBuildScripts().isEmpty() || !train.getAfterBuildScripts().isEmpty()) {
+            return null;
+        }
+        if (train.getRoute() == null) {
+            return footprint;
+        }
+        List<RouteLocation> routeList = train.getRoute().getLocationsBySequenceList();
+        if (!routeList.isEmpty() && isAddingCustomLoads(routeList.get(0).getLocation())) {
+            return null;
+        }
+        for (RouteLocation rl : routeList) {
+            if (customLoads.contains(rl.getLocation())) {
+                return null;
+            }
+            if (rl.getLocation() != null) {
+                footprint.add(zones != null ? find(zones, rl.getLocation()) : rl.getLocation());
+            }
+        }
+        return footprint;
+    }
+
+    private boolean isAddingCustomLoads(Location location) {
+        if (location == null || !location.isStaging()) {
+            return false;
+        }
+        for (Track track : location.getTrackList()) {
+            if (track.isAddCustomLoadsEnabled() || track.isAddCustomLoadsAnySpurEnabled()
+                    || track.isAddCustomLoadsAnyStagingTrackEnabled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the locations with cars that the builder would look for a spur for,
+     * as they have a custom load and no destination.
+     */
+    private Set<Location> getCustomLoadLocations() {
+        Set<Location> locations = new HashSet<>();
+        CarLoads carLoads = InstanceManager.getDefault(CarLoads.class);
+        for (Car car : InstanceManager.getDefault(CarManager.class).getList()) {
+            if (car.getLocation() != null
+                    && car.getDestination() == null
+                    && car.getFinalDestination() == null
+                    && !car.getLoadName().equals(carLoads.getDefaultEmptyName())
+                    && !car.getLoadName().equals(carLoads.getDefaultLoadName())) {
+                locations.add(car.getLocation());
+            }
+        }
+        return locations;
+    }
+
+    private boolean conflict(Set<Location> a, Set<Location> b) {
+        if (a == null || b == null) {
+            return true;
+        }
+        for (Location l : a) {
+            if (b.contains(l)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Group the locations joined by the routes of all trains.
+     */
+    private HashMap<Location, Location> getConnectedLocations() {
+        HashMap<Location, Location> parent = new HashMap<>();
+        for (Train train : InstanceManager.getDefault(TrainManager.class).getTrainsByIdList()) {
+            if (train.getRoute() == null) {
+                continue;
+            }
+            Location first = null;
+            for (RouteLocation rl : train.getRoute().getLocationsBySequenceList()) {
+                if (rl.getLocation() == null) {
+                    continue;
+                }
+                if (first == null) {
+                    first = rl.getLocation();
+                }
+                Location a = find(parent, first);
+                Location b = find(parent, rl.getLocation());
+                if (a != b) {
+                    parent.put(b, a);
+                }
+            }
+        }
+        return parent;
+    }
+
+    private static Location find(HashMap<Location, Location> parent, Location location) {
+        Location root = location;
+        while (parent.containsKey(root) && parent.get(root) != root) {
+            root = parent.get(root);
+        }
+        parent.put(location, root);
+        if (!parent.containsKey(root)) {
+            parent.put(root, root);
+        }
+        return root;
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(TrainBuildScheduler.class);
+}
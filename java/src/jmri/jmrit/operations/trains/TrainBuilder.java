@@ -10,6 +10,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.ResourceBundle;
@@ -79,11 +80,20 @@ public class TrainBuilder extends TrainCommon {
     PrintWriter _buildReport; // build report for this train
     List<Car> _notRoutable = new ArrayList<>(); // list of cars that couldn't be routed
     List<Location> _modifiedLocations = new ArrayList<>(); // list of locations that have been modified
+    HashMap<String, String> _acceptsCache = new HashMap<>(); // track checks that only depend on the car's attributes
+    int _acceptsCacheHits = 0; // number of track checks answered from the cache
+    int _acceptsCacheMisses = 0; // number of track checks that had to be made, including those made again
+    int _tracksSkipped = 0; // number of tracks not searched because they can't accept the car
+    long _phaseStart; // when the current build phase started
+    long[] _phaseTimes = new long[5]; // time taken by each build phase
 
     // managers
     CarManager carManager = InstanceManager.getDefault(CarManager.class);
     LocationManager locationManager = InstanceManager.getDefault(LocationManager.class);
     EngineManager engineManager = InstanceManager.getDefault(EngineManager.class);
+    // the router holds the status of the car being routed, so each build has
+    // its own to allow trains to be built at the same time
+    Router router = new Router();
 
     /**
      * Build rules:
@@ -117,6 +127,7 @@ public class TrainBuilder extends TrainCommon {
 
     private void build() throws BuildFailedException {
         _startTime = new Date();
+        _phaseStart = _startTime.getTime();
         
         log.debug("Building train ({})", _train.getName());
 
@@ -231,10 +242,12 @@ public class TrainBuilder extends TrainCommon {
             addLine(_buildReport, FIVE, formatStringToCommaSeparated(_train.getLocoTypeNames()));
         }
 
+        endBuildPhase(0); // route
 
         determineIfTrainTerminatesIntoStaging(); // determine if train is terminating into staging
         
         determineIfTrainDepartsStagingAndLoadEngines(); // find departure track if staging, load engines and cabooses
+        endBuildPhase(1); // staging and engines
 
         // show car types and loads that this train will service
         addLine(_buildReport, FIVE, BLANK_LINE); // add line when in detailed report mode
@@ -266,6 +279,7 @@ public class TrainBuilder extends TrainCommon {
         saveCarFinalDestinations(); //save car's final destination and schedule id in case of train reset
 
         blockCarsFromStaging(); // block cars from staging
+        endBuildPhase(2); // available cars
 
         // now find destinations for cars
         addLine(_buildReport, THREE, BLANK_LINE); // add line when in normal report mode
@@ -283,6 +297,7 @@ public class TrainBuilder extends TrainCommon {
         } else {
             placeCars(100, false);
         }
+        endBuildPhase(3); // place cars
 
         // done assigning cars to train
         _train.setCurrentLocation(_train.getTrainDepartsRouteLocation());
@@ -307,6 +322,7 @@ public class TrainBuilder extends TrainCommon {
         checkEngineHP();
         // check to see if additional engines are needed for this train
         checkNumnberOfEnginesNeeded();
+        endBuildPhase(4); // engine horsepower
 
         // any cars not able to route?
         if (_notRoutable.size() > 0) {
@@ -322,6 +338,11 @@ public class TrainBuilder extends TrainCommon {
 
         addLine(_buildReport, FIVE, MessageFormat.format(Bundle.getMessage("buildTime"), new Object[]{
                 _train.getName(), new Date().getTime() - _startTime.getTime()}));
+        addLine(_buildReport, FIVE, MessageFormat.format(Bundle.getMessage("buildPhaseTimes"), new Object[]{
+                _phaseTimes[0], _phaseTimes[1], _phaseTimes[2], _phaseTimes[3], _phaseTimes[4]}));
+        int checks = _acceptsCacheHits + _acceptsCacheMisses;
+        addLine(_buildReport, FIVE, MessageFormat.format(Bundle.getMessage("buildTrackChecks"), new Object[]{
+                _acceptsCacheHits, checks, checks > 0 ? 100 * _acceptsCacheHits / checks : 0, _tracksSkipped}));
         _buildReport.flush();
         _buildReport.close();
 
@@ -346,6 +367,93 @@ public class TrainBuilder extends TrainCommon {
         log.debug("Done building train ({})", _train.getName());
     }
     
+    /**
+     * Record the time taken by a build phase, the phase starts when the
+     * previous one ended.
+     *
+     * @param phase the phase that has ended
+     */
+    private void endBuildPhase(int phase) {
+        long now = System.currentTimeMillis();
+        _phaseTimes[phase] = now - _phaseStart;
+        _phaseStart = now;
+    }
+
+    /**
+     * Same as car.testDestination(destination, track), but remembers the
+     * checks that only depend on the car's type, road, length, final
+     * destination and load, so they are only made once per build for each
+     * track.
+     *
+     * @param car the car
+     * @param destination the car's destination
+     * @param track the destination track
+     * @return OKAY if the track can accept the car, otherwise the reason why
+     *         not
+     */
+    private String testDestination(Car car, Location destination, Track track) {
+        if (track == null || destination != track.getLocation() || !destination.acceptsTypeName(car.getTypeName())) {
+            return car.testDestination(destination, track);
+        }
+        String status = getAcceptsAttributes(car, track, true);
+        if (!status.equals(Track.OKAY)) {
+            return status;
+        }
+        return car.testDestination(destination, track);
+    }
+
+    /**
+     * Get the result of track.acceptsAttributes(car), only making the check
+     * once per build for each track and set of car attributes.
+     *
+     * @param car the car
+     * @param track the track
+     * @param rechecked true if the caller makes the check again when the track
+     *            accepts the car, so only a remembered rejection saves a check
+     * @return OKAY if the track accepts the car's attributes, otherwise the
+     *         reason why not
+     */
+    private String getAcceptsAttributes(Car car, Track track, boolean rechecked) {
+        String key = track.getId() + "\t" + car.getTypeName() + "\t" + car.getRoadName() + "\t" + car.getLength() +
+                "\t" + (car.getFinalDestination() != null ? car.getFinalDestination().getId() : "") + "\t" +
+                car.getLoadName();
+        String status = _acceptsCache.get(key);
+        if (status != null) {
+            if (rechecked && status.equals(Track.OKAY)) {
+                _acceptsCacheMisses++;
+            } else {
+                _acceptsCacheHits++;
+            }
+            return status;
+        }
+        _acceptsCacheMisses++;
+        status = track.acceptsAttributes(car);
+        _acceptsCache.put(key, status);
+        return status;
+    }
+
+    /**
+     * Determine if a track has to be searched for a car. A track that doesn't
+     * accept the car's attributes can still get the car if the spur's schedule
+     * can generate a custom load for the car, or if the car can be sent to the
+     * track's alternate.
+     *
+     * @param car the car
+     * @param track the track
+     * @return false if the track can't be the car's destination
+     */
+    private boolean isTrackCandidate(Car car, Track track) {
+        String status = getAcceptsAttributes(car, track, false);
+        if (status.equals(Track.OKAY) || status.startsWith(Track.LENGTH)) {
+            return true;
+        }
+        return !status.startsWith(Track.TYPE) &&
+                track.getTrackType().equals(Track.SPUR) &&
+                !track.getScheduleId().equals(Track.NONE) &&
+                (car.getTrack().isAddCustomLoadsEnabled() || car.getTrack().isAddCustomLoadsAnySpurEnabled()) &&
+                car.getLoadName().equals(InstanceManager.getDefault(CarLoads.class).getDefaultEmptyName());
+    }
+
     /**
      * show train build options in detailed mode
      */
@@ -2484,15 +2592,15 @@ public class TrainBuilder extends TrainCommon {
                         continue;
                     }
                 }
-                if (!InstanceManager.getDefault(Router.class).setDestination(car, _train, _buildReport)) {
+                if (!router.setDestination(car, _train, _buildReport)) {
                     addLine(_buildReport, SEVEN, MessageFormat.format(
                             Bundle.getMessage("buildNotAbleToSetDestination"), new Object[]{car.toString(),
-                                    InstanceManager.getDefault(Router.class).getStatus()}));
+                                    router.getStatus()}));
                     // don't move car if routing issue was track space but not departing staging
-                    if ((!InstanceManager.getDefault(Router.class).getStatus().startsWith(Track.LENGTH) &&
+                    if ((!router.getStatus().startsWith(Track.LENGTH) &&
                             !_train.isServiceAllCarsWithFinalDestinationsEnabled()) ||
                             (car.getTrack() == _departStageTrack)) {
-                        if (!InstanceManager.getDefault(Router.class).getStatus().equals(Router.STATUS_CAR_AT_DESINATION)) {
+                        if (!router.getStatus().equals(Router.STATUS_CAR_AT_DESINATION)) {
                             // add car to not able to route list
                             if (!_notRoutable.contains(car)) {
                                 _notRoutable.add(car);
@@ -3412,7 +3520,7 @@ public class TrainBuilder extends TrainCommon {
                 car.setFinalDestination(track.getLocation());
                 car.setFinalDestinationTrack(track);
                 // hold car if able to route to track
-                if (InstanceManager.getDefault(Router.class).setDestination(car, _train, _buildReport) &&
+                if (router.setDestination(car, _train, _buildReport) &&
                         track.isHoldCarsWithCustomLoadsEnabled()) {
                     routeToSpurFound = true; // if we don't find another spur, keep the car here for now
                 }
@@ -3430,7 +3538,7 @@ public class TrainBuilder extends TrainCommon {
             car.setFinalDestination(track.getLocation());
             car.setFinalDestinationTrack(track);
             // test to see if destination is reachable by this train
-            if (InstanceManager.getDefault(Router.class).setDestination(car, _train, _buildReport) &&
+            if (router.setDestination(car, _train, _buildReport) &&
                     track.isHoldCarsWithCustomLoadsEnabled()) {
                 routeToSpurFound = true; // found a route to the spur
             }
@@ -3444,7 +3552,7 @@ public class TrainBuilder extends TrainCommon {
                 return true; // done, car has a new destination
             }
             addLine(_buildReport, SEVEN, MessageFormat.format(Bundle.getMessage("buildNotAbleToSetDestination"),
-                    new Object[]{car.toString(), InstanceManager.getDefault(Router.class).getStatus()}));
+                    new Object[]{car.toString(), router.getStatus()}));
             car.setFinalDestination(null);
             car.setFinalDestinationTrack(null);
         }
@@ -3492,7 +3600,7 @@ public class TrainBuilder extends TrainCommon {
                 // try to send car to staging
                 car.setFinalDestination(track.getLocation());
                 // test to see if destination is reachable by this train
-                if (InstanceManager.getDefault(Router.class).setDestination(car, _train, _buildReport)) {
+                if (router.setDestination(car, _train, _buildReport)) {
                     routeToSpurFound = true; // found a route to staging
                 }
                 if (car.getDestination() != null) {
@@ -3597,7 +3705,7 @@ public class TrainBuilder extends TrainCommon {
             car.setFinalDestination(track.getLocation());
             car.setFinalDestinationTrack(track);
             // try routing car
-            if (InstanceManager.getDefault(Router.class).setDestination(car, _train, _buildReport) && car.getDestination() != null) {
+            if (router.setDestination(car, _train, _buildReport) && car.getDestination() != null) {
                 // return car with this custom load and destination
                 addLine(_buildReport, FIVE, MessageFormat.format(Bundle.getMessage("buildCreateNewLoadForCar"),
                         new Object[]{car.toString(), si.getReceiveLoadName(), track.getLocation().getName(),
@@ -3685,7 +3793,7 @@ public class TrainBuilder extends TrainCommon {
             // the following method sets the load generated from staging boolean
             if (generateLoadCarDepartingAndTerminatingIntoStaging(car, track)) {
                 // test to see if destination is reachable by this train
-                if (InstanceManager.getDefault(Router.class).setDestination(car, _train, _buildReport) && car.getDestination() != null) {
+                if (router.setDestination(car, _train, _buildReport) && car.getDestination() != null) {
                     return true; // done, car has a custom load and a final destination
                 }
                 addLine(_buildReport, SEVEN, MessageFormat.format(Bundle.getMessage("buildStagingTrackNotReachable"),
@@ -4061,7 +4169,7 @@ public class TrainBuilder extends TrainCommon {
                         if (!checkTrainCanDrop(car, testTrack)) {
                             continue;
                         }
-                        String status = car.testDestination(car.getDestination(), testTrack);
+                        String status = testDestination(car, car.getDestination(), testTrack);
                         // is the testTrack a spur with a schedule and alternate track?
                         if (!status.equals(Track.OKAY) &&
                                 status.startsWith(Track.LENGTH) &&
@@ -4072,7 +4180,7 @@ public class TrainBuilder extends TrainCommon {
                                     .getMessage("buildTrackFullHasAlternate"), new Object[]{
                                             testTrack.getLocation().getName(), testTrack.getName(),
                                             testTrack.getAlternateTrack().getName()}));
-                            String altStatus = car.testDestination(car.getDestination(), testTrack.getAlternateTrack());
+                            String altStatus = testDestination(car, car.getDestination(), testTrack.getAlternateTrack());
                             // A car with a custom load sent to a spur will get a status with "CUSTOM" and "LOAD"
                             // embedded,
                             // if the spur doesn't have a schedule. Must use contains to determine if both are in the
@@ -4228,6 +4336,7 @@ public class TrainBuilder extends TrainCommon {
         Track trackSave = null; // holds the best track at destination for the car
         Track finalDestinationTrackSave = null; // used when a spur has an alternate track and no schedule
         boolean multiplePickup = false; // true when car can be picked up from two or more locations in the route
+        boolean isVeryDetailedReport = Setup.getBuildReportLevel().equals(SEVEN);
 
         // more than one location in this route?
         if (!_train.isLocalSwitcher()) {
@@ -4338,7 +4447,7 @@ public class TrainBuilder extends TrainCommon {
             // is there a track assigned for staging cars?
             if (rld == _train.getTrainTerminatesRouteLocation() && _terminateStageTrack != null) {
                 // no need to check train and track direction into staging, already done
-                String status = car.testDestination(testDestination, _terminateStageTrack);
+                String status = testDestination(car, testDestination, _terminateStageTrack);
                 if (status.equals(Track.OKAY)) {
                     trackTemp = _terminateStageTrack;
                     // only generate a new load if there aren't any other tracks available for this car
@@ -4377,6 +4486,11 @@ public class TrainBuilder extends TrainCommon {
                 }
                 for (Track testTrack : testDestination.getTrackByMovesList(null)) {
                     // log.debug("track (" +testTrack.getName()+ ") has "+ testTrack.getMoves() + " moves");
+                    // skip tracks that can't take the car, the reasons are only shown in the very detailed report
+                    if (!isVeryDetailedReport && !isTrackCandidate(car, testTrack)) {
+                        _tracksSkipped++;
+                        continue;
+                    }
                     // dropping to the same track isn't allowed
                     if (testTrack == car.getTrack() && !car.isPassenger() && !car.isCaboose() && !car.hasFred()) {
                         addLine(_buildReport, SEVEN, MessageFormat.format(Bundle
@@ -4416,7 +4530,7 @@ public class TrainBuilder extends TrainCommon {
                                         testTrack.getReserved(), testTrack.getReservedLengthDrops(),
                                         testTrack.getReservedLengthDrops() - testTrack.getReserved(), available}));
                     }
-                    String status = car.testDestination(testDestination, testTrack);
+                    String status = testDestination(car, testDestination, testTrack);
                     // Could be a caboose or car with FRED with a custom load
                     // is the destination a spur with a schedule demanding this car's custom load?
                     if (status.equals(Track.OKAY) &&
@@ -4459,7 +4573,7 @@ public class TrainBuilder extends TrainCommon {
                         ScheduleItem si = getScheduleItem(car, testTrack);
                         if (si != null) {
                             car.setLoadName(si.getReceiveLoadName());
-                            if (car.testDestination(testDestination, testTrack).equals(Track.OKAY)) {
+                            if (testDestination(car, testDestination, testTrack).equals(Track.OKAY)) {
                                 addLine(_buildReport, FIVE, MessageFormat.format(Bundle
                                         .getMessage("buildAddingScheduleLoad"), new Object[]{si.getReceiveLoadName(),
                                                 car.toString()}));
@@ -4477,7 +4591,7 @@ public class TrainBuilder extends TrainCommon {
                             car.getFinalDestination() == null &&
                             testTrack.getScheduleId().equals(Track.NONE) &&
                             car.getTrack() != testTrack.getAlternateTrack() &&
-                            car.testDestination(testDestination, testTrack.getAlternateTrack()).equals(Track.OKAY)) {
+                            testDestination(car, testDestination, testTrack.getAlternateTrack()).equals(Track.OKAY)) {
                         addLine(_buildReport, SEVEN, MessageFormat.format(Bundle
                                 .getMessage("buildTrackFullHasAlternate"), new Object[]{testDestination.getName(),
                                         testTrack.getName(), testTrack.getAlternateTrack().getName()}));
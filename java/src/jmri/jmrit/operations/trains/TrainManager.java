@@ -47,6 +47,8 @@ public class TrainManager implements InstanceManagerAutoDefault, InstanceManager
     private boolean _printPreview = false; // when true, preview train manifest
     private boolean _openFile = false; // when true, open CSV file manifest
     private boolean _runFile = false; // when true, run CSV file manifest
+    private boolean _parallelBuild = false; // when true, build trains that don't conflict at the same time
+    private double _lastBuildSpeedup = 1.0;
 
     // Trains window row colors
     private boolean _rowColorManual = true; // when true train colors are manually assigned
@@ -111,6 +113,38 @@ public class TrainManager implements InstanceManagerAutoDefault, InstanceManager
         setDirtyAndFirePropertyChange("BuildMessagesEnabled", enable, old); // NOI18N
     }
 
+    /**
+     *
+     * @return true if selected trains are built in parallel
+     */
+    public boolean isParallelBuildEnabled() {
+        return _parallelBuild;
+    }
+
+    /**
+     * When enabled, {@link #buildSelectedTrains(List)} builds trains that
+     * don't share any locations at the same time, on one thread per processor.
+     * Trains that could affect each other are still built one after the other
+     * in list order, so the trains are built exactly as they would be one at a
+     * time.
+     *
+     * @param enable true to build trains in parallel
+     */
+    public void setParallelBuildEnabled(boolean enable) {
+        boolean old = _parallelBuild;
+        _parallelBuild = enable;
+        setDirtyAndFirePropertyChange("ParallelBuildEnabled", old, enable); // NOI18N
+    }
+
+    /**
+     *
+     * @return how many times faster the last parallel build was than building
+     *         the trains one after the other
+     */
+    public double getLastBuildSpeedup() {
+        return _lastBuildSpeedup;
+    }
+
     /**
      *
      * @return true if build reports are enabled
@@ -898,8 +932,14 @@ public class TrainManager implements InstanceManagerAutoDefault, InstanceManager
         Thread build = new Thread(new Runnable() {
             @Override
             public void run() {
-                for (Train train : trains) {
-                    train.buildIfSelected();
+                if (isParallelBuildEnabled()) {
+                    TrainBuildScheduler scheduler = new TrainBuildScheduler(trains);
+                    scheduler.build(Runtime.getRuntime().availableProcessors());
+                    _lastBuildSpeedup = scheduler.getSpeedup();
+                } else {
+                    for (Train train : trains) {
+                        train.buildIfSelected();
+                    }
                 }
                 setDirtyAndFirePropertyChange(TRAINS_BUILT_CHANGED_PROPERTY, false, true);
             }
@@ -980,6 +1020,9 @@ public class TrainManager implements InstanceManagerAutoDefault, InstanceManager
                 if ((a = e.getAttribute(Xml.RUN_FILE)) != null) {
                     _runFile = a.getValue().equals(Xml.TRUE);
                 }
+                if ((a = e.getAttribute(Xml.PARALLEL_BUILD)) != null) {
+                    _parallelBuild = a.getValue().equals(Xml.TRUE);
+                }
                 // verify that the Trains Window action is valid
                 if ((a = e.getAttribute(Xml.TRAIN_ACTION)) != null
                         && (a.getValue().equals(TrainsTableFrame.MOVE)
@@ -1060,6 +1103,7 @@ public class TrainManager implements InstanceManagerAutoDefault, InstanceManager
         e.setAttribute(Xml.PRINT_PREVIEW, isPrintPreviewEnabled() ? Xml.TRUE : Xml.FALSE);
         e.setAttribute(Xml.OPEN_FILE, isOpenFileEnabled() ? Xml.TRUE : Xml.FALSE);
         e.setAttribute(Xml.RUN_FILE, isRunFileEnabled() ? Xml.TRUE : Xml.FALSE);
+        e.setAttribute(Xml.PARALLEL_BUILD, isParallelBuildEnabled() ? Xml.TRUE : Xml.FALSE);
         e.setAttribute(Xml.TRAIN_ACTION, getTrainsFrameTrainAction());
         options.addContent(e);
 
@@ -81,6 +81,7 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
     JLabel numTrains = new JLabel();
     JLabel textTrains = new JLabel(Bundle.getMessage("trains"));
     JLabel textSep1 = new JLabel("      ");
+    JLabel textBuildSpeedup = new JLabel();
 
     // radio buttons
     JRadioButton showTime = new JRadioButton(Bundle.getMessage("Time"));
@@ -107,6 +108,7 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
     JCheckBox printPreviewBox = new JCheckBox(Bundle.getMessage("Preview"));
     JCheckBox openFileBox = new JCheckBox(Bundle.getMessage("OpenFile"));
     JCheckBox runFileBox = new JCheckBox(Bundle.getMessage("RunFile"));
+    JCheckBox parallelBuildBox = new JCheckBox(Bundle.getMessage("ParallelBuild"));
     public JCheckBox showAllBox = new JCheckBox(Bundle.getMessage("ShowAllTrains"));
 
     public TrainsTableFrame() {
@@ -146,6 +148,7 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
         options.add(printPreviewBox);
         options.add(openFileBox);
         options.add(runFileBox);
+        options.add(parallelBuildBox);
 
         JPanel action = new JPanel();
         action.setBorder(BorderFactory.createTitledBorder(Bundle.getMessage("Action")));
@@ -171,6 +174,7 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
         printPreviewBox.setToolTipText(Bundle.getMessage("PreviewTip"));
         openFileBox.setToolTipText(Bundle.getMessage("OpenFileTip"));
         runFileBox.setToolTipText(Bundle.getMessage("RunFileTip"));
+        parallelBuildBox.setToolTipText(Bundle.getMessage("ParallelBuildTip"));
         showAllBox.setToolTipText(Bundle.getMessage("ShowAllTrainsTip"));
 
         moveRB.setToolTipText(Bundle.getMessage("MoveTip"));
@@ -184,6 +188,7 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
         addTrain.add(textTrains);
         addTrain.add(textSep1);
         addTrain.add(addButton);
+        addTrain.add(textBuildSpeedup);
 
         numTrains.setText(Integer.toString(trainManager.getNumEntries()));
 
@@ -251,6 +256,7 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
         printPreviewBox.setSelected(trainManager.isPrintPreviewEnabled());
         openFileBox.setSelected(trainManager.isOpenFileEnabled());
         runFileBox.setSelected(trainManager.isRunFileEnabled());
+        parallelBuildBox.setSelected(trainManager.isParallelBuildEnabled());
         showAllBox.setSelected(trainsModel.isShowAll());
 
         // show open files only if create csv is enabled
@@ -259,6 +265,7 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
         addCheckBoxAction(buildMsgBox);
         addCheckBoxAction(buildReportBox);
         addCheckBoxAction(printPreviewBox);
+        addCheckBoxAction(parallelBuildBox);
         addCheckBoxAction(showAllBox);
         addCheckBoxAction(openFileBox);
         addCheckBoxAction(runFileBox);
@@ -493,6 +500,9 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
         if (ae.getSource() == buildReportBox) {
             trainManager.setBuildReportEnabled(buildReportBox.isSelected());
         }
+        if (ae.getSource() == parallelBuildBox) {
+            trainManager.setParallelBuildEnabled(parallelBuildBox.isSelected());
+        }
         if (ae.getSource() == printPreviewBox) {
             trainManager.setPrintPreviewEnabled(printPreviewBox.isSelected());
             setPrintButtonText(); // set the button text for Print or Preview
@@ -617,6 +627,18 @@ public class TrainsTableFrame extends OperationsFrame implements java.beans.Prop
         if (e.getPropertyName().equals(TrainManager.LISTLENGTH_CHANGED_PROPERTY)) {
             numTrains.setText(Integer.toString(trainManager.getNumEntries()));
         }
+        if (e.getPropertyName().equals(TrainManager.TRAINS_BUILT_CHANGED_PROPERTY)) {
+            updateBuildSpeedup();
+        }
+    }
+
+    private void updateBuildSpeedup() {
+        if (trainManager.isParallelBuildEnabled()) {
+            textBuildSpeedup.setText(MessageFormat.format(Bundle.getMessage("ParallelBuildSpeedup"),
+                    new Object[]{String.format("%.1f", trainManager.getLastBuildSpeedup())}));
+        } else {
+            textBuildSpeedup.setText("");
+        }
     }
 
     private final static Logger log = LoggerFactory.getLogger(TrainsTableFrame.class);
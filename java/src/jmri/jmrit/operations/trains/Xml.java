@@ -114,6 +114,7 @@ public class Xml {
     static final String PRINT_PREVIEW = "printPreview"; // NOI18N
     static final String OPEN_FILE = "openFile"; // NOI18N
     static final String RUN_FILE = "runFile"; // NOI18N
+    static final String PARALLEL_BUILD = "parallelBuild"; // NOI18N
     static final String TRAIN_ACTION = "trainAction"; // NOI18N
 
     static final String TRAIN_SCHEDULE_OPTIONS = "trainScheduleOptions"; // NOI18N
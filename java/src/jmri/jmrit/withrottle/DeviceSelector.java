@@ -0,0 +1,290 @@
+package jmri.jmrit.withrottle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves all WiThrottle devices from one thread, instead of a thread for each
+ * device.
+ * <p>
+ * One thread waits on all of the device connections, reading the lines each
+ * device sends and writing the lines queued for each device. Lines queued
+ * while a device is being written to are sent together in the next write. The
+ * lines read from a device are handled in order by one of a small number of
+ * handler threads, so a slow throttle request for one device doesn't hold up
+ * the others.
+ *
+ * @see WiThrottlePreferences#isUseMultiplexing()
+ */
+class DeviceSelector implements Runnable {
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final DeviceManager manager;
+    private final Collection<DeviceListener> listeners;
+    private final ExecutorService[] handlers;
+    private final ConcurrentLinkedQueue<Connection> writable = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private int next = 0;
+
+    /**
+     * @param server    the channel accepting device connections
+     * @param manager   the manager of the devices
+     * @param listeners the listeners to add to each device
+     * @throws IOException if the selector can't be opened
+     */
+    DeviceSelector(ServerSocketChannel server, DeviceManager manager, Collection<DeviceListener> listeners) throws IOException {
+        this.server = server;
+        this.manager = manager;
+        this.listeners = listeners;
+        this.selector = Selector.open();
+        this.handlers = new ExecutorService[Math.max(2, Runtime.getRuntime().availableProcessors())];
+        for (int i = 0; i < this.handlers.length; i++) {
+            this.handlers[i] = Executors.newSingleThreadExecutor((r) -> {
+                Thread t = new Thread(r, "WiThrottle Device Handler"); // NOI18N
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            while (selector.isOpen()) {
+                selector.select();
+                Connection connection;
+                while ((connection = writable.poll()) != null) {
+                    SelectionKey key = connection.channel.keyFor(selector);
+                    if (key != null && key.isValid()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write(key);
+                        }
+                    } catch (IOException ex) {
+                        log.debug("Connection to device '{}' failed: {}", connection.getName(), ex.getMessage());
+                        connection.disconnected();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            if (selector.isOpen()) {
+                log.error("Listen Failed on port {}", server.socket().getLocalPort());
+            }
+        }
+        log.debug("Device selector stopped");
+    }
+
+    /**
+     * Stop serving devices. The devices must be closed first.
+     */
+    void close() {
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            log.error("Unable to close device selector: {}", ex.getMessage());
+        }
+        for (ExecutorService handler : handlers) {
+            handler.shutdown();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel, handlers[next++ % handlers.length]);
+        channel.register(selector, SelectionKey.OP_READ, connection);
+        log.debug("Accepted device connection from {}", connection.getRemoteAddress());
+        connection.handler.execute(() -> {
+            DeviceServer device = new DeviceServer(connection, manager);
+            connection.device = device;
+            for (DeviceListener dl : new ArrayList<>(listeners)) {
+                device.addDeviceListener(dl);
+            }
+            device.connected();
+        });
+    }
+
+    /**
+     * The connection to one device.
+     */
+    class Connection {
+
+        private final SocketChannel channel;
+        private final ExecutorService handler;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean disconnected = new AtomicBoolean();
+        private boolean afterReturn = false;
+        private volatile DeviceServer device = null; // set by the handler, so lines are only handled after it's set
+
+        private Connection(SocketChannel channel, ExecutorService handler) {
+            this.channel = channel;
+            this.handler = handler;
+        }
+
+        SocketAddress getRemoteAddress() {
+            return channel.socket().getRemoteSocketAddress();
+        }
+
+        /**
+         * Queue text to be sent to the device.
+         *
+         * @param text the text
+         */
+        void send(String text) {
+            if (closed.get()) {
+                return;
+            }
+            boolean wasEmpty;
+            synchronized (pending) {
+                wasEmpty = pending.isEmpty();
+                pending.add(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+            }
+            if (wasEmpty) {
+                writable.add(this);
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * Close the connection, without notifying the device.
+         */
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    log.debug("device socket {}{} close failed with IOException.", getName(), getRemoteAddress());
+                }
+            }
+        }
+
+        /**
+         * Run a task on the thread handling the lines from the device.
+         *
+         * @param task the task
+         */
+        void execute(Runnable task) {
+            if (!closed.get()) {
+                handler.execute(task);
+            }
+        }
+
+        private String getName() {
+            DeviceServer d = device;
+            return d != null ? d.getName() : "Unknown"; // NOI18N
+        }
+
+        /**
+         * The device has gone, or can't be reached; stop reading from it, and
+         * close its throttles once the lines already read from it have been
+         * handled.
+         */
+        private void disconnected() {
+            if (disconnected.compareAndSet(false, true)) {
+                SelectionKey key = channel.keyFor(selector);
+                if (key != null) {
+                    key.cancel();
+                }
+                handler.execute(() -> {
+                    if (device != null) {
+                        device.closeThrottles();
+                    } else {
+                        close();
+                    }
+                });
+            }
+        }
+
+        private void read() throws IOException {
+            buffer.clear();
+            int read = channel.read(buffer);
+            if (read < 0) {
+                log.debug("Device '{}' closed its connection", getName());
+                disconnected();
+                return;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                // lines end with a newline, a return, or both, as for BufferedReader.readLine()
+                if (b == '\n' && afterReturn) {
+                    afterReturn = false;
+                    continue;
+                }
+                afterReturn = (b == '\r');
+                if (b == '\n' || b == '\r') {
+                    String received = new String(line.toByteArray(), StandardCharsets.UTF_8);
+                    line.reset();
+                    handler.execute(() -> {
+                        if (device != null) {
+                            device.received(received);
+                        }
+                    });
+                } else {
+                    line.write(b);
+                }
+            }
+        }
+
+        private void write(SelectionKey key) throws IOException {
+            synchronized (pending) {
+                // gather all of the queued lines into one write
+                ByteBuffer[] buffers = pending.toArray(new ByteBuffer[pending.size()]);
+                channel.write(buffers);
+                while (!pending.isEmpty() && !pending.peek().hasRemaining()) {
+                    pending.remove();
+                }
+                if (pending.isEmpty()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(DeviceSelector.class);
+}
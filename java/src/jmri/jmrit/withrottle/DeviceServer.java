@@ -73,16 +73,21 @@ package jmri.jmrit.withrottle;
  * text, only at end of message.
  *
  */
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.net.Socket;
+import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import jmri.CommandStation;
 import jmri.DccLocoAddress;
 import jmri.InstanceManager;
@@ -97,7 +102,15 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
     //  Manually increment as features are added
     private static final String VERSION_NUMBER = "2.0";
 
+    // one thread checks the heartbeats of all devices
+    private static final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor((r) -> {
+        Thread t = new Thread(r, "Withrottle hearbeat"); // NOI18N
+        t.setDaemon(true);
+        return t;
+    });
+
     private Socket device;
+    private DeviceSelector.Connection connection = null;
     private CommandStation cmdStation = jmri.InstanceManager.getNullableDefault(CommandStation.class);
     String newLine = System.getProperty("line.separator");
     BufferedReader in = null;
@@ -110,10 +123,11 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
     ThrottleController secondThrottleController;
     HashMap<Character, MultiThrottle> multiThrottles;
     private boolean keepReading;
+    private final AtomicBoolean throttlesClosed = new AtomicBoolean(); // closed once only
     private boolean isUsingHeartbeat = false;
     private boolean heartbeat = true;
     private int pulseInterval = 16; // seconds til disconnect
-    private Timer ekg;
+    private ScheduledFuture<?> ekg;
     private int stopEKGCount;
 
     private TrackPowerController trackPower = null;
@@ -139,12 +153,32 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
             if (log.isDebugEnabled()) {
                 log.debug("Creating output stream writer for " + device.getRemoteSocketAddress());
             }
-            out = new PrintStream(device.getOutputStream(), true, "UTF8");
+            // buffered, so each packet is sent in one write
+            out = new PrintStream(new BufferedOutputStream(device.getOutputStream()), true, "UTF8");
 
         } catch (IOException e) {
             log.error("Stream creation failed (DeviceServer)");
             return;
         }
+        sendGreeting();
+    }
+
+    /**
+     * Create a device served by a {@link DeviceSelector} instead of its own
+     * thread. The selector notifies the device when it is
+     * {@link #connected() connected} and hands it each line
+     * {@link #received(String) received}.
+     *
+     * @param connection the connection to the device
+     * @param manager    the manager of the device
+     */
+    DeviceServer(DeviceSelector.Connection connection, DeviceManager manager) {
+        this.connection = connection;
+        this.manager = manager;
+        sendGreeting();
+    }
+
+    private void sendGreeting() {
         sendPacketToDevice("VN" + getWiTVersion());
         sendPacketToDevice(sendRoster());
         addControllers();
@@ -154,15 +188,9 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
 
     @Override
     public void run() {
-        for (int i = 0; i < listeners.size(); i++) {
-            DeviceListener l = listeners.get(i);
-            log.debug("Notify Device Add");
-            l.notifyDeviceConnected(this);
-
-        }
+        connected();
         String inPackage = null;
 
-        keepReading = true; // Gets set to false when device sends 'Q'uit
         int consecutiveErrors = 0;
 
         do {
@@ -170,214 +198,251 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
                 inPackage = in.readLine();
 
                 if (inPackage != null) {
-                    heartbeat = true;   //  Any contact will keep alive
                     consecutiveErrors = 0;  //reset error counter
+                    handle(inPackage);
+                    inPackage = null;
+                } else { //in.readLine() IS null
+                    consecutiveErrors += 1;
+                    log.warn("null readLine() from device '{}', consecutive error # {}", getName(), consecutiveErrors);
+                }
+
+            } catch (IOException exa) {
+                consecutiveErrors += 1;
+                log.warn("readLine from device '{}' failed, consecutive error # {}", getName(), consecutiveErrors);
+            }
+            if (consecutiveErrors > 0) { //a read error was encountered
+                if (consecutiveErrors < 25) { //pause thread to give time for reconnection
+                    try {
+                        Thread.sleep(200);
+                    } catch (java.lang.InterruptedException ex) {
+                    }
+                } else {
+                    keepReading = false;
+                    log.error("readLine failure limit exceeded, ending thread run loop for device '{}'", getName());
+                }
+            }
+        } while (keepReading); // 'til we tell it to stop
+        log.debug("Ending thread run loop for device '{}'", getName());
+        closeThrottles();
+
+    }
+
+    /**
+     * Notify the device listeners that the device has connected.
+     */
+    void connected() {
+        keepReading = true; // Gets set to false when device sends 'Q'uit
+        for (int i = 0; i < listeners.size(); i++) {
+            DeviceListener l = listeners.get(i);
+            log.debug("Notify Device Add");
+            l.notifyDeviceConnected(this);
+
+        }
+    }
+
+    /**
+     * Handle a line received by a {@link DeviceSelector}, closing the
+     * throttles if the device has quit.
+     *
+     * @param inPackage the line, without its line ending
+     */
+    void received(String inPackage) {
+        if (throttlesClosed.get()) {
+            return; // as after 'Q'uit, nothing more is read from the device
+        }
+        handle(inPackage);
+        if (!keepReading) {
+            log.debug("Ending run for device '{}'", getName());
+            closeThrottles();
+        }
+    }
+
+    private void handle(String inPackage) {
+        heartbeat = true;   //  Any contact will keep alive
+        if (log.isDebugEnabled()) {
+            String s = inPackage + "                    "; //pad output so messages form columns
+            s = s.substring(0, Math.max(inPackage.length(), 20));
+            log.debug("Rcvd: " + s + " from " + getName() + getRemoteAddress());
+        }
+        try {
+            switch (inPackage.charAt(0)) {
+                case 'T': {
+                    if (throttleController == null) {
+                        throttleController = new ThrottleController('T', this, this);
+                    }
+                    keepReading = throttleController.sort(inPackage.substring(1));
+                    break;
+                }
+
+                case 'S': {
+                    if (secondThrottleController == null) {
+                        secondThrottleController = new ThrottleController('S', this, this);
+                    }
+                    keepReading = secondThrottleController.sort(inPackage.substring(1));
+                    break;
+                }
+
+                case 'M': {  //  MultiThrottle M(id character)('A'ction '+' or '-')(message)
+                    if (multiThrottles == null) {
+                        multiThrottles = new HashMap<>(1);
+                    }
+                    char id = inPackage.charAt(1);
+                    if (!multiThrottles.containsKey(id)) {   //  Create a MT if this is a new id
+                        multiThrottles.put(id, new MultiThrottle(id, this, this));
+                    }
+
+                    // Strips 'M' and id, forwards rest
+                    multiThrottles.get(id).handleMessage(inPackage.substring(2));
+
+                    break;
+                }
+
+                case 'D': {
                     if (log.isDebugEnabled()) {
-                        String s = inPackage + "                    "; //pad output so messages form columns
-                        s = s.substring(0, Math.max(inPackage.length(), 20));
-                        log.debug("Rcvd: " + s + " from " + getName() + device.getRemoteSocketAddress());
+                        log.debug("Sending hex packet: " + inPackage.substring(2) + " to command station.");
                     }
+                    int repeats = Character.getNumericValue(inPackage.charAt(1));
+                    byte[] packet = jmri.util.StringUtil.bytesFromHexString(inPackage.substring(2));
+                    cmdStation.sendPacket(packet, repeats);
+                    break;
+                }
 
-                    switch (inPackage.charAt(0)) {
-                        case 'T': {
-                            if (throttleController == null) {
-                                throttleController = new ThrottleController('T', this, this);
+                case '*': {  //  Heartbeat only
+
+                    if (inPackage.length() > 1) {
+                        switch (inPackage.charAt(1)) {
+
+                            case '+': {  //  trigger, turns on timed monitoring
+                                if (!isUsingHeartbeat) {
+                                    startEKG();
+                                }
+                                break;
                             }
-                            keepReading = throttleController.sort(inPackage.substring(1));
-                            break;
-                        }
 
-                        case 'S': {
-                            if (secondThrottleController == null) {
-                                secondThrottleController = new ThrottleController('S', this, this);
+                            case '-': {  //  turns off
+                                if (isUsingHeartbeat) {
+                                    stopEKG();
+                                }
+                                break;
                             }
-                            keepReading = secondThrottleController.sort(inPackage.substring(1));
-                            break;
+                            default:
+                                log.warn("Unhandled code: {}", inPackage.charAt(1));
+                                break;
                         }
 
-                        case 'M': {  //  MultiThrottle M(id character)('A'ction '+' or '-')(message)
-                            if (multiThrottles == null) {
-                                multiThrottles = new HashMap<>(1);
-                            }
-                            char id = inPackage.charAt(1);
-                            if (!multiThrottles.containsKey(id)) {   //  Create a MT if this is a new id
-                                multiThrottles.put(id, new MultiThrottle(id, this, this));
-                            }
+                    }
 
-                            // Strips 'M' and id, forwards rest
-                            multiThrottles.get(id).handleMessage(inPackage.substring(2));
+                    break;
+                }   //  end heartbeat block
 
-                            break;
-                        }
+                case 'C': {  //  Prefix for confirmed package
+                    switch (inPackage.charAt(1)) {
+                        case 'T': {
+                            keepReading = throttleController.sort(inPackage.substring(2));
 
-                        case 'D': {
-                            if (log.isDebugEnabled()) {
-                                log.debug("Sending hex packet: " + inPackage.substring(2) + " to command station.");
-                            }
-                            int repeats = Character.getNumericValue(inPackage.charAt(1));
-                            byte[] packet = jmri.util.StringUtil.bytesFromHexString(inPackage.substring(2));
-                            cmdStation.sendPacket(packet, repeats);
                             break;
                         }
 
-                        case '*': {  //  Heartbeat only
-
-                            if (inPackage.length() > 1) {
-                                switch (inPackage.charAt(1)) {
-
-                                    case '+': {  //  trigger, turns on timed monitoring
-                                        if (!isUsingHeartbeat) {
-                                            startEKG();
-                                        }
-                                        break;
-                                    }
-
-                                    case '-': {  //  turns off
-                                        if (isUsingHeartbeat) {
-                                            stopEKG();
-                                        }
-                                        break;
-                                    }
-                                    default:
-                                        log.warn("Unhandled code: {}", inPackage.charAt(1));
-                                        break;
-                                }
-
-                            }
+                        default: {
+                            log.warn("Received unknown network package: {}", inPackage);
 
                             break;
-                        }   //  end heartbeat block
+                        }
+                    }
 
-                        case 'C': {  //  Prefix for confirmed package
-                            switch (inPackage.charAt(1)) {
-                                case 'T': {
-                                    keepReading = throttleController.sort(inPackage.substring(2));
+                    break;
+                }
 
-                                    break;
-                                }
+                case 'N': {  //  Prefix for deviceName
+                    deviceName = inPackage.substring(1);
+                    log.info("Received Name: {}", deviceName);
 
-                                default: {
-                                    log.warn("Received unknown network package: {}", inPackage);
+                    if (InstanceManager.getDefault(WiThrottlePreferences.class).isUseEStop()) {
+                        pulseInterval = InstanceManager.getDefault(WiThrottlePreferences.class).getEStopDelay();
+                        sendPacketToDevice("*" + pulseInterval); //  Turn on heartbeat, if used
+                    }
+                    break;
+                }
 
-                                    break;
-                                }
+                case 'H': {  //  Hardware
+                    switch (inPackage.charAt(1)) {
+                        case 'U':
+                            deviceUDID = inPackage.substring(2);
+                            for (int i = 0; i < listeners.size(); i++) {
+                                DeviceListener l = listeners.get(i);
+                                l.notifyDeviceInfoChanged(this);
                             }
-
                             break;
-                        }
+                        default:
+                            log.warn("Unhandled code: {}", inPackage.charAt(1));
+                            break;
+                    }
 
-                        case 'N': {  //  Prefix for deviceName
-                            deviceName = inPackage.substring(1);
-                            log.info("Received Name: {}", deviceName);
+                    break;
+                }   //  end hardware block
 
-                            if (InstanceManager.getDefault(WiThrottlePreferences.class).isUseEStop()) {
-                                pulseInterval = InstanceManager.getDefault(WiThrottlePreferences.class).getEStopDelay();
-                                sendPacketToDevice("*" + pulseInterval); //  Turn on heartbeat, if used
+                case 'P': {  //  Start 'P'anel case
+                    switch (inPackage.charAt(1)) {
+                        case 'P': {
+                            if (isTrackPowerAllowed) {
+                                trackPower.handleMessage(inPackage.substring(2));
                             }
                             break;
                         }
-
-                        case 'H': {  //  Hardware
-                            switch (inPackage.charAt(1)) {
-                                case 'U':
-                                    deviceUDID = inPackage.substring(2);
-                                    for (int i = 0; i < listeners.size(); i++) {
-                                        DeviceListener l = listeners.get(i);
-                                        l.notifyDeviceInfoChanged(this);
-                                    }
-                                    break;
-                                default:
-                                    log.warn("Unhandled code: {}", inPackage.charAt(1));
-                                    break;
+                        case 'T': {
+                            if (isTurnoutAllowed) {
+                                turnoutC.handleMessage(inPackage.substring(2));
                             }
-
                             break;
-                        }   //  end hardware block
-
-                        case 'P': {  //  Start 'P'anel case
-                            switch (inPackage.charAt(1)) {
-                                case 'P': {
-                                    if (isTrackPowerAllowed) {
-                                        trackPower.handleMessage(inPackage.substring(2));
-                                    }
-                                    break;
-                                }
-                                case 'T': {
-                                    if (isTurnoutAllowed) {
-                                        turnoutC.handleMessage(inPackage.substring(2));
-                                    }
-                                    break;
-                                }
-                                case 'R': {
-                                    if (isRouteAllowed) {
-                                        routeC.handleMessage(inPackage.substring(2));
-                                    }
-                                    break;
-                                }
-                                default:
-                                    log.warn("Unhandled code: {}", inPackage.charAt(1));
-                                    break;
+                        }
+                        case 'R': {
+                            if (isRouteAllowed) {
+                                routeC.handleMessage(inPackage.substring(2));
                             }
                             break;
-                        }   //  end panel block
-
-                        case 'R': {  //  Start 'R'oster case
-                            switch (inPackage.charAt(1)) {
-                                case 'C':
-                                    if (isConsistAllowed) {
-                                        consistC.handleMessage(inPackage.substring(2));
-                                    }
-                                    break;
-                                default:
-                                    log.warn("Unhandled code: {}", inPackage.charAt(1));
-                                    break;
-                            }
-
+                        }
+                        default:
+                            log.warn("Unhandled code: {}", inPackage.charAt(1));
                             break;
-                        }   //  end roster block
-
-                        case 'Q': {
-                            keepReading = false;
+                    }
+                    break;
+                }   //  end panel block
+
+                case 'R': {  //  Start 'R'oster case
+                    switch (inPackage.charAt(1)) {
+                        case 'C':
+                            if (isConsistAllowed) {
+                                consistC.handleMessage(inPackage.substring(2));
+                            }
                             break;
-                        }
-
-                        default: {   //  If an unknown makes it through, do nothing.
-                            log.warn("Received unknown network package: {}", inPackage);
+                        default:
+                            log.warn("Unhandled code: {}", inPackage.charAt(1));
                             break;
-                        }
+                    }
 
-                    }   //End of charAt(0) switch block
+                    break;
+                }   //  end roster block
 
-                    inPackage = null;
-                } else { //in.readLine() IS null
-                    consecutiveErrors += 1;
-                    log.warn("null readLine() from device '{}', consecutive error # {}", getName(), consecutiveErrors);
+                case 'Q': {
+                    keepReading = false;
+                    break;
                 }
 
-            } catch (IOException exa) {
-                consecutiveErrors += 1;
-                log.warn("readLine from device '{}' failed, consecutive error # {}", getName(), consecutiveErrors);
-            } catch (IndexOutOfBoundsException exb) {
-                log.warn("Bad message '{}' from device '{}'", inPackage, getName());
-            }
-            if (consecutiveErrors > 0) { //a read error was encountered
-                if (consecutiveErrors < 25) { //pause thread to give time for reconnection
-                    try {
-                        Thread.sleep(200);
-                    } catch (java.lang.InterruptedException ex) {
-                    }
-                } else {
-                    keepReading = false;
-                    log.error("readLine failure limit exceeded, ending thread run loop for device '{}'", getName());
+                default: {   //  If an unknown makes it through, do nothing.
+                    log.warn("Received unknown network package: {}", inPackage);
+                    break;
                 }
-            }
-        } while (keepReading); // 'til we tell it to stop
-        log.debug("Ending thread run loop for device '{}'", getName());
-        closeThrottles();
 
+            }   //End of charAt(0) switch block
+        } catch (IndexOutOfBoundsException exb) {
+            log.warn("Bad message '{}' from device '{}'", inPackage, getName());
+        }
     }
 
     public void closeThrottles() {
+        if (!throttlesClosed.compareAndSet(false, true)) {
+            return;
+        }
         stopEKG();
         if (throttleController != null) {
             throttleController.shutdownThrottle();
@@ -425,6 +490,11 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
     public void closeSocket() {
 
         keepReading = false;
+        if (connection != null) {
+            connection.close();
+            log.debug("device socket {}{} closed.", getName(), getRemoteAddress());
+            return;
+        }
         try {
             if (device.isClosed()) {
                 if (log.isDebugEnabled()) {
@@ -447,8 +517,7 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
         log.debug("starting heartbeat EKG for '{}' with interval: {}", getName(), pulseInterval);
         isUsingHeartbeat = true;
         stopEKGCount = 0;
-        ekg = new Timer("Withrottle hearbeat");
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {  //  Drops on second pass
                 if (!heartbeat) {
@@ -480,13 +549,15 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
             }
 
         };
-        ekg.scheduleAtFixedRate(task, pulseInterval * 900L, pulseInterval * 900L);
+        // a device served by a selector is stopped by its handler, in order with its messages
+        Runnable check = (connection != null) ? () -> connection.execute(task) : task;
+        ekg = heartbeats.scheduleAtFixedRate(check, pulseInterval * 900L, pulseInterval * 900L, TimeUnit.MILLISECONDS);
     }
 
     public void stopEKG() {
         isUsingHeartbeat = false;
         if (ekg != null) {
-            ekg.cancel();
+            ekg.cancel(false);
         }
 
     }
@@ -591,14 +662,22 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
         if (message == null) {
             return; //  Do not send a null.
         }
-        out.println(message + newLine);
+        if (connection != null) {
+            connection.send(message + newLine + newLine);
+        } else if (out != null) {
+            out.print(message + newLine + newLine);
+        }
         if (log.isDebugEnabled()) {
             String s = message + "                    "; //pad output so messages form columns
             s = s.substring(0, Math.max(message.length(), 20));
-            log.debug("Sent: " + s + "  to  " + getName() + device.getRemoteSocketAddress());
+            log.debug("Sent: " + s + "  to  " + getName() + getRemoteAddress());
         }
     }
 
+    private SocketAddress getRemoteAddress() {
+        return (connection != null) ? connection.getRemoteAddress() : device.getRemoteSocketAddress();
+    }
+
     /**
      * Add a DeviceListener
      *
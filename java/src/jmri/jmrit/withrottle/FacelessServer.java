@@ -3,7 +3,9 @@ package jmri.jmrit.withrottle;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
 import java.util.ArrayList;
 import jmri.InstanceManager;
 import jmri.UserPreferencesManager;
@@ -33,6 +35,7 @@ public class FacelessServer implements DeviceListener, DeviceManager, ZeroConfSe
     ZeroConfService service;
     boolean isListen = true;
     ServerSocket socket = null;
+    DeviceSelector selector = null;
     final private ArrayList<DeviceServer> deviceList = new ArrayList<>();
     final private ArrayList<DeviceListener> deviceListenerList = new ArrayList<>();
 
@@ -44,9 +47,17 @@ public class FacelessServer implements DeviceListener, DeviceManager, ZeroConfSe
     @Override
     public void listen() {
         int socketPort = InstanceManager.getDefault(WiThrottlePreferences.class).getPort();
+        boolean multiplexing = InstanceManager.getDefault(WiThrottlePreferences.class).isUseMultiplexing();
 
         try { //Create socket on available port
-            socket = new ServerSocket(socketPort);
+            if (multiplexing) {
+                ServerSocketChannel channel = ServerSocketChannel.open();
+                channel.socket().bind(new InetSocketAddress(socketPort));
+                socket = channel.socket();
+                selector = new DeviceSelector(channel, this, deviceListenerList);
+            } else {
+                socket = new ServerSocket(socketPort);
+            }
         } catch (IOException e1) {
             log.error("New ServerSocket Failed during listen()");
             return;
@@ -63,6 +74,12 @@ public class FacelessServer implements DeviceListener, DeviceManager, ZeroConfSe
 
         addDeviceListener(this);
 
+        if (selector != null) {
+            log.info("Serving WiThrottle devices on port {}, waiting for incoming connections...", port);
+            selector.run(); // returns when the server is disabled
+            return;
+        }
+
         while (isListen) { //Create DeviceServer threads
             DeviceServer device;
             try {
@@ -206,6 +223,9 @@ public class FacelessServer implements DeviceListener, DeviceManager, ZeroConfSe
     void disableServer() {
         isListen = false;
         stopDevices();
+        if (selector != null) {
+            selector.close();
+        }
         try {
             socket.close();
             log.debug("UI socket in ServerThread just closed");
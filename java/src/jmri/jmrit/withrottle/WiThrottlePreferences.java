@@ -28,6 +28,7 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
     private boolean useMomF2 = true;
 
     private int port = DEFAULT_PORT;
+    private boolean useMultiplexing = false;
 
     private boolean allowTrackPower = true;
     private boolean allowTurnout = true;
@@ -42,6 +43,7 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
     private boolean asLoadedUseMomF2 = true;
 
     private int asLoadedPort = 0;
+    private boolean asLoadedUseMultiplexing = false;
 
     private boolean asLoadedAllowTrackPower = true;
     private boolean asLoadedAllowTurnout = true;
@@ -83,6 +85,10 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
             }
             this.asLoadedPort = this.getPort();
         }
+        if ((a = child.getAttribute("isUseMultiplexing")) != null) {
+            setUseMultiplexing(a.getValue().equalsIgnoreCase("true"));
+            this.asLoadedUseMultiplexing = this.isUseMultiplexing();
+        }
 
         if ((a = child.getAttribute("isAllowTrackPower")) != null) {
             setAllowTrackPower(a.getValue().equalsIgnoreCase("true"));
@@ -133,6 +139,9 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
         if (isUseMomF2() != prefs.isUseMomF2()) {
             return true;
         }
+        if (isUseMultiplexing() != prefs.isUseMultiplexing()) {
+            return true;
+        }
         return getPort() != prefs.getPort();
     }
 
@@ -141,6 +150,7 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
         setEStopDelay(prefs.getEStopDelay());
         setUseMomF2(prefs.isUseMomF2());
         setPort(prefs.getPort());
+        setUseMultiplexing(prefs.isUseMultiplexing());
         setAllowTrackPower(prefs.isAllowTrackPower());
         setAllowTurnout(prefs.isAllowTurnout());
         setAllowRoute(prefs.isAllowRoute());
@@ -162,6 +172,8 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
         this.asLoadedUseMomF2 = this.isUseMomF2();
         element.setAttribute("getPort", "" + getPort());
         this.asLoadedPort = this.getPort();
+        element.setAttribute("isUseMultiplexing", "" + isUseMultiplexing());
+        this.asLoadedUseMultiplexing = this.isUseMultiplexing();
         element.setAttribute("isAllowTrackPower", "" + isAllowTrackPower());
         this.asLoadedAllowTrackPower = this.isAllowTrackPower();
         element.setAttribute("isAllowTurnout", "" + isAllowTurnout());
@@ -181,6 +193,7 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
                 || this.asLoadedUseMomF2 != this.isUseMomF2()
                 || this.asLoadedPort == 0
                 || this.asLoadedPort != this.getPort()
+                || this.asLoadedUseMultiplexing != this.isUseMultiplexing()
                 || this.asLoadedAllowTrackPower != this.isAllowTrackPower()
                 || this.asLoadedAllowTurnout != this.isAllowTurnout()
                 || this.asLoadedAllowRoute != this.isAllowRoute()
@@ -224,6 +237,20 @@ public class WiThrottlePreferences extends AbstractWiThrottlePreferences {
         port = value;
     }
 
+    /**
+     * Check if all devices are served by a few shared threads, instead of a
+     * thread for each device.
+     *
+     * @return true if devices share threads
+     */
+    public boolean isUseMultiplexing() {
+        return useMultiplexing;
+    }
+
+    public void setUseMultiplexing(boolean value) {
+        useMultiplexing = value;
+    }
+
     public boolean isAllowTrackPower() {
         return allowTrackPower;
     }
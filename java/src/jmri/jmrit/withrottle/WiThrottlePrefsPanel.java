@@ -36,6 +36,7 @@ public class WiThrottlePrefsPanel extends JPanel implements PreferencesPanel {
     JCheckBox momF2CB;
 
     JSpinner port;
+    JCheckBox multiplexingCB;
 
     JCheckBox powerCB;
     JCheckBox turnoutCB;
@@ -77,6 +78,7 @@ public class WiThrottlePrefsPanel extends JPanel implements PreferencesPanel {
         momF2CB.setSelected(localPrefs.isUseMomF2());
 
         port.setValue(localPrefs.getPort());
+        multiplexingCB.setSelected(localPrefs.isUseMultiplexing());
         powerCB.setSelected(localPrefs.isAllowTrackPower());
         turnoutCB.setSelected(localPrefs.isAllowTurnout());
         routeCB.setSelected(localPrefs.isAllowRoute());
@@ -116,6 +118,7 @@ public class WiThrottlePrefsPanel extends JPanel implements PreferencesPanel {
         } else {
             localPrefs.setPort((int) port.getValue());
         }
+        localPrefs.setUseMultiplexing(multiplexingCB.isSelected());
 
         localPrefs.setAllowTrackPower(powerCB.isSelected());
         localPrefs.setAllowTurnout(turnoutCB.isSelected());
@@ -181,6 +184,9 @@ public class WiThrottlePrefsPanel extends JPanel implements PreferencesPanel {
         };
         this.startupCB.addItemListener(this.startupItemListener);
         SPPanel.add(startupCB);
+        multiplexingCB = new JCheckBox(Bundle.getMessage("LabelMultiplexing"));
+        multiplexingCB.setToolTipText(Bundle.getMessage("ToolTipMultiplexing"));
+        SPPanel.add(multiplexingCB);
         return SPPanel;
     }
 
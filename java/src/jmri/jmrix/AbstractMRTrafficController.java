@@ -4,9 +4,9 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.LinkedList;
 import java.util.Vector;
 import javax.swing.SwingUtilities;
 import org.slf4j.Logger;
@@ -62,6 +62,30 @@ abstract public class AbstractMRTrafficController {
         return synchronizeRx;
     }
 
+    private boolean bufferedReceive = false;
+
+    /**
+     * Select bulk reads on the receive side.
+     * <P>
+     * When true, {@link #readByteProtected(DataInputStream)} fills a reusable
+     * buffer with as many characters as the port has available in one read,
+     * and hands them out one at a time from there, instead of making one read
+     * per character. Existing <code>loadChars</code> and
+     * <code>waitForStartOfReply</code> implementations benefit without change,
+     * provided they only read through <code>readByteProtected</code>; a
+     * subclass that also reads the input stream directly must not enable this,
+     * as characters already buffered would be skipped.
+     *
+     * @param val true to read in bulk
+     */
+    protected void setBufferedReceive(boolean val) {
+        bufferedReceive = val;
+    }
+
+    protected boolean getBufferedReceive() {
+        return bufferedReceive;
+    }
+
     // set the instance variable
     abstract protected void setInstance();
 
@@ -219,22 +243,33 @@ abstract public class AbstractMRTrafficController {
     abstract protected void forwardReply(AbstractMRListener client, AbstractMRReply m);
 
     /**
-     * Messages to be transmitted
+     * Messages to be transmitted, together with the listeners for their
+     * replies. Any thread may add to this; only the transmit thread removes
+     * from it.
+     * <P>
+     * A subclass that needs a different capacity may replace this before the
+     * port is connected.
      */
-    protected LinkedList<AbstractMRMessage> msgQueue = new LinkedList<AbstractMRMessage>();
-    protected LinkedList<AbstractMRListener> listenerQueue = new LinkedList<AbstractMRListener>();
+    protected MRTransmitQueue transmitQueue = new MRTransmitQueue();
 
     /**
      * This is invoked with messages to be forwarded to the port. It queues
-     * them, then notifies the transmission thread.
+     * them, then notifies the transmission thread if it is idle.
+     * <P>
+     * Queueing does not lock the traffic controller, so callers are not held
+     * up while the transmit thread is writing to the port.
      */
-    synchronized protected void sendMessage(AbstractMRMessage m, AbstractMRListener reply) {
-        msgQueue.addLast(m);
-        listenerQueue.addLast(reply);
-        synchronized (xmtRunnable) {
-            if (mCurrentState == IDLESTATE) {
-                mCurrentState = NOTIFIEDSTATE;
-                xmtRunnable.notify();
+    protected void sendMessage(AbstractMRMessage m, AbstractMRListener reply) {
+        if (!transmitQueue.offer(m, reply, getTransmitPriority(m))) {
+            log.error("transmit queue full, dropped message {}", m);
+            return;
+        }
+        if (mCurrentState == IDLESTATE) {
+            synchronized (xmtRunnable) {
+                if (mCurrentState == IDLESTATE) {
+                    mCurrentState = NOTIFIEDSTATE;
+                    xmtRunnable.notify();
+                }
             }
         }
         if (m != null) {
@@ -244,6 +279,75 @@ abstract public class AbstractMRTrafficController {
         }
     }
 
+    /**
+     * Determine the transmit priority of a message. Messages of higher
+     * priority are sent before any waiting messages of lower priority;
+     * messages of equal priority are sent in the order they were queued.
+     * <P>
+     * By default all messages have {@link MRTransmitQueue#PRIORITY_NORMAL},
+     * which keeps strict first-in first-out order. Override in the system
+     * specific code to e.g. send throttle speed commands ahead of bulk
+     * configuration or status requests, as the DCC++ traffic controller does.
+     *
+     * @param m the message being queued; may be null
+     * @return one of the MRTransmitQueue priority constants
+     */
+    protected int getTransmitPriority(AbstractMRMessage m) {
+        return MRTransmitQueue.PRIORITY_NORMAL;
+    }
+
+    /**
+     * @return number of messages waiting to be transmitted
+     */
+    public int getTransmitQueueDepth() {
+        return transmitQueue.size();
+    }
+
+    /**
+     * @return the largest number of messages that have waited to be
+     *         transmitted at once
+     */
+    public int getMaxTransmitQueueDepth() {
+        return transmitQueue.getMaxDepth();
+    }
+
+    /**
+     * @return number of queued messages handed to the port
+     */
+    public long getTransmittedMessageCount() {
+        return transmitQueue.getSentCount();
+    }
+
+    /**
+     * @return number of messages dropped because the transmit queue was full
+     */
+    public long getDroppedMessageCount() {
+        return transmitQueue.getDroppedCount();
+    }
+
+    /**
+     * @return mean time in milliseconds messages waited before being handed
+     *         to the port
+     */
+    public double getMeanTransmitLatency() {
+        return transmitQueue.getMeanLatency();
+    }
+
+    /**
+     * @return longest time in milliseconds a message waited before being
+     *         handed to the port
+     */
+    public double getMaxTransmitLatency() {
+        return transmitQueue.getMaxLatency();
+    }
+
+    /**
+     * Clear the transmit queue statistics for this connection.
+     */
+    public void resetTransmitStatistics() {
+        transmitQueue.resetStatistics();
+    }
+
     /**
      * Permanent loop for the transmit thread.
      */
@@ -255,16 +359,18 @@ abstract public class AbstractMRTrafficController {
             AbstractMRMessage m = null;
             AbstractMRListener l = null;
             // check for something to do
-            synchronized (this) {
-                if (msgQueue.size() != 0) {
-                    // yes, something to do
-                    m = msgQueue.getFirst();
-                    msgQueue.removeFirst();
-                    l = listenerQueue.getFirst();
-                    listenerQueue.removeFirst();
+            MRTransmitQueue.Item item = transmitQueue.poll();
+            if (item != null) {
+                // yes, something to do
+                m = item.message;
+                l = item.listener;
+                // change state under the same lock sendMessage uses to
+                // leave IDLESTATE, so its notification can't be mistaken
+                // for a reply
+                synchronized (xmtRunnable) {
                     mCurrentState = WAITMSGREPLYSTATE;
-                    log.debug("transmit loop has something to do: {}", m);
-                }  // release lock here to proceed in parallel
+                }
+                log.debug("transmit loop has something to do: {}", m);
             }
             // if a message has been extracted, process it
             if (m != null) {
@@ -306,6 +412,7 @@ abstract public class AbstractMRTrafficController {
                         mCurrentMode = m.getNeededMode();
                     }
                 }
+                transmitQueue.recordSent(item);
                 forwardToPort(m, l);
                 // reply expected?
                 if (m.replyExpected()) {
@@ -316,8 +423,7 @@ abstract public class AbstractMRTrafficController {
                         handleTimeout(m, l);
                     } else if (mCurrentState == AUTORETRYSTATE) {
                         log.info("Message added back to queue: {}", m.toString());
-                        msgQueue.addFirst(m);
-                        listenerQueue.addFirst(l);
+                        transmitQueue.pushFront(item);
                         synchronized (xmtRunnable) {
                             mCurrentState = IDLESTATE;
                         }
@@ -337,7 +443,11 @@ abstract public class AbstractMRTrafficController {
                     try {
                         long startTime = Calendar.getInstance().getTimeInMillis();
                         synchronized (xmtRunnable) {
-                            xmtRunnable.wait(mWaitBeforePoll);
+                            // a message queued while we were finishing up
+                            // found us not yet idle, so didn't notify
+                            if (mCurrentState == IDLESTATE && transmitQueue.isEmpty()) {
+                                xmtRunnable.wait(mWaitBeforePoll);
+                            }
                         }
                         long endTime = Calendar.getInstance().getTimeInMillis();
                         waitTimePoll = waitTimePoll + endTime - startTime;
@@ -348,13 +458,19 @@ abstract public class AbstractMRTrafficController {
                     }
                 }
                 // once we decide that mCurrentState is in the IDLESTATE and there's an xmt msg we must guarantee
-                // the change of mCurrentState to one of the waiting for reply states.  Therefore we need to synchronize.
-                synchronized (this) {
+                // the change of mCurrentState to one of the waiting for reply states.  Therefore we need to synchronize
+                // with sendMessage.
+                synchronized (xmtRunnable) {
                     if (mCurrentState != NOTIFIEDSTATE && mCurrentState != IDLESTATE) {
                         log.error("left timeout in unexpected state: {}", mCurrentState);
                     }
                     if (mCurrentState == IDLESTATE) {
-                        mCurrentState = POLLSTATE; // this prevents other transitions from the IDLESTATE
+                        if (transmitQueue.isEmpty()) {
+                            mCurrentState = POLLSTATE; // this prevents other transitions from the IDLESTATE
+                        } else {
+                            // queued messages go ahead of polling
+                            mCurrentState = NOTIFIEDSTATE;
+                        }
                     }
                 }
                 // went around with nothing to do; leave programming state if in it
@@ -649,6 +765,8 @@ abstract public class AbstractMRTrafficController {
      * Make connection to existing PortController object.
      */
     public void connectPort(AbstractPortController p) {
+        // discard anything left over from a previous connection
+        rcvByteBuffer.limit(0);
         rcvException = false;
         connectionError = false;
         xmtException = false;
@@ -830,6 +948,12 @@ abstract public class AbstractMRTrafficController {
      * @throws java.io.IOException if unable to read
      */
     protected byte readByteProtected(DataInputStream istream) throws IOException {
+        if (bufferedReceive) {
+            if (!rcvByteBuffer.hasRemaining()) {
+                fillReceiveBuffer(istream);
+            }
+            return rcvByteBuffer.get();
+        }
         while (true) { // loop will repeat until character found
             int nchars;
             nchars = istream.read(rcvBuffer, 0, 1);
@@ -843,9 +967,37 @@ abstract public class AbstractMRTrafficController {
         }
     }
 
+    /**
+     * Refill the receive buffer with whatever characters are available, at
+     * least one. Like {@link #readByteProtected(DataInputStream)}, zero-length
+     * reads due to receive timeouts are repeated.
+     *
+     * @param istream stream to read
+     * @throws java.io.IOException if unable to read
+     */
+    private void fillReceiveBuffer(DataInputStream istream) throws IOException {
+        rcvByteBuffer.clear();
+        while (true) {
+            int nchars = istream.read(rcvByteBuffer.array(), 0, rcvByteBuffer.capacity());
+            if (nchars == -1) {
+                // No more bytes can be read from the channel
+                rcvByteBuffer.limit(0);
+                throw new IOException("Connection not terminated normally");
+            }
+            if (nchars > 0) {
+                rcvByteBuffer.limit(nchars);
+                return;
+            }
+        }
+    }
+
     // Defined this way to reduce new object creation
     private byte[] rcvBuffer = new byte[1];
 
+    private static final int RECEIVE_BUFFER_SIZE = 512;
+    // only used by the receive thread when bufferedReceive is set; starts empty
+    private final ByteBuffer rcvByteBuffer = (ByteBuffer) ByteBuffer.allocate(RECEIVE_BUFFER_SIZE).limit(0);
+
     /**
      * Get characters from the input source, and file a message.
      * <P>
@@ -896,8 +1048,30 @@ abstract public class AbstractMRTrafficController {
 
     private int retransmitCount = 0;
 
+    /**
+     * Used to deliver replies when not synchronizing with the receive thread;
+     * see {@link #setSynchronizeRx(boolean)}.
+     */
+    protected jmri.util.CoalescingDispatcher replyDispatcher = new jmri.util.CoalescingDispatcher(getClass().getSimpleName());
+
+    /**
+     * Get the dispatcher used to deliver replies when not synchronizing with
+     * the receive thread, e.g. to adjust its batch size or read its statistics.
+     *
+     * @return the dispatcher for this connection
+     */
+    public jmri.util.CoalescingDispatcher getReplyDispatcher() {
+        return replyDispatcher;
+    }
+
     /**
      * Executes a reply distribution action on the appropriate thread for JMRI.
+     * <P>
+     * If {@link #getSynchronizeRx()} is true the receive thread waits for the
+     * action to complete. Otherwise the action is queued, and replies that
+     * arrive faster than the layout thread handles them are delivered several
+     * per event, in order.
+     *
      * @param r a runnable typically encapsulating a MRReply and the iteration code needed to
      *          send it to all the listeners.
      */
@@ -906,7 +1080,7 @@ abstract public class AbstractMRTrafficController {
             if (synchronizeRx) {
                 SwingUtilities.invokeAndWait(r);
             } else {
-                SwingUtilities.invokeLater(r);
+                replyDispatcher.dispatch(r::run);
             }
         } catch (InterruptedException ie) {
             if(threadStopRequest) return;
@@ -0,0 +1,229 @@
+package jmri.jmrix;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of messages waiting for the transmit thread of an
+ * {@link AbstractMRTrafficController}.
+ * <P>
+ * Any number of threads may add messages without taking a lock; only the
+ * transmit thread removes them. Messages are kept in one lock-free deque per
+ * priority level, and are taken highest priority first and in order of arrival
+ * within a level. When every message is queued at the same priority the queue
+ * behaves as a plain FIFO.
+ * <P>
+ * The queue also keeps the counters reported by the traffic controller:
+ * current and peak depth, messages sent and dropped, and how long each message
+ * waited before it was handed to the port.
+ */
+public class MRTransmitQueue {
+
+    public static final int PRIORITY_HIGH = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_LOW = 2;
+
+    /**
+     * Capacity used when none is specified. Large enough that normal startup
+     * bursts never reach it.
+     */
+    public static final int DEFAULT_CAPACITY = 2048;
+
+    private final ConcurrentLinkedDeque<Item>[] levels;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final AtomicInteger maxDepth = new AtomicInteger(0);
+    private final AtomicLong sentCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong totalLatency = new AtomicLong(0);
+    private final AtomicLong maxLatency = new AtomicLong(0);
+
+    public MRTransmitQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MRTransmitQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        @SuppressWarnings("unchecked") // only ever holds Item deques
+        ConcurrentLinkedDeque<Item>[] deques = (ConcurrentLinkedDeque<Item>[]) new ConcurrentLinkedDeque<?>[PRIORITY_LOW + 1];
+        levels = deques;
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    /**
+     * Add a message to the end of its priority level. Safe to call from any
+     * thread.
+     *
+     * @param m        the message to send; may be null
+     * @param l        the listener to notify of the reply; may be null
+     * @param priority one of {@link #PRIORITY_HIGH}, {@link #PRIORITY_NORMAL}
+     *                 or {@link #PRIORITY_LOW}
+     * @return true if queued, false if the queue was full and the message was
+     *         dropped
+     */
+    public boolean offer(AbstractMRMessage m, AbstractMRListener l, int priority) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        updateMaxDepth(current + 1);
+        levels[checkPriority(priority)].addLast(new Item(m, l, priority));
+        return true;
+    }
+
+    /**
+     * Take the next message to send. Only the transmit thread may call this.
+     *
+     * @return the highest priority waiting item, or null if the queue is empty
+     */
+    Item poll() {
+        for (ConcurrentLinkedDeque<Item> level : levels) {
+            Item item = level.pollFirst();
+            if (item != null) {
+                size.decrementAndGet();
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put an item back at the head of its priority level, e.g. for automatic
+     * retransmission. Only the transmit thread may call this. The capacity
+     * limit is not applied, as the item already held a place in the queue.
+     *
+     * @param item the item previously returned by {@link #poll()}
+     */
+    void pushFront(Item item) {
+        updateMaxDepth(size.incrementAndGet());
+        levels[checkPriority(item.priority)].addFirst(item);
+    }
+
+    /**
+     * Record that an item is being handed to the port, updating the latency
+     * counters.
+     *
+     * @param item the item being sent
+     */
+    void recordSent(Item item) {
+        long latency = System.nanoTime() - item.queuedTime;
+        sentCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        long max;
+        do {
+            max = maxLatency.get();
+        } while (latency > max && !maxLatency.compareAndSet(max, latency));
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * @return number of messages currently waiting
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the largest number of messages that have been waiting at once
+     */
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * @return number of messages handed to the port
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return number of messages rejected because the queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return mean time in milliseconds between queueing a message and handing
+     *         it to the port, or 0 if nothing has been sent
+     */
+    public double getMeanLatency() {
+        long sent = sentCount.get();
+        if (sent == 0) {
+            return 0.0;
+        }
+        return totalLatency.get() / (sent * 1000000.0);
+    }
+
+    /**
+     * @return longest time in milliseconds a message waited in the queue
+     */
+    public double getMaxLatency() {
+        return maxLatency.get() / 1000000.0;
+    }
+
+    /**
+     * Clear the peak depth, sent, dropped and latency counters. Messages
+     * currently waiting are not affected.
+     */
+    public void resetStatistics() {
+        maxDepth.set(size.get());
+        sentCount.set(0);
+        droppedCount.set(0);
+        totalLatency.set(0);
+        maxLatency.set(0);
+    }
+
+    private void updateMaxDepth(int depth) {
+        int max;
+        do {
+            max = maxDepth.get();
+        } while (depth > max && !maxDepth.compareAndSet(max, depth));
+    }
+
+    private static int checkPriority(int priority) {
+        if (priority < PRIORITY_HIGH) {
+            return PRIORITY_HIGH;
+        }
+        if (priority > PRIORITY_LOW) {
+            return PRIORITY_LOW;
+        }
+        return priority;
+    }
+
+    /**
+     * A queued message together with the listener for its reply.
+     */
+    static class Item {
+
+        final AbstractMRMessage message;
+        final AbstractMRListener listener;
+        final int priority;
+        final long queuedTime;
+
+        Item(AbstractMRMessage message, AbstractMRListener listener, int priority) {
+            this.message = message;
+            this.listener = listener;
+            this.priority = priority;
+            this.queuedTime = System.nanoTime();
+        }
+    }
+}
@@ -38,6 +38,9 @@ public class SerialTrafficController extends AbstractMRNodeTrafficController imp
         // entirely poll driven, so reduce interval
         mWaitBeforePoll = 5;  // default = 25
 
+        // all reads go through readByteProtected, so can be done in bulk
+        setBufferedReceive(true);
+
     }
 
     // The methods to implement the SerialInterface
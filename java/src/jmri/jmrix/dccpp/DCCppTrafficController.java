@@ -6,6 +6,7 @@ import jmri.jmrix.AbstractMRListener;
 import jmri.jmrix.AbstractMRMessage;
 import jmri.jmrix.AbstractMRReply;
 import jmri.jmrix.AbstractMRTrafficController;
+import jmri.jmrix.MRTransmitQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,6 +76,23 @@ public abstract class DCCppTrafficController extends AbstractMRTrafficController
     @Override
     abstract public void sendDCCppMessage(DCCppMessage m, DCCppListener reply);
 
+    /**
+     * Send throttle speed and direction messages ahead of any other waiting
+     * messages, so a throttle stays responsive while e.g. turnouts or CVs are
+     * being sent.
+     *
+     * @param m the message being queued
+     * @return {@link MRTransmitQueue#PRIORITY_HIGH} for a throttle message,
+     *         otherwise the default priority
+     */
+    @Override
+    protected int getTransmitPriority(AbstractMRMessage m) {
+        if ((m instanceof DCCppMessage) && ((DCCppMessage) m).isThrottleMessage()) {
+            return MRTransmitQueue.PRIORITY_HIGH;
+        }
+        return super.getTransmitPriority(m);
+    }
+
     @Override
     protected int lengthOfByteStream(AbstractMRMessage m) {
         int len = m.getNumDataElements();
@@ -34,6 +34,8 @@ public class EasyDccTrafficController extends AbstractMRTrafficController
     public EasyDccTrafficController(EasyDccSystemConnectionMemo adaptermemo) {
         super();
         mMemo = adaptermemo;
+        // all reads go through readByteProtected, so can be done in bulk
+        setBufferedReceive(true);
         log.debug("creating a new EasyDccTrafficController object");
     }
 
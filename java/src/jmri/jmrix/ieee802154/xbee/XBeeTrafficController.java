@@ -284,9 +284,11 @@ public class XBeeTrafficController extends IEEE802154TrafficController implement
      * them, then notifies the transmission thread.
      */
     @Override
-    synchronized protected void sendMessage(AbstractMRMessage m, AbstractMRListener reply) {
-        msgQueue.addLast(m);
-        listenerQueue.addLast(reply);
+    protected void sendMessage(AbstractMRMessage m, AbstractMRListener reply) {
+        if (!transmitQueue.offer(m, reply, getTransmitPriority(m))) {
+            log.error("transmit queue full, dropped message {}", m);
+            return;
+        }
         if (m != null) {
             log.debug("just notified transmit thread with message " + m.toString());
         }
@@ -184,7 +184,7 @@ public class IBLnPacketizer extends LnPacketizer {
                                 myTC.notify(msgForLater);
                             }
                         };
-                        javax.swing.SwingUtilities.invokeLater(r);
+                        replyDispatcher.dispatch(r::run);
                     }
 
                     // done with this one
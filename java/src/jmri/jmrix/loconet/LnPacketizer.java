@@ -63,6 +63,22 @@ public class LnPacketizer extends LnTrafficController {
      */
     public LinkedList<byte[]> xmtList = new LinkedList<byte[]>();
 
+    /**
+     * Delivers received messages to listeners on the layout thread, several
+     * per event during bursts of traffic, keeping their order.
+     */
+    protected jmri.util.CoalescingDispatcher replyDispatcher = new jmri.util.CoalescingDispatcher(getClass().getSimpleName());
+
+    /**
+     * Get the dispatcher used to deliver received messages, e.g. to adjust
+     * its batch size or read its statistics.
+     *
+     * @return the dispatcher for this connection
+     */
+    public jmri.util.CoalescingDispatcher getReplyDispatcher() {
+        return replyDispatcher;
+    }
+
     /**
      * XmtHandler (a local class) object to implement the transmit thread
      */
@@ -306,7 +322,7 @@ public class LnPacketizer extends LnTrafficController {
                             log.debug("queue message for notification: {}", msg.toString());
                         }
 
-                        jmri.util.ThreadingUtil.runOnLayoutEventually(new RcvMemo(msg, trafficController));
+                        replyDispatcher.dispatch(new RcvMemo(msg, trafficController));
                     }
 
                     // done with this one
@@ -43,7 +43,7 @@ public class LnReporter extends AbstractReporter implements LocoNetListener, Phy
         log.debug("new Reporter " + number);
         _number = number;
         // At construction, register for messages
-        tc.addLocoNetListener(~0, this);
+        tc.addLocoNetListener(this, LnConstants.OPC_MULTI_SENSE, LnConstants.OPC_LISSY_UPDATE);
         this.tc = tc;
     }
 
@@ -23,7 +23,7 @@ public class LnReporterManager extends jmri.managers.AbstractReporterManager imp
         this.prefix = prefix;
         this.tc = tc;
         if (tc != null) {
-            tc.addLocoNetListener(~0, this);
+            tc.addLocoNetListener(this, LnConstants.OPC_MULTI_SENSE);
         } else {
             log.error("No layout connection, Reporter manager can't function");
         }
@@ -45,7 +45,7 @@ public class LnSensor extends AbstractSensor implements LocoNetListener {
         }
 
         // At construction, register for messages
-        tc.addLocoNetListener(~0, this);
+        tc.addLocoNetListener(this, LnConstants.OPC_INPUT_REP);
     }
 
     /**
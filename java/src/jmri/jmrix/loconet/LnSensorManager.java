@@ -18,7 +18,7 @@ public class LnSensorManager extends jmri.managers.AbstractSensorManager impleme
         this.prefix = prefix;
         this.tc = tc;
         // ctor has to register for LocoNet events
-        tc.addLocoNetListener(~0, this);
+        tc.addLocoNetListener(this, LnConstants.OPC_INPUT_REP);
 
         // start the update sequence. Until JMRI 2.9.4, this waited
         // until files have been read, but starts automatically
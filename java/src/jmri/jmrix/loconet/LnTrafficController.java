@@ -1,6 +1,8 @@
 package jmri.jmrix.loconet;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Vector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +51,22 @@ public abstract class LnTrafficController implements LocoNetInterface {
     // The methods to implement adding and removing listeners
     protected Vector<LocoNetListener> listeners = new Vector<LocoNetListener>();
 
+    // op codes (& 0x7F) of interest to listeners that asked for specific
+    // ones; listeners not in here receive every message
+    private final HashMap<LocoNetListener, BitSet> opcodeInterest = new HashMap<>();
+
+    // listeners to notify, indexed by op code & 0x7F, in registration order;
+    // discarded when the listeners change and rebuilt on the next message
+    private volatile LocoNetListener[][] routingTable = null;
+
+    private static final int OPCODE_TABLE_SIZE = 0x80;
+
+    /**
+     * {@inheritDoc}
+     * <P>
+     * The mask is not used; the listener receives all messages. To receive
+     * only some, see {@link #addLocoNetListener(LocoNetListener, int...)}.
+     */
     @Override
     public synchronized void addLocoNetListener(int mask, LocoNetListener l) {
         // add only if not already registered
@@ -57,18 +75,92 @@ public abstract class LnTrafficController implements LocoNetInterface {
         }
         if (!listeners.contains(l)) {
             listeners.addElement(l);
+        } else {
+            // now wants everything
+            opcodeInterest.remove(l);
+        }
+        routingTable = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <P>
+     * Messages are routed through a table indexed by op code, so a listener
+     * registered this way costs nothing when other messages arrive.
+     */
+    @Override
+    public synchronized void addLocoNetListener(LocoNetListener l, int... opcodes) {
+        if (l == null) {
+            throw new java.lang.NullPointerException();
+        }
+        BitSet interest = opcodeInterest.get(l);
+        if (!listeners.contains(l)) {
+            listeners.addElement(l);
+            interest = new BitSet(OPCODE_TABLE_SIZE);
+            opcodeInterest.put(l, interest);
+        } else if (interest == null) {
+            // already receives everything
+            return;
+        }
+        for (int opcode : opcodes) {
+            interest.set(opcode & 0x7F);
         }
+        routingTable = null;
     }
 
     @Override
     public synchronized void removeLocoNetListener(int mask, LocoNetListener l) {
         if (listeners.contains(l)) {
             listeners.removeElement(l);
+            opcodeInterest.remove(l);
+            routingTable = null;
         }
     }
 
     /**
-     * Forward a LocoNetMessage to all registered listeners.
+     * Get the listeners to be notified of each op code, building the table if
+     * the listeners have changed since it was last used.
+     *
+     * @return listener arrays indexed by op code &amp; 0x7F; must not be
+     *         modified
+     */
+    private LocoNetListener[][] getRoutingTable() {
+        LocoNetListener[][] table = routingTable;
+        if (table == null) {
+            table = buildRoutingTable();
+        }
+        return table;
+    }
+
+    private synchronized LocoNetListener[][] buildRoutingTable() {
+        if (routingTable != null) {
+            return routingTable; // built while we waited
+        }
+        LocoNetListener[] all = listeners.toArray(new LocoNetListener[listeners.size()]);
+        LocoNetListener[][] table = new LocoNetListener[OPCODE_TABLE_SIZE][];
+        if (opcodeInterest.isEmpty()) {
+            // nobody is selective, so every op code goes to everyone
+            java.util.Arrays.fill(table, all);
+        } else {
+            Vector<LocoNetListener> v = new Vector<>(all.length);
+            for (int opcode = 0; opcode < OPCODE_TABLE_SIZE; opcode++) {
+                v.clear();
+                for (LocoNetListener l : all) {
+                    BitSet interest = opcodeInterest.get(l);
+                    if (interest == null || interest.get(opcode)) {
+                        v.addElement(l);
+                    }
+                }
+                table[opcode] = v.toArray(new LocoNetListener[v.size()]);
+            }
+        }
+        routingTable = table;
+        return table;
+    }
+
+    /**
+     * Forward a LocoNetMessage to all registered listeners interested in its
+     * op code.
      * <P>
      * this needs to have public access, as
      * {@link jmri.jmrix.loconet.loconetovertcp.LnOverTcpPacketizer} and
@@ -77,24 +169,19 @@ public abstract class LnTrafficController implements LocoNetInterface {
      *
      * @param m Message to forward. Listeners should not modify it!
      */
-    @SuppressWarnings("unchecked")
     public void notify(LocoNetMessage m) {
         // record statistics
         receivedMsgCount++;
         receivedByteCount += m.getNumDataElements();
 
-        // make a copy of the listener vector to synchronized not needed for transmit
-        Vector<LocoNetListener> v;
-        synchronized (this) {
-            v = (Vector<LocoNetListener>) listeners.clone();
-        }
+        // the table is replaced, not changed, when listeners are added or
+        // removed, so no synchronization is needed while forwarding
+        LocoNetListener[] v = getRoutingTable()[m.getOpCode() & 0x7F];
         if (log.isDebugEnabled()) {
             log.debug("notify of incoming LocoNet packet: " + m.toString());
         }
-        // forward to all listeners
-        int cnt = v.size();
-        for (int i = 0; i < cnt; i++) {
-            LocoNetListener client = listeners.elementAt(i);
+        // forward to interested listeners
+        for (LocoNetListener client : v) {
             client.message(m);
         }
     }
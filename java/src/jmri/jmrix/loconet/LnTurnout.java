@@ -52,7 +52,7 @@ public class LnTurnout extends AbstractTurnout implements LocoNetListener {
         _number = number;
         // At construction, register for messages
         if (this.controller != null) {
-            this.controller.addLocoNetListener(~0, this);
+            this.controller.addLocoNetListener(this, LnConstants.OPC_SW_REQ, LnConstants.OPC_SW_REP);
         } else {
             log.warn("No LocoNet connection, turnout won't update");
         }
@@ -57,6 +57,27 @@ public interface LocoNetInterface {
      */
     void addLocoNetListener(int mask, LocoNetListener listener);
 
+    /**
+     * Request notification of only those messages with particular op codes.
+     * <P>
+     * Implementations that route messages by op code then skip this listener
+     * for all other traffic. The default implementation registers the
+     * listener for all messages, which is always correct, just slower.
+     * <P>
+     * Calling this again for the same listener adds to its op codes. A
+     * listener that is also registered with
+     * {@link #addLocoNetListener(int, LocoNetListener)} receives all messages.
+     * Remove the listener with
+     * {@link #removeLocoNetListener(int, LocoNetListener)} as usual.
+     *
+     * @param listener Object to be notified of new messages as they arrive.
+     * @param opcodes  The op codes of interest, e.g.
+     *                 {@link LnConstants#OPC_INPUT_REP}
+     */
+    default void addLocoNetListener(LocoNetListener listener, int... opcodes) {
+        addLocoNetListener(ALL, listener);
+    }
+
     /*
      * Stop notification of things happening on the LocoNet. Note that mask and LocoNetListener
      * must match a previous request exactly.
@@ -69,6 +69,11 @@ public class LocoNetThrottledTransmitter implements LocoNetInterface {
         controller.addLocoNetListener(mask, listener);
     }
 
+    @Override
+    public void addLocoNetListener(LocoNetListener listener, int... opcodes) {
+        controller.addLocoNetListener(listener, opcodes);
+    }
+
     @Override
     public void removeLocoNetListener(int mask, LocoNetListener listener) {
         controller.removeLocoNetListener(mask, listener);
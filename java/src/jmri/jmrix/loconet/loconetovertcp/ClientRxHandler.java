@@ -65,55 +65,11 @@ public final class ClientRxHandler extends Thread implements LocoNetListener {
 
                     StringTokenizer st = new StringTokenizer(inString);
                     if (st.nextToken().equals("SEND")) {
-                        LocoNetMessage msg = null;
-                        int opCode = Integer.parseInt(st.nextToken(), 16);
-                        int byte2 = Integer.parseInt(st.nextToken(), 16);
-
-                        // Decide length
-                        switch ((opCode & 0x60) >> 5) {
-                            case 0: // 2 byte message
-
-                                msg = new LocoNetMessage(2);
-                                break;
-
-                            case 1: // 4 byte message
-
-                                msg = new LocoNetMessage(4);
-                                break;
-
-                            case 2: // 6 byte message
-
-                                msg = new LocoNetMessage(6);
-                                break;
-
-                            case 3: // N byte message
-
-                                if (byte2 < 2) {
-                                    log.error("ClientRxHandler: LocoNet message length invalid: "
-                                            + byte2 + " opcode: "
-                                            + Integer.toHexString(opCode));
-                                }
-                                msg = new LocoNetMessage(byte2);
-                                break;
-                            default:
-                                log.warn("Unhandled msg length: {}", (opCode & 0x60) >> 5);
-                                break;
-                        }
+                        LocoNetMessage msg = parseMessage(st);
                         if (msg == null) {
                             log.error("msg is null!");
                             return;
                         }
-                        // message exists, now fill it
-                        msg.setOpCode(opCode);
-                        msg.setElement(1, byte2);
-                        int len = msg.getNumDataElements();
-                        //log.debug("len: "+len);
-
-                        for (int i = 2; i < len; i++) {
-                            int b = Integer.parseInt(st.nextToken(), 16);
-                            msg.setElement(i, b);
-                        }
-
                         LnTrafficController.instance().sendLocoNetMessage(msg);
                         // Keep the message we just sent so we can ACK it when we hear
                         // the echo from the LocoBuffer
@@ -141,6 +97,64 @@ public final class ClientRxHandler extends Thread implements LocoNetListener {
         log.info("ClientRxHandler: Exiting");
     }
 
+    /**
+     * Get the LocoNet message from the tokens following SEND in a line from a
+     * client.
+     *
+     * @param st the tokens
+     * @return the message, or null if the message length is unknown
+     */
+    static LocoNetMessage parseMessage(StringTokenizer st) {
+        LocoNetMessage msg = null;
+        int opCode = Integer.parseInt(st.nextToken(), 16);
+        int byte2 = Integer.parseInt(st.nextToken(), 16);
+
+        // Decide length
+        switch ((opCode & 0x60) >> 5) {
+            case 0: // 2 byte message
+
+                msg = new LocoNetMessage(2);
+                break;
+
+            case 1: // 4 byte message
+
+                msg = new LocoNetMessage(4);
+                break;
+
+            case 2: // 6 byte message
+
+                msg = new LocoNetMessage(6);
+                break;
+
+            case 3: // N byte message
+
+                if (byte2 < 2) {
+                    log.error("ClientRxHandler: LocoNet message length invalid: "
+                            + byte2 + " opcode: "
+                            + Integer.toHexString(opCode));
+                }
+                msg = new LocoNetMessage(byte2);
+                break;
+            default:
+                log.warn("Unhandled msg length: {}", (opCode & 0x60) >> 5);
+                break;
+        }
+        if (msg == null) {
+            return null;
+        }
+        // message exists, now fill it
+        msg.setOpCode(opCode);
+        msg.setElement(1, byte2);
+        int len = msg.getNumDataElements();
+        //log.debug("len: "+len);
+
+        for (int i = 2; i < len; i++) {
+            int b = Integer.parseInt(st.nextToken(), 16);
+            msg.setElement(i, b);
+        }
+        return msg;
+    }
+
     public void close() {
         try {
             clientSocket.close();
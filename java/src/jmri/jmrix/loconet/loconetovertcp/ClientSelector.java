@@ -0,0 +1,311 @@
+package jmri.jmrix.loconet.loconetovertcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import jmri.jmrix.loconet.LnTrafficController;
+import jmri.jmrix.loconet.LocoNetListener;
+import jmri.jmrix.loconet.LocoNetMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves all LocoNetOverTcp clients from one thread, instead of two threads
+ * for each client.
+ * <p>
+ * Each LocoNet message is encoded once, and the same encoded line is queued
+ * for every client. The lines queued for a client are sent together in one
+ * gathering write. A client that can't keep up isn't read from until it has
+ * caught up, so it can't send more messages to LocoNet than it receives, and
+ * is disconnected if it falls too far behind.
+ *
+ * @see LnTcpPreferences#isUseMultiplexing()
+ */
+class ClientSelector implements Runnable, LocoNetListener {
+
+    // stop reading from a client with this many bytes waiting to be sent to it
+    static final int HIGH_WATER = 64 * 1024;
+    // disconnect a client with this many bytes waiting to be sent to it
+    static final int MAX_PENDING = 1024 * 1024;
+    private static final ByteBuffer SENT_OK = ByteBuffer.wrap("SENT OK\r\n".getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer(); // NOI18N
+
+    private final LnTcpServer server;
+    private final LnTrafficController tc;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final CopyOnWriteArrayList<Client> clients = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<Client> changed = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    /**
+     * @param server        the server, notified as clients come and go
+     * @param tc            the LocoNet the clients are connected to
+     * @param serverChannel the channel accepting client connections
+     * @throws IOException if the selector can't be opened
+     */
+    ClientSelector(LnTcpServer server, LnTrafficController tc, ServerSocketChannel serverChannel) throws IOException {
+        this.server = server;
+        this.tc = tc;
+        this.serverChannel = serverChannel;
+        this.selector = Selector.open();
+    }
+
+    @Override
+    public void run() {
+        tc.addLocoNetListener(~0, this);
+        try {
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            while (selector.isOpen() && !Thread.currentThread().isInterrupted()) {
+                selector.select();
+                Client client;
+                while ((client = changed.poll()) != null) {
+                    client.updateInterest();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    client = (Client) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            client.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            client.write();
+                        }
+                    } catch (IOException ex) {
+                        log.debug("ClientSelector: IO Exception from {}: {}", client.remoteAddress, ex.getMessage());
+                        client.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            if (selector.isOpen()) {
+                log.error("Server: IO Exception: ", ex);
+            }
+        } finally {
+            tc.removeLocoNetListener(~0, this);
+            close();
+        }
+        log.debug("ClientSelector: Exiting");
+    }
+
+    /**
+     * Close all of the clients and stop serving.
+     */
+    void close() {
+        for (Client client : clients) {
+            client.close();
+        }
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            log.error("Unable to close client selector: {}", ex.getMessage());
+        }
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    @Override
+    public void message(LocoNetMessage msg) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        // encoded once for all clients
+        String text = "RECEIVE " + msg.toString(); // NOI18N
+        log.debug("ClientSelector: Send: {}", text);
+        ByteBuffer line = ByteBuffer.wrap((text + "\r\n").getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer();
+        for (Client client : clients) {
+            client.send(line, msg);
+        }
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        Client client = new Client(channel, channel.socket().getRemoteSocketAddress().toString());
+        log.info("Server: Connection from: {}", client.remoteAddress);
+        client.key = channel.register(selector, SelectionKey.OP_READ, client);
+        client.queue(ByteBuffer.wrap(("VERSION JMRI Server " + jmri.Version.name() + "\r\n").getBytes(StandardCharsets.US_ASCII))); // NOI18N
+        client.updateInterest();
+        clients.add(client);
+        server.updateClientStateListeners();
+    }
+
+    /**
+     * The connection to one client.
+     */
+    private class Client {
+
+        private final SocketChannel channel;
+        private final String remoteAddress;
+        private final StringBuilder line = new StringBuilder();
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private int pendingBytes = 0;
+        private boolean reading = true;
+        private volatile LocoNetMessage lastSentMessage = null;
+        private SelectionKey key;
+
+        Client(SocketChannel channel, String remoteAddress) {
+            this.channel = channel;
+            this.remoteAddress = remoteAddress;
+        }
+
+        /**
+         * Queue a received LocoNet message for the client.
+         *
+         * @param encoded the message as a line
+         * @param msg     the message
+         */
+        void send(ByteBuffer encoded, LocoNetMessage msg) {
+            boolean wasEmpty;
+            int queued;
+            synchronized (pending) {
+                wasEmpty = pending.isEmpty();
+                queue(encoded.duplicate());
+                // acknowledge the echo of a message sent by this client
+                if (lastSentMessage != null && lastSentMessage.equals(msg)) {
+                    lastSentMessage = null;
+                    queue(SENT_OK.duplicate());
+                }
+                queued = pendingBytes;
+            }
+            if (queued > MAX_PENDING) {
+                log.warn("Client {} is not keeping up, disconnecting it", remoteAddress);
+                changed.add(this);
+            } else if (wasEmpty || queued >= HIGH_WATER) {
+                changed.add(this);
+            }
+        }
+
+        private void queue(ByteBuffer bytes) {
+            synchronized (pending) {
+                pending.add(bytes);
+                pendingBytes += bytes.remaining();
+            }
+        }
+
+        /**
+         * Wait to write if there is anything to send, and wait to read unless
+         * the client has too much waiting to be sent. Only called by the
+         * selector thread.
+         */
+        void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            int ops;
+            synchronized (pending) {
+                if (pendingBytes > MAX_PENDING) {
+                    close();
+                    return;
+                }
+                if (pendingBytes >= HIGH_WATER) {
+                    reading = false;
+                } else if (pendingBytes < HIGH_WATER / 2) {
+                    reading = true;
+                }
+                ops = (reading ? SelectionKey.OP_READ : 0) | (pending.isEmpty() ? 0 : SelectionKey.OP_WRITE);
+            }
+            key.interestOps(ops);
+        }
+
+        void read() throws IOException {
+            buffer.clear();
+            int read = channel.read(buffer);
+            if (read < 0) {
+                log.debug("ClientSelector: Remote Connection Closed");
+                close();
+                return;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                char c = (char) (buffer.get() & 0xFF);
+                if (c == '\n' || c == '\r') {
+                    if (line.length() > 0) {
+                        received(line.toString());
+                        line.setLength(0);
+                    }
+                } else {
+                    line.append(c);
+                }
+            }
+        }
+
+        private void received(String inString) {
+            log.debug("ClientSelector: Received: {}", inString);
+            try {
+                StringTokenizer st = new StringTokenizer(inString);
+                if (st.hasMoreTokens() && st.nextToken().equals("SEND")) { // NOI18N
+                    LocoNetMessage msg = ClientRxHandler.parseMessage(st);
+                    if (msg == null) {
+                        log.error("msg is null!");
+                        return;
+                    }
+                    tc.sendLocoNetMessage(msg);
+                    // Keep the message we just sent so we can ACK it when we hear
+                    // the echo from the LocoBuffer
+                    lastSentMessage = msg;
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Bad message '{}' from {}", inString, remoteAddress);
+            }
+        }
+
+        void write() throws IOException {
+            synchronized (pending) {
+                channel.write(pending.toArray(new ByteBuffer[pending.size()]));
+                while (!pending.isEmpty() && !pending.peek().hasRemaining()) {
+                    pending.remove();
+                }
+                pendingBytes = 0;
+                for (ByteBuffer bytes : pending) {
+                    pendingBytes += bytes.remaining();
+                }
+            }
+            updateInterest();
+        }
+
+        void close() {
+            if (clients.remove(this)) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    log.debug("Unable to close connection to {}", remoteAddress);
+                }
+                synchronized (pending) {
+                    pending.clear();
+                    pendingBytes = 0;
+                }
+                log.info("ClientSelector: Client {} closed", remoteAddress);
+                server.updateClientStateListeners();
+            }
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(ClientSelector.class);
+}
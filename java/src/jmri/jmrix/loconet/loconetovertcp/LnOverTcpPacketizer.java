@@ -202,7 +202,7 @@ public class LnOverTcpPacketizer extends LnPacketizer {
                                 myTC.notify(msgForLater);
                             }
                         };
-                        javax.swing.SwingUtilities.invokeLater(r);
+                        replyDispatcher.dispatch(r::run);
                     }
                     // done with this one
                 } catch (LocoNetMessageException e) {
@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 public class LnTcpPreferences extends PreferencesBean {
 
     public final static String PORT = jmri.web.server.WebServerPreferences.PORT;
+    public final static String USE_MULTIPLEXING = "useMultiplexing"; // NOI18N
     private static final String PORT_NUMBER_KEY = "PortNumber";
     private static final String SETTINGS_FILE_NAME = "LocoNetOverTcpSettings.ini";
 
@@ -33,6 +34,7 @@ public class LnTcpPreferences extends PreferencesBean {
     }
 
     private int port = 1234;
+    private boolean useMultiplexing = false;
     private final static Logger log = LoggerFactory.getLogger(LnTcpPreferences.class);
 
     public LnTcpPreferences() {
@@ -54,6 +56,7 @@ public class LnTcpPreferences extends PreferencesBean {
         }
         if (!migrate) {
             this.port = sharedPreferences.getInt(PORT, this.getPort());
+            this.useMultiplexing = sharedPreferences.getBoolean(USE_MULTIPLEXING, this.isUseMultiplexing());
             this.setIsDirty(false);
         } else {
             Properties settings = new Properties();
@@ -74,6 +77,7 @@ public class LnTcpPreferences extends PreferencesBean {
     public void savePreferences() {
         Preferences sharedPreferences = ProfileUtils.getPreferences(this.getProfile(), this.getClass(), true);
         sharedPreferences.putInt(PORT, this.getPort());
+        sharedPreferences.putBoolean(USE_MULTIPLEXING, this.isUseMultiplexing());
         try {
             sharedPreferences.sync();
             setIsDirty(false);  //  Resets only when stored
@@ -109,4 +113,28 @@ public class LnTcpPreferences extends PreferencesBean {
         }
     }
 
+    /**
+     * Check if the LocoNetOverTCP server serves all clients from one thread,
+     * instead of two threads for each client.
+     *
+     * @return true if clients share a thread
+     */
+    public boolean isUseMultiplexing() {
+        return useMultiplexing;
+    }
+
+    /**
+     * Set if the LocoNetOverTCP server serves all clients from one thread.
+     *
+     * @param value true if clients share a thread
+     */
+    public void setUseMultiplexing(boolean value) {
+        boolean old = this.useMultiplexing;
+        if (old != value) {
+            this.useMultiplexing = value;
+            this.firePropertyChange(USE_MULTIPLEXING, old, value);
+            this.setRestartRequired();
+        }
+    }
+
 }
@@ -35,6 +35,7 @@ public class LnTcpPreferencesPanel extends JPanel implements PreferencesPanel {
     private JLabel portLabel;
     private final LnTcpPreferences preferences;
     private JCheckBox startup;
+    private JCheckBox multiplexing;
     private ItemListener startupItemListener;
     private int startupActionPosition = -1;
     private BindingGroup bindingGroup;
@@ -51,6 +52,7 @@ public class LnTcpPreferencesPanel extends JPanel implements PreferencesPanel {
         port = new JSpinner();
         portLabel = new JLabel();
         startup = new JCheckBox();
+        multiplexing = new JCheckBox();
 
         port.setModel(new SpinnerNumberModel(1234, 1, 65535, 1));
         port.setEditor(new JSpinner.NumberEditor(port, "#"));
@@ -62,6 +64,11 @@ public class LnTcpPreferencesPanel extends JPanel implements PreferencesPanel {
         portLabel.setText(Bundle.getMessage("LabelPort")); // NOI18N
         portLabel.setToolTipText(Bundle.getMessage("ToolTipPort")); // NOI18N
 
+        multiplexing.setText(Bundle.getMessage("LabelMultiplexing")); // NOI18N
+        multiplexing.setToolTipText(Bundle.getMessage("ToolTipMultiplexing")); // NOI18N
+        binding = Bindings.createAutoBinding(AutoBinding.UpdateStrategy.READ_WRITE, preferences, ELProperty.create("${useMultiplexing}"), multiplexing, BeanProperty.create("selected"));
+        bindingGroup.addBinding(binding);
+
         startup.setSelected(this.isStartupAction());
         startup.setText(Bundle.getMessage("LabelStartup")); // NOI18N
         this.startupItemListener = (ItemEvent e) -> {
@@ -95,6 +102,7 @@ public class LnTcpPreferencesPanel extends JPanel implements PreferencesPanel {
                                         .addComponent(port, GroupLayout.PREFERRED_SIZE, 75, GroupLayout.PREFERRED_SIZE)
                                         .addPreferredGap(LayoutStyle.ComponentPlacement.RELATED)
                                         .addComponent(portLabel, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+                                .addComponent(multiplexing, GroupLayout.DEFAULT_SIZE, 388, Short.MAX_VALUE)
                                 .addComponent(startup, GroupLayout.DEFAULT_SIZE, 388, Short.MAX_VALUE))
                         .addContainerGap())
         );
@@ -105,6 +113,8 @@ public class LnTcpPreferencesPanel extends JPanel implements PreferencesPanel {
                                 .addComponent(port, GroupLayout.PREFERRED_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
                                 .addComponent(portLabel))
                         .addPreferredGap(LayoutStyle.ComponentPlacement.UNRELATED)
+                        .addComponent(multiplexing)
+                        .addPreferredGap(LayoutStyle.ComponentPlacement.RELATED)
                         .addComponent(startup)
                         .addContainerGap(198, Short.MAX_VALUE))
         );
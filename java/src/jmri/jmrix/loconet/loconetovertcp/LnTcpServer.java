@@ -2,14 +2,17 @@ package jmri.jmrix.loconet.loconetovertcp;
 
 import java.beans.PropertyChangeEvent;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import jmri.InstanceManager;
 import jmri.ShutDownManager;
 import jmri.implementation.QuietShutDownTask;
+import jmri.jmrix.loconet.LocoNetSystemConnectionMemo;
 import jmri.util.zeroconf.ZeroConfService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +27,7 @@ public class LnTcpServer {
     private final List<ClientRxHandler> clients = new LinkedList<>();
     private Thread socketListener;
     private ServerSocket serverSocket;
+    private volatile ClientSelector selector = null;
     private final List<LnTcpServerListener> stateListeners = new ArrayList<>();
     private boolean settingsChanged = false;
     private QuietShutDownTask shutDownTask;
@@ -185,6 +189,10 @@ public class LnTcpServer {
                 }
             } catch (IOException ex) {
             }
+            ClientSelector s = selector;
+            if (s != null) {
+                s.close();
+            }
 
             updateServerStateListeners();
 
@@ -214,7 +222,7 @@ public class LnTcpServer {
         }
     }
 
-    private void updateClientStateListeners() {
+    void updateClientStateListeners() {
         synchronized (this) {
             this.stateListeners.stream().filter((l) -> (l != null)).forEachOrdered((l) -> {
                 l.notifyClientStateChanged(this);
@@ -246,21 +254,34 @@ public class LnTcpServer {
             Socket newClientConnection;
             String remoteAddress;
             try {
-                serverSocket = new ServerSocket(portNumber);
-                serverSocket.setReuseAddress(true);
-                while (!socketListener.isInterrupted()) {
-                    newClientConnection = serverSocket.accept();
-                    remoteAddress = newClientConnection.getRemoteSocketAddress().toString();
-                    log.info("Server: Connection from: {}", remoteAddress);
-                    addClient(new ClientRxHandler(remoteAddress, newClientConnection));
+                if (LnTcpPreferences.getDefault().isUseMultiplexing()) {
+                    ServerSocketChannel channel = ServerSocketChannel.open();
+                    channel.socket().setReuseAddress(true);
+                    channel.socket().bind(new InetSocketAddress(portNumber));
+                    serverSocket = channel.socket();
+                    selector = new ClientSelector(LnTcpServer.this,
+                            InstanceManager.getDefault(LocoNetSystemConnectionMemo.class).getLnTrafficController(),
+                            channel);
+                    selector.run(); // returns when the server is disabled
+                    channel.close();
+                } else {
+                    serverSocket = new ServerSocket(portNumber);
+                    serverSocket.setReuseAddress(true);
+                    while (!socketListener.isInterrupted()) {
+                        newClientConnection = serverSocket.accept();
+                        remoteAddress = newClientConnection.getRemoteSocketAddress().toString();
+                        log.info("Server: Connection from: {}", remoteAddress);
+                        addClient(new ClientRxHandler(remoteAddress, newClientConnection));
+                    }
+                    serverSocket.close();
                 }
-                serverSocket.close();
             } catch (IOException ex) {
                 if (!ex.toString().toLowerCase().contains("socket closed")) {
                     log.error("Server: IO Exception: ", ex);
                 }
             }
             serverSocket = null;
+            selector = null;
         }
     }
 
@@ -279,8 +300,9 @@ public class LnTcpServer {
     }
 
     public int getClientCount() {
+        ClientSelector s = selector;
         synchronized (clients) {
-            return clients.size();
+            return clients.size() + ((s != null) ? s.getClientCount() : 0);
         }
     }
     private final static Logger log = LoggerFactory.getLogger(LnTcpServer.class);
@@ -232,7 +232,7 @@ public class UhlenbrockPacketizer extends LnPacketizer implements LocoNetInterfa
                                 myTC.notify(msgForLater);
                             }
                         };
-                        javax.swing.SwingUtilities.invokeLater(r);
+                        replyDispatcher.dispatch(r::run);
                     }
 
                     // done with this one
@@ -29,6 +29,8 @@ public class NceTrafficController extends AbstractMRTrafficController implements
 
     public NceTrafficController() {
         super();
+        // all reads go through readByteProtected, so can be done in bulk
+        setBufferedReceive(true);
     }
 
     // The methods to implement the NceInterface
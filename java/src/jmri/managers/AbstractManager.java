@@ -7,9 +7,12 @@ import java.beans.PropertyVetoException;
 import java.beans.VetoableChangeListener;
 import java.beans.VetoableChangeSupport;
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.OverridingMethodsMustInvokeSuper;
@@ -29,6 +32,12 @@ import org.slf4j.LoggerFactory;
  * <P>
  * It does include, with AbstractNamedBean, the implementation of the normalized
  * user name.
+ * <P>
+ * Beans are indexed by system name in a concurrent sorted map, so the
+ * system name list is always available in order without sorting. The lists
+ * returned by {@link #getSystemNameList()} and {@link #getNamedBeanList()} are
+ * unmodifiable snapshots that are built once and then shared until a bean is
+ * registered or deregistered.
  *
  * @param <E> the class this manager supports
  * @see jmri.NamedBean#normalizeUserName
@@ -71,10 +80,29 @@ abstract public class AbstractManager<E extends NamedBean> implements Manager<E>
         });
         _tsys.clear();
         _tuser.clear();
+        namesChanged();
     }
 
-    protected Hashtable<String, E> _tsys = new Hashtable<>();   // stores known Turnout instances by system name
-    protected Hashtable<String, E> _tuser = new Hashtable<>();   // stores known Turnout instances by user name
+    protected ConcurrentSkipListMap<String, E> _tsys = new ConcurrentSkipListMap<>();   // stores known Turnout instances by system name
+    protected ConcurrentHashMap<String, E> _tuser = new ConcurrentHashMap<>();   // stores known Turnout instances by user name
+
+    // incremented whenever the content of _tsys changes, so that a snapshot
+    // built while a bean was being (de)registered is never reused
+    private final AtomicInteger version = new AtomicInteger(0);
+    private volatile Snapshot<String> systemNameSnapshot = null;
+    private volatile Snapshot<E> namedBeanSnapshot = null;
+
+    /**
+     * Discard the cached system name and bean lists. Subclasses that add to or
+     * remove from {@link #_tsys} directly, rather than through
+     * {@link #register(NamedBean)} and {@link #deregister(NamedBean)}, must
+     * call this afterwards.
+     */
+    protected void namesChanged() {
+        version.incrementAndGet();
+        systemNameSnapshot = null;
+        namedBeanSnapshot = null;
+    }
 
     /**
      * Locate an instance based on a system name. Returns null if no instance
@@ -186,6 +214,7 @@ abstract public class AbstractManager<E extends NamedBean> implements Manager<E>
     public void register(E s) {
         String systemName = s.getSystemName();
         _tsys.put(systemName, s);
+        namesChanged();
 
         registerUserName(s);
 
@@ -243,6 +272,7 @@ abstract public class AbstractManager<E extends NamedBean> implements Manager<E>
         s.removePropertyChangeListener(this);
         String systemName = s.getSystemName();
         _tsys.remove(systemName);
+        namesChanged();
         String userName = s.getUserName();
         if (userName != null) {
             _tuser.remove(userName);
@@ -300,19 +330,58 @@ abstract public class AbstractManager<E extends NamedBean> implements Manager<E>
 
     @Override
     public String[] getSystemNameArray() {
-        return this.getSystemNameList().toArray(new String[_tsys.size()]);
+        List<String> list = this.getSystemNameList();
+        return list.toArray(new String[list.size()]);
     }
 
+    /**
+     * {@inheritDoc}
+     * <P>
+     * The returned list is sorted and unmodifiable; it is shared with other
+     * callers until a bean is registered or deregistered.
+     */
     @Override
     public List<String> getSystemNameList() {
-        List<String> out = new ArrayList<>(_tsys.keySet());
-        out.sort(null);
-        return out;
+        Snapshot<String> snapshot = systemNameSnapshot;
+        int current = version.get();
+        if (snapshot == null || snapshot.version != current) {
+            snapshot = new Snapshot<>(current, new ArrayList<>(_tsys.keySet()));
+            systemNameSnapshot = snapshot;
+        }
+        return snapshot.list;
     }
 
+    /**
+     * {@inheritDoc}
+     * <P>
+     * The returned list is in system name order and unmodifiable; it is shared
+     * with other callers until a bean is registered or deregistered.
+     */
     @Override
     public List<E> getNamedBeanList() {
-        return new ArrayList<>(_tsys.values());
+        Snapshot<E> snapshot = namedBeanSnapshot;
+        int current = version.get();
+        if (snapshot == null || snapshot.version != current) {
+            snapshot = new Snapshot<>(current, new ArrayList<>(_tsys.values()));
+            namedBeanSnapshot = snapshot;
+        }
+        return snapshot.list;
+    }
+
+    /**
+     * An unmodifiable list together with the {@link #version} of the index it
+     * was copied from. The version is read before copying, so a copy that
+     * raced with a change is tagged as out of date and rebuilt on next use.
+     */
+    private static final class Snapshot<T> {
+
+        final int version;
+        final List<T> list;
+
+        Snapshot(int version, List<T> list) {
+            this.version = version;
+            this.list = Collections.unmodifiableList(list);
+        }
     }
 
     @Override
@@ -1,8 +1,13 @@
 package jmri.managers;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import jmri.Manager;
@@ -23,6 +28,11 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Internally, this is done by using a list of all non-Internal managers, plus a
  * separate reference to the internal manager.
+ * <p>
+ * System names are routed to the owning manager through a table keyed by each
+ * manager's system prefix and type letter, so a lookup costs a few hash
+ * lookups however many connections are present. The merged bean list is kept
+ * until one of the managers reports a change in its "length" property.
  *
  * @author	Bob Jacobsen Copyright (C) 2003, 2010
  */
@@ -73,6 +83,11 @@ abstract public class AbstractProxyManager<E extends NamedBean> implements Manag
             return;
         }
         mgrs.add(m);
+        if (m != null) {
+            m.addPropertyChangeListener(lengthListener);
+        }
+        prefixTable = null;
+        beansChanged();
         propertyVetoListenerList.stream().forEach((l) -> {
             m.addVetoableChangeListener(l);
         });
@@ -177,8 +192,23 @@ abstract public class AbstractProxyManager<E extends NamedBean> implements Manag
      */
     abstract protected E makeBean(int index, String systemName, String userName);
 
+    /**
+     * Locate an instance by system name. The name is passed only to the
+     * manager whose system prefix and type letter it starts with; if no
+     * manager claims it, every manager is asked.
+     *
+     * @param systemName the system name
+     * @return the requested NamedBean or null if nothing matches
+     */
     @Override
     public E getBeanBySystemName(String systemName) {
+        if (systemName == null) {
+            return null;
+        }
+        Manager<E> owner = routeSystemName(systemName);
+        if (owner != null) {
+            return owner.getBeanBySystemName(systemName);
+        }
         for (Manager<E> m : this.mgrs) {
             E b = m.getBeanBySystemName(systemName);
             if (b != null) {
@@ -247,9 +277,14 @@ abstract public class AbstractProxyManager<E extends NamedBean> implements Manag
     @Override
     public void dispose() {
         for (int i = 0; i < mgrs.size(); i++) {
+            if (mgrs.get(i) != null) {
+                mgrs.get(i).removePropertyChangeListener(lengthListener);
+            }
             mgrs.get(i).dispose();
         }
         mgrs.clear();
+        prefixTable = null;
+        beansChanged();
         if (internalManager != null) {
             internalManager.dispose(); // don't make if not made yet
         }
@@ -263,12 +298,94 @@ abstract public class AbstractProxyManager<E extends NamedBean> implements Manag
      * @return the index of the matching manager
      */
     protected int matchTentative(String systemname) {
-        for (int i = 0; i < nMgrs(); i++) {
-            if (systemname.startsWith((getMgr(i)).getSystemPrefix() + (getMgr(i)).typeLetter())) {
-                return i;
+        // make sure internal present
+        initInternal();
+
+        PrefixTable table = getPrefixTable();
+        int index = table.lookup(systemname);
+        if (index >= 0 && !isPrefixOf(index, systemname)) {
+            // a manager's prefix has changed since the table was built
+            prefixTable = null;
+            index = getPrefixTable().lookup(systemname);
+        }
+        return index;
+    }
+
+    /**
+     * Find the manager owning a system name without creating the internal
+     * manager.
+     *
+     * @param systemName the system name
+     * @return the owning manager or null if no manager claims the name
+     */
+    private Manager<E> routeSystemName(String systemName) {
+        int index = getPrefixTable().lookup(systemName);
+        if (index >= 0 && !isPrefixOf(index, systemName)) {
+            prefixTable = null;
+            index = getPrefixTable().lookup(systemName);
+        }
+        return index >= 0 ? mgrs.get(index) : null;
+    }
+
+    private boolean isPrefixOf(int index, String systemName) {
+        if (index >= mgrs.size()) {
+            return false;
+        }
+        Manager<E> m = mgrs.get(index);
+        return systemName.startsWith(m.getSystemPrefix() + m.typeLetter());
+    }
+
+    private PrefixTable getPrefixTable() {
+        PrefixTable table = prefixTable;
+        if (table == null) {
+            table = new PrefixTable(mgrs);
+            prefixTable = table;
+        }
+        return table;
+    }
+
+    private volatile PrefixTable prefixTable = null;
+
+    /**
+     * Map from system prefix plus type letter to the index of the manager
+     * using it. A name is resolved by looking up its leading characters at
+     * each prefix length in use; where more than one manager matches, the one
+     * added first wins, as it did when the managers were searched in order.
+     */
+    private static final class PrefixTable {
+
+        private final HashMap<String, Integer> indexByPrefix = new HashMap<>();
+        private final int[] lengths;
+
+        PrefixTable(List<? extends Manager<?>> managers) {
+            TreeSet<Integer> found = new TreeSet<>();
+            for (int i = 0; i < managers.size(); i++) {
+                Manager<?> m = managers.get(i);
+                String prefix = m.getSystemPrefix() + m.typeLetter();
+                if (indexByPrefix.putIfAbsent(prefix, i) == null) {
+                    found.add(prefix.length());
+                }
+            }
+            lengths = new int[found.size()];
+            int i = 0;
+            for (int length : found) {
+                lengths[i++] = length;
+            }
+        }
+
+        int lookup(String systemName) {
+            int result = -1;
+            for (int length : lengths) {
+                if (length > systemName.length()) {
+                    break;
+                }
+                Integer index = indexByPrefix.get(systemName.substring(0, length));
+                if (index != null && (result < 0 || index < result)) {
+                    result = index;
+                }
             }
+            return result;
         }
-        return -1;
     }
 
     /**
@@ -411,44 +528,84 @@ abstract public class AbstractProxyManager<E extends NamedBean> implements Manag
     @Override
     @Nonnull
     public String[] getSystemNameArray() {
-        List<E> list = getNamedBeanList();
-        String[] retval = new String[list.size()];
-        int i = 0;
-        for (E e : list) retval[i++] = e.getSystemName();
-        return retval;
+        List<String> list = getSystemNameList();
+        return list.toArray(new String[list.size()]);
     }
 
     /**
      * Get a list of all system names.
      * <p>
-     * The list is ordered by system name
+     * The list is ordered by system name. It is unmodifiable, and is shared
+     * with other callers until one of the managers changes length.
      *
      * @return a list, possibly empty, of system names
      */
     @Override
     @Nonnull
     public List<String> getSystemNameList() {
-        List<E> list = getNamedBeanList();
-        ArrayList<String> retval = new ArrayList<>(list.size());
-        for (E e : list) retval.add(e.getSystemName());
-        return retval;
+        return getMergedLists().systemNames;
     }
 
     /**
-     * Get a list of all system names.
+     * Get a list of all beans in all managers.
      * <p>
-     * The list is ordered by system name
+     * The list is ordered by system name. It is unmodifiable, and is shared
+     * with other callers until one of the managers changes length.
      *
-     * @return a list, possibly empty, of system names
+     * @return a list, possibly empty, of beans
      */
     @Override
     @Nonnull
     public List<E> getNamedBeanList() {
-        TreeSet<E> ts = new TreeSet<>(new NamedBeanComparator());
-        mgrs.stream().forEach((m) -> {
-            ts.addAll(m.getNamedBeanList());
-        });
-        return new ArrayList<>(ts);
+        return getMergedLists().beans;
+    }
+
+    private MergedLists<E> getMergedLists() {
+        MergedLists<E> merged = mergedLists;
+        int current = version.get();
+        if (merged == null || merged.version != current) {
+            TreeSet<E> ts = new TreeSet<>(new NamedBeanComparator());
+            mgrs.stream().forEach((m) -> {
+                ts.addAll(m.getNamedBeanList());
+            });
+            merged = new MergedLists<>(current, new ArrayList<>(ts));
+            mergedLists = merged;
+        }
+        return merged;
+    }
+
+    /**
+     * Discard the merged bean list, so that it is rebuilt on next use.
+     */
+    protected void beansChanged() {
+        version.incrementAndGet();
+        mergedLists = null;
+    }
+
+    // incremented on every change, so a merge that raced with a change is
+    // tagged as out of date and not reused
+    private final AtomicInteger version = new AtomicInteger(0);
+    private volatile MergedLists<E> mergedLists = null;
+
+    private final PropertyChangeListener lengthListener = (PropertyChangeEvent e) -> {
+        if ("length".equals(e.getPropertyName())) {
+            beansChanged();
+        }
+    };
+
+    private static final class MergedLists<E extends NamedBean> {
+
+        final int version;
+        final List<E> beans;
+        final List<String> systemNames;
+
+        MergedLists(int version, List<E> beans) {
+            this.version = version;
+            this.beans = Collections.unmodifiableList(beans);
+            ArrayList<String> names = new ArrayList<>(beans.size());
+            for (E e : beans) names.add(e.getSystemName());
+            this.systemNames = Collections.unmodifiableList(names);
+        }
     }
 
     // initialize logging
@@ -1,6 +1,5 @@
 package jmri.managers;
 
-import java.util.Enumeration;
 import jmri.JmriException;
 import jmri.Manager;
 import jmri.Sensor;
@@ -252,9 +251,7 @@ public abstract class AbstractSensorManager extends AbstractManager<Sensor> impl
             return;
         }
         sensorDebounceGoingActive = timer;
-        Enumeration<String> en = _tsys.keys();
-        while (en.hasMoreElements()) {
-            Sensor sen = _tsys.get(en.nextElement());
+        for (Sensor sen : _tsys.values()) {
             if (sen.getUseDefaultTimerSettings()) {
                 sen.setSensorDebounceGoingActiveTimer(timer);
             }
@@ -267,9 +264,7 @@ public abstract class AbstractSensorManager extends AbstractManager<Sensor> impl
             return;
         }
         sensorDebounceGoingInActive = timer;
-        Enumeration<String> en = _tsys.keys();
-        while (en.hasMoreElements()) {
-            Sensor sen = _tsys.get(en.nextElement());
+        for (Sensor sen : _tsys.values()) {
             if (sen.getUseDefaultTimerSettings()) {
                 sen.setSensorDebounceGoingInActiveTimer(timer);
             }
@@ -0,0 +1,194 @@
+package jmri.server.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import javax.annotation.Nonnull;
+import jmri.InstanceManagerAutoDefault;
+import jmri.NamedBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listens to named beans for the JSON socket services of all clients.
+ * <p>
+ * There is one listener on a bean, however many clients watch it. When the
+ * bean changes, its JSON message is made once for each locale in use by the
+ * clients, and the same serialized message is sent to every client.
+ *
+ * @see JsonConnection#sendMessage(JsonNode, String)
+ */
+public class JsonBeanHub implements InstanceManagerAutoDefault {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    // topics by bean, then by JSON type
+    private final Map<NamedBean, Map<String, Topic>> topics = new ConcurrentHashMap<>();
+
+    /**
+     * Send the JSON message of a bean to a service whenever the bean changes.
+     * Subscribing a service to a bean more than once has no effect. If the
+     * message can't be sent, the service is unsubscribed.
+     *
+     * @param bean       the bean
+     * @param type       the JSON type of the bean
+     * @param subscriber the service, its HTTP service makes the message
+     * @param properties the properties that change the message of the bean; if
+     *                   empty, every property change is sent
+     */
+    public void subscribe(@Nonnull NamedBean bean, @Nonnull String type, @Nonnull JsonSocketService<?> subscriber, String... properties) {
+        synchronized (this.topics) {
+            Topic topic = this.topics.computeIfAbsent(bean, (b) -> new ConcurrentHashMap<>()).get(type);
+            if (topic == null) {
+                topic = new Topic(bean, type, properties);
+                this.topics.get(bean).put(type, topic);
+                bean.addPropertyChangeListener(topic);
+            }
+            topic.subscribers.add(subscriber);
+        }
+    }
+
+    /**
+     * Stop sending the JSON message of a bean to a service.
+     *
+     * @param bean       the bean
+     * @param type       the JSON type of the bean
+     * @param subscriber the service
+     */
+    public void unsubscribe(@Nonnull NamedBean bean, @Nonnull String type, @Nonnull JsonSocketService<?> subscriber) {
+        synchronized (this.topics) {
+            Map<String, Topic> types = this.topics.get(bean);
+            Topic topic = (types != null) ? types.get(type) : null;
+            if (topic != null && topic.subscribers.remove(subscriber) && topic.subscribers.isEmpty()) {
+                bean.removePropertyChangeListener(topic);
+                types.remove(type);
+                if (types.isEmpty()) {
+                    this.topics.remove(bean);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop sending the JSON message of every bean to a service.
+     *
+     * @param subscriber the service
+     */
+    public void unsubscribe(@Nonnull JsonSocketService<?> subscriber) {
+        synchronized (this.topics) {
+            // find the topics first, unsubscribing changes the topics
+            Topic[] subscribed = this.topics.values().stream().flatMap((types) -> types.values().stream())
+                    .filter((topic) -> topic.subscribers.contains(subscriber)).toArray(Topic[]::new);
+            for (Topic topic : subscribed) {
+                this.unsubscribe(topic.bean, topic.type, subscriber);
+            }
+        }
+    }
+
+    /**
+     * Check if a service is sent the JSON message of a bean.
+     *
+     * @param bean       the bean
+     * @param type       the JSON type of the bean
+     * @param subscriber the service
+     * @return true if subscribed
+     */
+    public boolean isSubscribed(@Nonnull NamedBean bean, @Nonnull String type, @Nonnull JsonSocketService<?> subscriber) {
+        Map<String, Topic> types = this.topics.get(bean);
+        Topic topic = (types != null) ? types.get(type) : null;
+        return topic != null && topic.subscribers.contains(subscriber);
+    }
+
+    /**
+     * Get the number of services sent the JSON message of a bean.
+     *
+     * @param bean the bean
+     * @param type the JSON type of the bean
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount(@Nonnull NamedBean bean, @Nonnull String type) {
+        Map<String, Topic> types = this.topics.get(bean);
+        Topic topic = (types != null) ? types.get(type) : null;
+        return (topic != null) ? topic.subscribers.size() : 0;
+    }
+
+    /**
+     * The services watching a bean, and the one listener on the bean.
+     */
+    private class Topic implements PropertyChangeListener {
+
+        private final NamedBean bean;
+        private final String type;
+        private final Set<String> properties;
+        private final Set<JsonSocketService<?>> subscribers = new CopyOnWriteArraySet<>();
+
+        Topic(NamedBean bean, String type, String... properties) {
+            this.bean = bean;
+            this.type = type;
+            this.properties = new HashSet<>(Arrays.asList(properties));
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            if (!this.properties.isEmpty() && !this.properties.contains(evt.getPropertyName())) {
+                return;
+            }
+            log.debug("Sending {} '{}' ('{}'=>'{}') to {} clients", this.type, this.bean.getSystemName(),
+                    evt.getOldValue(), evt.getNewValue(), this.subscribers.size());
+            // the message for each locale, made once
+            HashMap<Locale, Message> messages = new HashMap<>();
+            for (JsonSocketService<?> subscriber : this.subscribers) {
+                Message message = messages.get(subscriber.getLocale());
+                if (message == null) {
+                    message = this.getMessage(subscriber);
+                    messages.put(subscriber.getLocale(), message);
+                }
+                try {
+                    subscriber.getConnection().sendMessage(message.node, message.text);
+                } catch (IOException ex) {
+                    // if we get an error, de-register
+                    unsubscribe(this.bean, this.type, subscriber);
+                }
+            }
+        }
+
+        private Message getMessage(JsonSocketService<?> subscriber) {
+            JsonNode node;
+            try {
+                node = subscriber.getHttpService().doGet(this.type, this.bean.getSystemName(), subscriber.getLocale());
+            } catch (JsonException ex) {
+                node = ex.getJsonMessage();
+            }
+            try {
+                return new Message(node, mapper.writeValueAsString(node));
+            } catch (JsonProcessingException ex) {
+                // serialized by each connection instead
+                log.error("Unable to serialize {} '{}'", this.type, this.bean.getSystemName(), ex);
+                return new Message(node, null);
+            }
+        }
+    }
+
+    private static class Message {
+
+        private final JsonNode node;
+        private final String text;
+
+        Message(JsonNode node, String text) {
+            this.node = node;
+            this.text = text;
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(JsonBeanHub.class);
+}
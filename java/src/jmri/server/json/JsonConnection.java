@@ -42,6 +42,40 @@ public class JsonConnection extends JmriConnection {
      * @throws java.io.IOException if unable to send the message
      */
     public void sendMessage(JsonNode message) throws IOException {
-        super.sendMessage(this.getObjectMapper().writeValueAsString(message));
+        super.sendMessage(this.getObjectMapper().writeValueAsString(message), this.getKey(message));
+    }
+
+    /**
+     * Send a JsonNode that has already been serialized, so a message sent to
+     * many connections is only serialized once.
+     *
+     * @param message    the object or array to send as a message
+     * @param serialized the message as a String, or null to serialize the
+     *                   message now
+     * @throws java.io.IOException if unable to send the message
+     */
+    public void sendMessage(JsonNode message, String serialized) throws IOException {
+        if (serialized == null) {
+            this.sendMessage(message);
+        } else {
+            super.sendMessage(serialized, this.getKey(message));
+        }
+    }
+
+    /**
+     * Get the key of a message, so a message with the state of an object
+     * replaces an earlier message with the state of the same object that
+     * hasn't been sent yet.
+     *
+     * @param message the message
+     * @return the type and name of the object, or null if the message is not
+     *         the state of a named object
+     */
+    protected String getKey(JsonNode message) {
+        JsonNode name = message.path(JSON.DATA).path(JSON.NAME);
+        if (message.path(JSON.TYPE).isTextual() && name.isValueNode()) {
+            return message.path(JSON.TYPE).asText() + ":" + name.asText(); // NOI18N
+        }
+        return null;
     }
 }
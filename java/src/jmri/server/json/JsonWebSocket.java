@@ -43,6 +43,7 @@ public class JsonWebSocket {
                     } catch (IOException e) {
                         log.warn("Unable to send goodbye while closing socket.\nError was {}", e.getMessage());
                     }
+                    JsonWebSocket.this.getConnection().flush();
                     JsonWebSocket.this.getConnection().getSession().close();
                     return true;
                 }
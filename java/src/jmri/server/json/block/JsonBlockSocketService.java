@@ -5,15 +5,13 @@ import static jmri.server.json.JSON.PUT;
 import static jmri.server.json.block.JsonBlock.BLOCK;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.Block;
 import jmri.BlockManager;
 import jmri.InstanceManager;
 import jmri.JmriException;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
@@ -25,8 +23,6 @@ import jmri.server.json.JsonSocketService;
  */
 public class JsonBlockSocketService extends JsonSocketService<JsonBlockHttpService> {
 
-    private final HashMap<String, BlockListener> blocks = new HashMap<>();
-
     public JsonBlockSocketService(JsonConnection connection) {
         super(connection, new JsonBlockHttpService(connection.getObjectMapper()));
     }
@@ -40,13 +36,9 @@ public class JsonBlockSocketService extends JsonSocketService<JsonBlockHttpServi
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.blocks.containsKey(name)) {
-            Block block = InstanceManager.getDefault(BlockManager.class).getBlock(name);
-            if (block != null) {
-                BlockListener listener = new BlockListener(block);
-                block.addPropertyChangeListener(listener);
-                this.blocks.put(name, listener);
-            }
+        Block block = InstanceManager.getDefault(BlockManager.class).getBlock(name);
+        if (block != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(block, BLOCK, this, "value");
         }
     }
 
@@ -58,36 +50,6 @@ public class JsonBlockSocketService extends JsonSocketService<JsonBlockHttpServi
 
     @Override
     public void onClose() {
-        blocks.values().stream().forEach((block) -> {
-            block.block.removePropertyChangeListener(block);
-        });
-        blocks.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
     }
-
-    private class BlockListener implements PropertyChangeListener {
-
-        protected final Block block;
-
-        public BlockListener(Block block) {
-            this.block = block;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent e) {
-            if (e.getPropertyName().equals("value")) {
-                try {
-                    try {
-                        connection.sendMessage(service.doGet(BLOCK, this.block.getSystemName(), getLocale()));
-                    } catch (JsonException ex) {
-                        connection.sendMessage(ex.getJsonMessage());
-                    }
-                } catch (IOException ex) {
-                    // if we get an error, de-register
-                    block.removePropertyChangeListener(this);
-                    blocks.remove(this.block.getSystemName());
-                }
-            }
-        }
-    }
-
 }
@@ -5,15 +5,13 @@ import static jmri.server.json.JSON.PUT;
 import static jmri.server.json.layoutblock.JsonLayoutBlock.LAYOUTBLOCK;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.InstanceManager;
 import jmri.JmriException;
 import jmri.jmrit.display.layoutEditor.LayoutBlock;
 import jmri.jmrit.display.layoutEditor.LayoutBlockManager;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
@@ -27,7 +25,6 @@ import org.slf4j.LoggerFactory;
  */
 public class JsonLayoutBlockSocketService extends JsonSocketService<JsonLayoutBlockHttpService> {
 
-    private final HashMap<String, LayoutBlockListener> layoutBlocks = new HashMap<>();
     private static final Logger log = LoggerFactory.getLogger(JsonLayoutBlockServiceFactory.class);
 
     public JsonLayoutBlockSocketService(JsonConnection connection) {
@@ -43,13 +40,9 @@ public class JsonLayoutBlockSocketService extends JsonSocketService<JsonLayoutBl
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.layoutBlocks.containsKey(name)) {
-            LayoutBlock layoutblock = InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(name);
-            if (layoutblock != null) {
-                LayoutBlockListener listener = new LayoutBlockListener(layoutblock);
-                layoutblock.addPropertyChangeListener(listener);
-                this.layoutBlocks.put(name, listener);
-            }
+        LayoutBlock layoutblock = InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(name);
+        if (layoutblock != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(layoutblock, LAYOUTBLOCK, this, "redraw");
         }
     }
 
@@ -61,38 +54,6 @@ public class JsonLayoutBlockSocketService extends JsonSocketService<JsonLayoutBl
 
     @Override
     public void onClose() {
-        layoutBlocks.values().stream().forEach((layoutblock) -> {
-            layoutblock.layoutBlock.removePropertyChangeListener(layoutblock);
-        });
-        layoutBlocks.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
     }
-
-    private class LayoutBlockListener implements PropertyChangeListener {
-
-        protected final LayoutBlock layoutBlock;
-
-        public LayoutBlockListener(LayoutBlock layoutblock) {
-            this.layoutBlock = layoutblock;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent e) {
-            if (e.getPropertyName().equals("redraw")) {
-                log.debug("{} property '{}' changed from '{}' to '{}'", this.layoutBlock.getUserName(),
-                        e.getPropertyName(), e.getOldValue(), e.getNewValue());
-                try {
-                    try {
-                        connection.sendMessage(service.doGet(LAYOUTBLOCK, this.layoutBlock.getSystemName(), getLocale()));
-                    } catch (JsonException ex) {
-                        connection.sendMessage(ex.getJsonMessage());
-                    }
-                } catch (IOException ex) {
-                    // if we get an error, de-register
-                    layoutBlock.removePropertyChangeListener(this);
-                    layoutBlocks.remove(this.layoutBlock.getSystemName());
-                }
-            }
-        }
-    }
-
 }
@@ -5,15 +5,13 @@ import static jmri.server.json.JSON.PUT;
 import static jmri.server.json.light.JsonLight.LIGHT;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.InstanceManager;
 import jmri.JmriException;
 import jmri.Light;
 import jmri.LightManager;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
@@ -24,8 +22,6 @@ import jmri.server.json.JsonSocketService;
  */
 public class JsonLightSocketService extends JsonSocketService<JsonLightHttpService> {
 
-    protected final HashMap<String, LightListener> lights = new HashMap<>();
-
     public JsonLightSocketService(JsonConnection connection) {
         super(connection, new JsonLightHttpService(connection.getObjectMapper()));
     }
@@ -39,13 +35,9 @@ public class JsonLightSocketService extends JsonSocketService<JsonLightHttpServi
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.lights.containsKey(name)) {
-            Light light = InstanceManager.getDefault(LightManager.class).getLight(name);
-            if (light != null) {
-                LightListener listener = new LightListener(light);
-                light.addPropertyChangeListener(listener);
-                this.lights.put(name, listener);
-            }
+        Light light = InstanceManager.getDefault(LightManager.class).getLight(name);
+        if (light != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(light, LIGHT, this, "KnownState");
         }
     }
 
@@ -57,37 +49,6 @@ public class JsonLightSocketService extends JsonSocketService<JsonLightHttpServi
 
     @Override
     public void onClose() {
-        lights.values().stream().forEach((light) -> {
-            light.light.removePropertyChangeListener(light);
-        });
-        lights.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
     }
-
-    private class LightListener implements PropertyChangeListener {
-
-        protected final Light light;
-
-        public LightListener(Light light) {
-            this.light = light;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent e) {
-            // If the Commanded State changes, show transition state as "<inconsistent>"
-            if (e.getPropertyName().equals("KnownState")) {
-                try {
-                    try {
-                        connection.sendMessage(service.doGet(LIGHT, this.light.getSystemName(), getLocale()));
-                    } catch (JsonException ex) {
-                        connection.sendMessage(ex.getJsonMessage());
-                    }
-                } catch (IOException ex) {
-                    // if we get an error, de-register
-                    light.removePropertyChangeListener(this);
-                    lights.remove(this.light.getSystemName());
-                }
-            }
-        }
-    }
-
 }
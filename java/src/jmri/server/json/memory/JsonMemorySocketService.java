@@ -5,15 +5,13 @@ import static jmri.server.json.JSON.PUT;
 import static jmri.server.json.memory.JsonMemory.MEMORY;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.InstanceManager;
 import jmri.JmriException;
 import jmri.Memory;
 import jmri.MemoryManager;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
@@ -24,8 +22,6 @@ import jmri.server.json.JsonSocketService;
  */
 public class JsonMemorySocketService extends JsonSocketService<JsonMemoryHttpService> {
 
-    private final HashMap<String, MemoryListener> memories = new HashMap<>();
-
     public JsonMemorySocketService(JsonConnection connection) {
         super(connection,new JsonMemoryHttpService(connection.getObjectMapper()));
     }
@@ -39,13 +35,9 @@ public class JsonMemorySocketService extends JsonSocketService<JsonMemoryHttpSer
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.memories.containsKey(name)) {
-            Memory memory = InstanceManager.getDefault(MemoryManager.class).getMemory(name);
-            if (memory != null) {
-                MemoryListener listener = new MemoryListener(memory);
-                memory.addPropertyChangeListener(listener);
-                this.memories.put(name, listener);
-            }
+        Memory memory = InstanceManager.getDefault(MemoryManager.class).getMemory(name);
+        if (memory != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(memory, MEMORY, this, "value");
         }
     }
 
@@ -57,37 +49,6 @@ public class JsonMemorySocketService extends JsonSocketService<JsonMemoryHttpSer
 
     @Override
     public void onClose() {
-        memories.values().stream().forEach((memory) -> {
-            memory.memory.removePropertyChangeListener(memory);
-        });
-        memories.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
     }
-
-    private class MemoryListener implements PropertyChangeListener {
-
-        protected final Memory memory;
-
-        public MemoryListener(Memory memory) {
-            this.memory = memory;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent e) {
-            // If the Commanded State changes, show transition state as "<inconsistent>"
-            if (e.getPropertyName().equals("value")) {
-                try {
-                    try {
-                        connection.sendMessage(service.doGet(MEMORY, this.memory.getSystemName(), getLocale()));
-                    } catch (JsonException ex) {
-                        connection.sendMessage(ex.getJsonMessage());
-                    }
-                } catch (IOException ex) {
-                    // if we get an error, de-register
-                    memory.removePropertyChangeListener(this);
-                    memories.remove(this.memory.getSystemName());
-                }
-            }
-        }
-    }
-
 }
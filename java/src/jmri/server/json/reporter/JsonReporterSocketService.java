@@ -5,15 +5,13 @@ import static jmri.server.json.JSON.PUT;
 import static jmri.server.json.reporter.JsonReporter.REPORTER;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.InstanceManager;
 import jmri.JmriException;
 import jmri.Reporter;
 import jmri.ReporterManager;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
@@ -24,8 +22,6 @@ import jmri.server.json.JsonSocketService;
  */
 public class JsonReporterSocketService extends JsonSocketService<JsonReporterHttpService> {
 
-    private final HashMap<String, ReporterListener> reporters = new HashMap<>();
-
     public JsonReporterSocketService(JsonConnection connection) {
         super(connection, new JsonReporterHttpService(connection.getObjectMapper()));
     }
@@ -39,13 +35,9 @@ public class JsonReporterSocketService extends JsonSocketService<JsonReporterHtt
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.reporters.containsKey(name)) {
-            Reporter reporter = InstanceManager.getDefault(ReporterManager.class).getReporter(name);
-            if (reporter != null) {
-                ReporterListener listener = new ReporterListener(reporter);
-                reporter.addPropertyChangeListener(listener);
-                this.reporters.put(name, listener);
-            }
+        Reporter reporter = InstanceManager.getDefault(ReporterManager.class).getReporter(name);
+        if (reporter != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(reporter, REPORTER, this, "currentReport");
         }
     }
 
@@ -57,37 +49,6 @@ public class JsonReporterSocketService extends JsonSocketService<JsonReporterHtt
 
     @Override
     public void onClose() {
-        reporters.values().stream().forEach((reporter) -> {
-            reporter.reporter.removePropertyChangeListener(reporter);
-        });
-        reporters.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
     }
-
-    private class ReporterListener implements PropertyChangeListener {
-
-        protected final Reporter reporter;
-
-        public ReporterListener(Reporter reporter) {
-            this.reporter = reporter;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent e) {
-            // If the Commanded State changes, show transition state as "<inconsistent>"
-            if (e.getPropertyName().equals("currentReport")) {
-                try {
-                    try {
-                        connection.sendMessage(service.doGet(REPORTER, this.reporter.getSystemName(), getLocale()));
-                    } catch (JsonException ex) {
-                        connection.sendMessage(ex.getJsonMessage());
-                    }
-                } catch (IOException ex) {
-                    // if we get an error, de-register
-                    reporter.removePropertyChangeListener(this);
-                    reporters.remove(this.reporter.getSystemName());
-                }
-            }
-        }
-    }
-
 }
@@ -7,13 +7,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.InstanceManager;
 import jmri.JmriException;
 import jmri.Sensor;
 import jmri.SensorManager;
 import jmri.server.json.JSON;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
@@ -27,11 +27,9 @@ import org.slf4j.LoggerFactory;
  */
 public class JsonSensorSocketService extends JsonSocketService<JsonSensorHttpService> {
 
-    private final HashMap<String, SensorListener> sensorListeners = new HashMap<>();
     private final SensorsListener sensorsListener = new SensorsListener();
     private final static Logger log = LoggerFactory.getLogger(JsonSensorSocketService.class);
 
-
     public JsonSensorSocketService(JsonConnection connection) {
         super(connection, new JsonSensorHttpService(connection.getObjectMapper()));
     }
@@ -45,13 +43,9 @@ public class JsonSensorSocketService extends JsonSocketService<JsonSensorHttpSer
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.sensorListeners.containsKey(name)) {
-            Sensor sensor = InstanceManager.getDefault(SensorManager.class).getSensor(name);
-            if (sensor != null) {
-                SensorListener listener = new SensorListener(sensor);
-                sensor.addPropertyChangeListener(listener);
-                this.sensorListeners.put(name, listener);
-            }
+        Sensor sensor = InstanceManager.getDefault(SensorManager.class).getSensor(name);
+        if (sensor != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(sensor, SENSOR, this);
         }
     }
 
@@ -65,52 +59,21 @@ public class JsonSensorSocketService extends JsonSocketService<JsonSensorHttpSer
     }
 
     private void addListenersToChildren() {
-        InstanceManager.getDefault(SensorManager.class).getSystemNameList().stream().forEach((sn) -> { //add listeners to each child (if not already)
-            if (!sensorListeners.containsKey(sn)) {
-                log.debug("adding SensorListener for Sensor {}", sn);
-                Sensor s = InstanceManager.getDefault(SensorManager.class).getSensor(sn);
-                if (s != null) {
-                    sensorListeners.put(sn, new SensorListener(s));
-                    s.addPropertyChangeListener(this.sensorListeners.get(sn));
-                }
+        JsonBeanHub hub = InstanceManager.getDefault(JsonBeanHub.class);
+        InstanceManager.getDefault(SensorManager.class).getSystemNameList().stream().forEach((sn) -> { //subscribe to each child (if not already)
+            Sensor sensor = InstanceManager.getDefault(SensorManager.class).getSensor(sn);
+            if (sensor != null) {
+                hub.subscribe(sensor, SENSOR, this);
             }
         });
     }
 
     @Override
     public void onClose() {
-        sensorListeners.values().stream().forEach((listener) -> {
-            listener.sensor.removePropertyChangeListener(listener);
-        });
-        sensorListeners.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
         InstanceManager.getDefault(SensorManager.class).removePropertyChangeListener(sensorsListener);
     }
 
-    private class SensorListener implements PropertyChangeListener {
-
-        protected final Sensor sensor;
-
-        public SensorListener(Sensor sensor) {
-            this.sensor = sensor;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent evt) {
-            log.debug("in SensorListener for '{}' '{}' ('{}'=>'{}')", this.sensor.getSystemName(), evt.getPropertyName(), evt.getOldValue(), evt.getNewValue());
-            try {
-                try {
-                    connection.sendMessage(service.doGet(SENSOR, this.sensor.getSystemName(), getLocale()));
-                } catch (JsonException ex) {
-                    connection.sendMessage(ex.getJsonMessage());
-                }
-            } catch (IOException ex) {
-                // if we get an error, de-register
-                sensor.removePropertyChangeListener(this);
-                sensorListeners.remove(this.sensor.getSystemName());
-            }
-        }
-    }
-
     private class SensorsListener implements PropertyChangeListener {
         @Override
         public void propertyChange(PropertyChangeEvent evt) {
@@ -5,15 +5,13 @@ import static jmri.server.json.JSON.PUT;
 import static jmri.server.json.signalHead.JsonSignalHead.SIGNAL_HEAD;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.InstanceManager;
 import jmri.JmriException;
 import jmri.SignalHead;
 import jmri.SignalHeadManager;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
@@ -24,8 +22,6 @@ import jmri.server.json.JsonSocketService;
  */
 public class JsonSignalHeadSocketService extends JsonSocketService<JsonSignalHeadHttpService> {
 
-    private final HashMap<String, SignalHeadListener> signalHeads = new HashMap<>();
-
     public JsonSignalHeadSocketService(JsonConnection connection) {
         super(connection, new JsonSignalHeadHttpService(connection.getObjectMapper()));
     }
@@ -39,13 +35,9 @@ public class JsonSignalHeadSocketService extends JsonSocketService<JsonSignalHea
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.signalHeads.containsKey(name)) {
-            SignalHead signalHead = InstanceManager.getDefault(SignalHeadManager.class).getSignalHead(name);
-            if (signalHead != null) {
-                SignalHeadListener listener = new SignalHeadListener(signalHead);
-                signalHead.addPropertyChangeListener(listener);
-                this.signalHeads.put(name, listener);
-            }
+        SignalHead signalHead = InstanceManager.getDefault(SignalHeadManager.class).getSignalHead(name);
+        if (signalHead != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(signalHead, SIGNAL_HEAD, this, "Appearance", "Held");
         }
     }
 
@@ -57,36 +49,6 @@ public class JsonSignalHeadSocketService extends JsonSocketService<JsonSignalHea
 
     @Override
     public void onClose() {
-        signalHeads.values().stream().forEach((reporter) -> {
-            reporter.signalHead.removePropertyChangeListener(reporter);
-        });
-        signalHeads.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
     }
-
-    private class SignalHeadListener implements PropertyChangeListener {
-
-        protected final SignalHead signalHead;
-
-        public SignalHeadListener(SignalHead signalHead) {
-            this.signalHead = signalHead;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent e) {
-            if (e.getPropertyName().equals("Appearance") || e.getPropertyName().equals("Held")) {
-                try {
-                    try {
-                        connection.sendMessage(service.doGet(SIGNAL_HEAD, this.signalHead.getSystemName(), getLocale()));
-                    } catch (JsonException ex) {
-                        connection.sendMessage(ex.getJsonMessage());
-                    }
-                } catch (IOException ie) {
-                    // if we get an error, de-register
-                    signalHead.removePropertyChangeListener(this);
-                    signalHeads.remove(this.signalHead.getSystemName());
-                }
-            }
-        }
-    }
-
 }
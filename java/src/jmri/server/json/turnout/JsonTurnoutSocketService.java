@@ -9,30 +9,27 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import jmri.InstanceManager;
 import jmri.JmriException;
 import jmri.Turnout;
 import jmri.TurnoutManager;
+import jmri.server.json.JsonBeanHub;
 import jmri.server.json.JsonConnection;
 import jmri.server.json.JsonException;
 import jmri.server.json.JsonSocketService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
 /**
  *
  * @author Randall Wood
  */
 public class JsonTurnoutSocketService extends JsonSocketService<JsonTurnoutHttpService> {
 
-    private final HashMap<String, TurnoutListener> turnoutListeners = new HashMap<>();
     private final TurnoutsListener turnoutsListener = new TurnoutsListener();
     private final static Logger log = LoggerFactory.getLogger(JsonTurnoutSocketService.class);
 
-
     public JsonTurnoutSocketService(JsonConnection connection) {
         super(connection, new JsonTurnoutHttpService(connection.getObjectMapper()));
     }
@@ -46,13 +43,9 @@ public class JsonTurnoutSocketService extends JsonSocketService<JsonTurnoutHttpS
         } else {
             this.connection.sendMessage(this.service.doPost(type, name, data, locale));
         }
-        if (!this.turnoutListeners.containsKey(name)) {
-            Turnout turnout = InstanceManager.getDefault(TurnoutManager.class).getTurnout(name);
-            TurnoutListener listener = new TurnoutListener(turnout);
-            if (turnout != null) {
-                turnout.addPropertyChangeListener(listener);
-                this.turnoutListeners.put(name, listener);
-            }
+        Turnout turnout = InstanceManager.getDefault(TurnoutManager.class).getTurnout(name);
+        if (turnout != null) {
+            InstanceManager.getDefault(JsonBeanHub.class).subscribe(turnout, TURNOUT, this, "KnownState", "inverted", "UserName", "Comment");
         }
     }
 
@@ -68,57 +61,21 @@ public class JsonTurnoutSocketService extends JsonSocketService<JsonTurnoutHttpS
     }
 
     private void addListenersToChildren() {
-        InstanceManager.getDefault(TurnoutManager.class).getSystemNameList().stream().forEach((tn) -> { //add listeners to each child (if not already)
-            if (!turnoutListeners.containsKey(tn)) {
-                log.debug("adding TurnoutListener for Turnout {}", tn);
-                Turnout t = InstanceManager.getDefault(TurnoutManager.class).getTurnout(tn);
-                if (t != null) {
-                    turnoutListeners.put(tn, new TurnoutListener(t));
-                    t.addPropertyChangeListener(this.turnoutListeners.get(tn));
-                }
+        JsonBeanHub hub = InstanceManager.getDefault(JsonBeanHub.class);
+        InstanceManager.getDefault(TurnoutManager.class).getSystemNameList().stream().forEach((sn) -> { //subscribe to each child (if not already)
+            Turnout turnout = InstanceManager.getDefault(TurnoutManager.class).getTurnout(sn);
+            if (turnout != null) {
+                hub.subscribe(turnout, TURNOUT, this, "KnownState", "inverted", "UserName", "Comment");
             }
         });
     }
 
-
     @Override
     public void onClose() {
-        turnoutListeners.values().stream().forEach((turnout) -> {
-            turnout.turnout.removePropertyChangeListener(turnout);
-        });
-        turnoutListeners.clear();
+        InstanceManager.getDefault(JsonBeanHub.class).unsubscribe(this);
         InstanceManager.getDefault(TurnoutManager.class).removePropertyChangeListener(turnoutsListener);
     }
 
-    private class TurnoutListener implements PropertyChangeListener {
-
-        protected final Turnout turnout;
-
-        public TurnoutListener(Turnout turnout) {
-            this.turnout = turnout;
-        }
-
-        @Override
-        public void propertyChange(PropertyChangeEvent evt) {
-            log.debug("in TurnoutListener for '{}' '{}' ('{}'=>'{}')", this.turnout.getSystemName(), evt.getPropertyName(), evt.getOldValue(), evt.getNewValue());
-            if (evt.getPropertyName().equals("KnownState")  //only send changes for values which are sent
-                    || evt.getPropertyName().equals("inverted")
-                    || evt.getPropertyName().equals("UserName")
-                    || evt.getPropertyName().equals("Comment")) {
-                try {
-                    try {
-                        connection.sendMessage(service.doGet(TURNOUT, this.turnout.getSystemName(), getLocale()));
-                    } catch (JsonException ex) {
-                        connection.sendMessage(ex.getJsonMessage());
-                    }
-                } catch (IOException ex) {
-                    // if we get an error, de-register
-                    turnout.removePropertyChangeListener(this);
-                    turnoutListeners.remove(this.turnout.getSystemName());
-                }
-            }
-        }
-    }
     private class TurnoutsListener implements PropertyChangeListener {
         @Override
         public void propertyChange(PropertyChangeEvent evt) {
@@ -0,0 +1,170 @@
+package jmri.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run actions on the layout thread in batches.
+ * <p>
+ * A receive thread that calls
+ * {@link ThreadingUtil#runOnLayoutEventually(ThreadingUtil.ThreadAction)} for
+ * every incoming message posts one event per message; during a burst, such as
+ * every sensor reporting at power on, thousands of them can pile up in the
+ * event queue. Actions passed to {@link #dispatch(ThreadingUtil.ThreadAction)}
+ * are instead collected, and a single layout-thread task runs everything
+ * waiting when it gets its turn.
+ * <p>
+ * Actions are always run in the order they were dispatched, so one dispatcher
+ * per connection preserves the order of that connection's traffic. At most
+ * {@link #getMaxBatchSize()} actions run per task; anything left over is run
+ * by a further task, so other events get a chance in between. If
+ * {@link #getMaxLatency()} is non-zero, the task is delayed by up to that many
+ * milliseconds so more actions can join the batch.
+ * <p>
+ * Typical use:
+ * <p>
+ * {@code dispatcher.dispatch(() -> { tc.notify(msg); }); }
+ *
+ * @see ThreadingUtil
+ */
+public class CoalescingDispatcher {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 200;
+
+    private final String name;
+    private final ConcurrentLinkedQueue<ThreadingUtil.ThreadAction> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicLong dispatchedCount = new AtomicLong(0);
+    private final AtomicLong batchCount = new AtomicLong(0);
+    private volatile int maxBatchSize;
+    private volatile int maxLatency;
+
+    /**
+     * Create a dispatcher that runs batches as soon as the layout thread is
+     * free.
+     *
+     * @param name used in log messages, e.g. the connection name
+     */
+    public CoalescingDispatcher(@Nonnull String name) {
+        this(name, DEFAULT_MAX_BATCH_SIZE, 0);
+    }
+
+    /**
+     * @param name         used in log messages, e.g. the connection name
+     * @param maxBatchSize most actions run by one layout-thread task
+     * @param maxLatency   milliseconds to wait for more actions before
+     *                     running a batch; 0 to run as soon as possible
+     */
+    public CoalescingDispatcher(@Nonnull String name, int maxBatchSize, int maxLatency) {
+        this.name = name;
+        setMaxBatchSize(maxBatchSize);
+        setMaxLatency(maxLatency);
+    }
+
+    /**
+     * Queue an action to be run on the layout thread. May be called from any
+     * thread.
+     *
+     * @param ta What to run, usually as a lambda expression
+     */
+    public void dispatch(@Nonnull ThreadingUtil.ThreadAction ta) {
+        pending.add(ta);
+        if (scheduled.compareAndSet(false, true)) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (maxLatency > 0) {
+            ThreadingUtil.runOnLayoutDelayed(this::runBatch, maxLatency);
+        } else {
+            ThreadingUtil.runOnLayoutEventually(this::runBatch);
+        }
+    }
+
+    /**
+     * Run waiting actions; only called on the layout thread.
+     */
+    private void runBatch() {
+        int count = 0;
+        ThreadingUtil.ThreadAction ta;
+        while (count < maxBatchSize && (ta = pending.poll()) != null) {
+            count++;
+            try {
+                ta.run();
+            } catch (RuntimeException e) {
+                log.error("{}: unexpected exception in dispatched action", name, e);
+            }
+        }
+        if (count > 0) {
+            dispatchedCount.addAndGet(count);
+            batchCount.incrementAndGet();
+        }
+        log.trace("{}: ran batch of {}", name, count);
+        scheduled.set(false);
+        // anything added after the last poll, or past the batch limit, needs
+        // another task unless a dispatch call has already scheduled one
+        if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+            ThreadingUtil.runOnLayoutEventually(this::runBatch);
+        }
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @param maxBatchSize most actions run by one layout-thread task; values
+     *                     less than 1 are treated as 1
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public int getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * @param maxLatency milliseconds to wait for more actions before running a
+     *                   batch; 0 to run as soon as possible
+     */
+    public void setMaxLatency(int maxLatency) {
+        this.maxLatency = Math.max(0, maxLatency);
+    }
+
+    /**
+     * @return number of actions waiting to run
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return number of actions run
+     */
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    /**
+     * @return number of layout-thread tasks used to run them
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return number of actions that shared a layout-thread task with an
+     *         earlier one, i.e. the events saved by batching
+     */
+    public long getMergedCount() {
+        return dispatchedCount.get() - batchCount.get();
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(CoalescingDispatcher.class);
+}
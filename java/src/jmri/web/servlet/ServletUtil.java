@@ -145,6 +145,49 @@ public class ServletUtil implements InstanceManagerAutoDefault {
         return now;
     }
 
+    /**
+     * Check if the client already has the current version of a response.
+     *
+     * @param match the If-None-Match header of the request, may be null
+     * @param eTag  the entity tag of the current version
+     * @return true if the If-None-Match header matches the entity tag
+     */
+    public boolean isNotModified(String match, String eTag) {
+        if (match == null) {
+            return false;
+        }
+        for (String tag : match.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) { // NOI18N
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) { // NOI18N
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if the client accepts responses compressed with gzip.
+     *
+     * @param encodings the Accept-Encoding header of the request, may be null
+     * @return true if the Accept-Encoding header includes gzip
+     */
+    public boolean acceptsGzip(String encodings) {
+        if (encodings == null) {
+            return false;
+        }
+        for (String encoding : encodings.split(",")) {
+            String[] parts = encoding.trim().split(";"); // NOI18N
+            if (parts[0].trim().equalsIgnoreCase("gzip") // NOI18N
+                    && !(parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) { // NOI18N
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Write a file to the given response.
      *
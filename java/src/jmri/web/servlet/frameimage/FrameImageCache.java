@@ -0,0 +1,249 @@
+package jmri.web.servlet.frameimage;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Window;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+import jmri.InstanceManagerAutoDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PNG images of frames, shared by all clients of the
+ * {@link JmriJFrameServlet}.
+ * <p>
+ * A frame is only painted again when Swing has repainted part of the frame
+ * since the last image was made, and the image is only encoded again when its
+ * pixels have changed. Each image has an entity tag, so a client that already
+ * has the image can be told it hasn't changed instead of being sent it again.
+ * <p>
+ * Repaints are tracked by replacing the default Swing RepaintManager. If
+ * another RepaintManager is in use, or later replaces it, frames are painted
+ * for every request, but are still only encoded when they change.
+ */
+public class FrameImageCache implements InstanceManagerAutoDefault {
+
+    // favour speed over size, clients poll for images every few seconds
+    private static final float COMPRESSION_QUALITY = 0.75f;
+
+    private final Map<Container, FrameImage> images = Collections.synchronizedMap(new WeakHashMap<>());
+    private final RepaintTracker tracker;
+    private int rendered = 0;
+    private int encoded = 0;
+
+    public FrameImageCache() {
+        RepaintManager current = RepaintManager.currentManager((Component) null);
+        if (current.getClass().equals(RepaintManager.class)) {
+            tracker = new RepaintTracker();
+            RepaintManager.setCurrentManager(tracker);
+        } else {
+            log.debug("Not tracking repaints, {} in use", current.getClass().getName());
+            tracker = null;
+        }
+    }
+
+    /**
+     * Get an image of a frame.
+     *
+     * @param pane the frame's content pane
+     * @return the image
+     * @throws IOException if the image can't be encoded
+     */
+    public FrameImage getImage(Container pane) throws IOException {
+        Window window = SwingUtilities.getWindowAncestor(pane);
+        long generation = (window != null && isTracking(pane)) ? tracker.getGeneration(window) : -1;
+        FrameImage image = images.get(pane);
+        if (isCurrent(image, pane, generation)) {
+            return image;
+        }
+        synchronized (this) {
+            // another request may have made the image
+            image = images.get(pane);
+            if (isCurrent(image, pane, generation)) {
+                return image;
+            }
+            BufferedImage buffer = new BufferedImage(Math.max(1, pane.getWidth()), Math.max(1, pane.getHeight()),
+                    BufferedImage.TYPE_INT_RGB);
+            pane.paint(buffer.createGraphics());
+            rendered++;
+            long hash = hash(((DataBufferInt) buffer.getRaster().getDataBuffer()).getData());
+            if (image != null && image.hash == hash && image.width == pane.getWidth()
+                    && image.height == pane.getHeight()) {
+                // painted the same as before
+                image = new FrameImage(image, generation);
+            } else {
+                image = new FrameImage(encode(buffer), hash, pane.getWidth(), pane.getHeight(), generation);
+                encoded++;
+            }
+            images.put(pane, image);
+            return image;
+        }
+    }
+
+    /**
+     * @return the number of times a frame has been painted
+     */
+    public synchronized int getRendered() {
+        return rendered;
+    }
+
+    /**
+     * @return the number of times an image has been encoded
+     */
+    public synchronized int getEncoded() {
+        return encoded;
+    }
+
+    /**
+     * Check that repaints of a frame are being tracked; a look and feel or a
+     * debugging tool may have replaced the tracker since it was installed.
+     *
+     * @param pane the frame's content pane
+     * @return true if the tracker is still in use
+     */
+    private boolean isTracking(Container pane) {
+        if (tracker == null) {
+            return false;
+        }
+        if (RepaintManager.currentManager(pane) != tracker) {
+            log.debug("Not tracking repaints, {} in use", RepaintManager.currentManager(pane).getClass().getName());
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isCurrent(FrameImage image, Container pane, long generation) {
+        return image != null && generation >= 0 && image.generation == generation
+                && image.width == pane.getWidth() && image.height == pane.getHeight();
+    }
+
+    private static long hash(int[] pixels) {
+        long hash = 0xcbf29ce484222325L;
+        for (int pixel : pixels) {
+            hash = (hash ^ pixel) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next(); // NOI18N
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(COMPRESSION_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * An encoded image of a frame.
+     */
+    public static class FrameImage {
+
+        private final byte[] png;
+        private final long hash;
+        private final int width;
+        private final int height;
+        private final long generation;
+        private final long lastModified;
+
+        private FrameImage(byte[] png, long hash, int width, int height, long generation) {
+            this.png = png;
+            this.hash = hash;
+            this.width = width;
+            this.height = height;
+            this.generation = generation;
+            this.lastModified = System.currentTimeMillis();
+        }
+
+        private FrameImage(FrameImage image, long generation) {
+            this.png = image.png;
+            this.hash = image.hash;
+            this.width = image.width;
+            this.height = image.height;
+            this.generation = generation;
+            this.lastModified = image.lastModified;
+        }
+
+        /**
+         * @return the image as a PNG, not to be modified
+         */
+        public byte[] getPng() {
+            return png;
+        }
+
+        /**
+         * @return the entity tag, which changes when the image changes
+         */
+        public String getETag() {
+            return "\"" + Long.toHexString(hash) + "-" + width + "x" + height + "\""; // NOI18N
+        }
+
+        /**
+         * @return the time the image last changed, in milliseconds
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * Counts the repaints of each window.
+     */
+    private static class RepaintTracker extends RepaintManager {
+
+        private final Map<Window, Long> generations = Collections.synchronizedMap(new WeakHashMap<>());
+
+        long getGeneration(Window window) {
+            Long generation = generations.get(window);
+            return generation != null ? generation : 0;
+        }
+
+        private void repainted(Window window) {
+            if (window != null) {
+                generations.merge(window, 1L, Long::sum);
+            }
+        }
+
+        @Override
+        public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+            repainted(SwingUtilities.getWindowAncestor(c));
+            super.addDirtyRegion(c, x, y, w, h);
+        }
+
+        @Override
+        public void addDirtyRegion(Window window, int x, int y, int w, int h) {
+            repainted(window);
+            super.addDirtyRegion(window, x, y, w, h);
+        }
+
+        @Override
+        public void markCompletelyDirty(JComponent c) {
+            repainted(SwingUtilities.getWindowAncestor(c));
+            super.markCompletelyDirty(c);
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(FrameImageCache.class);
+}
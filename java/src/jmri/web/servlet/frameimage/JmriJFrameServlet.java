@@ -11,8 +11,6 @@ import java.awt.Component;
 import java.awt.Container;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
@@ -25,7 +23,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
-import javax.imageio.ImageIO;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -44,6 +41,7 @@ import jmri.server.json.JsonException;
 import jmri.server.json.util.JsonUtilHttpService;
 import jmri.util.JmriJFrame;
 import jmri.web.server.WebServerPreferences;
+import jmri.web.servlet.ServletUtil;
 import org.openide.util.lookup.ServiceProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -317,24 +315,24 @@ public class JmriJFrameServlet extends HttpServlet {
 
     private void doImage(JmriJFrame frame, HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         Date now = new Date();
-        response.setStatus(HttpServletResponse.SC_OK);
+        FrameImageCache.FrameImage image = InstanceManager.getDefault(FrameImageCache.class).getImage(frame.getContentPane());
         response.setContentType("image/png"); // NOI18N
         response.setDateHeader("Date", now.getTime()); // NOI18N
-        response.setDateHeader("Last-Modified", now.getTime()); // NOI18N
+        response.setDateHeader("Last-Modified", image.getLastModified()); // NOI18N
+        response.setHeader("ETag", image.getETag()); // NOI18N
+        // clients must check if the image has changed every time
         response.setHeader("Cache-Control", "no-cache"); // NOI18N
         response.setHeader("Connection", "Keep-Alive"); // NOI18N
         response.setHeader("Keep-Alive", "timeout=5, max=100"); // NOI18N
-        BufferedImage image = new BufferedImage(frame.getContentPane().getWidth(),
-                frame.getContentPane().getHeight(),
-                BufferedImage.TYPE_INT_RGB);
-        frame.getContentPane().paint(image.createGraphics());
-        //put it in a temp file to get post-compression size
-        ByteArrayOutputStream tmpFile = new ByteArrayOutputStream();
-        ImageIO.write(image, "png", tmpFile); // NOI18N
-        tmpFile.close();
-        response.setContentLength(tmpFile.size());
-        response.getOutputStream().write(tmpFile.toByteArray());
-        log.debug("Sent [{}] as {} byte png.", frame.getTitle(), tmpFile.size());
+        if (InstanceManager.getDefault(ServletUtil.class).isNotModified(request.getHeader("If-None-Match"), image.getETag())) { // NOI18N
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            log.debug("[{}] not modified.", frame.getTitle());
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentLength(image.getPng().length);
+        response.getOutputStream().write(image.getPng());
+        log.debug("Sent [{}] as {} byte png.", frame.getTitle(), image.getPng().length);
     }
 
     private void doList(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
@@ -14,6 +14,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 import javax.annotation.CheckForNull;
 import javax.imageio.ImageIO;
 import javax.servlet.ServletException;
@@ -25,6 +33,7 @@ import jmri.InstanceManager;
 import jmri.SignalMast;
 import jmri.SignalMastManager;
 import jmri.jmrit.display.Editor;
+import jmri.jmrit.display.Positionable;
 import jmri.server.json.JSON;
 import jmri.server.json.util.JsonUtilHttpService;
 import jmri.util.FileUtil;
@@ -42,6 +51,8 @@ import org.slf4j.LoggerFactory;
 abstract class AbstractPanelServlet extends HttpServlet {
 
     protected ObjectMapper mapper;
+    // panel documents by panel, then by format and panel name
+    private final Map<Editor, Map<String, PanelDocument>> documents = Collections.synchronizedMap(new WeakHashMap<>());
     private final static Logger log = LoggerFactory.getLogger(AbstractPanelServlet.class);
 
     abstract protected String getPanelType();
@@ -126,15 +137,29 @@ abstract class AbstractPanelServlet extends HttpServlet {
                     default: {
                         boolean useXML = (!JSON.JSON.equals(request.getParameter("format")));
                         response.setContentType(UTF8_APPLICATION_JSON);
-                        String panel = getPanelText(panelName, useXML);
+                        PanelDocument panel = getPanelDocument(panelName, useXML);
                         if (panel == null) {
                             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "See the JMRI console for details.");
-                        } else if (panel.startsWith("ERROR")) {
-                            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, panel.substring(5).trim());
+                        } else if (panel.getText().startsWith("ERROR")) {
+                            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, panel.getText().substring(5).trim());
                         } else {
-                            response.setStatus(HttpServletResponse.SC_OK);
-                            response.setContentLength(panel.getBytes(UTF8).length);
-                            response.getOutputStream().print(panel);
+                            ServletUtil util = InstanceManager.getDefault(ServletUtil.class);
+                            response.setHeader("ETag", panel.getETag()); // NOI18N
+                            // clients must check if the panel has changed every time
+                            response.setHeader("Cache-Control", "no-cache"); // NOI18N
+                            response.setHeader("Vary", "Accept-Encoding"); // NOI18N
+                            if (util.isNotModified(request.getHeader("If-None-Match"), panel.getETag())) { // NOI18N
+                                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                            } else {
+                                byte[] bytes = panel.getBytes();
+                                if (util.acceptsGzip(request.getHeader("Accept-Encoding"))) { // NOI18N
+                                    bytes = panel.getGzippedBytes();
+                                    response.setHeader("Content-Encoding", "gzip"); // NOI18N
+                                }
+                                response.setStatus(HttpServletResponse.SC_OK);
+                                response.setContentLength(bytes.length);
+                                response.getOutputStream().write(bytes);
+                            }
                         }
                         break;
                     }
@@ -192,6 +217,70 @@ abstract class AbstractPanelServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Get the panel as an XML or JSON document. The document made for an
+     * earlier request is used again if the panel's items haven't been added,
+     * removed or moved since.
+     *
+     * @param name   the panel name
+     * @param useXML true for XML, false for JSON
+     * @return the document, or null if it could not be made
+     */
+    @CheckForNull
+    protected PanelDocument getPanelDocument(String name, boolean useXML) {
+        Editor editor = getEditor(name);
+        if (editor == null) {
+            // the panel type reports the error
+            String text = getPanelText(name, useXML);
+            return text != null ? new PanelDocument(text, 0) : null;
+        }
+        String key = (useXML ? JSON.XML : JSON.JSON) + ":" + name; // NOI18N
+        Map<String, PanelDocument> panels = documents.computeIfAbsent(editor, (e) -> new HashMap<>());
+        synchronized (panels) {
+            long version = getPanelVersion(editor);
+            PanelDocument document = panels.get(key);
+            if (document == null || document.version != version) {
+                log.debug("Making {} document for {}", useXML ? JSON.XML : JSON.JSON, name);
+                String text = getPanelText(name, useXML);
+                if (text == null) {
+                    return null;
+                }
+                document = new PanelDocument(text, version);
+                if (!text.startsWith("ERROR")) {
+                    panels.put(key, document);
+                }
+            }
+            return document;
+        }
+    }
+
+    /**
+     * Get a version of the panel that changes when items are added, removed or
+     * moved.
+     *
+     * @param editor the panel
+     * @return the version
+     */
+    private long getPanelVersion(Editor editor) {
+        long version = editor.getContentsVersion();
+        List<Positionable> contents = editor.getContents();
+        // include the bounds of the items, since not every move changes the contents version
+        for (int i = 0; i < contents.size(); i++) {
+            try {
+                Positionable item = contents.get(i);
+                if (item != null) {
+                    version = version * 31 + item.getX();
+                    version = version * 31 + item.getY();
+                    version = version * 31 + item.getWidth();
+                    version = version * 31 + item.getHeight();
+                }
+            } catch (IndexOutOfBoundsException ex) {
+                break; // item removed while checking, the contents version has changed
+            }
+        }
+        return version * 31 + contents.size();
+    }
+
     abstract protected String getJsonPanel(String name);
 
     abstract protected String getXmlPanel(String name);
@@ -279,4 +368,56 @@ abstract class AbstractPanelServlet extends HttpServlet {
         }
         return icons;
     }
+
+    /**
+     * A panel document ready to send to clients.
+     */
+    protected static class PanelDocument {
+
+        private final String text;
+        private final long version;
+        private final byte[] bytes;
+        private final String eTag;
+        private byte[] gzipped = null;
+
+        PanelDocument(String text, long version) {
+            this.text = text;
+            this.version = version;
+            this.bytes = text.getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            this.eTag = "\"" + Long.toHexString(((long) text.hashCode() << 32) | crc.getValue()) + "\""; // NOI18N
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return the document in UTF-8, not to be modified
+         */
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the document in UTF-8 compressed with gzip, not to be
+         *         modified
+         * @throws IOException if the document can't be compressed
+         */
+        public synchronized byte[] getGzippedBytes() throws IOException {
+            if (gzipped == null) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
+                    gzip.write(bytes);
+                }
+                gzipped = baos.toByteArray();
+            }
+            return gzipped;
+        }
+    }
 }
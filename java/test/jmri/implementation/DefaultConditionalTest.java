@@ -36,6 +36,52 @@ public class DefaultConditionalTest extends NamedBeanTest {
 
     }
 
+    public void testMixedLogic() throws JmriException {
+        Sensor s1 = InstanceManager.sensorManagerInstance().provideSensor("IS1");
+        Sensor s2 = InstanceManager.sensorManagerInstance().provideSensor("IS2");
+        Sensor s3 = InstanceManager.sensorManagerInstance().provideSensor("IS3");
+        java.util.ArrayList<ConditionalVariable> variables = new java.util.ArrayList<>();
+        variables.add(new ConditionalVariable(false, Conditional.OPERATOR_NONE, Conditional.TYPE_SENSOR_ACTIVE, "IS1", true));
+        variables.add(new ConditionalVariable(true, Conditional.OPERATOR_AND, Conditional.TYPE_SENSOR_ACTIVE, "IS2", true));
+        variables.add(new ConditionalVariable(false, Conditional.OPERATOR_AND, Conditional.TYPE_SENSOR_ACTIVE, "IS3", true));
+
+        DefaultConditional c = new DefaultConditional("IXIC 4");
+        c.setStateVariables(variables);
+        String[] expressions = {
+            "R1 and R2 and R3",
+            "R1 or R2 and R3",
+            "R1 and (R2 or not R3)",
+            "not R1 or [R2 and {R3}]",
+            "not(R1 and R2) or R3",
+            "r1 OR NOT r2 AND r3",
+        };
+        for (String expression : expressions) {
+            c.setLogicType(Conditional.MIXED, expression);
+            for (int states = 0; states < 8; states++) {
+                s1.setKnownState((states & 1) != 0 ? Sensor.ACTIVE : Sensor.INACTIVE);
+                s2.setKnownState((states & 2) != 0 ? Sensor.ACTIVE : Sensor.INACTIVE);
+                s3.setKnownState((states & 4) != 0 ? Sensor.ACTIVE : Sensor.INACTIVE);
+                String stripped = expression.replace(" ", "").replace('[', '(').replace(']', ')').replace('{', '(').replace('}', ')');
+                boolean expected = c.parseCalculate(stripped, variables).result;
+                int state = c.calculate(false, null);
+                Assert.assertEquals(expression + " states " + states, expected ? Conditional.TRUE : Conditional.FALSE, state);
+            }
+        }
+
+        // every variable is evaluated, even when the result is already known
+        s1.setKnownState(Sensor.INACTIVE);
+        s3.setKnownState(Sensor.ACTIVE);
+        variables.get(2).setState(NamedBean.UNKNOWN);
+        c.setLogicType(Conditional.MIXED, "R1 and R3");
+        Assert.assertEquals("false", Conditional.FALSE, c.calculate(false, null));
+        Assert.assertEquals("R3 evaluated", Conditional.TRUE, variables.get(2).getState());
+
+        // a badly formed expression evaluates false
+        c.setLogicType(Conditional.MIXED, "R1 xor R3");
+        Assert.assertEquals("bad expression", Conditional.FALSE, c.calculate(false, null));
+        Assert.assertNotNull("error logged", jmri.util.JUnitAppender.checkForMessageStartingWith("IXIC 4 parseCalculation error antecedent= R1 xor R3"));
+    }
+
     // from here down is testing infrastructure
     public DefaultConditionalTest(String s) {
         super(s);
@@ -0,0 +1,143 @@
+package jmri.implementation;
+
+import java.util.ArrayList;
+import jmri.Conditional;
+import jmri.ConditionalVariable;
+import jmri.InstanceManager;
+import jmri.Sensor;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the LogixEngine class.
+ */
+public class LogixEngineTest {
+
+    private LogixEngine engine;
+    private Sensor sensor;
+    private DefaultConditional conditional;
+    private DefaultLogix logix;
+
+    @Test
+    public void testCTor() {
+        Assert.assertNotNull("exists", new LogixEngine());
+        Assert.assertFalse("not batching", new LogixEngine().isBatching());
+    }
+
+    @Test
+    public void testDependencies() {
+        logix.activateLogix();
+        Assert.assertEquals("one dependent", 1, engine.getDependents(sensor, "KnownState").size());
+        Assert.assertSame("dependent", conditional, engine.getDependents(sensor, "KnownState").get(0));
+        Assert.assertTrue("other property", engine.getDependents(sensor, "UserName").isEmpty());
+
+        logix.deActivateLogix();
+        Assert.assertTrue("removed", engine.getDependents(sensor, "KnownState").isEmpty());
+    }
+
+    @Test
+    public void testOneBeanListenerPerProperty() throws jmri.JmriException {
+        int listeners = sensor.getNumPropertyChangeListeners();
+        DefaultConditional other = new DefaultConditional("IX2C1");
+        ArrayList<ConditionalVariable> variables = new ArrayList<>();
+        variables.add(new ConditionalVariable(false, Conditional.OPERATOR_NONE, Conditional.TYPE_SENSOR_ACTIVE, "IS1", true));
+        other.setStateVariables(variables);
+        other.setLogicType(Conditional.ALL_AND, "");
+        DefaultLogix logix2 = new DefaultLogix("IX2");
+        logix2.addConditional("IX2C1", 0);
+        logix2.addConditional("IX2C1", other);
+
+        logix.activateLogix();
+        logix2.activateLogix();
+        Assert.assertEquals("one listener added to the sensor", listeners + 1, sensor.getNumPropertyChangeListeners());
+        Assert.assertEquals("one bean listener", 1, engine.getBeanListenerCount());
+        Assert.assertEquals("two dependents", 2, engine.getDependents(sensor, "KnownState").size());
+        Assert.assertTrue("both Logixs listed", sensor.getListenerRefs().contains("Logix IX1, Logix IX2"));
+
+        sensor.setKnownState(Sensor.ACTIVE);
+        Assert.assertEquals("state", Conditional.TRUE, conditional.getState());
+        Assert.assertEquals("other state", Conditional.TRUE, other.getState());
+
+        logix.deActivateLogix();
+        Assert.assertEquals("listener kept for other Logix", listeners + 1, sensor.getNumPropertyChangeListeners());
+        Assert.assertTrue("other Logix listed", sensor.getListenerRefs().contains("Logix IX2"));
+        logix2.deActivateLogix();
+        Assert.assertEquals("listener removed", listeners, sensor.getNumPropertyChangeListeners());
+        Assert.assertEquals("no bean listeners", 0, engine.getBeanListenerCount());
+    }
+
+    @Test
+    public void testCalculatedOncePerChange() throws jmri.JmriException {
+        logix.activateLogix();
+        Assert.assertEquals("initial calculation", 1, engine.getCalculationCount(conditional));
+
+        // two state variables refer to the sensor, but it is calculated once
+        sensor.setKnownState(Sensor.ACTIVE);
+        Assert.assertEquals("calculated once", 2, engine.getCalculationCount(conditional));
+        Assert.assertEquals("second request skipped", 1, engine.getSkippedCount(conditional));
+        Assert.assertEquals("state", Conditional.TRUE, conditional.getState());
+
+        sensor.setKnownState(Sensor.INACTIVE);
+        Assert.assertEquals("calculated again", 3, engine.getCalculationCount(conditional));
+        Assert.assertEquals("state", Conditional.FALSE, conditional.getState());
+        Assert.assertTrue("timed", engine.getTotalCalculationTime(conditional) >= engine.getMaxCalculationTime(conditional));
+
+        engine.resetStatistics();
+        Assert.assertEquals("reset", 0, engine.getCalculationCount(conditional));
+    }
+
+    @Test
+    public void testBatching() {
+        logix.activateLogix();
+        engine.resetStatistics();
+        engine.setBatching(true);
+
+        jmri.util.ThreadingUtil.runOnLayout(() -> {
+            try {
+                sensor.setKnownState(Sensor.ACTIVE);
+                sensor.setKnownState(Sensor.INACTIVE);
+                sensor.setKnownState(Sensor.ACTIVE);
+            } catch (jmri.JmriException e) {
+                Assert.fail("setKnownState failed");
+            }
+            Assert.assertEquals("waiting", 1, engine.getPendingCount());
+            Assert.assertEquals("not yet calculated", 0, engine.getCalculationCount(conditional));
+        });
+        JUnitUtil.waitFor(() -> {
+            return engine.getCalculationCount(conditional) > 0;
+        }, "calculated");
+        Assert.assertEquals("calculated once", 1, engine.getCalculationCount(conditional));
+        Assert.assertEquals("nothing waiting", 0, engine.getPendingCount());
+        Assert.assertEquals("state", Conditional.TRUE, conditional.getState());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        JUnitUtil.resetInstanceManager();
+        JUnitUtil.initInternalSensorManager();
+        engine = InstanceManager.getDefault(LogixEngine.class);
+        sensor = InstanceManager.sensorManagerInstance().provideSensor("IS1");
+
+        conditional = new DefaultConditional("IX1C1");
+        ArrayList<ConditionalVariable> variables = new ArrayList<>();
+        variables.add(new ConditionalVariable(false, Conditional.OPERATOR_NONE, Conditional.TYPE_SENSOR_ACTIVE, "IS1", true));
+        variables.add(new ConditionalVariable(true, Conditional.OPERATOR_AND, Conditional.TYPE_SENSOR_INACTIVE, "IS1", true));
+        conditional.setStateVariables(variables);
+        conditional.setLogicType(Conditional.ALL_AND, "");
+
+        logix = new DefaultLogix("IX1");
+        logix.addConditional("IX1C1", 0);
+        logix.addConditional("IX1C1", conditional);
+    }
+
+    @After
+    public void tearDown() {
+        logix.deActivateLogix();
+        JUnitUtil.tearDown();
+    }
+
+}
@@ -58,6 +58,7 @@ import org.junit.runners.Suite;
         JmriMultiStatePropertyListenerTest.class,
         JmriSimplePropertyListenerTest.class,
         JmriTwoStatePropertyListenerTest.class,
+        LogixEngineTest.class,
         LsDecSignalHeadTest.class,
         MergSD2SignalHeadTest.class,
         NoFeedbackTurnoutOperatorTest.class,
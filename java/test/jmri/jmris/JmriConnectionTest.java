@@ -26,6 +26,45 @@ public class JmriConnectionTest extends TestCase {
         Assert.assertNotNull(a);
     }
 
+    public void testQueuedMessages() throws Exception {
+        java.io.ByteArrayOutputStream written = new java.io.ByteArrayOutputStream();
+        java.util.concurrent.CountDownLatch writing = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+        java.io.DataOutputStream output = new java.io.DataOutputStream(
+                new java.io.OutputStream() {
+                    // a slow client, blocked until released
+                    @Override
+                    public void write(int b) throws java.io.IOException {
+                        writing.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException ex) {
+                            throw new java.io.InterruptedIOException();
+                        }
+                        written.write(b);
+                    }
+                });
+        JmriConnection a = new JmriConnection(output);
+        a.sendMessage("A");
+        Assert.assertTrue("writing", writing.await(5, java.util.concurrent.TimeUnit.SECONDS));
+        a.sendMessage("1", "sensor");
+        a.sendMessage("B");
+        a.sendMessage("2", "sensor");
+        Assert.assertEquals("backlog", 2, a.getBacklog());
+        Assert.assertEquals("coalesced", 1, a.getCoalesced());
+        for (int i = 0; i < JmriConnection.MAX_BACKLOG; i++) {
+            a.sendMessage("C");
+        }
+        Assert.assertEquals("full backlog", JmriConnection.MAX_BACKLOG, a.getBacklog());
+        Assert.assertEquals("dropped", 2, a.getDropped());
+        jmri.util.JUnitAppender.assertWarnMessage("Client is not keeping up, dropping messages");
+        release.countDown();
+        a.flush();
+        Assert.assertEquals("backlog written", 0, a.getBacklog());
+        Assert.assertTrue("last state written in place", written.toString().startsWith("A2BCCC"));
+        Assert.assertEquals("written", 3 + JmriConnection.MAX_BACKLOG - 2, written.size());
+    }
+
     // from here down is testing infrastructure
     public JmriConnectionTest(String s) {
         super(s);
@@ -0,0 +1,98 @@
+package jmri.jmrit.catalog;
+
+import java.awt.image.BufferedImage;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for NamedIconCache
+ */
+public class NamedIconCacheTest {
+
+    @Test
+    public void testGetPut() {
+        NamedIconCache cache = new NamedIconCache();
+        BufferedImage image = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+        Assert.assertNull("not kept", cache.get("a", 1.5, 90, NamedIcon.NOFLIP));
+        cache.put("a", 1.5, 90, NamedIcon.NOFLIP, image);
+        Assert.assertSame("kept", image, cache.get("a", 1.5, 90, NamedIcon.NOFLIP));
+        Assert.assertNull("other scale", cache.get("a", 1.0, 90, NamedIcon.NOFLIP));
+        Assert.assertNull("other rotation", cache.get("a", 1.5, 0, NamedIcon.NOFLIP));
+        Assert.assertNull("other flip", cache.get("a", 1.5, 90, NamedIcon.HORIZONTALFLIP));
+        Assert.assertNull("other file", cache.get("b", 1.5, 90, NamedIcon.NOFLIP));
+        Assert.assertEquals("bytes", 10 * 20 * 4, cache.getBytes());
+        Assert.assertEquals("hits", 1, cache.getHits());
+        Assert.assertEquals("misses", 5, cache.getMisses());
+        cache.clear();
+        Assert.assertEquals("cleared", 0, cache.getSize());
+        Assert.assertEquals("cleared", 0, cache.getBytes());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDropped() {
+        NamedIconCache cache = new NamedIconCache();
+        cache.setMaxBytes(3 * 100 * 4);
+        for (int i = 0; i < 3; i++) {
+            cache.put("a", 1.0, i, NamedIcon.NOFLIP, new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        }
+        Assert.assertNotNull("used", cache.get("a", 1.0, 0, NamedIcon.NOFLIP));
+        cache.put("a", 1.0, 3, NamedIcon.NOFLIP, new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        Assert.assertEquals("size", 3, cache.getSize());
+        Assert.assertEquals("evictions", 1, cache.getEvictions());
+        Assert.assertNotNull("recently used kept", cache.get("a", 1.0, 0, NamedIcon.NOFLIP));
+        Assert.assertNull("least recently used dropped", cache.get("a", 1.0, 1, NamedIcon.NOFLIP));
+        Assert.assertEquals("bytes", 3 * 100 * 4, cache.getBytes());
+    }
+
+    @Test
+    public void testIconsShareImages() {
+        NamedIcon icon1 = new NamedIcon("program:resources/logo.gif", "logo");
+        NamedIcon icon2 = new NamedIcon("program:resources/logo.gif", "logo");
+        icon1.setLoad(45, 0.5, null);
+        icon2.setLoad(45, 0.5, null);
+        Assert.assertSame("same image", icon1.getImage(), icon2.getImage());
+        Assert.assertEquals("same rotation", icon1.getDegrees(), icon2.getDegrees());
+        icon1.flip(NamedIcon.HORIZONTALFLIP, null);
+        Assert.assertNotSame("flipped", icon1.getImage(), icon2.getImage());
+        icon2.flip(NamedIcon.HORIZONTALFLIP, null);
+        Assert.assertSame("same flipped image", icon1.getImage(), icon2.getImage());
+
+        NamedIcon icon3 = new NamedIcon("program:resources/logo.gif", "logo");
+        icon3.setLoad(90, 0.5, null);
+        Assert.assertNotSame("other rotation", icon1.getImage(), icon3.getImage());
+    }
+
+    @Test
+    public void testSharedImageSameAsMade() {
+        NamedIcon icon1 = new NamedIcon("program:resources/logo.gif", "logo");
+        icon1.setLoad(30, 0.75, null);
+        NamedIconCache.instance().clear();
+        NamedIcon icon2 = new NamedIcon("program:resources/logo.gif", "logo");
+        icon2.setLoad(30, 0.75, null);
+        Assert.assertNotSame("made again", icon1.getImage(), icon2.getImage());
+        BufferedImage image1 = (BufferedImage) icon1.getImage();
+        BufferedImage image2 = (BufferedImage) icon2.getImage();
+        Assert.assertEquals("width", image1.getWidth(), image2.getWidth());
+        Assert.assertEquals("height", image1.getHeight(), image2.getHeight());
+        for (int y = 0; y < image1.getHeight(); y++) {
+            for (int x = 0; x < image1.getWidth(); x++) {
+                Assert.assertEquals("pixel", image1.getRGB(x, y), image2.getRGB(x, y));
+            }
+        }
+    }
+
+    // The minimal setup for log4J
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+
+}
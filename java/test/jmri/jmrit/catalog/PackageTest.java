@@ -23,6 +23,7 @@ import org.junit.runners.Suite;
     DefaultCatalogTreeManagerTest.class,
     CatalogTreeNodeTest.class,
     NamedIconTest.class,
+    NamedIconCacheTest.class,
     DirectorySearcherTest.class,
     CatalogTreeLeafTest.class,
     DragJLabelTest.class,
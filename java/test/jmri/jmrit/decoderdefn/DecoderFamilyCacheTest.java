@@ -0,0 +1,115 @@
+package jmri.jmrit.decoderdefn;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import jmri.jmrit.XmlFile;
+import jmri.util.JUnitUtil;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for DecoderFamilyCache
+ */
+public class DecoderFamilyCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameAsFullRead() throws JDOMException, IOException {
+        XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat().setTextMode(Format.TextMode.TRIM_FULL_WHITE));
+        File[] files = new File(XmlFile.xmlDir() + DecoderFile.fileLocation).listFiles((dir, name) -> name.endsWith(".xml"));
+        Arrays.sort(files);
+        DecoderFamilyCache cache = new DecoderFamilyCache();
+        // every 20th file, and one that is transformed when read
+        for (int i = 0; i < files.length; i++) {
+            if ((i % 20 == 0) || files[i].getName().equals("MGP_Servo5.xml")) {
+                Element expected = new DecoderFile().rootFromFile(files[i]).getChild("decoder").getChild("family");
+                Assert.assertEquals(files[i].getName(), outputter.outputString(expected),
+                        outputter.outputString(cache.getFamily(files[i])));
+            }
+        }
+        Assert.assertTrue("parsed from the start of the files", cache.getFamiliesParsed() > 0);
+    }
+
+    @Test
+    public void testOnlyChangedFilesRead() throws JDOMException, IOException {
+        File file = folder.newFile("Test.xml");
+        String contents = new String(Files.readAllBytes(new File(XmlFile.xmlDir() + DecoderFile.fileLocation + "0NMRA.xml").toPath()),
+                StandardCharsets.UTF_8);
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        DecoderFamilyCache cache = new DecoderFamilyCache();
+
+        Element family = cache.getFamily(file);
+        Assert.assertEquals("model", "NMRA standard CV definitions", family.getChild("model").getAttributeValue("model"));
+        Assert.assertEquals("read", 1, cache.getFilesRead());
+        family.setAttribute("file", "Test.xml");
+        Assert.assertNull("copy changed", cache.getFamily(file).getAttribute("file"));
+        Assert.assertEquals("not read again", 1, cache.getFilesRead());
+
+        Assert.assertTrue(file.setLastModified(file.lastModified() - 10000));
+        cache.getFamily(file);
+        Assert.assertEquals("read again for the time", 2, cache.getFilesRead());
+        Assert.assertEquals("not parsed again", 1, cache.getFamiliesParsed());
+
+        Files.write(file.toPath(), contents.replace("NMRA standard CV definitions", "Changed").getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(file.setLastModified(file.lastModified() + 20000));
+        Assert.assertEquals("changed model", "Changed", cache.getFamily(file).getChild("model").getAttributeValue("model"));
+        Assert.assertEquals("parsed again", 2, cache.getFamiliesParsed());
+    }
+
+    @Test
+    public void testRememberedFromIndex() throws JDOMException, IOException {
+        XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat().setTextMode(Format.TextMode.TRIM_FULL_WHITE));
+        File file = folder.newFile("Test.xml");
+        Files.copy(new File(XmlFile.xmlDir() + DecoderFile.fileLocation + "0NMRA.xml").toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        DecoderFamilyCache before = new DecoderFamilyCache();
+        Element family = before.getFamily(file);
+        String expected = outputter.outputString(family);
+        // as written in the index
+        before.addFileAttributes(file, family);
+        family.setAttribute("file", "Test.xml");
+        Assert.assertNotNull("checksum written", family.getAttribute(DecoderFamilyCache.CHECKSUM));
+
+        DecoderFamilyCache cache = new DecoderFamilyCache();
+        cache.remember(file, family);
+        Assert.assertEquals("same family", expected, outputter.outputString(cache.getFamily(file)));
+        Assert.assertEquals("not read", 0, cache.getFilesRead());
+
+        Assert.assertTrue(file.setLastModified(file.lastModified() - 10000));
+        Assert.assertEquals("same family", expected, outputter.outputString(cache.getFamily(file)));
+        Assert.assertEquals("read again for the time", 1, cache.getFilesRead());
+        Assert.assertEquals("not parsed", 0, cache.getFamiliesParsed());
+
+        // an index written without them
+        DecoderFamilyCache unknown = new DecoderFamilyCache();
+        family.removeAttribute(DecoderFamilyCache.CHECKSUM);
+        unknown.remember(file, family);
+        unknown.getFamily(file);
+        Assert.assertEquals("parsed", 1, unknown.getFamiliesParsed());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+
+}
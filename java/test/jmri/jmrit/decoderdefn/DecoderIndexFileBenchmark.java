@@ -0,0 +1,78 @@
+package jmri.jmrit.decoderdefn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jmri.jmrit.XmlFile;
+import jmri.util.JUnitUtil;
+
+/**
+ * Reports the time to find decoders in the distributed decoder index with
+ * {@link DecoderIndexFile#matchingDecoderList}, and with a scan of every
+ * entry as it was done before the index was indexed.
+ * <p>
+ * The queries are those made while identifying a decoder: by manufacturer
+ * ID, then product ID, then version, and by family and model. Run with the
+ * number of rounds of queries to time as an argument, by default 20.
+ */
+public class DecoderIndexFileBenchmark {
+
+    static List<DecoderFile> scan(DecoderIndexFile di, String[] q) {
+        List<DecoderFile> l = new ArrayList<>();
+        for (int i = 0; i < di.numDecoders(); i++) {
+            if (di.checkEntry(i, q[0], q[1], q[2], q[3], q[4], q[5], null)) {
+                l.add(di.decoderList.get(i));
+            }
+        }
+        return l;
+    }
+
+    static void report(String name, List<String[]> queries, int rounds, java.util.function.Function<String[], List<DecoderFile>> match) {
+        double[] times = new double[rounds];
+        long found = 0;
+        for (int r = -1; r < rounds; r++) { // the first round warms up
+            long start = System.nanoTime();
+            for (String[] q : queries) {
+                found += match.apply(q).size();
+            }
+            if (r >= 0) {
+                times[r] = (System.nanoTime() - start) / 1.0e3 / queries.size();
+            }
+        }
+        Arrays.sort(times);
+        double total = 0.0;
+        for (double time : times) {
+            total += time;
+        }
+        System.out.printf("%-10s mean %8.2f us  median %8.2f us  max %8.2f us a query (%d found)%n", name,
+                total / rounds, times[rounds / 2], times[rounds - 1], found);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+        JUnitUtil.setUp();
+        DecoderIndexFile di = new DecoderIndexFile();
+        di.readFile(XmlFile.xmlDir() + "decoderIndex.xml");
+
+        List<String[]> queries = new ArrayList<>();
+        for (int i = 0; i < di.numDecoders(); i++) {
+            DecoderFile d = di.decoderList.get(i);
+            String productID = d.getModelElement() != null ? d.getModelElement().getAttributeValue("productID") : null;
+            queries.add(new String[]{null, null, d.getMfgID(), null, null, null});
+            queries.add(new String[]{null, null, d.getMfgID(), null, productID, null});
+            queries.add(new String[]{null, null, d.getMfgID(), "1", productID, null});
+            queries.add(new String[]{null, d.getFamily(), null, null, null, d.getModel()});
+        }
+        for (String[] q : queries) {
+            if (!scan(di, q).equals(di.matchingDecoderList(q[0], q[1], q[2], q[3], q[4], q[5]))) {
+                System.out.println("different results for " + Arrays.toString(q));
+            }
+        }
+        System.out.printf("%d decoders, %d queries, %d rounds%n", di.numDecoders(), queries.size(), rounds);
+
+        report("scan", queries, rounds, (q) -> scan(di, q));
+        report("indexed", queries, rounds, (q) -> di.matchingDecoderList(q[0], q[1], q[2], q[3], q[4], q[5]));
+
+        JUnitUtil.tearDown();
+    }
+}
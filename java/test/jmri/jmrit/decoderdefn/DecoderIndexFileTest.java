@@ -1,7 +1,10 @@
 package jmri.jmrit.decoderdefn;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.swing.JComboBox;
+import jmri.jmrit.XmlFile;
 import jmri.util.JUnitUtil;
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -171,6 +174,70 @@ public class DecoderIndexFileTest extends TestCase {
         Assert.assertEquals("Found with version 25 ", 0, l3.size());
     }
 
+    public void testMatchingProductID() {
+        DecoderIndexFile di = new DecoderIndexFile();
+        setupDoc();
+        di.readMfgSection(decoderIndexElement);
+        di.readFamilySection(decoderIndexElement);
+        List<DecoderFile> l;
+        l = di.matchingDecoderList(null, null, "129", null, "7", null);
+        Assert.assertEquals("Found with product ID 7 ", 1, l.size());
+        Assert.assertEquals("Found with product ID 7 ", "DN142", l.get(0).getModel());
+        l = di.matchingDecoderList(null, null, null, null, "5,7", null);
+        Assert.assertEquals("Found with product IDs 5,7 ", 1, l.size());
+        l = di.matchingDecoderList(null, null, null, null, "57", null);
+        Assert.assertEquals("Found with product ID 57 ", 0, l.size());
+        l = di.matchingDecoderList("Digitrax", null, null, null, null, "DH142");
+        Assert.assertEquals("Found with model DH142 ", 1, l.size());
+        l = di.matchingDecoderList("NMRA", null, null, null, null, "DH142");
+        Assert.assertEquals("Found NMRA with model DH142 ", 0, l.size());
+    }
+
+    public void testMatchingAfterAdding() {
+        DecoderIndexFile di = new DecoderIndexFile();
+        setupDoc();
+        di.readMfgSection(decoderIndexElement);
+        di.readFamilySection(decoderIndexElement);
+        Assert.assertEquals("Found with name Digitrax ", 3, di.matchingDecoderList("Digitrax", null, null, null, null, null).size());
+        di.readFamily(new Element("family")
+                .setAttribute("mfg", "Digitrax")
+                .setAttribute("name", "FX3 family")
+                .setAttribute("file", "DH163.xml")
+                .addContent(new Element("model")
+                        .setAttribute("model", "DH163")
+                        .setAttribute("productID", "7")
+                ));
+        Assert.assertEquals("Found with name Digitrax ", 5, di.matchingDecoderList("Digitrax", null, null, null, null, null).size());
+        // the family entry has the product ID of its first model
+        Assert.assertEquals("Found with product ID 7 ", 3, di.matchingDecoderList(null, null, "129", null, "7", null).size());
+    }
+
+    public void testMatchingSameAsScan() throws Exception {
+        DecoderIndexFile di = new DecoderIndexFile();
+        di.readFile(XmlFile.xmlDir() + "decoderIndex.xml");
+        Assert.assertTrue("decoders read", di.numDecoders() > 100);
+        for (int i = 0; i < di.numDecoders(); i += 7) {
+            DecoderFile d = di.decoderList.get(i);
+            String productID = d.getModelElement() != null ? d.getModelElement().getAttributeValue("productID") : null;
+            String[][] queries = {
+                {d.getMfg(), null, null, null, null, null},
+                {null, null, d.getMfgID(), null, productID, null},
+                {null, null, d.getMfgID(), "1", productID, null},
+                {null, d.getFamily(), null, null, null, d.getModel()},
+                {d.getMfg(), d.getFamily(), d.getMfgID(), null, null, null},
+            };
+            for (String[] q : queries) {
+                List<DecoderFile> expected = new ArrayList<>();
+                for (int j = 0; j < di.numDecoders(); j++) {
+                    if (di.checkEntry(j, q[0], q[1], q[2], q[3], q[4], q[5], null)) {
+                        expected.add(di.decoderList.get(j));
+                    }
+                }
+                Assert.assertEquals(Arrays.toString(q), expected, di.matchingDecoderList(q[0], q[1], q[2], q[3], q[4], q[5]));
+            }
+        }
+    }
+
     // static variables for the test XML structures
     Element root = null;
     Document doc = null;
@@ -224,6 +291,7 @@ public class DecoderIndexFileTest extends TestCase {
                                         .setAttribute("model", "DN142")
                                         .setAttribute("numFns", "5")
                                         .setAttribute("numOuts", "1")
+                                        .setAttribute("productID", "5,7")
                                         .addContent(new Element("versionCV")
                                                 .setAttribute("lowVersionID", "22")
                                                 .setAttribute("highVersionID", "24")
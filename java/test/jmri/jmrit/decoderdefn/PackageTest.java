@@ -10,6 +10,7 @@ import org.junit.runners.Suite;
         DecoderFileTest.class,
         SchemaTest.class,
         DecoderIndexBuilderTest.class,
+        DecoderFamilyCacheTest.class,
         NameCheckActionTest.class,
         DecoderIndexCreateActionTest.class,
         InstallDecoderFileActionTest.class,
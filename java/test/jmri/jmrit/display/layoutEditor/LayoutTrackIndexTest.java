@@ -0,0 +1,140 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for LayoutTrackIndex
+ */
+public class LayoutTrackIndexTest {
+
+    private LayoutEditor le = null;
+
+    @Test
+    public void testGetTracksAtFindsHits() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackIndex index = new LayoutTrackIndex(le);
+        for (double x = 0.0; x < 1000.0; x += 7.0) {
+            for (double y = 0.0; y < 600.0; y += 7.0) {
+                Point2D point = new Point2D.Double(x, y);
+                List<LayoutTrack> found = index.getTracksAt(point);
+                for (LayoutTrack track : le.getLayoutTracks()) {
+                    if (track.findHitPointType(point, false, false) != LayoutTrack.NONE) {
+                        Assert.assertTrue("found " + track + " at " + point, found.contains(track));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetTracksIn() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackIndex index = new LayoutTrackIndex(le);
+        Rectangle2D area = new Rectangle2D.Double(150.0, 90.0, 300.0, 200.0);
+        // finding the centers of track segments can move them, so look first
+        List<LayoutTrack> found = index.getTracksIn(area);
+        List<LayoutTrack> expected = new ArrayList<>();
+        for (LayoutTrack track : le.getLayoutTracks()) {
+            if (area.contains(track.getCoordsCenter())) {
+                expected.add(track);
+            }
+        }
+        Assert.assertTrue("fewer than all tracks", found.size() < le.getLayoutTracks().size());
+        found.removeIf((track) -> !area.contains(track.getCoordsCenter()));
+        Assert.assertEquals("same tracks, in the same order", expected, found);
+        // an area covering more cells than there are cells with tracks
+        Assert.assertEquals("all tracks", le.getLayoutTracks(),
+                index.getTracksIn(new Rectangle2D.Double(-1.0e5, -1.0e5, 2.0e5, 2.0e5)));
+    }
+
+    @Test
+    public void testMovedTrack() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackIndex index = new LayoutTrackIndex(le);
+        PositionablePoint point = (PositionablePoint) le.getLayoutTracks().get(0);
+        Point2D oldCenter = point.getCoordsCenter();
+        Assert.assertTrue("found", index.getTracksAt(oldCenter).contains(point));
+        Point2D newCenter = new Point2D.Double(5000.0, 5000.0);
+        point.setCoordsCenter(newCenter);
+        index.invalidate();
+        Assert.assertFalse("not found at old center", index.getTracksAt(oldCenter).contains(point));
+        Assert.assertTrue("found at new center", index.getTracksAt(newCenter).contains(point));
+    }
+
+    @Test
+    public void testUpdatedTrack() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackIndex index = new LayoutTrackIndex(le);
+        // a track with a track segment joined to it
+        LayoutTrack moved = null;
+        TrackSegment joined = null;
+        for (LayoutTrack track : le.getLayoutTracks()) {
+            if (track instanceof TrackSegment) {
+                TrackSegment ts = (TrackSegment) track;
+                if (ts.getConnect1() != null) {
+                    moved = ts.getConnect1();
+                    joined = ts;
+                    break;
+                }
+            }
+        }
+        Assert.assertNotNull("joined track", joined);
+        Assert.assertTrue("found", index.getTracksAt(moved.getCoordsCenter()).contains(moved));
+        Point2D newCenter = new Point2D.Double(moved.getCoordsCenter().getX() + 600.0, moved.getCoordsCenter().getY());
+        moved.setCoordsCenter(newCenter);
+        index.update(Collections.singletonList(moved));
+        Assert.assertTrue("found at new center", index.getTracksAt(newCenter).contains(moved));
+        Assert.assertEquals("joined track segment filed again",
+                LayoutTrackIndex.getBounds(joined, le), index.getBounds(joined));
+
+        // the same as the index made again
+        LayoutTrackIndex made = new LayoutTrackIndex(le);
+        for (LayoutTrack track : le.getLayoutTracks()) {
+            Assert.assertEquals("bounds of " + track, made.getBounds(track), index.getBounds(track));
+        }
+        Rectangle2D area = new Rectangle2D.Double(0.0, 0.0, 2000.0, 1000.0);
+        Assert.assertEquals("same tracks", made.getTracksIn(area), index.getTracksIn(area));
+    }
+
+    @Test
+    public void testAddedTrack() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackIndex index = new LayoutTrackIndex(le);
+        Point2D center = new Point2D.Double(3000.0, 3000.0);
+        Assert.assertTrue("nothing found", index.getTracksAt(center).isEmpty());
+        PositionablePoint point = new PositionablePoint("New", PositionablePoint.ANCHOR, center, le);
+        le.getLayoutTracks().add(point);
+        Assert.assertTrue("found", index.getTracksAt(center).contains(point));
+        le.getLayoutTracks().remove(point);
+        Assert.assertTrue("removed", index.getTracksAt(center).isEmpty());
+    }
+
+    // from here down is testing infrastructure
+    @Before
+    public void setUp() throws Exception {
+        JUnitUtil.setUp();
+        if (!GraphicsEnvironment.isHeadless()) {
+            le = new LayoutEditor("Track Index Test");
+            LayoutTrackLayerBenchmark.generatePanel(le, 400);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (le != null) {
+            JUnitUtil.dispose(le);
+        }
+        JUnitUtil.tearDown();
+    }
+}
@@ -0,0 +1,145 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.awt.Rectangle;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+import jmri.util.JUnitUtil;
+
+/**
+ * Reports the time to paint frames of a generated large Layout Editor panel,
+ * with the tracks drawn directly and drawn from the tiles of the
+ * {@link LayoutTrackLayer}.
+ * <p>
+ * Run with the number of tracks and the number of frames to time as
+ * arguments, by default 4000 tracks and 50 frames. A display is needed.
+ */
+public class LayoutTrackLayerBenchmark {
+
+    // the anchors are this far apart, in each direction
+    static final int SPACING = 40;
+    // the track segments in each block
+    static final int SEGMENTS_PER_BLOCK = 10;
+
+    /**
+     * Add rows of anchors joined by track segments to a panel, with every few
+     * track segments in their own block.
+     *
+     * @param le     the panel
+     * @param tracks the number of tracks to add, anchors and track segments
+     * @return the blocks of the track segments
+     */
+    static List<LayoutBlock> generatePanel(LayoutEditor le, int tracks) {
+        List<LayoutBlock> blocks = new ArrayList<>();
+        List<LayoutTrack> layoutTracks = le.getLayoutTracks();
+        int columns = 40;
+        int added = 0;
+        for (int row = 0; added < tracks; row++) {
+            PositionablePoint previous = null;
+            for (int column = 0; (column < columns) && (added < tracks); column++) {
+                // every other row is offset, so the segments aren't all level
+                double y = (row * SPACING) + SPACING / 2.0 + (((row % 2) == 1) ? (column % 2) * SPACING / 2.0 : 0.0);
+                PositionablePoint point = new PositionablePoint("A" + row + "_" + column, PositionablePoint.ANCHOR,
+                        new Point2D.Double((column * SPACING) + SPACING / 2.0, y), le);
+                layoutTracks.add(point);
+                added++;
+                if ((previous != null) && (added < tracks)) {
+                    TrackSegment ts = new TrackSegment("T" + row + "_" + column,
+                            previous, LayoutTrack.POS_POINT, point, LayoutTrack.POS_POINT,
+                            (column % 7) == 0, (row % 3) == 0, le);
+                    int segment = (row * columns) + column;
+                    if (blocks.isEmpty() || ((segment % SEGMENTS_PER_BLOCK) == 0)) {
+                        blocks.add(le.provideLayoutBlock("Block " + blocks.size()));
+                    }
+                    ts.setLayoutBlock(blocks.get(blocks.size() - 1));
+                    previous.setTrackConnection(ts);
+                    point.setTrackConnection(ts);
+                    layoutTracks.add(ts);
+                    added++;
+                }
+                previous = point;
+            }
+        }
+        le.redrawPanel();
+        return blocks;
+    }
+
+    /**
+     * Time frames, on the Swing thread.
+     *
+     * @param name   the name to report the times as
+     * @param frames the number of frames to time
+     * @param frame  paints one frame, given the number of the frame
+     * @throws Exception if the frames can't be painted
+     */
+    static void report(String name, int frames, IntConsumer frame) throws Exception {
+        double[] times = new double[frames];
+        SwingUtilities.invokeAndWait(() -> {
+            frame.accept(-1); // warm up
+            for (int i = 0; i < frames; i++) {
+                long start = System.nanoTime();
+                frame.accept(i);
+                times[i] = (System.nanoTime() - start) / 1.0e6;
+            }
+        });
+        Arrays.sort(times);
+        double total = 0.0;
+        for (double time : times) {
+            total += time;
+        }
+        System.out.printf("%-28s mean %8.2f ms  median %8.2f ms  95%% %8.2f ms  max %8.2f ms%n", name,
+                total / frames, times[frames / 2], times[(int) (frames * 0.95)], times[frames - 1]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int tracks = (args.length > 0) ? Integer.parseInt(args[0]) : 4000;
+        int frames = (args.length > 1) ? Integer.parseInt(args[1]) : 50;
+        JUnitUtil.setUp();
+        List<LayoutEditor> editor = new ArrayList<>();
+        List<LayoutBlock> blocks = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            LayoutEditor le = new LayoutEditor("Track Layer Benchmark");
+            blocks.addAll(generatePanel(le, tracks));
+            le.setAllEditable(false);
+            le.setSize(1280, 1024);
+            le.setVisible(true);
+            editor.add(le);
+        });
+        LayoutEditor le = editor.get(0);
+        LayoutTrackLayer layer = le.getTrackLayer();
+        JComponent panel = le.getTargetPanel();
+        System.out.printf("%d tracks in %d blocks, %d frames%n", le.getLayoutTracks().size(), blocks.size(), frames);
+
+        Runnable paintAll = () -> {
+            Rectangle visible = panel.getVisibleRect();
+            panel.paintImmediately(visible);
+        };
+        IntConsumer changeBlock = (i) -> {
+            LayoutBlock block = blocks.get(Math.floorMod(i * 7, blocks.size()));
+            block.setUseExtraColor(!block.getUseExtraColor());
+            block.redrawLayoutBlockPanels();
+            RepaintManager.currentManager(panel).paintDirtyRegions();
+        };
+
+        layer.setEnabled(false);
+        report("full frame, direct", frames, (i) -> paintAll.run());
+        report("block change, direct", frames, changeBlock);
+        layer.setEnabled(true);
+        report("full frame, new tiles", frames, (i) -> {
+            le.redrawPanel();
+            paintAll.run();
+        });
+        report("full frame, tiles", frames, (i) -> paintAll.run());
+        report("block change, tiles", frames, changeBlock);
+        System.out.printf("%d tiles drawn%n", layer.getTilesDrawn());
+
+        SwingUtilities.invokeAndWait(() -> JUnitUtil.dispose(le));
+        JUnitUtil.tearDown();
+        System.exit(0);
+    }
+}
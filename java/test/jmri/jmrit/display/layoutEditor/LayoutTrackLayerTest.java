@@ -0,0 +1,125 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for LayoutTrackLayer
+ */
+public class LayoutTrackLayerTest {
+
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    private LayoutEditor le = null;
+    private List<LayoutBlock> blocks = null;
+
+    @Test
+    public void testPaintSameAsDirect() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackLayer layer = new LayoutTrackLayer(le);
+        AffineTransform transform = new AffineTransform(1.5, 0.0, 0.0, 1.5, 3.0, 7.0);
+        Assert.assertEquals("same pixels", 0, countDifferences(paint(null, transform), paint(layer, transform)));
+        Assert.assertTrue("tiles drawn", layer.getTilesDrawn() > 0);
+    }
+
+    @Test
+    public void testInvalidateBlock() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackLayer layer = new LayoutTrackLayer(le);
+        AffineTransform transform = new AffineTransform();
+        Assert.assertNull("nothing painted yet", layer.invalidate(blocks.get(0)));
+        BufferedImage image = paint(layer, transform);
+        int drawn = layer.getTilesDrawn();
+
+        LayoutBlock block = blocks.get(0);
+        block.setBlockTrackColor(Color.green);
+        Rectangle2D dirty = layer.invalidate(block);
+        Assert.assertNotNull("area to repaint", dirty);
+        Assert.assertFalse("area to repaint", dirty.isEmpty());
+        Assert.assertTrue("only part repainted", dirty.getWidth() < WIDTH);
+
+        // repaint just the area of the block, over the last image
+        Graphics2D g2 = image.createGraphics();
+        g2.clip(dirty);
+        g2.setColor(Color.white);
+        g2.fill(dirty);
+        Assert.assertTrue("painted from tiles", layer.paint(g2));
+        g2.dispose();
+        Assert.assertTrue("tiles drawn again", layer.getTilesDrawn() > drawn);
+        Assert.assertTrue("only some tiles drawn again", layer.getTilesDrawn() < drawn * 2);
+        Assert.assertEquals("same pixels", 0, countDifferences(paint(null, transform), image));
+    }
+
+    @Test
+    public void testNotPaintedRotated() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        LayoutTrackLayer layer = new LayoutTrackLayer(le);
+        Graphics2D g2 = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB).createGraphics();
+        g2.rotate(Math.PI / 4.0);
+        Assert.assertFalse("drawn directly", layer.paint(g2));
+        g2.dispose();
+    }
+
+    @Test
+    public void testIsInBlock() {
+        Assume.assumeFalse(GraphicsEnvironment.isHeadless());
+        TrackSegment ts = le.getTrackSegments().get(0);
+        Assert.assertTrue("in block", LayoutTrackLayer.isInBlock(ts, ts.getLayoutBlock()));
+        Assert.assertFalse("not in block", LayoutTrackLayer.isInBlock(ts, blocks.get(blocks.size() - 1)));
+    }
+
+    private BufferedImage paint(LayoutTrackLayer layer, AffineTransform transform) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(Color.white);
+        g2.fillRect(0, 0, WIDTH, HEIGHT);
+        g2.setTransform(transform);
+        if ((layer == null) || !layer.paint(g2)) {
+            le.drawTrackLayer(g2, le.getLayoutTracks());
+        }
+        g2.dispose();
+        return image;
+    }
+
+    private int countDifferences(BufferedImage expected, BufferedImage actual) {
+        int result = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    // from here down is testing infrastructure
+    @Before
+    public void setUp() throws Exception {
+        JUnitUtil.setUp();
+        if (!GraphicsEnvironment.isHeadless()) {
+            le = new LayoutEditor("Track Layer Test");
+            blocks = LayoutTrackLayerBenchmark.generatePanel(le, 400);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (le != null) {
+            JUnitUtil.dispose(le);
+        }
+        JUnitUtil.tearDown();
+    }
+}
@@ -0,0 +1,226 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.util.ArrayList;
+import java.util.List;
+import jmri.Block;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the LinkStateRoutingEngine class.
+ */
+public class LinkStateRoutingEngineTest {
+
+    private Block a, b, c, d, e;
+    private List<LinkStateRoutingEngine.Node> nodes;
+    private LinkStateRoutingEngine.Graph graph;
+    private LinkStateRoutingEngine engine;
+
+    @Test
+    public void testCtor() {
+        LinkStateRoutingEngine t = new LinkStateRoutingEngine();
+        Assert.assertNotNull("exists", t);
+        Assert.assertNull("no route", t.getNextBlock(a, b));
+    }
+
+    @Test
+    public void testNeighbour() {
+        Assert.assertTrue("neighbour", engine.isRouteToDestValid(a, b, b));
+        Assert.assertEquals("neighbour hops", 1, engine.getBlockHopCount(a, b, b));
+        Assert.assertEquals("neighbour metric", 1, engine.getBlockMetric(a, b, b));
+        Assert.assertFalse("not a neighbour", engine.isRouteToDestValid(a, c, c));
+    }
+
+    @Test
+    public void testShortestRoute() {
+        engine.computeAll();
+        Assert.assertEquals("C hops", 2, engine.getBlockHopCount(a, c, b));
+        Assert.assertEquals("C metric", 500, engine.getBlockMetric(a, c, b));
+        Assert.assertEquals("E hops", 3, engine.getBlockHopCount(a, e, b));
+        // through D rather than C
+        Assert.assertEquals("E metric", 260, engine.getBlockMetric(a, e, b));
+        Assert.assertSame("next block", b, engine.getNextBlock(a, e));
+    }
+
+    @Test
+    public void testThroughPathRequired() {
+        // B has no through path from C to D
+        Assert.assertFalse("C to D through B", engine.isRouteToDestValid(c, b, d));
+        Assert.assertEquals("no hops", -1, engine.getBlockHopCount(c, d, b));
+        Assert.assertTrue("C to D through E", engine.isRouteToDestValid(c, e, d));
+        Assert.assertEquals("C to D hops", 2, engine.getBlockHopCount(c, d, e));
+        Assert.assertSame("next block", e, engine.getNextBlock(c, d));
+    }
+
+    @Test
+    public void testMetricChange() {
+        engine.computeAll();
+        Assert.assertEquals("E metric", 260, engine.getBlockMetric(a, e, b));
+        engine.setGraph(graph.withMetric(3, 1000));
+        Assert.assertEquals("E metric through C", 510, engine.getBlockMetric(a, e, b));
+    }
+
+    @Test
+    public void testConnectionsChanged() {
+        LinkStateRoutingEngine.Node node = nodes.get(1);
+        // B's neighbours and through paths as built
+        List<Block> adjacent = new ArrayList<>(node.neighbours);
+        List<Block[]> ends = new ArrayList<>(node.throughPaths);
+        List<Integer> flows = new ArrayList<>(java.util.Collections.nCopies(adjacent.size(), LayoutBlock.RXTX));
+        LayoutBlock lb = layoutBlock(b, 200, adjacent, flows, ends);
+        Assert.assertTrue("unchanged", node.hasConnectionsOf(lb));
+
+        // same number of neighbours, but a different one
+        adjacent.set(2, e);
+        Assert.assertFalse("neighbour replaced", node.hasConnectionsOf(lb));
+        adjacent.set(2, d);
+        Assert.assertTrue("neighbour restored", node.hasConnectionsOf(lb));
+
+        // same number of through paths, but a different one
+        ends.set(0, new Block[]{c, d});
+        Assert.assertFalse("through path replaced", node.hasConnectionsOf(lb));
+        ends.set(0, node.throughPaths.get(0));
+
+        // the same neighbours, but one may no longer be entered
+        flows.set(2, LayoutBlock.TXONLY);
+        Assert.assertFalse("packet flow changed", node.hasConnectionsOf(lb));
+    }
+
+    @Test
+    public void testOneWayLink() {
+        // B only receives traffic from C: C to B to A, but not A to B to C
+        List<Block> adjacent = new ArrayList<>(nodes.get(1).neighbours);
+        List<Integer> flows = new ArrayList<>(java.util.Collections.nCopies(adjacent.size(), LayoutBlock.RXTX));
+        flows.set(adjacent.indexOf(c), LayoutBlock.TXONLY);
+        LinkStateRoutingEngine.Node node = LinkStateRoutingEngine.Node.of(
+                layoutBlock(b, 200, adjacent, flows, nodes.get(1).throughPaths));
+        Assert.assertEquals("C can't be entered from B", java.util.Arrays.asList(a, d), node.neighbours);
+        nodes.set(1, node);
+        engine.setGraph(new LinkStateRoutingEngine.Graph(nodes));
+
+        Assert.assertFalse("B to C", engine.isRouteToDestValid(b, c, c));
+        Assert.assertTrue("C to A through B", engine.isRouteToDestValid(c, b, a));
+        // A reaches C only the long way round, through D and E
+        Assert.assertEquals("A to C hops", 4, engine.getBlockHopCount(a, c, b));
+        Assert.assertEquals("A to C metric", 560, engine.getBlockMetric(a, c, b));
+    }
+
+    @Test
+    public void testDeniedBlock() {
+        // D denies traffic from B
+        d.addBlockDenyList(b);
+        List<Block> adjacent = new ArrayList<>(nodes.get(1).neighbours);
+        List<Integer> flows = new ArrayList<>(java.util.Collections.nCopies(adjacent.size(), LayoutBlock.RXTX));
+        LinkStateRoutingEngine.Node node = LinkStateRoutingEngine.Node.of(
+                layoutBlock(b, 200, adjacent, flows, nodes.get(1).throughPaths));
+        Assert.assertEquals("D can't be entered from B", java.util.Arrays.asList(a, c), node.neighbours);
+        nodes.set(1, node);
+        engine.setGraph(new LinkStateRoutingEngine.Graph(nodes));
+
+        Assert.assertFalse("B to D", engine.isRouteToDestValid(b, d, d));
+        // A reaches E through C instead
+        Assert.assertEquals("E metric through C", 510, engine.getBlockMetric(a, e, b));
+    }
+
+    /**
+     * A layout block with the given connections, without a panel.
+     */
+    private LayoutBlock layoutBlock(Block block, int blockMetric, List<Block> adjacent, List<Integer> flows, List<Block[]> ends) {
+        return new LayoutBlock("ILB" + block.getSystemName(), block.getSystemName()) {
+            @Override
+            public Block getBlock() {
+                return block;
+            }
+
+            @Override
+            public int getBlockMetric() {
+                return blockMetric;
+            }
+
+            @Override
+            public int getNumberOfNeighbours() {
+                return adjacent.size();
+            }
+
+            @Override
+            public Block getNeighbourAtIndex(int i) {
+                return adjacent.get(i);
+            }
+
+            @Override
+            int getNeighbourPacketFlow(int i) {
+                return flows.get(i);
+            }
+
+            @Override
+            public int getNumberOfThroughPaths() {
+                return ends.size();
+            }
+
+            @Override
+            public Block getThroughPathSource(int i) {
+                return ends.get(i)[0];
+            }
+
+            @Override
+            public Block getThroughPathDestination(int i) {
+                return ends.get(i)[1];
+            }
+        };
+    }
+
+    private LinkStateRoutingEngine.Node node(Block block, int metric) {
+        return new LinkStateRoutingEngine.Node(block, metric);
+    }
+
+    private void link(LinkStateRoutingEngine.Node from, LinkStateRoutingEngine.Node to) {
+        from.neighbours.add(to.block);
+        to.neighbours.add(from.block);
+    }
+
+    private void throughPath(LinkStateRoutingEngine.Node at, Block from, Block to) {
+        at.throughPaths.add(new Block[]{from, to});
+        at.throughPaths.add(new Block[]{to, from});
+    }
+
+    // from here down is testing infrastructure
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        a = new Block("IB1");
+        b = new Block("IB2");
+        c = new Block("IB3");
+        d = new Block("IB4");
+        e = new Block("IB5");
+
+        // A - B - C - E and B - D - E
+        nodes = new ArrayList<>();
+        nodes.add(node(a, 100));
+        nodes.add(node(b, 200));
+        nodes.add(node(c, 300));
+        nodes.add(node(d, 50));
+        nodes.add(node(e, 10));
+        link(nodes.get(0), nodes.get(1));
+        link(nodes.get(1), nodes.get(2));
+        link(nodes.get(1), nodes.get(3));
+        link(nodes.get(2), nodes.get(4));
+        link(nodes.get(3), nodes.get(4));
+        throughPath(nodes.get(1), a, c);
+        throughPath(nodes.get(1), a, d);
+        throughPath(nodes.get(2), b, e);
+        throughPath(nodes.get(3), b, e);
+        throughPath(nodes.get(4), c, d);
+
+        engine = new LinkStateRoutingEngine();
+        graph = new LinkStateRoutingEngine.Graph(nodes);
+        engine.setGraph(graph);
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.runners.Suite;
         LayoutBlockConnectivityToolsTest.class, 
         LayoutBlockManagerTest.class, 
         LayoutBlockTest.class, 
+        LinkStateRoutingEngineTest.class,
         LayoutConnectivityTest.class, 
         LayoutEditorActionTest.class, 
         LayoutEditorAuxToolsTest.class,
@@ -40,6 +41,8 @@ import org.junit.runners.Suite;
         TrackSegmentTest.class,
         TransitCreationToolTest.class,
         LayoutTrackEditorsTest.class,
+        LayoutTrackIndexTest.class,
+        LayoutTrackLayerTest.class,
         LayoutEditorComponentTest.class,
         LayoutEditorToolsTest.class,
         LayoutEditorChecksTest.class
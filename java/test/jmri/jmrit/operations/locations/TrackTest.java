@@ -414,6 +414,27 @@ public class TrackTest extends OperationsTestCase {
         Assert.assertEquals("Location Track Add Loads false", false, t.isAddCustomLoadsEnabled());
     }
 
+    public void testTrackAcceptsAttributes() {
+        Location l = InstanceManager.getDefault(LocationManager.class).newLocation("TestAccepts");
+        Track t = l.addTrack("Short track", Track.YARD);
+        t.setLength(20);
+        l.addTypeName("Boxcar");
+        t.addTypeName("Boxcar");
+        t.deleteTypeName("Flatcar");
+
+        Car c1 = new Car("TESTROAD", "TESTNUMBER1");
+        c1.setTypeName("Boxcar");
+        c1.setLength("40");
+
+        // the attributes are fine, but there isn't room for the car
+        Assert.assertEquals("attributes", Track.OKAY, t.acceptsAttributes(c1));
+        Assert.assertTrue("no room", t.accepts(c1).startsWith(Track.CAPACITY));
+
+        c1.setTypeName("Flatcar");
+        Assert.assertEquals("wrong type", Track.TYPE + " (Flatcar)", t.acceptsAttributes(c1));
+        Assert.assertEquals("wrong type", t.acceptsAttributes(c1), t.accepts(c1));
+    }
+
     public void testSpurTrackOrder() {
         Location l = InstanceManager.getDefault(LocationManager.class).newLocation("TestOrder");
         Track t = l.addTrack("New track 1", Track.SPUR);
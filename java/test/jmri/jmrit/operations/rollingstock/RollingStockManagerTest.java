@@ -1,6 +1,8 @@
 package jmri.jmrit.operations.rollingstock;
 
+import java.util.List;
 import jmri.jmrit.operations.rollingstock.cars.Car;
+import jmri.jmrit.operations.trains.Train;
 import jmri.util.JUnitUtil;
 import org.junit.After;
 import org.junit.Assert;
@@ -19,6 +21,55 @@ public class RollingStockManagerTest {
         Assert.assertNotNull("exists",t);
     }
 
+    @Test
+    public void testSortedListFollowsChanges() {
+        RollingStockManager<Car> manager = new RollingStockManager<Car>();
+        Car c1 = new Car("CP", "1");
+        Car c2 = new Car("AA", "2");
+        manager.register(c1);
+        manager.register(c2);
+
+        List<Car> list = manager.getByRoadNameList();
+        Assert.assertEquals("first", c2, list.get(0));
+        Assert.assertEquals("second", c1, list.get(1));
+        // the caller may change the list it is given
+        list.clear();
+        Assert.assertEquals("still sorted", c2, manager.getByRoadNameList().get(0));
+
+        c2.setRoadName("ZZ");
+        Assert.assertEquals("sorted again", c1, manager.getByRoadNameList().get(0));
+
+        manager.deregister(c1);
+        Assert.assertEquals("removed", 1, manager.getByRoadNameList().size());
+    }
+
+    @Test
+    public void testIndexes() {
+        RollingStockManager<Car> manager = new RollingStockManager<Car>();
+        Car c1 = new Car("CP", "1");
+        Car c2 = new Car("AA", "2");
+        c1.setTypeName("Boxcar");
+        c2.setTypeName("Flatcar");
+        manager.register(c1);
+        manager.register(c2);
+        Train train = new Train("1", "T1");
+
+        Assert.assertEquals("type and road", c1, manager.getByTypeAndRoad("Boxcar", "CP"));
+        Assert.assertNull("no such car", manager.getByTypeAndRoad("Flatcar", "CP"));
+        c2.setRoadName("CP");
+        Assert.assertEquals("new road", c2, manager.getByTypeAndRoad("Flatcar", "CP"));
+
+        Assert.assertTrue("not in train", manager.getList(train).isEmpty());
+        c1.setTrain(train);
+        Assert.assertEquals("in train", 1, manager.getList(train).size());
+        Assert.assertEquals("car in train", c1, manager.getList(train).get(0));
+        c1.setTrain(null);
+        Assert.assertTrue("left train", manager.getList(train).isEmpty());
+
+        manager.deregister(c2);
+        Assert.assertNull("deregistered", manager.getByTypeAndRoad("Flatcar", "CP"));
+    }
+
     // The minimal setup for log4J
     @Before
     public void setUp() {
@@ -1,12 +1,19 @@
 package jmri.jmrit.operations.rollingstock.cars;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.util.List;
 import jmri.InstanceManager;
+import jmri.jmrit.operations.OperationsJournal;
 import jmri.jmrit.operations.OperationsTestCase;
+import jmri.jmrit.operations.OperationsXml;
+import jmri.jmrit.operations.setup.Setup;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import org.jdom2.JDOMException;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
 import org.junit.Assert;
 
 /**
@@ -370,6 +377,139 @@ public class XmlTest extends OperationsTestCase {
         Assert.assertEquals("car c3 weight tons", "1798", c3.getWeightTons());
     }
 
+    /**
+     * Test saving changes to the journal, writing them to the file, and
+     * loading changes left in the journal.
+     *
+     * @throws JDOMException exception
+     * @throws IOException exception
+     */
+    public void testWriteBehind() throws JDOMException, IOException {
+        CarManagerXml xml = InstanceManager.getDefault(CarManagerXml.class);
+        CarManager manager = InstanceManager.getDefault(CarManager.class);
+        File journal = xml.getJournal().getFile();
+
+        Car c1 = manager.newCar("CP", "1");
+        c1.setColor("Red");
+        Car c2 = manager.newCar("CP", "2");
+        c2.setColor("Red");
+        xml.writeOperationsFile();
+        Assert.assertFalse("no journal", journal.exists());
+
+        Setup.setWriteBehindEnabled(true);
+        c1.setColor("Blue");
+        manager.deregister(c2);
+        manager.newCar("CP", "3").setColor("Green");
+        InstanceManager.getDefault(CarRoads.class).addName("Journal Road");
+        // copies of cars aren't saved
+        new Car("CP", "1").setColor("Black");
+        Assert.assertTrue("dirty", xml.isDirty());
+        xml.writeFileIfDirty();
+        Assert.assertFalse("not dirty", xml.isDirty());
+        OperationsXml.flush();
+        Assert.assertFalse("journal written to file", journal.exists());
+
+        manager.dispose();
+        manager = InstanceManager.getDefault(CarManager.class);
+        xml.readFile(xml.getDefaultOperationsFilename());
+        Assert.assertEquals("Number of Cars", 2, manager.getByIdList().size());
+        Assert.assertEquals("car c1 color", "Blue", manager.getByRoadAndNumber("CP", "1").getColor());
+        Assert.assertNull("car c2 deleted", manager.getByRoadAndNumber("CP", "2"));
+        Assert.assertEquals("car c3 color", "Green", manager.getByRoadAndNumber("CP", "3").getColor());
+        Assert.assertTrue("road", InstanceManager.getDefault(CarRoads.class).containsName("Journal Road"));
+
+        // changes left in the journal are loaded with the file
+        Car c4 = new Car("CP", "4");
+        c4.setColor("Yellow");
+        String record = new XMLOutputter(Format.getRawFormat()).outputString(c4.store());
+        try (FileWriter writer = new FileWriter(journal)) {
+            writer.write(record + "\n");
+            writer.write(new XMLOutputter(Format.getRawFormat()).outputString(OperationsJournal.getDeletedRecord(
+                    manager.getByRoadAndNumber("CP", "1").getId())) + "\n");
+            writer.write("<car id=\"CP5\""); // incomplete
+        }
+        manager.dispose();
+        manager = InstanceManager.getDefault(CarManager.class);
+        xml.readFile(xml.getDefaultOperationsFilename());
+        jmri.util.JUnitAppender.assertWarnMessage("Journal " + journal + " has an incomplete record, removing it");
+        Assert.assertTrue("dirty", xml.isDirty());
+        Assert.assertEquals("Number of Cars", 2, manager.getByIdList().size());
+        Assert.assertNull("car c1 deleted", manager.getByRoadAndNumber("CP", "1"));
+        Assert.assertEquals("car c4 color", "Yellow", manager.getByRoadAndNumber("CP", "4").getColor());
+        Assert.assertEquals("incomplete record removed", record.length() + 1 + new XMLOutputter(Format.getRawFormat())
+                .outputString(OperationsJournal.getDeletedRecord("CP1")).length() + 1, journal.length());
+
+        // writing the file in full removes the journal
+        xml.writeOperationsFile();
+        Assert.assertFalse("no journal", journal.exists());
+    }
+
+    /**
+     * Test saving changes to the journal from several threads while the file
+     * is written in full.
+     *
+     * @throws JDOMException exception
+     * @throws IOException exception
+     * @throws InterruptedException exception
+     */
+    public void testWriteBehindWithFullWrite() throws JDOMException, IOException, InterruptedException {
+        CarManagerXml xml = InstanceManager.getDefault(CarManagerXml.class);
+        CarManager manager = InstanceManager.getDefault(CarManager.class);
+        File journal = xml.getJournal().getFile();
+        String[] colors = {"Red", "Green", "Blue", "Black"};
+        for (int i = 0; i < 10; i++) {
+            manager.newCar("CP", Integer.toString(i)).setColor("Red");
+        }
+        xml.writeOperationsFile();
+
+        Setup.setWriteBehindEnabled(true);
+        List<Throwable> failures = new java.util.ArrayList<>();
+        Thread[] threads = new Thread[3];
+        for (int t = 0; t < threads.length; t++) {
+            final int n = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int pass = 0; pass < 20; pass++) {
+                        if (n == 0) {
+                            xml.writeOperationsFile();
+                        } else {
+                            for (Car car : manager.getByIdList()) {
+                                car.setColor(colors[(pass + n) % colors.length]);
+                            }
+                            xml.writeFileIfDirty();
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }, "Write Behind Test " + t);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue("no failures " + failures, failures.isEmpty());
+        xml.writeFileIfDirty();
+        OperationsXml.flush();
+        Assert.assertFalse("journal written to file", journal.exists());
+
+        java.util.Map<String, String> expected = new java.util.HashMap<>();
+        for (Car car : manager.getByIdList()) {
+            expected.put(car.getId(), car.getColor());
+        }
+        manager.dispose();
+        CarManager reloaded = InstanceManager.getDefault(CarManager.class);
+        xml.readFile(xml.getDefaultOperationsFilename());
+        Assert.assertEquals("Number of Cars", expected.size(), reloaded.getByIdList().size());
+        for (Car car : reloaded.getByIdList()) {
+            Assert.assertEquals("car " + car.getId() + " color", expected.get(car.getId()), car.getColor());
+        }
+    }
+
     // TODO: Add tests for location
     // TODO: Add tests for track location
     // TODO: Add tests for destination
@@ -2617,6 +2617,54 @@ public class OperationsCarRouterTest extends OperationsTestCase {
         BedfordToActonTrain.terminate();
     }
 
+    /**
+     * The routing graph finds the same trains as the train manager, and finds
+     * them again after a train is changed.
+     */
+    public void testRoutingGraph() {
+        TrainManager tmanager = InstanceManager.getDefault(TrainManager.class);
+        LocationManager lmanager = InstanceManager.getDefault(LocationManager.class);
+        RoutingGraph graph = InstanceManager.getDefault(RoutingGraph.class);
+
+        loadLocationsTrainsAndCars();
+
+        Track AY = lmanager.getLocationByName("Acton MA").getTrackByName("Acton Yard", Track.YARD);
+        Track BY = lmanager.getLocationByName("Bedford MA").getTrackByName("Bedford Yard", Track.YARD);
+        Track EY = lmanager.getLocationByName("Essex MA").getTrackByName("Essex Yard", Track.YARD);
+
+        Car testCar = new Car("BA", "3");
+        testCar.setTypeName("Boxcar");
+        testCar.setLength("40");
+        testCar.setTrack(AY);
+        testCar.setDestinationTrack(BY);
+
+        // first search loads the graph
+        Assert.assertEquals("same train", tmanager.getTrainForCar(testCar, null), graph.getTrainForCar(testCar));
+        Assert.assertEquals("no searches yet", 0, graph.getSearches());
+        Assert.assertEquals("Acton to Bedford", "Acton to Bedford", graph.getTrainForCar(testCar).getName());
+        Assert.assertEquals("Acton to Bedford", "Acton to Bedford", graph.getTrainForCar(testCar).getName());
+        Assert.assertEquals("searches", 2, graph.getSearches());
+        Assert.assertEquals("cached searches", 1, graph.getSearchesCached());
+
+        // no train goes directly to Essex
+        testCar.setDestinationTrack(EY);
+        Assert.assertNull("no train to Essex", graph.getTrainForCar(testCar));
+        Assert.assertNull("no train to Essex", graph.getTrainForCar(testCar));
+        Assert.assertEquals("cached searches", 2, graph.getSearchesCached());
+
+        // a different class of car isn't cached
+        testCar.setDestinationTrack(BY);
+        testCar.setLength("50");
+        Assert.assertEquals("Acton to Bedford", "Acton to Bedford", graph.getTrainForCar(testCar).getName());
+        Assert.assertEquals("cached searches", 2, graph.getSearchesCached());
+
+        // editing a train clears the graph
+        tmanager.getTrainByName("Acton to Bedford").deleteTypeName("Boxcar");
+        Assert.assertEquals("next train", "BedfordToActonToBedford", graph.getTrainForCar(testCar).getName());
+        Assert.assertEquals("cached searches", 2, graph.getSearchesCached());
+        Assert.assertEquals("same train", tmanager.getTrainForCar(testCar, null), graph.getTrainForCar(testCar));
+    }
+
     private void loadLocationsTrainsAndCars() {
         LocationManager lmanager = InstanceManager.getDefault(LocationManager.class);
         TrainManager tmanager = InstanceManager.getDefault(TrainManager.class);
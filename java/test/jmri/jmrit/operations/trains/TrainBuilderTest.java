@@ -178,6 +178,42 @@ public class TrainBuilderTest {
         Assert.assertTrue("Train should build, two location route", train.isBuilt());
     }
 
+    @Test
+    public void testTrackChecksFromCache() {
+        Train train = tmanager.newTrain("TestTrackChecksFromCache");
+        Route route = rmanager.newRoute("TestTrackChecks");
+        Location depart = lmanager.newLocation("depart");
+        route.addLocation(depart);
+        Track departureTrack = depart.addTrack("departure track", Track.YARD);
+        departureTrack.setLength(300);
+        Location terminate = lmanager.newLocation("terminate");
+        route.addLocation(terminate);
+        Track spur = terminate.addTrack("terminal spur", Track.SPUR);
+        spur.setLength(300);
+        Track rejects = terminate.addTrack("terminal spur for other roads", Track.SPUR);
+        rejects.setLength(300);
+        rejects.setRoadOption(Track.INCLUDE_ROADS);
+        train.setRoute(route);
+
+        ct.addName("Boxcar");
+        cr.addName("CP");
+        for (String number : new String[]{"1", "2", "3"}) {
+            Car car = cmanager.newCar("CP", number);
+            car.setTypeName("Boxcar");
+            car.setLength("40");
+            car.setLocation(depart, departureTrack);
+        }
+
+        TrainBuilder builder = new TrainBuilder();
+        builder.build(train);
+        Assert.assertTrue("Train should build", train.isBuilt());
+        // the spur for other roads is checked for two cars, and the second
+        // time is answered from the cache; the spur that accepts the cars is
+        // checked for each of them, as its space has to be checked as well
+        Assert.assertEquals("checks answered from the cache", 1, builder._acceptsCacheHits);
+        Assert.assertEquals("checks made", 4, builder._acceptsCacheMisses);
+    }
+
     @Test
     public void testRouteRandomFeature() {
         Train train = tmanager.newTrain("TestRouteRandomFeature");
@@ -1,8 +1,26 @@
 //TrainManagerTest.java
 package jmri.jmrit.operations.trains;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import jmri.InstanceManager;
 import jmri.jmrit.operations.OperationsTestCase;
+import jmri.jmrit.operations.locations.Location;
+import jmri.jmrit.operations.locations.LocationManager;
+import jmri.jmrit.operations.locations.Track;
+import jmri.jmrit.operations.locations.schedules.Schedule;
+import jmri.jmrit.operations.locations.schedules.ScheduleManager;
+import jmri.jmrit.operations.rollingstock.cars.Car;
+import jmri.jmrit.operations.rollingstock.cars.CarLoads;
+import jmri.jmrit.operations.rollingstock.cars.CarManager;
+import jmri.jmrit.operations.rollingstock.engines.Engine;
+import jmri.jmrit.operations.rollingstock.engines.EngineManager;
+import jmri.jmrit.operations.routes.Route;
+import jmri.jmrit.operations.routes.RouteManager;
 import jmri.jmrit.operations.setup.Setup;
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -51,6 +69,235 @@ public class TrainManagerTest extends OperationsTestCase {
         Assert.assertNotNull("Retrieve Train", manager.getTrainById("1"));
     }
 
+    public void testParallelBuildOption() {
+        TrainManager manager = InstanceManager.getDefault(TrainManager.class);
+        Assert.assertFalse("Parallel Build", manager.isParallelBuildEnabled());
+        manager.setParallelBuildEnabled(true);
+        Assert.assertTrue("Parallel Build", manager.isParallelBuildEnabled());
+    }
+
+    /**
+     * Trains that share a location must be built in list order.
+     */
+    public void testParallelBuildDependencies() {
+        TrainManager manager = InstanceManager.getDefault(TrainManager.class);
+        LocationManager lmanager = InstanceManager.getDefault(LocationManager.class);
+        RouteManager rmanager = InstanceManager.getDefault(RouteManager.class);
+
+        Location a = lmanager.newLocation("Parallel A");
+        Location b = lmanager.newLocation("Parallel B");
+        Location c = lmanager.newLocation("Parallel C");
+        Location d = lmanager.newLocation("Parallel D");
+
+        Route ab = rmanager.newRoute("Parallel AB");
+        ab.addLocation(a);
+        ab.addLocation(b);
+        Route c1 = rmanager.newRoute("Parallel C");
+        c1.addLocation(c);
+        Route b1 = rmanager.newRoute("Parallel B");
+        b1.addLocation(b);
+        Route d1 = rmanager.newRoute("Parallel D");
+        d1.addLocation(d);
+
+        Train t1 = manager.newTrain("Parallel 1");
+        t1.setRoute(ab);
+        Train t2 = manager.newTrain("Parallel 2");
+        t2.setRoute(c1);
+        Train t3 = manager.newTrain("Parallel 3");
+        t3.setRoute(b1);
+        Train t4 = manager.newTrain("Parallel 4");
+        t4.setRoute(d1);
+        List<Train> trains = Arrays.asList(t1, t2, t3, t4);
+
+        Setup.setCarRoutingEnabled(false);
+        List<List<Integer>> dependencies = new TrainBuildScheduler(trains).getDependencies();
+        Assert.assertEquals("train 1", Collections.emptyList(), dependencies.get(0));
+        Assert.assertEquals("train 2", Collections.emptyList(), dependencies.get(1));
+        Assert.assertEquals("train 3 shares B with train 1", Arrays.asList(0), dependencies.get(2));
+        Assert.assertEquals("train 4", Collections.emptyList(), dependencies.get(3));
+
+        // a train that isn't built doesn't hold up the others
+        t1.setBuildEnabled(false);
+        dependencies = new TrainBuildScheduler(trains).getDependencies();
+        Assert.assertEquals("train 3 not built", Collections.emptyList(), dependencies.get(2));
+        t1.setBuildEnabled(true);
+
+        // with routing, a train joining C and D connects trains 2 and 4
+        Setup.setCarRoutingEnabled(true);
+        Route cd = rmanager.newRoute("Parallel CD");
+        cd.addLocation(c);
+        cd.addLocation(d);
+        manager.newTrain("Parallel 5").setRoute(cd);
+        dependencies = new TrainBuildScheduler(trains).getDependencies();
+        Assert.assertEquals("train 3 routing", Arrays.asList(0), dependencies.get(2));
+        Assert.assertEquals("train 4 routing", Arrays.asList(1), dependencies.get(3));
+
+        // a build script can change anything
+        t2.addBuildScript("test.py");
+        dependencies = new TrainBuildScheduler(trains).getDependencies();
+        Assert.assertEquals("train 2 script", Arrays.asList(0), dependencies.get(1));
+        Assert.assertEquals("train 3 script", Arrays.asList(0, 1), dependencies.get(2));
+        Assert.assertEquals("train 4 script", Arrays.asList(1), dependencies.get(3));
+    }
+
+    /**
+     * Building the trains in parallel must give each train the same cars and
+     * engines as building them one after the other.
+     */
+    public void testParallelBuild() {
+        TrainManager manager = InstanceManager.getDefault(TrainManager.class);
+        manager.setBuildMessagesEnabled(false); // no dialogs
+        LocationManager lmanager = InstanceManager.getDefault(LocationManager.class);
+        RouteManager rmanager = InstanceManager.getDefault(RouteManager.class);
+        CarManager cmanager = InstanceManager.getDefault(CarManager.class);
+
+        // a second part of the railroad, which the fixture's trains don't visit
+        Location east = lmanager.newLocation("Parallel East");
+        Track eastYard = east.addTrack("Parallel East Yard", Track.YARD);
+        eastYard.setLength(1000);
+        Location west = lmanager.newLocation("Parallel West");
+        Track westYard = west.addTrack("Parallel West Yard", Track.YARD);
+        westYard.setLength(1000);
+        for (int i = 1; i <= 6; i++) {
+            Car car = cmanager.newCar("PE", Integer.toString(i));
+            car.setTypeName("Boxcar");
+            car.setLength("40");
+            car.setLocation(i <= 4 ? east : west, i <= 4 ? eastYard : westYard);
+        }
+        Route eastWest = rmanager.newRoute("Parallel East West");
+        eastWest.addLocation(east).setMaxCarMoves(3);
+        eastWest.addLocation(west).setMaxCarMoves(3);
+        manager.newTrain("Parallel 1").setRoute(eastWest);
+        manager.newTrain("Parallel 2").setRoute(eastWest);
+
+        List<Train> trains = manager.getTrainsByIdList();
+        Map<Track, Integer> moves = getMoves();
+        for (Train train : trains) {
+            train.buildIfSelected();
+        }
+        List<String> serial = getAssignments(trains);
+        reset(trains, moves);
+
+        TrainBuildScheduler scheduler = new TrainBuildScheduler(trains);
+        scheduler.build(2);
+        Assert.assertEquals("assignments", serial, getAssignments(trains));
+        Assert.assertTrue("STF built", manager.getTrainByName("STF").isBuilt());
+        Assert.assertTrue("Parallel 2 built", manager.getTrainByName("Parallel 2").isBuilt());
+        Assert.assertTrue("speedup", scheduler.getSpeedup() > 0);
+    }
+
+    /**
+     * A train that picks up a car with a custom load may send it to the spur
+     * of any schedule, so it must be built in list order even with another
+     * route.
+     */
+    public void testParallelBuildCustomLoads() {
+        TrainManager manager = InstanceManager.getDefault(TrainManager.class);
+        manager.setBuildMessagesEnabled(false); // no dialogs
+        LocationManager lmanager = InstanceManager.getDefault(LocationManager.class);
+        RouteManager rmanager = InstanceManager.getDefault(RouteManager.class);
+        CarManager cmanager = InstanceManager.getDefault(CarManager.class);
+        InstanceManager.getDefault(CarLoads.class).addName("Boxcar", "Scrap");
+
+        Location east = lmanager.newLocation("Parallel East");
+        Track eastYard = east.addTrack("Parallel East Yard", Track.YARD);
+        eastYard.setLength(1000);
+        Location west = lmanager.newLocation("Parallel West");
+        Track westYard = west.addTrack("Parallel West Yard", Track.YARD);
+        westYard.setLength(1000);
+        Location mill = lmanager.newLocation("Parallel Mill");
+        Track millSpur = mill.addTrack("Parallel Mill Spur", Track.SPUR);
+        millSpur.setLength(1000);
+        Schedule schedule = InstanceManager.getDefault(ScheduleManager.class).newSchedule("Parallel Scrap");
+        schedule.addItem("Boxcar").setReceiveLoadName("Scrap");
+        schedule.addItem("Boxcar").setReceiveLoadName("Scrap");
+        millSpur.setScheduleId(schedule.getId());
+        Location south = lmanager.newLocation("Parallel South");
+        Track southYard = south.addTrack("Parallel South Yard", Track.YARD);
+        southYard.setLength(1000);
+
+        for (int i = 1; i <= 4; i++) {
+            Car car = cmanager.newCar("PE", Integer.toString(i));
+            car.setTypeName("Boxcar");
+            car.setLength("40");
+            car.setLoadName("Scrap");
+            car.setLocation(i <= 2 ? east : south, i <= 2 ? eastYard : southYard);
+        }
+        Route eastWest = rmanager.newRoute("Parallel East West");
+        eastWest.addLocation(east);
+        eastWest.addLocation(west);
+        Route southMill = rmanager.newRoute("Parallel South Mill");
+        southMill.addLocation(south);
+        southMill.addLocation(mill);
+        Train t1 = manager.newTrain("Parallel 1");
+        t1.setRoute(eastWest);
+        Train t2 = manager.newTrain("Parallel 2");
+        t2.setRoute(southMill);
+
+        List<Train> trains = manager.getTrainsByIdList();
+        List<List<Integer>> dependencies = new TrainBuildScheduler(trains).getDependencies();
+        Assert.assertEquals("waits for every train", Arrays.asList(0, 1, 2), dependencies.get(3));
+
+        Map<Track, Integer> moves = getMoves();
+        for (Train train : trains) {
+            train.buildIfSelected();
+        }
+        List<String> serial = getAssignments(trains);
+        String serialItem = millSpur.getScheduleItemId();
+        reset(trains, moves);
+        millSpur.setScheduleItemId(schedule.getItemsBySequenceList().get(0).getId());
+
+        new TrainBuildScheduler(trains).build(2);
+        Assert.assertEquals("assignments", serial, getAssignments(trains));
+        Assert.assertEquals("schedule item", serialItem, millSpur.getScheduleItemId());
+        Assert.assertTrue("Parallel 2 built", t2.isBuilt());
+    }
+
+    /**
+     * @return the moves of every track, which the builder uses to choose
+     *         between tracks
+     */
+    private Map<Track, Integer> getMoves() {
+        Map<Track, Integer> moves = new HashMap<>();
+        for (Track track : InstanceManager.getDefault(LocationManager.class).getTracks(null)) {
+            moves.put(track, track.getMoves());
+        }
+        return moves;
+    }
+
+    /**
+     * Reset the trains and the moves of the tracks, so the trains can be built
+     * again from the same start.
+     */
+    private void reset(List<Train> trains, Map<Track, Integer> moves) {
+        for (Train train : trains) {
+            Assert.assertTrue("reset " + train.getName(), train.reset());
+        }
+        for (Map.Entry<Track, Integer> entry : moves.entrySet()) {
+            entry.getKey().setMoves(entry.getValue());
+        }
+    }
+
+    /**
+     * @return for each train, its build status, the cars assigned to it with
+     *         their destination tracks, and the engines assigned to it
+     */
+    private List<String> getAssignments(List<Train> trains) {
+        List<String> assignments = new ArrayList<>();
+        for (Train train : trains) {
+            StringBuilder sb = new StringBuilder(train.getName());
+            sb.append(" built ").append(train.isBuilt()).append(" status ").append(train.getStatusCode());
+            for (Car car : InstanceManager.getDefault(CarManager.class).getByTrainList(train)) {
+                sb.append(' ').append(car.getId()).append(" to ").append(car.getDestinationTrackName());
+            }
+            for (Engine engine : InstanceManager.getDefault(EngineManager.class).getByTrainList(train)) {
+                sb.append(' ').append(engine.getId());
+            }
+            assignments.add(sb.toString());
+        }
+        return assignments;
+    }
+
     // from here down is testing infrastructure
     // Ensure minimal setup for log4J
     @Override
@@ -27,6 +27,114 @@ public class DeviceServerTest extends TestCase {
         Assert.assertNotNull("exists", panel );
     }
 
+    public void testSelector() throws Exception {
+        FacelessServer f = new FacelessServer(){
+           @Override
+           public void listen(){
+           }
+        };
+        java.util.List<String> events = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        DeviceListener l = new DeviceListener() {
+            @Override
+            public void notifyDeviceConnected(DeviceServer device) {
+                events.add("connected");
+            }
+
+            @Override
+            public void notifyDeviceDisconnected(DeviceServer device) {
+                events.add("disconnected " + device.getName());
+            }
+
+            @Override
+            public void notifyDeviceAddressChanged(DeviceServer device) {
+            }
+
+            @Override
+            public void notifyDeviceInfoChanged(DeviceServer device) {
+                events.add("udid " + device.getUDID());
+            }
+        };
+        java.nio.channels.ServerSocketChannel channel = java.nio.channels.ServerSocketChannel.open();
+        channel.socket().bind(new java.net.InetSocketAddress("localhost", 0));
+        DeviceSelector selector = new DeviceSelector(channel, f, java.util.Arrays.asList(l));
+        Thread t = new Thread(selector);
+        t.start();
+        try (java.net.Socket s = new java.net.Socket("localhost", channel.socket().getLocalPort())) {
+            s.setSoTimeout(5000);
+            java.io.BufferedReader in = new java.io.BufferedReader(new java.io.InputStreamReader(s.getInputStream(), "UTF8"));
+            Assert.assertEquals("version sent first", "VN" + DeviceServer.getWiTVersion(), in.readLine());
+            Assert.assertTrue("connected", JUnitUtil.waitFor(() -> events.contains("connected")));
+            jmri.util.JUnitAppender.assertErrorMessage("Attempting to use WiFiConsisting, but no Command Station available");
+            // lines split across writes, with either line ending
+            java.io.OutputStream out = s.getOutputStream();
+            out.write("NTest Dev".getBytes("UTF8"));
+            out.flush();
+            out.write("ice\r\nHUabc\n".getBytes("UTF8"));
+            out.flush();
+            Assert.assertTrue("udid", JUnitUtil.waitFor(() -> events.contains("udid abc")));
+            out.write("Q\n".getBytes("UTF8"));
+            out.flush();
+            Assert.assertTrue("disconnected", JUnitUtil.waitFor(() -> events.contains("disconnected Test Device")));
+            // the roster and controller lists follow, then the server closes the connection
+            while (in.readLine() != null) {
+            }
+        } finally {
+            selector.close();
+            channel.close();
+            t.join(5000);
+        }
+        Assert.assertFalse("stopped", t.isAlive());
+    }
+
+    public void testSelectorHangUp() throws Exception {
+        FacelessServer f = new FacelessServer(){
+           @Override
+           public void listen(){
+           }
+        };
+        java.util.List<String> events = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        DeviceListener l = new DeviceListener() {
+            @Override
+            public void notifyDeviceConnected(DeviceServer device) {
+            }
+
+            @Override
+            public void notifyDeviceDisconnected(DeviceServer device) {
+                events.add("disconnected " + device.getName());
+            }
+
+            @Override
+            public void notifyDeviceAddressChanged(DeviceServer device) {
+            }
+
+            @Override
+            public void notifyDeviceInfoChanged(DeviceServer device) {
+                events.add("udid " + device.getUDID());
+            }
+        };
+        java.nio.channels.ServerSocketChannel channel = java.nio.channels.ServerSocketChannel.open();
+        channel.socket().bind(new java.net.InetSocketAddress("localhost", 0));
+        DeviceSelector selector = new DeviceSelector(channel, f, java.util.Arrays.asList(l));
+        Thread t = new Thread(selector);
+        t.start();
+        try {
+            // the lines sent just before hanging up are still handled, and
+            // the throttles are closed once, after them
+            try (java.net.Socket s = new java.net.Socket("localhost", channel.socket().getLocalPort())) {
+                s.getOutputStream().write("NTest Device\nHUabc\nQ\n".getBytes("UTF8"));
+            }
+            Assert.assertTrue("disconnected", JUnitUtil.waitFor(() -> events.contains("disconnected Test Device")));
+            jmri.util.JUnitAppender.assertErrorMessage("Attempting to use WiFiConsisting, but no Command Station available");
+            Thread.sleep(200);
+            Assert.assertEquals("events", java.util.Arrays.asList("udid abc", "disconnected Test Device"), events);
+        } finally {
+            selector.close();
+            channel.close();
+            t.join(5000);
+        }
+        Assert.assertFalse("stopped", t.isAlive());
+    }
+
     // from here down is testing infrastructure
     public DeviceServerTest(String s) {
         super(s);
@@ -53,6 +53,37 @@ public class AbstractMRTrafficControllerTest {
            Assert.assertFalse(tc.status());
     }
 
+    @Test
+    public void testTransmitStatisticsInitiallyZero(){
+           Assert.assertEquals(0, tc.getTransmitQueueDepth());
+           Assert.assertEquals(0, tc.getMaxTransmitQueueDepth());
+           Assert.assertEquals(0, tc.getTransmittedMessageCount());
+           Assert.assertEquals(0, tc.getDroppedMessageCount());
+           Assert.assertEquals(0.0, tc.getMeanTransmitLatency(), 0.0);
+    }
+
+    @Test
+    public void testDefaultTransmitPriority(){
+           Assert.assertEquals(MRTransmitQueue.PRIORITY_NORMAL, tc.getTransmitPriority(null));
+    }
+
+    @Test
+    public void testBufferedReceive() throws java.io.IOException {
+           tc.setBufferedReceive(true);
+           Assert.assertTrue(tc.getBufferedReceive());
+           java.io.DataInputStream istream = new java.io.DataInputStream(
+                   new java.io.ByteArrayInputStream(new byte[]{0x01, 0x02, (byte) 0xFF}));
+           Assert.assertEquals(0x01, tc.readByteProtected(istream));
+           Assert.assertEquals(0x02, tc.readByteProtected(istream));
+           Assert.assertEquals((byte) 0xFF, tc.readByteProtected(istream));
+           try {
+               tc.readByteProtected(istream);
+               Assert.fail("Expected IOException at end of stream");
+           } catch (java.io.IOException e) {
+               // expected
+           }
+    }
+
     @Before
     public void setUp() {
         apps.tests.Log4JFixture.setUp(); 
@@ -0,0 +1,121 @@
+package jmri.jmrix;
+
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for MRTransmitQueue.
+ */
+public class MRTransmitQueueTest {
+
+    private MRTransmitQueue queue;
+
+    private AbstractMRMessage message(int value) {
+        AbstractMRMessage m = new AbstractMRMessage(1) {
+        };
+        m.setElement(0, value);
+        return m;
+    }
+
+    @Test
+    public void testCtor() {
+        Assert.assertNotNull(queue);
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals(MRTransmitQueue.DEFAULT_CAPACITY, queue.getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new MRTransmitQueue(0);
+    }
+
+    @Test
+    public void testFifoWithinPriority() {
+        AbstractMRMessage m1 = message(1);
+        AbstractMRMessage m2 = message(2);
+        AbstractMRMessage m3 = message(3);
+        queue.offer(m1, null, MRTransmitQueue.PRIORITY_NORMAL);
+        queue.offer(m2, null, MRTransmitQueue.PRIORITY_NORMAL);
+        queue.offer(m3, null, MRTransmitQueue.PRIORITY_NORMAL);
+        Assert.assertEquals(3, queue.size());
+        Assert.assertSame(m1, queue.poll().message);
+        Assert.assertSame(m2, queue.poll().message);
+        Assert.assertSame(m3, queue.poll().message);
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        AbstractMRMessage low = message(1);
+        AbstractMRMessage normal = message(2);
+        AbstractMRMessage high = message(3);
+        queue.offer(low, null, MRTransmitQueue.PRIORITY_LOW);
+        queue.offer(normal, null, MRTransmitQueue.PRIORITY_NORMAL);
+        queue.offer(high, null, MRTransmitQueue.PRIORITY_HIGH);
+        Assert.assertSame(high, queue.poll().message);
+        Assert.assertSame(normal, queue.poll().message);
+        Assert.assertSame(low, queue.poll().message);
+    }
+
+    @Test
+    public void testListenerKeptWithMessage() {
+        AbstractMRListener l = new AbstractMRListener() {
+        };
+        queue.offer(message(1), l, MRTransmitQueue.PRIORITY_NORMAL);
+        Assert.assertSame(l, queue.poll().listener);
+    }
+
+    @Test
+    public void testCapacity() {
+        queue = new MRTransmitQueue(2);
+        Assert.assertTrue(queue.offer(message(1), null, MRTransmitQueue.PRIORITY_NORMAL));
+        Assert.assertTrue(queue.offer(message(2), null, MRTransmitQueue.PRIORITY_NORMAL));
+        Assert.assertFalse(queue.offer(message(3), null, MRTransmitQueue.PRIORITY_NORMAL));
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(1, queue.getDroppedCount());
+        Assert.assertEquals(2, queue.getMaxDepth());
+    }
+
+    @Test
+    public void testPushFront() {
+        AbstractMRMessage m1 = message(1);
+        AbstractMRMessage m2 = message(2);
+        queue.offer(m1, null, MRTransmitQueue.PRIORITY_NORMAL);
+        queue.offer(m2, null, MRTransmitQueue.PRIORITY_NORMAL);
+        MRTransmitQueue.Item item = queue.poll();
+        queue.pushFront(item);
+        Assert.assertEquals(2, queue.size());
+        Assert.assertSame(m1, queue.poll().message);
+    }
+
+    @Test
+    public void testStatistics() {
+        queue.offer(message(1), null, MRTransmitQueue.PRIORITY_NORMAL);
+        queue.offer(message(2), null, MRTransmitQueue.PRIORITY_NORMAL);
+        queue.recordSent(queue.poll());
+        Assert.assertEquals(1, queue.getSentCount());
+        Assert.assertTrue(queue.getMeanLatency() >= 0.0);
+        Assert.assertTrue(queue.getMaxLatency() >= queue.getMeanLatency());
+        queue.resetStatistics();
+        Assert.assertEquals(0, queue.getSentCount());
+        Assert.assertEquals(0.0, queue.getMeanLatency(), 0.0);
+        Assert.assertEquals(1, queue.getMaxDepth());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        queue = new MRTransmitQueue();
+    }
+
+    @After
+    public void tearDown() {
+        queue = null;
+        JUnitUtil.tearDown();
+    }
+
+}
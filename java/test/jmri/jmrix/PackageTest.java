@@ -7,6 +7,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
         AbstractMRTrafficControllerTest.class,
         AbstractMRNodeTrafficControllerTest.class,
+        MRTransmitQueueTest.class,
 
         jmri.jmrix.AbstractProgrammerTest.class,
         jmri.jmrix.AbstractMRReplyTest.class,
@@ -1,8 +1,11 @@
 package jmri.jmrix.dccpp;
 
+import jmri.jmrix.MRTransmitQueue;
 import jmri.util.JUnitUtil;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 
 /**
  * Generated by JBuilder
@@ -18,6 +21,15 @@ import org.junit.Before;
  */
 public class DCCppTrafficControllerTest extends jmri.jmrix.AbstractMRTrafficControllerTest {
 
+    @Test
+    public void testThrottleMessagesFirst() {
+        DCCppTrafficController dtc = (DCCppTrafficController) tc;
+        Assert.assertEquals("throttle", MRTransmitQueue.PRIORITY_HIGH,
+                dtc.getTransmitPriority(DCCppMessage.makeSpeedAndDirectionMsg(1, 3, 0.5f, true)));
+        Assert.assertEquals("turnout", MRTransmitQueue.PRIORITY_NORMAL,
+                dtc.getTransmitPriority(DCCppMessage.makeTurnoutCommandMsg(1, true)));
+    }
+
     // The minimal setup for log4J
     @Override
     @Before
@@ -4,6 +4,7 @@ import jmri.util.JUnitUtil;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import org.junit.Assert;
 
 /**
  * Generated by JBuilder
@@ -26,6 +27,80 @@ public class LnTrafficControllerTest extends TestCase {
         // just to make JUnit feel better
     }
 
+    static class CountingListener implements LocoNetListener {
+
+        int count = 0;
+
+        @Override
+        public void message(LocoNetMessage m) {
+            count++;
+        }
+    }
+
+    private LocoNetMessage message(int opcode) {
+        return new LocoNetMessage(new int[]{opcode, 0x00, 0x00, 0x00});
+    }
+
+    public void testOpcodeRouting() {
+        LocoNetInterfaceScaffold tc = new LocoNetInterfaceScaffold();
+        CountingListener sensors = new CountingListener();
+        CountingListener all = new CountingListener();
+        tc.addLocoNetListener(sensors, LnConstants.OPC_INPUT_REP);
+        tc.addLocoNetListener(LocoNetInterface.ALL, all);
+        Assert.assertEquals(2, tc.numListeners());
+
+        tc.sendTestMessage(message(LnConstants.OPC_INPUT_REP));
+        Assert.assertEquals(1, sensors.count);
+        Assert.assertEquals(1, all.count);
+
+        tc.sendTestMessage(message(LnConstants.OPC_SW_REQ));
+        Assert.assertEquals(1, sensors.count);
+        Assert.assertEquals(2, all.count);
+
+        // add more op codes
+        tc.addLocoNetListener(sensors, LnConstants.OPC_SW_REQ);
+        Assert.assertEquals(2, tc.numListeners());
+        tc.sendTestMessage(message(LnConstants.OPC_SW_REQ));
+        Assert.assertEquals(2, sensors.count);
+        tc.sendTestMessage(message(LnConstants.OPC_SW_REP));
+        Assert.assertEquals(2, sensors.count);
+        Assert.assertEquals(4, all.count);
+    }
+
+    public void testOpcodeListenerWidenedToAll() {
+        LocoNetInterfaceScaffold tc = new LocoNetInterfaceScaffold();
+        CountingListener l = new CountingListener();
+        tc.addLocoNetListener(l, LnConstants.OPC_INPUT_REP);
+        tc.addLocoNetListener(LocoNetInterface.ALL, l);
+        tc.sendTestMessage(message(LnConstants.OPC_SW_REQ));
+        Assert.assertEquals(1, l.count);
+        // asking for specific op codes doesn't narrow it again
+        tc.addLocoNetListener(l, LnConstants.OPC_INPUT_REP);
+        tc.sendTestMessage(message(LnConstants.OPC_SW_REP));
+        Assert.assertEquals(2, l.count);
+    }
+
+    public void testRemoveOpcodeListener() {
+        LocoNetInterfaceScaffold tc = new LocoNetInterfaceScaffold();
+        CountingListener l = new CountingListener();
+        tc.addLocoNetListener(l, LnConstants.OPC_INPUT_REP);
+        tc.sendTestMessage(message(LnConstants.OPC_INPUT_REP));
+        tc.removeLocoNetListener(LocoNetInterface.ALL, l);
+        Assert.assertEquals(0, tc.numListeners());
+        tc.sendTestMessage(message(LnConstants.OPC_INPUT_REP));
+        Assert.assertEquals(1, l.count);
+    }
+
+    public void testNullOpcodeListener() {
+        LocoNetInterfaceScaffold tc = new LocoNetInterfaceScaffold();
+        try {
+            tc.addLocoNetListener(null, LnConstants.OPC_INPUT_REP);
+            Assert.fail("expected NullPointerException");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
     // Main entry point
     static public void main(String[] args) {
         String[] testCaseName = {LnTrafficControllerTest.class.getName()};
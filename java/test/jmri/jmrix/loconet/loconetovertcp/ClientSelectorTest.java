@@ -0,0 +1,82 @@
+package jmri.jmrix.loconet.loconetovertcp;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import jmri.jmrix.loconet.LocoNetInterfaceScaffold;
+import jmri.jmrix.loconet.LocoNetMessage;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClientSelectorTest {
+
+    @Test
+    public void testSharedMessages() throws Exception {
+        LocoNetInterfaceScaffold lnis = new LocoNetInterfaceScaffold();
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.socket().bind(new InetSocketAddress("localhost", 0));
+        ClientSelector selector = new ClientSelector(LnTcpServer.getDefault(), lnis, channel);
+        Thread t = new Thread(selector);
+        t.start();
+        Socket s2 = new Socket("localhost", channel.socket().getLocalPort());
+        try (Socket s1 = new Socket("localhost", channel.socket().getLocalPort())) {
+            s1.setSoTimeout(5000);
+            s2.setSoTimeout(5000);
+            BufferedReader in1 = new BufferedReader(new InputStreamReader(s1.getInputStream()));
+            BufferedReader in2 = new BufferedReader(new InputStreamReader(s2.getInputStream()));
+            Assert.assertTrue("version", in1.readLine().startsWith("VERSION JMRI Server "));
+            Assert.assertTrue("version", in2.readLine().startsWith("VERSION JMRI Server "));
+            Assert.assertTrue("two clients", JUnitUtil.waitFor(() -> selector.getClientCount() == 2));
+            Assert.assertEquals("listening", 1, lnis.numListeners());
+
+            LocoNetMessage m = new LocoNetMessage(new int[]{0xB2, 0x01, 0x50, 0x1C});
+            lnis.sendTestMessage(m);
+            Assert.assertEquals("first client", "RECEIVE B2 01 50 1C", in1.readLine());
+            Assert.assertEquals("second client", "RECEIVE B2 01 50 1C", in2.readLine());
+
+            // only the client that sent a message is told it was sent
+            OutputStream out = s1.getOutputStream();
+            out.write("SEND B0 02 10 ".getBytes());
+            out.flush();
+            out.write("5D\r\n".getBytes());
+            out.flush();
+            Assert.assertTrue("sent", JUnitUtil.waitFor(() -> lnis.outbound.size() == 1));
+            Assert.assertEquals("sent message", "B0 02 10 5D", lnis.outbound.get(0).toString());
+            lnis.sendTestMessage(lnis.outbound.get(0));
+            lnis.sendTestMessage(m);
+            Assert.assertEquals("first client", "RECEIVE B0 02 10 5D", in1.readLine());
+            Assert.assertEquals("first client", "SENT OK", in1.readLine());
+            Assert.assertEquals("first client", "RECEIVE B2 01 50 1C", in1.readLine());
+            Assert.assertEquals("second client", "RECEIVE B0 02 10 5D", in2.readLine());
+            Assert.assertEquals("second client", "RECEIVE B2 01 50 1C", in2.readLine());
+
+            s2.close();
+            Assert.assertTrue("one client", JUnitUtil.waitFor(() -> selector.getClientCount() == 1));
+        } finally {
+            s2.close();
+            selector.close();
+            channel.close();
+            t.join(5000);
+        }
+        Assert.assertFalse("stopped", t.isAlive());
+        Assert.assertEquals("not listening", 0, lnis.numListeners());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        JUnitUtil.resetProfileManager();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+
+}
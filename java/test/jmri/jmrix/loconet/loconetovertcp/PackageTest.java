@@ -14,6 +14,7 @@ import org.junit.runners.Suite;
    LnTcpServerFrameTest.class,
    LnTcpDriverAdapterTest.class,
    ClientRxHandlerTest.class,
+   ClientSelectorTest.class,
    BundleTest.class,
    LnTcpPreferencesPanelTest.class,
    LnTcpPreferencesTest.class,
@@ -1,5 +1,7 @@
 package jmri.managers;
 
+import java.util.List;
+import jmri.Memory;
 import jmri.util.JUnitUtil;
 import org.junit.After;
 import org.junit.Assert;
@@ -18,6 +20,49 @@ public class DefaultMemoryManagerTest {
         Assert.assertNotNull("exists",t);
     }
 
+    @Test
+    public void testSystemNameListSorted() {
+        DefaultMemoryManager t = new DefaultMemoryManager();
+        t.provideMemory("IM3");
+        t.provideMemory("IM1");
+        t.provideMemory("IM2");
+        List<String> list = t.getSystemNameList();
+        Assert.assertEquals("size", 3, list.size());
+        Assert.assertEquals("first", "IM1", list.get(0));
+        Assert.assertEquals("second", "IM2", list.get(1));
+        Assert.assertEquals("third", "IM3", list.get(2));
+        Assert.assertArrayEquals("array", new String[]{"IM1", "IM2", "IM3"}, t.getSystemNameArray());
+        Assert.assertEquals("bean order", "IM1", t.getNamedBeanList().get(0).getSystemName());
+    }
+
+    @Test
+    public void testListsCachedUntilChanged() {
+        DefaultMemoryManager t = new DefaultMemoryManager();
+        t.provideMemory("IM1");
+        List<String> names = t.getSystemNameList();
+        List<Memory> beans = t.getNamedBeanList();
+        Assert.assertSame("names reused", names, t.getSystemNameList());
+        Assert.assertSame("beans reused", beans, t.getNamedBeanList());
+
+        Memory m = t.provideMemory("IM2");
+        Assert.assertNotSame("names rebuilt", names, t.getSystemNameList());
+        Assert.assertNotSame("beans rebuilt", beans, t.getNamedBeanList());
+        Assert.assertEquals("names size", 2, t.getSystemNameList().size());
+        Assert.assertEquals("beans size", 2, t.getNamedBeanList().size());
+        Assert.assertEquals("old snapshot unchanged", 1, names.size());
+
+        t.deregister(m);
+        Assert.assertEquals("names after deregister", 1, t.getSystemNameList().size());
+        Assert.assertEquals("beans after deregister", 1, t.getNamedBeanList().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSystemNameListUnmodifiable() {
+        DefaultMemoryManager t = new DefaultMemoryManager();
+        t.provideMemory("IM1");
+        t.getSystemNameList().remove("IM1");
+    }
+
     // The minimal setup for log4J
     @Before
     public void setUp() {
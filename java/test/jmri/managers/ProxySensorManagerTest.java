@@ -163,6 +163,47 @@ public class ProxySensorManagerTest extends TestCase {
         Assert.assertNotNull(InstanceManager.getDefault(SensorManager.class).provideSensor("IS2"));
     }
 
+    public void testRouteBySystemName() {
+        ProxySensorManager proxy = (ProxySensorManager) InstanceManager.getDefault(SensorManager.class);
+        Sensor j = proxy.provideSensor("JS3");
+        Sensor i = proxy.provideSensor("IS3");
+
+        Assert.assertSame("J sensor in J manager", j, l.getBySystemName("JS3"));
+        Assert.assertNull("I sensor not in J manager", l.getBySystemName("IS3"));
+        Assert.assertSame("J sensor by proxy", j, proxy.getBySystemName("JS3"));
+        Assert.assertSame("I sensor by proxy", i, proxy.getBySystemName("IS3"));
+        Assert.assertSame("J sensor by name", j, proxy.getNamedBean("JS3"));
+        Assert.assertNull("unknown prefix", proxy.getBySystemName("KS3"));
+        Assert.assertNull("unknown sensor", proxy.getBySystemName("JS4"));
+    }
+
+    public void testMergedListCached() {
+        ProxySensorManager proxy = (ProxySensorManager) InstanceManager.getDefault(SensorManager.class);
+        proxy.provideSensor("JS3");
+        proxy.provideSensor("IS3");
+        java.util.List<Sensor> beans = proxy.getNamedBeanList();
+        java.util.List<String> names = proxy.getSystemNameList();
+        Assert.assertSame("beans reused", beans, proxy.getNamedBeanList());
+        Assert.assertSame("names reused", names, proxy.getSystemNameList());
+        Assert.assertTrue("contains IS3", names.contains("IS3"));
+        Assert.assertTrue("contains JS3", names.contains("JS3"));
+
+        // adding a sensor to either manager invalidates the merged list
+        l.provideSensor("JS1");
+        Assert.assertNotSame("beans rebuilt", beans, proxy.getNamedBeanList());
+        Assert.assertEquals("one more bean", beans.size() + 1, proxy.getNamedBeanList().size());
+        Assert.assertEquals("one more name", names.size() + 1, proxy.getSystemNameList().size());
+        Assert.assertEquals("ordered", proxy.getSystemNameList().indexOf("JS1") + 1, proxy.getSystemNameList().indexOf("JS3"));
+        Assert.assertArrayEquals("array matches list", proxy.getSystemNameList().toArray(), proxy.getSystemNameArray());
+
+        try {
+            proxy.getNamedBeanList().clear();
+            Assert.fail("list should be unmodifiable");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
     /**
      * Number of unit to test. Made a separate method so it can be overridden in
      * subclasses that do or don't support various numbers
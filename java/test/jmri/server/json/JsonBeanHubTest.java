@@ -0,0 +1,51 @@
+package jmri.server.json;
+
+import java.io.DataOutputStream;
+import java.util.Locale;
+import jmri.InstanceManager;
+import jmri.Sensor;
+import jmri.SensorManager;
+import jmri.server.json.sensor.JsonSensor;
+import jmri.server.json.sensor.JsonSensorSocketService;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonBeanHubTest {
+
+    @Test
+    public void testSharedListener() throws Exception {
+        JsonBeanHub hub = InstanceManager.getDefault(JsonBeanHub.class);
+        Sensor sensor = InstanceManager.getDefault(SensorManager.class).provideSensor("IS1");
+        int listeners = sensor.getNumPropertyChangeListeners();
+        JsonMockConnection connection1 = new JsonMockConnection((DataOutputStream) null);
+        JsonMockConnection connection2 = new JsonMockConnection((DataOutputStream) null);
+        JsonSensorSocketService service1 = new JsonSensorSocketService(connection1);
+        JsonSensorSocketService service2 = new JsonSensorSocketService(connection2);
+        service1.onMessage(JsonSensor.SENSOR, connection1.getObjectMapper().createObjectNode().put(JSON.NAME, "IS1"), JSON.GET, Locale.ENGLISH);
+        service2.onMessage(JsonSensor.SENSOR, connection2.getObjectMapper().createObjectNode().put(JSON.NAME, "IS1"), JSON.GET, Locale.ENGLISH);
+        Assert.assertEquals("one listener", listeners + 1, sensor.getNumPropertyChangeListeners());
+        Assert.assertEquals("two subscribers", 2, hub.getSubscriberCount(sensor, JsonSensor.SENSOR));
+        sensor.setKnownState(Sensor.ACTIVE);
+        Assert.assertEquals(JSON.ACTIVE, connection1.getMessage().path(JSON.DATA).path(JSON.STATE).asInt(-1));
+        Assert.assertSame("same message", connection1.getMessage(), connection2.getMessage());
+        service1.onClose();
+        Assert.assertFalse("unsubscribed", hub.isSubscribed(sensor, JsonSensor.SENSOR, service1));
+        Assert.assertTrue("subscribed", hub.isSubscribed(sensor, JsonSensor.SENSOR, service2));
+        service2.onClose();
+        Assert.assertEquals("no listener", listeners, sensor.getNumPropertyChangeListeners());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        JUnitUtil.initInternalSensorManager();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+}
@@ -27,6 +27,11 @@ public class JsonMockConnection extends JsonConnection {
         this.message = message;
     }
 
+    @Override
+    public void sendMessage(JsonNode message, String serialized) {
+        this.message = message;
+    }
+
     public JsonNode getMessage() {
         return this.message;
     }
@@ -32,6 +32,7 @@ import org.junit.runners.Suite.SuiteClasses;
     JsonExceptionTest.class,
     JsonWebSocketTest.class,
     JsonConnectionTest.class,
+    JsonBeanHubTest.class,
     JsonClientHandlerTest.class,
     jmri.server.json.operations.PackageTest.class
 })
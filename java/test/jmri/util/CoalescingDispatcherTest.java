@@ -0,0 +1,106 @@
+package jmri.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for CoalescingDispatcher.
+ */
+public class CoalescingDispatcherTest {
+
+    private final List<Integer> results = new ArrayList<>();
+
+    @Test
+    public void testCtor() {
+        CoalescingDispatcher d = new CoalescingDispatcher("test");
+        Assert.assertEquals(CoalescingDispatcher.DEFAULT_MAX_BATCH_SIZE, d.getMaxBatchSize());
+        Assert.assertEquals(0, d.getMaxLatency());
+        Assert.assertEquals(0, d.getDispatchedCount());
+        Assert.assertEquals(0, d.getMergedCount());
+    }
+
+    @Test
+    public void testLimits() {
+        CoalescingDispatcher d = new CoalescingDispatcher("test", 0, -5);
+        Assert.assertEquals(1, d.getMaxBatchSize());
+        Assert.assertEquals(0, d.getMaxLatency());
+    }
+
+    @Test
+    public void testSingleBatchInOrder() {
+        CoalescingDispatcher d = new CoalescingDispatcher("test");
+        // queue from the layout thread, so nothing can run until all are queued
+        ThreadingUtil.runOnLayout(() -> {
+            for (int i = 0; i < 10; i++) {
+                final int value = i;
+                d.dispatch(() -> {
+                    Assert.assertTrue("on Layout thread", ThreadingUtil.isLayoutThread());
+                    results.add(value);
+                });
+            }
+        });
+        JUnitUtil.waitFor(() -> {
+            return results.size() == 10;
+        }, "all actions run");
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i, (int) results.get(i));
+        }
+        Assert.assertEquals(10, d.getDispatchedCount());
+        Assert.assertEquals(1, d.getBatchCount());
+        Assert.assertEquals(9, d.getMergedCount());
+    }
+
+    @Test
+    public void testBatchSizeLimit() {
+        CoalescingDispatcher d = new CoalescingDispatcher("test", 4, 0);
+        ThreadingUtil.runOnLayout(() -> {
+            for (int i = 0; i < 10; i++) {
+                final int value = i;
+                d.dispatch(() -> {
+                    results.add(value);
+                });
+            }
+        });
+        JUnitUtil.waitFor(() -> {
+            return results.size() == 10;
+        }, "all actions run");
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i, (int) results.get(i));
+        }
+        Assert.assertEquals(3, d.getBatchCount());
+        Assert.assertEquals(7, d.getMergedCount());
+        Assert.assertEquals(0, d.getPendingCount());
+    }
+
+    @Test
+    public void testExceptionDoesNotStopBatch() {
+        CoalescingDispatcher d = new CoalescingDispatcher("test");
+        ThreadingUtil.runOnLayout(() -> {
+            d.dispatch(() -> {
+                throw new IllegalStateException("test");
+            });
+            d.dispatch(() -> {
+                results.add(1);
+            });
+        });
+        JUnitUtil.waitFor(() -> {
+            return results.size() == 1;
+        }, "second action run");
+        JUnitAppender.assertErrorMessage("test: unexpected exception in dispatched action");
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+
+}
@@ -14,6 +14,7 @@ import org.junit.runners.Suite;
         PreferNumericComparatorTest.class,
         StringUtilTest.class,
         ThreadingUtilTest.class,
+        CoalescingDispatcherTest.class,
         ThreadingDemoAndTest.class,
         I18NTest.class,
         AlphanumComparatorTest.class,
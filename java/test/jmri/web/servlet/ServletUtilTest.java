@@ -50,6 +50,26 @@ public class ServletUtilTest {
         Mockito.verify(response).setHeader("Pragma", "no-cache");
     }
 
+    @Test
+    public void testIsNotModified() {
+        ServletUtil instance = new ServletUtil();
+        Assert.assertFalse("no header", instance.isNotModified(null, "\"a\""));
+        Assert.assertTrue("match", instance.isNotModified("\"a\"", "\"a\""));
+        Assert.assertFalse("no match", instance.isNotModified("\"a\"", "\"b\""));
+        Assert.assertTrue("match in list", instance.isNotModified("\"b\", W/\"a\"", "\"a\""));
+        Assert.assertTrue("match any", instance.isNotModified("*", "\"c\""));
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        ServletUtil instance = new ServletUtil();
+        Assert.assertFalse("no header", instance.acceptsGzip(null));
+        Assert.assertTrue("gzip", instance.acceptsGzip("gzip, deflate"));
+        Assert.assertTrue("gzip weighted", instance.acceptsGzip("deflate, GZIP;q=0.5"));
+        Assert.assertFalse("gzip refused", instance.acceptsGzip("gzip;q=0, deflate"));
+        Assert.assertFalse("no gzip", instance.acceptsGzip("identity"));
+    }
+
     @Test
     public void testGetTitle() {
         ServletUtil instance = new ServletUtil();
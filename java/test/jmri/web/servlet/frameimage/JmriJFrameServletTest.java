@@ -1,7 +1,14 @@
 package jmri.web.servlet.frameimage;
 
+import java.awt.Color;
+import java.awt.Container;
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.RepaintManager;
 import jmri.util.JUnitUtil;
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -53,6 +60,51 @@ public class JmriJFrameServletTest extends TestCase {
 
     }
 
+    public void testFrameImageCache() throws IOException {
+        FrameImageCache cache = new FrameImageCache();
+        JPanel panel = new JPanel();
+        panel.setSize(20, 10);
+        panel.setBackground(Color.RED);
+        FrameImageCache.FrameImage image = cache.getImage(panel);
+        Assert.assertTrue("encoded", image.getPng().length > 0);
+        Assert.assertEquals("encoded once", 1, cache.getEncoded());
+        // the panel isn't in a window, so it is painted again but not encoded again
+        FrameImageCache.FrameImage again = cache.getImage(panel);
+        Assert.assertEquals("same tag", image.getETag(), again.getETag());
+        Assert.assertSame("same png", image.getPng(), again.getPng());
+        Assert.assertEquals("still encoded once", 1, cache.getEncoded());
+        panel.setBackground(Color.BLUE);
+        again = cache.getImage(panel);
+        Assert.assertNotEquals("new tag", image.getETag(), again.getETag());
+        Assert.assertEquals("encoded twice", 2, cache.getEncoded());
+        panel.setSize(30, 10);
+        Assert.assertNotEquals("resized", again.getETag(), cache.getImage(panel).getETag());
+    }
+
+    public void testFrameImageCacheRepaintManagerReplaced() throws IOException {
+        if (GraphicsEnvironment.isHeadless()) {
+            return; // Can't assume in TestCase
+        }
+        RepaintManager.setCurrentManager(null); // the default, so repaints are tracked
+        FrameImageCache cache = new FrameImageCache();
+        JFrame frame = new JFrame();
+        try {
+            frame.setSize(40, 30);
+            Container pane = frame.getContentPane();
+            pane.setBackground(Color.RED);
+            FrameImageCache.FrameImage image = cache.getImage(pane);
+            Assert.assertSame("not repainted", image, cache.getImage(pane));
+            Assert.assertEquals("painted once", 1, cache.getRendered());
+            // as a look and feel might
+            RepaintManager.setCurrentManager(new RepaintManager());
+            pane.setBackground(Color.BLUE);
+            Assert.assertNotEquals("painted again", image.getETag(), cache.getImage(pane).getETag());
+        } finally {
+            frame.dispose();
+            RepaintManager.setCurrentManager(null);
+        }
+    }
+
     // local variant class to make access to private members
     private class JmriJFrameServlet_ut extends JmriJFrameServlet {
 
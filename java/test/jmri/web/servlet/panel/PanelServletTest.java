@@ -1,5 +1,11 @@
 package jmri.web.servlet.panel;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
 import jmri.util.JUnitUtil;
 import org.junit.After;
 import org.junit.Assert;
@@ -19,6 +25,20 @@ public class PanelServletTest {
         Assert.assertNotNull(a);
     }
 
+    @Test
+    public void testPanelDocument() throws IOException {
+        String text = "<panel name=\"Gr\u00fcn\"/>";
+        AbstractPanelServlet.PanelDocument document = new AbstractPanelServlet.PanelDocument(text, 1);
+        Assert.assertArrayEquals("UTF-8", text.getBytes(StandardCharsets.UTF_8), document.getBytes());
+        Assert.assertEquals("same tag", document.getETag(), new AbstractPanelServlet.PanelDocument(text, 2).getETag());
+        Assert.assertNotEquals("new tag", document.getETag(), new AbstractPanelServlet.PanelDocument("<panel/>", 1).getETag());
+        Assert.assertSame("compressed once", document.getGzippedBytes(), document.getGzippedBytes());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(document.getGzippedBytes()));
+                Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name())) {
+            Assert.assertEquals("uncompressed", text, scanner.useDelimiter("\\A").next());
+        }
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();